@@ -0,0 +1,27 @@
+package qslv.kstream.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * java -jar target/benchmarks.jar [jmh options]
+ *
+ * Runs the benchmarks with the GC profiler attached, so every result comes with
+ * gc.alloc.rate.norm, the bytes allocated per operation, next to ops/s.
+ * Without a benchmark pattern on the command line every benchmark in the module runs.
+ */
+public class BenchMain {
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		ChainedOptionsBuilder builder = new OptionsBuilder()
+				.parent(commandLine)
+				.addProfiler(GCProfiler.class);
+		if (commandLine.getIncludes().isEmpty())
+			builder.include(BenchMain.class.getPackage().getName() + ".*");
+		new Runner(builder.build()).run();
+	}
+}
@@ -0,0 +1,117 @@
+package qslv.kstream.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.itest.KafkaSerdeFactory;
+
+/**
+ * The same PostingRequest and LoggedTransaction payloads through each KafkaSerdeFactory mode, so the
+ * Jackson-Avro path can be compared with the generated SpecificRecord and hand-written binary codecs.
+ * JACKSON_AVRO uses the schema registry SerdeBenchmark.serdeConfig() picks and the topic names of
+ * SerdeBenchmark.topics().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+	private static final Logger log = LoggerFactory.getLogger(CodecBenchmark.class);
+
+	@Param({ "JACKSON_AVRO", "AVRO_SPECIFIC", "BINARY" })
+	String serdeMode;
+
+	Serializer<TraceableMessage<PostingRequest>> requestSerializer;
+	Deserializer<TraceableMessage<PostingRequest>> requestDeserializer;
+	Serializer<LoggedTransaction> transactionSerializer;
+	Deserializer<LoggedTransaction> transactionDeserializer;
+	Serializer<TraceableMessage<LoggedTransaction>> tracedTransactionSerializer;
+	Deserializer<TraceableMessage<LoggedTransaction>> tracedTransactionDeserializer;
+
+	TraceableMessage<PostingRequest> request;
+	LoggedTransaction transaction;
+	TraceableMessage<LoggedTransaction> tracedTransaction;
+
+	byte[] requestBytes;
+	byte[] transactionBytes;
+	byte[] tracedTransactionBytes;
+
+	String requestTopic;
+	String transactionTopic;
+	String tracedTransactionTopic;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		KafkaSerdeFactory serdes = new KafkaSerdeFactory(KafkaSerdeFactory.Mode.valueOf(serdeMode));
+		requestTopic = SerdeBenchmark.topics().getRequestTopic();
+		transactionTopic = SerdeBenchmark.topics().getReservationByUuidTopic();
+		tracedTransactionTopic = SerdeBenchmark.topics().getLoggedTransactionTopic();
+		requestSerializer = serdes.requestSerializer(SerdeBenchmark.serdeConfig());
+		requestDeserializer = serdes.requestDeserializer(SerdeBenchmark.serdeConfig());
+		transactionSerializer = serdes.transactionSerializer(SerdeBenchmark.serdeConfig());
+		transactionDeserializer = serdes.transactionDeserializer(SerdeBenchmark.serdeConfig());
+		tracedTransactionSerializer = serdes.tracedTransactionSerializer(SerdeBenchmark.serdeConfig());
+		tracedTransactionDeserializer = serdes.tracedTransactionDeserializer(SerdeBenchmark.serdeConfig());
+
+		request = Payloads.tracedPostingRequest();
+		transaction = Payloads.loggedTransaction();
+		tracedTransaction = Payloads.traceable(Payloads.loggedTransaction());
+
+		requestBytes = requestSerializer.serialize(requestTopic, request);
+		transactionBytes = transactionSerializer.serialize(transactionTopic, transaction);
+		tracedTransactionBytes = tracedTransactionSerializer.serialize(tracedTransactionTopic, tracedTransaction);
+		log.info("Record bytes {}: TraceableMessage<PostingRequest>={} LoggedTransaction={} TraceableMessage<LoggedTransaction>={}",
+				serdeMode, requestBytes.length, transactionBytes.length, tracedTransactionBytes.length);
+	}
+
+	@Benchmark
+	public byte[] serializePostingRequest() {
+		return requestSerializer.serialize(requestTopic, request);
+	}
+
+	@Benchmark
+	public TraceableMessage<PostingRequest> deserializePostingRequest() {
+		return requestDeserializer.deserialize(requestTopic, requestBytes);
+	}
+
+	@Benchmark
+	public byte[] serializeLoggedTransaction() {
+		return transactionSerializer.serialize(transactionTopic, transaction);
+	}
+
+	@Benchmark
+	public LoggedTransaction deserializeLoggedTransaction() {
+		return transactionDeserializer.deserialize(transactionTopic, transactionBytes);
+	}
+
+	@Benchmark
+	public byte[] serializeTracedLoggedTransaction() {
+		return tracedTransactionSerializer.serialize(tracedTransactionTopic, tracedTransaction);
+	}
+
+	@Benchmark
+	public TraceableMessage<LoggedTransaction> deserializeTracedLoggedTransaction() {
+		return tracedTransactionDeserializer.deserialize(tracedTransactionTopic, tracedTransactionBytes);
+	}
+}
@@ -0,0 +1,107 @@
+package qslv.kstream.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.itest.KafkaSerdeFactory;
+import qslv.kstream.itest.MetadataGenerator;
+
+/**
+ * Serialization cost of the request and of the LoggedTransaction the kstream copies jsonMetaData into,
+ * as the metadata grows. Setup logs record sizes and how far deflate shrinks the serialized request,
+ * a rough guide to what producer compression will get.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataBenchmark {
+	private static final Logger log = LoggerFactory.getLogger(MetadataBenchmark.class);
+
+	@Param({ "100", "1024", "4096", "16384", "65536" })
+	int metadataBytes;
+	@Param({ "FLAT", "NESTED" })
+	String shape;
+	@Param({ "JACKSON_AVRO" })
+	String serdeMode;
+
+	Serializer<TraceableMessage<PostingRequest>> requestSerializer;
+	Serializer<LoggedTransaction> transactionSerializer;
+	Deserializer<LoggedTransaction> transactionDeserializer;
+
+	TraceableMessage<PostingRequest> request;
+	LoggedTransaction transaction;
+	byte[] transactionBytes;
+
+	String requestTopic;
+	String transactionTopic;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		KafkaSerdeFactory serdes = new KafkaSerdeFactory(KafkaSerdeFactory.Mode.valueOf(serdeMode));
+		requestTopic = SerdeBenchmark.topics().getRequestTopic();
+		transactionTopic = SerdeBenchmark.topics().getReservationByUuidTopic();
+		requestSerializer = serdes.requestSerializer(SerdeBenchmark.serdeConfig());
+		transactionSerializer = serdes.transactionSerializer(SerdeBenchmark.serdeConfig());
+		transactionDeserializer = serdes.transactionDeserializer(SerdeBenchmark.serdeConfig());
+
+		String json = MetadataGenerator.generate(metadataBytes, MetadataGenerator.Shape.valueOf(shape), 1L);
+		request = Payloads.traceable(Payloads.postingRequest(json));
+		transaction = Payloads.loggedTransaction(json);
+
+		byte[] requestBytes = requestSerializer.serialize(requestTopic, request);
+		transactionBytes = transactionSerializer.serialize(transactionTopic, transaction);
+		log.info("Record bytes {} {} {}: metadata={} TraceableMessage<PostingRequest>={} (deflated {}) LoggedTransaction={}",
+				serdeMode, shape, metadataBytes, json.length(), requestBytes.length, deflated(requestBytes), transactionBytes.length);
+	}
+
+	@Benchmark
+	public byte[] serializePostingRequest() {
+		return requestSerializer.serialize(requestTopic, request);
+	}
+
+	@Benchmark
+	public byte[] serializeLoggedTransaction() {
+		return transactionSerializer.serialize(transactionTopic, transaction);
+	}
+
+	@Benchmark
+	public LoggedTransaction deserializeLoggedTransaction() {
+		return transactionDeserializer.deserialize(transactionTopic, transactionBytes);
+	}
+
+	private static int deflated(byte[] bytes) {
+		Deflater deflater = new Deflater();
+		deflater.setInput(bytes);
+		deflater.finish();
+		byte[] buffer = new byte[bytes.length + 64];
+		int length = 0;
+		while (!deflater.finished()) {
+			length += deflater.deflate(buffer);
+		}
+		deflater.end();
+		return length;
+	}
+}
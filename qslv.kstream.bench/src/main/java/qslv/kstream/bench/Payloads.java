@@ -0,0 +1,139 @@
+package qslv.kstream.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.data.BalanceLog;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+import qslv.kstream.ReservationRequest;
+import qslv.kstream.itest.CaptureLog;
+import qslv.kstream.workflow.WorkflowMessage;
+
+/**
+ * Sample messages shaped like the ones the itest harness produces and captures: a reservation
+ * request with the harness taxonomy id and JSON metadata, and the reservation it is answered with.
+ * The workflow message is one the kstream produced, taken from a capture log.
+ */
+public final class Payloads {
+
+	public static final String AIT_ID = "27834";
+	public static final String TEST_TAXONOMY_ID = "9.9.9.9.9";
+	public static final String JSON_DATA = "{\"value\": 234934}";
+	public static final String ACCOUNT_NUMBER = "123456789012";
+	public static final String CAPTURE_LOG_RUN = "qslv.capture-log-run";
+
+	// reads the JSON the capture log wrote with the harness's Spring Boot ObjectMapper
+	private static final ObjectMapper CAPTURED = new ObjectMapper().findAndRegisterModules()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	private Payloads() {
+	}
+
+	public static <T> TraceableMessage<T> traceable(T payload) {
+		TraceableMessage<T> traceable = new TraceableMessage<>();
+		traceable.setProducerAit(AIT_ID);
+		traceable.setBusinessTaxonomyId(TEST_TAXONOMY_ID);
+		traceable.setCorrelationId(UUID.randomUUID().toString());
+		traceable.setPayload(payload);
+		traceable.setMessageCreationTime(LocalDateTime.now());
+		return traceable;
+	}
+
+	public static PostingRequest postingRequest() {
+		return postingRequest(JSON_DATA);
+	}
+
+	public static PostingRequest postingRequest(String jsonMetaData) {
+		ReservationRequest request = new ReservationRequest();
+		request.setRequestUuid(UUID.randomUUID());
+		request.setAccountNumber(ACCOUNT_NUMBER);
+		request.setDebitCardNumber(null);
+		request.setTransactionAmount(-2323L);
+		request.setJsonMetaData(jsonMetaData);
+		return new PostingRequest(request);
+	}
+
+	public static TraceableMessage<PostingRequest> tracedPostingRequest() {
+		return traceable(postingRequest());
+	}
+
+	public static LoggedTransaction loggedTransaction() {
+		return loggedTransaction(JSON_DATA);
+	}
+
+	public static LoggedTransaction loggedTransaction(String jsonMetaData) {
+		LoggedTransaction transaction = new LoggedTransaction();
+		transaction.setTransactionUuid(UUID.randomUUID());
+		transaction.setRequestUuid(UUID.randomUUID());
+		transaction.setReservationUuid(null);
+		transaction.setAccountNumber(ACCOUNT_NUMBER);
+		transaction.setDebitCardNumber(null);
+		transaction.setTransactionTypeCode(LoggedTransaction.RESERVATION);
+		transaction.setTransactionAmount(-2323L);
+		transaction.setRunningBalanceAmount(999_997_677L);
+		transaction.setTransactionMetaDataJson(jsonMetaData);
+		return transaction;
+	}
+
+	public static ResponseMessage<PostingRequest,PostingResponse> responseMessage() {
+		TraceableMessage<PostingRequest> request = tracedPostingRequest();
+		List<LoggedTransaction> transactions = new ArrayList<>();
+		transactions.add(loggedTransaction());
+		PostingResponse posting = new PostingResponse();
+		posting.setTransactions(transactions);
+
+		ResponseMessage<PostingRequest,PostingResponse> response = new ResponseMessage<>();
+		response.setProducerAit(AIT_ID);
+		response.setBusinessTaxonomyId(TEST_TAXONOMY_ID);
+		response.setCorrelationId(request.getCorrelationId());
+		response.setMessageCreationTime(request.getMessageCreationTime());
+		response.setMessageCompletionTime(LocalDateTime.now());
+		response.setStatus(ResponseMessage.SUCCESS);
+		response.setRequest(request.getPayload());
+		response.setResponse(posting);
+		return response;
+	}
+
+	/**
+	 * The first workflow message a harness run captured on the topic, read from the capture log run
+	 * directory named by -Dqslv.capture-log-run. Only the kstream builds workflow messages, so one it built
+	 * for a real request is the sample; run an Itest_ class or a load run with qslv.capture-log-dir set
+	 * to record one.
+	 */
+	public static TraceableMessage<WorkflowMessage> tracedWorkflowMessage(String topic) {
+		String run = System.getProperty(CAPTURE_LOG_RUN);
+		if (run == null)
+			throw new IllegalStateException("Set -D" + CAPTURE_LOG_RUN + " to a capture log run directory holding " + topic);
+		AtomicReference<byte[]> first = new AtomicReference<>();
+		try {
+			CaptureLog.scan(Paths.get(run, topic), record -> first.compareAndSet(null, record.getPayload()));
+			if (first.get() == null)
+				throw new IllegalStateException("No " + topic + " records captured in " + run);
+			return CAPTURED.readValue(first.get(), new TypeReference<TraceableMessage<WorkflowMessage>>() { });
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	public static BalanceLog balanceLog() {
+		BalanceLog log = new BalanceLog();
+		log.setAccountNumber(ACCOUNT_NUMBER);
+		log.setLastTransaction(UUID.randomUUID());
+		log.setBalance(999_997_677L);
+		return log;
+	}
+}
@@ -0,0 +1,241 @@
+package qslv.kstream.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import qslv.common.kafka.JacksonAvroDeserializer;
+import qslv.common.kafka.JacksonAvroSerializer;
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.data.BalanceLog;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+import qslv.kstream.itest.ConfigProperties;
+import qslv.kstream.itest.MockSchemaRegistry;
+import qslv.kstream.workflow.WorkflowMessage;
+
+/**
+ * Serialize and deserialize each message type the way KafkaProducerConfig and KafkaListenerConfig wire them.
+ * The serializers register their schemas on first use, against -Dschema.registry.url when given and
+ * otherwise against an in-process MockSchemaRegistry. Each type is serialized against the topic it travels
+ * on, named in the itest's application.properties, so the registry subjects are the ones production
+ * registers. Setup serializes once, so the measured calls only hit the serde's schema cache, and logs
+ * the record sizes. The workflow message comes from a capture log, -Dqslv.capture-log-run; without one
+ * only the two workflow benchmarks fail.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerdeBenchmark {
+	private static final Logger log = LoggerFactory.getLogger(SerdeBenchmark.class);
+
+	JacksonAvroSerializer<TraceableMessage<PostingRequest>> requestSerializer;
+	JacksonAvroSerializer<ResponseMessage<PostingRequest,PostingResponse>> responseSerializer;
+	JacksonAvroSerializer<LoggedTransaction> transactionSerializer;
+	JacksonAvroSerializer<BalanceLog> balanceLogSerializer;
+
+	JacksonAvroDeserializer<TraceableMessage<PostingRequest>> requestDeserializer;
+	JacksonAvroDeserializer<ResponseMessage<PostingRequest,PostingResponse>> responseDeserializer;
+	JacksonAvroDeserializer<LoggedTransaction> transactionDeserializer;
+	JacksonAvroDeserializer<BalanceLog> balanceLogDeserializer;
+
+	TraceableMessage<PostingRequest> request;
+	ResponseMessage<PostingRequest,PostingResponse> response;
+	LoggedTransaction transaction;
+	BalanceLog balanceLog;
+
+	byte[] requestBytes;
+	byte[] responseBytes;
+	byte[] transactionBytes;
+	byte[] balanceLogBytes;
+
+	String requestTopic;
+	String responseTopic;
+	String transactionTopic;
+	String balanceLogTopic;
+
+	static MockSchemaRegistry mockRegistry;
+	static ConfigProperties topics;
+
+	static synchronized Map<String, Object> serdeConfig() {
+		String url = System.getProperty("schema.registry.url");
+		if (url == null) {
+			if (mockRegistry == null) {
+				try {
+					mockRegistry = new MockSchemaRegistry(0).start();
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}
+			url = mockRegistry.getUrl();
+		}
+		Map<String, Object> config = new HashMap<>();
+		config.put("schema.registry.url", url);
+		return config;
+	}
+
+	/**
+	 * The qslv.* topic names the itest runs with, read from its application.properties on the classpath.
+	 */
+	static synchronized ConfigProperties topics() {
+		if (topics == null) {
+			try {
+				Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+				topics = new Binder(new MapConfigurationPropertySource(properties)).bind("qslv", ConfigProperties.class)
+						.orElseGet(ConfigProperties::new);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+		return topics;
+	}
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Map<String, Object> config = serdeConfig();
+		requestTopic = topics().getRequestTopic();
+		responseTopic = topics().getResponseTopic();
+		transactionTopic = topics().getReservationByUuidTopic();
+		balanceLogTopic = topics().getBalanceLogStateStoreTopic();
+
+		requestSerializer = new JacksonAvroSerializer<>();
+		JavaType requestType = requestSerializer.getTypeFactory().constructParametricType(TraceableMessage.class, PostingRequest.class);
+		requestSerializer.configure(config, false, requestType);
+		responseSerializer = new JacksonAvroSerializer<>();
+		JavaType responseType = responseSerializer.getTypeFactory().constructParametricType(ResponseMessage.class,
+				PostingRequest.class, PostingResponse.class);
+		responseSerializer.configure(config, false, responseType);
+		transactionSerializer = new JacksonAvroSerializer<>();
+		transactionSerializer.configure(config, false);
+		balanceLogSerializer = new JacksonAvroSerializer<>();
+		balanceLogSerializer.configure(config, false);
+
+		requestDeserializer = new JacksonAvroDeserializer<>();
+		requestDeserializer.configure(config);
+		responseDeserializer = new JacksonAvroDeserializer<>();
+		responseDeserializer.configure(config);
+		transactionDeserializer = new JacksonAvroDeserializer<>();
+		transactionDeserializer.configure(config);
+		balanceLogDeserializer = new JacksonAvroDeserializer<>();
+		balanceLogDeserializer.configure(config);
+
+		request = Payloads.tracedPostingRequest();
+		response = Payloads.responseMessage();
+		transaction = Payloads.loggedTransaction();
+		balanceLog = Payloads.balanceLog();
+
+		requestBytes = requestSerializer.serialize(requestTopic, request);
+		responseBytes = responseSerializer.serialize(responseTopic, response);
+		transactionBytes = transactionSerializer.serialize(transactionTopic, transaction);
+		balanceLogBytes = balanceLogSerializer.serialize(balanceLogTopic, balanceLog);
+		log.info("Record bytes: TraceableMessage<PostingRequest>={} ResponseMessage<PostingRequest,PostingResponse>={} "
+				+ "LoggedTransaction={} BalanceLog={}",
+				requestBytes.length, responseBytes.length, transactionBytes.length, balanceLogBytes.length);
+	}
+
+	@Benchmark
+	public byte[] serializePostingRequest() {
+		return requestSerializer.serialize(requestTopic, request);
+	}
+
+	@Benchmark
+	public TraceableMessage<PostingRequest> deserializePostingRequest() {
+		return requestDeserializer.deserialize(requestTopic, requestBytes);
+	}
+
+	@Benchmark
+	public byte[] serializeResponseMessage() {
+		return responseSerializer.serialize(responseTopic, response);
+	}
+
+	@Benchmark
+	public ResponseMessage<PostingRequest,PostingResponse> deserializeResponseMessage() {
+		return responseDeserializer.deserialize(responseTopic, responseBytes);
+	}
+
+	/**
+	 * The workflow message the kstream produced for a real request, see Payloads.tracedWorkflowMessage.
+	 * Its own state, so the other benchmarks run without a capture log.
+	 */
+	@State(Scope.Thread)
+	public static class WorkflowPayload {
+		JacksonAvroSerializer<TraceableMessage<WorkflowMessage>> serializer;
+		JacksonAvroDeserializer<TraceableMessage<WorkflowMessage>> deserializer;
+		TraceableMessage<WorkflowMessage> message;
+		byte[] bytes;
+		String topic;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			Map<String, Object> config = serdeConfig();
+			topic = topics().getEnhancedRequestTopic();
+			serializer = new JacksonAvroSerializer<>();
+			JavaType type = serializer.getTypeFactory().constructParametricType(TraceableMessage.class, WorkflowMessage.class);
+			serializer.configure(config, false, type);
+			deserializer = new JacksonAvroDeserializer<>();
+			deserializer.configure(config);
+
+			message = Payloads.tracedWorkflowMessage(topic);
+			bytes = serializer.serialize(topic, message);
+			log.info("Record bytes: TraceableMessage<WorkflowMessage>={}", bytes.length);
+		}
+	}
+
+	@Benchmark
+	public byte[] serializeWorkflowMessage(WorkflowPayload workflow) {
+		return workflow.serializer.serialize(workflow.topic, workflow.message);
+	}
+
+	@Benchmark
+	public TraceableMessage<WorkflowMessage> deserializeWorkflowMessage(WorkflowPayload workflow) {
+		return workflow.deserializer.deserialize(workflow.topic, workflow.bytes);
+	}
+
+	@Benchmark
+	public byte[] serializeLoggedTransaction() {
+		return transactionSerializer.serialize(transactionTopic, transaction);
+	}
+
+	@Benchmark
+	public LoggedTransaction deserializeLoggedTransaction() {
+		return transactionDeserializer.deserialize(transactionTopic, transactionBytes);
+	}
+
+	@Benchmark
+	public byte[] serializeBalanceLog() {
+		return balanceLogSerializer.serialize(balanceLogTopic, balanceLog);
+	}
+
+	@Benchmark
+	public BalanceLog deserializeBalanceLog() {
+		return balanceLogDeserializer.deserialize(balanceLogTopic, balanceLogBytes);
+	}
+}
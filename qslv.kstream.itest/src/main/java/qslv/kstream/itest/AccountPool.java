@@ -0,0 +1,95 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import qslv.data.Account;
+import qslv.data.BalanceLog;
+
+/**
+ * Accounts a load run spreads its requests over. Each account is produced to the account topic
+ * with an opening balance before it is handed out.
+ */
+public class AccountPool {
+
+	// random numbers stay below the CaptureView, restore and distributed ranges
+	static final long RANDOM_RANGE_END = CaptureView.VIEW_RANGE_DIGIT * 100_000_000_000L;
+
+	private final KafkaProducerDao kafkaProducerDao;
+	private final long startingBalance;
+	private final long rangeStart;
+	private long nextInRange;
+	private volatile List<Account> accounts = new ArrayList<>();
+	private volatile int activeSize = 0;
+
+	public AccountPool(KafkaProducerDao kafkaProducerDao, long startingBalance) {
+		this(kafkaProducerDao, startingBalance, -1L);
+	}
+
+	/**
+	 * @param rangeStart first account number to allocate, so distributed nodes can hold disjoint ranges. -1 for random numbers.
+	 */
+	public AccountPool(KafkaProducerDao kafkaProducerDao, long startingBalance, long rangeStart) {
+		this.kafkaProducerDao = kafkaProducerDao;
+		this.startingBalance = startingBalance;
+		this.rangeStart = rangeStart;
+		this.nextInRange = rangeStart;
+	}
+
+	/**
+	 * Growing produces the new accounts; shrinking only narrows the accounts handed out.
+	 * @throws IllegalArgumentException when size is less than one, random() would have nothing to hand out.
+	 */
+	public synchronized void resize(int size) {
+		if (size < 1)
+			throw new IllegalArgumentException("Account pool size must be at least 1, was " + size);
+		if (size > accounts.size()) {
+			List<Account> grown = new ArrayList<>(accounts);
+			while (grown.size() < size) {
+				grown.add(createAccount(newAccountNumber()));
+			}
+			accounts = grown;
+		}
+		activeSize = size;
+	}
+
+	public Account random() {
+		List<Account> current = accounts;
+		int size = Math.min(activeSize, current.size());
+		return current.get(ThreadLocalRandom.current().nextInt(size));
+	}
+
+	/**
+	 * The accounts currently handed out, in creation order.
+	 */
+	public List<Account> active() {
+		List<Account> current = accounts;
+		return new ArrayList<>(current.subList(0, Math.min(activeSize, current.size())));
+	}
+
+	public int size() {
+		return Math.min(activeSize, accounts.size());
+	}
+
+	protected String newAccountNumber() {
+		if (rangeStart < 0L)
+			return String.format("%012d", ThreadLocalRandom.current().nextLong(RANDOM_RANGE_END));
+		return String.format("%012d", nextInRange++);
+	}
+
+	private Account createAccount(String accountNumber) {
+		Account account = new Account();
+		account.setAccountLifeCycleStatus("EF");
+		account.setAccountNumber(accountNumber);
+		kafkaProducerDao.produceAccount(account);
+
+		BalanceLog log = new BalanceLog();
+		log.setAccountNumber(accountNumber);
+		log.setLastTransaction(UUID.randomUUID());
+		log.setBalance(startingBalance);
+		kafkaProducerDao.produceBalanceLog(log);
+		return account;
+	}
+}
@@ -0,0 +1,274 @@
+package qslv.kstream.itest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.errors.SerializationException;
+
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.CancelReservationRequest;
+import qslv.kstream.CommitReservationRequest;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.ReservationRequest;
+import qslv.kstream.TransactionRequest;
+import qslv.kstream.itest.avro.AvroCancelReservationRequest;
+import qslv.kstream.itest.avro.AvroCommitReservationRequest;
+import qslv.kstream.itest.avro.AvroLoggedTransaction;
+import qslv.kstream.itest.avro.AvroReservationRequest;
+import qslv.kstream.itest.avro.AvroTraceableLoggedTransaction;
+import qslv.kstream.itest.avro.AvroTraceablePostingRequest;
+import qslv.kstream.itest.avro.AvroTransactionRequest;
+
+/**
+ * Codecs over the SpecificRecord classes generated from src/main/avro. Plain Avro binary with the writer
+ * schema fixed at build time, so there is no registry lookup and no schema id prefix; the domain objects
+ * are copied into and out of the generated records. Transfer requests are not supported.
+ */
+public final class AvroSpecificCodecs {
+
+	public static final MessageCodec<TraceableMessage<PostingRequest>> TRACEABLE_POSTING_REQUEST =
+			new SpecificCodec<TraceableMessage<PostingRequest>, AvroTraceablePostingRequest>(AvroTraceablePostingRequest.class) {
+		@Override
+		AvroTraceablePostingRequest toRecord(TraceableMessage<PostingRequest> message) {
+			return AvroTraceablePostingRequest.newBuilder()
+					.setProducerAit(message.getProducerAit())
+					.setBusinessTaxonomyId(message.getBusinessTaxonomyId())
+					.setCorrelationId(message.getCorrelationId())
+					.setMessageCreationTime(toMicros(message.getMessageCreationTime()))
+					.setPayload(toRecord(message.getPayload()))
+					.build();
+		}
+
+		@Override
+		TraceableMessage<PostingRequest> fromRecord(AvroTraceablePostingRequest record) {
+			TraceableMessage<PostingRequest> message = new TraceableMessage<>();
+			message.setProducerAit(record.getProducerAit());
+			message.setBusinessTaxonomyId(record.getBusinessTaxonomyId());
+			message.setCorrelationId(record.getCorrelationId());
+			message.setMessageCreationTime(fromMicros(record.getMessageCreationTime()));
+			message.setPayload(fromRecord(record.getPayload()));
+			return message;
+		}
+	};
+
+	public static final MessageCodec<LoggedTransaction> LOGGED_TRANSACTION =
+			new SpecificCodec<LoggedTransaction, AvroLoggedTransaction>(AvroLoggedTransaction.class) {
+		@Override
+		AvroLoggedTransaction toRecord(LoggedTransaction transaction) {
+			return toTransactionRecord(transaction);
+		}
+
+		@Override
+		LoggedTransaction fromRecord(AvroLoggedTransaction record) {
+			return fromTransactionRecord(record);
+		}
+	};
+
+	public static final MessageCodec<TraceableMessage<LoggedTransaction>> TRACEABLE_LOGGED_TRANSACTION =
+			new SpecificCodec<TraceableMessage<LoggedTransaction>, AvroTraceableLoggedTransaction>(AvroTraceableLoggedTransaction.class) {
+		@Override
+		AvroTraceableLoggedTransaction toRecord(TraceableMessage<LoggedTransaction> message) {
+			return AvroTraceableLoggedTransaction.newBuilder()
+					.setProducerAit(message.getProducerAit())
+					.setBusinessTaxonomyId(message.getBusinessTaxonomyId())
+					.setCorrelationId(message.getCorrelationId())
+					.setMessageCreationTime(toMicros(message.getMessageCreationTime()))
+					.setPayload(toTransactionRecord(message.getPayload()))
+					.build();
+		}
+
+		@Override
+		TraceableMessage<LoggedTransaction> fromRecord(AvroTraceableLoggedTransaction record) {
+			TraceableMessage<LoggedTransaction> message = new TraceableMessage<>();
+			message.setProducerAit(record.getProducerAit());
+			message.setBusinessTaxonomyId(record.getBusinessTaxonomyId());
+			message.setCorrelationId(record.getCorrelationId());
+			message.setMessageCreationTime(fromMicros(record.getMessageCreationTime()));
+			message.setPayload(fromTransactionRecord(record.getPayload()));
+			return message;
+		}
+	};
+
+	private AvroSpecificCodecs() {
+	}
+
+	private abstract static class SpecificCodec<T, R extends SpecificRecord> implements MessageCodec<T> {
+		private final SpecificDatumWriter<R> writer;
+		private final SpecificDatumReader<R> reader;
+
+		SpecificCodec(Class<R> type) {
+			writer = new SpecificDatumWriter<>(type);
+			reader = new SpecificDatumReader<>(type);
+		}
+
+		abstract R toRecord(T message);
+		abstract T fromRecord(R record);
+
+		@Override
+		public byte[] encode(T message) {
+			try {
+				ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+				BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+				writer.write(toRecord(message), encoder);
+				encoder.flush();
+				return out.toByteArray();
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		@Override
+		public T decode(byte[] data) {
+			try {
+				BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, null);
+				return fromRecord(reader.read(null, decoder));
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+	}
+
+	private static Object toRecord(PostingRequest request) {
+		if (request.hasReservationRequest()) {
+			ReservationRequest reservation = request.getReservationRequest();
+			return AvroReservationRequest.newBuilder()
+					.setRequestUuid(toString(reservation.getRequestUuid()))
+					.setAccountNumber(reservation.getAccountNumber())
+					.setDebitCardNumber(reservation.getDebitCardNumber())
+					.setTransactionAmount(reservation.getTransactionAmount())
+					.setJsonMetaData(reservation.getJsonMetaData())
+					.build();
+		}
+		if (request.hasTransactionRequest()) {
+			TransactionRequest transaction = request.getTransactionRequest();
+			return AvroTransactionRequest.newBuilder()
+					.setRequestUuid(toString(transaction.getRequestUuid()))
+					.setAccountNumber(transaction.getAccountNumber())
+					.setDebitCardNumber(transaction.getDebitCardNumber())
+					.setTransactionAmount(transaction.getTransactionAmount())
+					.setJsonMetaData(transaction.getJsonMetaData())
+					.setAuthorizeAgainstBalance(transaction.isAuthorizeAgainstBalance())
+					.setProtectAgainstOverdraft(transaction.isProtectAgainstOverdraft())
+					.build();
+		}
+		if (request.hasCommitReservationRequest()) {
+			CommitReservationRequest commit = request.getCommitReservationRequest();
+			return AvroCommitReservationRequest.newBuilder()
+					.setRequestUuid(toString(commit.getRequestUuid()))
+					.setAccountNumber(commit.getAccountNumber())
+					.setReservationUuid(toString(commit.getReservationUuid()))
+					.setTransactionAmount(commit.getTransactionAmount())
+					.setJsonMetaData(commit.getJsonMetaData())
+					.build();
+		}
+		if (request.hasCancelReservationRequest()) {
+			CancelReservationRequest cancel = request.getCancelReservationRequest();
+			return AvroCancelReservationRequest.newBuilder()
+					.setRequestUuid(toString(cancel.getRequestUuid()))
+					.setAccountNumber(cancel.getAccountNumber())
+					.setReservationUuid(toString(cancel.getReservationUuid()))
+					.setJsonMetaData(cancel.getJsonMetaData())
+					.build();
+		}
+		throw new SerializationException("Avro specific codec does not carry this posting request type");
+	}
+
+	private static PostingRequest fromRecord(Object payload) {
+		if (payload instanceof AvroReservationRequest) {
+			AvroReservationRequest record = (AvroReservationRequest) payload;
+			ReservationRequest reservation = new ReservationRequest();
+			reservation.setRequestUuid(toUuid(record.getRequestUuid()));
+			reservation.setAccountNumber(record.getAccountNumber());
+			reservation.setDebitCardNumber(record.getDebitCardNumber());
+			reservation.setTransactionAmount(record.getTransactionAmount());
+			reservation.setJsonMetaData(record.getJsonMetaData());
+			return new PostingRequest(reservation);
+		}
+		if (payload instanceof AvroTransactionRequest) {
+			AvroTransactionRequest record = (AvroTransactionRequest) payload;
+			TransactionRequest transaction = new TransactionRequest();
+			transaction.setRequestUuid(toUuid(record.getRequestUuid()));
+			transaction.setAccountNumber(record.getAccountNumber());
+			transaction.setDebitCardNumber(record.getDebitCardNumber());
+			transaction.setTransactionAmount(record.getTransactionAmount());
+			transaction.setJsonMetaData(record.getJsonMetaData());
+			transaction.setAuthorizeAgainstBalance(record.getAuthorizeAgainstBalance());
+			transaction.setProtectAgainstOverdraft(record.getProtectAgainstOverdraft());
+			return new PostingRequest(transaction);
+		}
+		if (payload instanceof AvroCommitReservationRequest) {
+			AvroCommitReservationRequest record = (AvroCommitReservationRequest) payload;
+			CommitReservationRequest commit = new CommitReservationRequest();
+			commit.setRequestUuid(toUuid(record.getRequestUuid()));
+			commit.setAccountNumber(record.getAccountNumber());
+			commit.setReservationUuid(toUuid(record.getReservationUuid()));
+			commit.setTransactionAmount(record.getTransactionAmount());
+			commit.setJsonMetaData(record.getJsonMetaData());
+			return new PostingRequest(commit);
+		}
+		AvroCancelReservationRequest record = (AvroCancelReservationRequest) payload;
+		CancelReservationRequest cancel = new CancelReservationRequest();
+		cancel.setRequestUuid(toUuid(record.getRequestUuid()));
+		cancel.setAccountNumber(record.getAccountNumber());
+		cancel.setReservationUuid(toUuid(record.getReservationUuid()));
+		cancel.setJsonMetaData(record.getJsonMetaData());
+		return new PostingRequest(cancel);
+	}
+
+	private static AvroLoggedTransaction toTransactionRecord(LoggedTransaction transaction) {
+		return AvroLoggedTransaction.newBuilder()
+				.setTransactionUuid(toString(transaction.getTransactionUuid()))
+				.setRequestUuid(toString(transaction.getRequestUuid()))
+				.setReservationUuid(toString(transaction.getReservationUuid()))
+				.setAccountNumber(transaction.getAccountNumber())
+				.setDebitCardNumber(transaction.getDebitCardNumber())
+				.setTransactionTypeCode(transaction.getTransactionTypeCode())
+				.setTransactionAmount(transaction.getTransactionAmount())
+				.setRunningBalanceAmount(transaction.getRunningBalanceAmount())
+				.setTransactionMetaDataJson(transaction.getTransactionMetaDataJson())
+				.setTransactionTime(toMicros(transaction.getTransactionTime()))
+				.build();
+	}
+
+	private static LoggedTransaction fromTransactionRecord(AvroLoggedTransaction record) {
+		LoggedTransaction transaction = new LoggedTransaction();
+		transaction.setTransactionUuid(toUuid(record.getTransactionUuid()));
+		transaction.setRequestUuid(toUuid(record.getRequestUuid()));
+		transaction.setReservationUuid(toUuid(record.getReservationUuid()));
+		transaction.setAccountNumber(record.getAccountNumber());
+		transaction.setDebitCardNumber(record.getDebitCardNumber());
+		transaction.setTransactionTypeCode(record.getTransactionTypeCode());
+		transaction.setTransactionAmount(record.getTransactionAmount());
+		transaction.setRunningBalanceAmount(record.getRunningBalanceAmount());
+		transaction.setTransactionMetaDataJson(record.getTransactionMetaDataJson());
+		transaction.setTransactionTime(fromMicros(record.getTransactionTime()));
+		return transaction;
+	}
+
+	private static String toString(UUID uuid) {
+		return uuid == null ? null : uuid.toString();
+	}
+
+	private static UUID toUuid(String uuid) {
+		return uuid == null ? null : UUID.fromString(uuid);
+	}
+
+	private static Long toMicros(LocalDateTime time) {
+		return time == null ? null : BinaryCodecs.toEpochMicros(time);
+	}
+
+	private static LocalDateTime fromMicros(Long micros) {
+		return micros == null ? null : BinaryCodecs.fromEpochMicros(micros);
+	}
+}
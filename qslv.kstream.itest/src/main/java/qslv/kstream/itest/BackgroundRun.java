@@ -0,0 +1,93 @@
+package qslv.kstream.itest;
+
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * A benchmark run, started in the background and followed through report(), or run on the caller's thread.
+ * The run holds the HarnessLock from start to finish, so it never shares the kstream with another, and
+ * keeps the capture queues suspended throughout, since nothing drains them while it produces accounts
+ * and requests. Subclasses only create the report and do the work.
+ */
+public abstract class BackgroundRun<S, R extends RunReport<S>> {
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	@Autowired
+	HarnessLock harnessLock;
+	@Autowired
+	KafkaStreamsOutputListener outputListener;
+
+	private final String name;
+	private volatile R report = null;
+
+	protected BackgroundRun(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Runs in the background; follow it through report().
+	 */
+	public synchronized R start(S settings) {
+		HarnessLock.Lease lease = harnessLock.acquire(name);
+		R started = begin(settings, lease);
+		Thread thread = new Thread(() -> perform(started, lease), "qslv-" + name.toLowerCase(Locale.ROOT).replace(' ', '-') + "-run");
+		thread.setDaemon(true);
+		thread.start();
+		return started;
+	}
+
+	public R run(S settings) {
+		HarnessLock.Lease lease;
+		R started;
+		synchronized (this) {
+			lease = harnessLock.acquire(name);
+			started = begin(settings, lease);
+		}
+		perform(started, lease);
+		return started;
+	}
+
+	public R report() {
+		return report;
+	}
+
+	/**
+	 * Check the settings and create the report of a new run.
+	 *
+	 * @throws org.springframework.web.server.ResponseStatusException BAD_REQUEST for settings the run cannot use.
+	 */
+	protected abstract R newReport(S settings);
+
+	/**
+	 * The work of the run. Whatever it throws marks the report failed.
+	 *
+	 * @param lease to hand to LoadRunner or WorkloadRunner when the run drives them.
+	 */
+	protected abstract void execute(R report, HarnessLock.Lease lease) throws Exception;
+
+	private R begin(S settings, HarnessLock.Lease lease) {
+		try {
+			report = newReport(settings);
+			return report;
+		} catch (RuntimeException ex) {
+			lease.close();
+			throw ex;
+		}
+	}
+
+	private void perform(R report, HarnessLock.Lease lease) {
+		try (HarnessLock.Lease held = lease; KafkaStreamsOutputListener.QueueingSuspension queueing = outputListener.suspendQueueing()) {
+			execute(report, lease);
+		} catch (Exception ex) {
+			log.warn("{} run failed. {}", name, ex.toString());
+			report.failed(ex);
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package qslv.kstream.itest;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * POST start and GET report of a BackgroundRun. Subclasses map it under a path of their own; the run
+ * is the bean whose settings and report types match theirs.
+ */
+public abstract class BackgroundRunController<S, R extends RunReport<S>> {
+
+	@Autowired
+	BackgroundRun<S, R> backgroundRun;
+
+	@PostMapping("/start")
+	public R start(@RequestBody S settings) {
+		return backgroundRun.start(settings);
+	}
+
+	@GetMapping("/report")
+	public R report() {
+		R report = backgroundRun.report();
+		if (report == null)
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No " + backgroundRun.getName().toLowerCase(Locale.ROOT) + " run");
+		return report;
+	}
+}
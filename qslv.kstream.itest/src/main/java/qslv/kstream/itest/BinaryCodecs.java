@@ -0,0 +1,365 @@
+package qslv.kstream.itest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.CancelReservationRequest;
+import qslv.kstream.CommitReservationRequest;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.ReservationRequest;
+import qslv.kstream.TransactionRequest;
+
+/**
+ * Hand-written binary codecs for the busiest payloads. No schema registry and no field names on the
+ * wire: a version byte, then fields in a fixed order. Longs are zig-zag varints, strings are a varint
+ * length + 1 (0 for null) and UTF-8, uuids a presence byte and 16 bytes, times epoch microseconds UTC.
+ *
+ * Only the fields the harness sets are carried; transfer requests are not supported.
+ */
+public final class BinaryCodecs {
+
+	private static final byte VERSION = 1;
+
+	private static final byte RESERVATION = 1;
+	private static final byte TRANSACTION = 2;
+	private static final byte COMMIT = 3;
+	private static final byte CANCEL = 4;
+
+	public static final MessageCodec<TraceableMessage<PostingRequest>> TRACEABLE_POSTING_REQUEST = new MessageCodec<TraceableMessage<PostingRequest>>() {
+		@Override
+		public byte[] encode(TraceableMessage<PostingRequest> message) {
+			Writer writer = new Writer(192);
+			writer.writeByte(VERSION);
+			writeEnvelope(writer, message);
+			writePostingRequest(writer, message.getPayload());
+			return writer.toByteArray();
+		}
+
+		@Override
+		public TraceableMessage<PostingRequest> decode(byte[] data) {
+			Reader reader = new Reader(data);
+			reader.readVersion();
+			TraceableMessage<PostingRequest> message = new TraceableMessage<>();
+			readEnvelope(reader, message);
+			message.setPayload(readPostingRequest(reader));
+			return message;
+		}
+	};
+
+	public static final MessageCodec<LoggedTransaction> LOGGED_TRANSACTION = new MessageCodec<LoggedTransaction>() {
+		@Override
+		public byte[] encode(LoggedTransaction transaction) {
+			Writer writer = new Writer(160);
+			writer.writeByte(VERSION);
+			writeLoggedTransaction(writer, transaction);
+			return writer.toByteArray();
+		}
+
+		@Override
+		public LoggedTransaction decode(byte[] data) {
+			Reader reader = new Reader(data);
+			reader.readVersion();
+			return readLoggedTransaction(reader);
+		}
+	};
+
+	public static final MessageCodec<TraceableMessage<LoggedTransaction>> TRACEABLE_LOGGED_TRANSACTION = new MessageCodec<TraceableMessage<LoggedTransaction>>() {
+		@Override
+		public byte[] encode(TraceableMessage<LoggedTransaction> message) {
+			Writer writer = new Writer(224);
+			writer.writeByte(VERSION);
+			writeEnvelope(writer, message);
+			writeLoggedTransaction(writer, message.getPayload());
+			return writer.toByteArray();
+		}
+
+		@Override
+		public TraceableMessage<LoggedTransaction> decode(byte[] data) {
+			Reader reader = new Reader(data);
+			reader.readVersion();
+			TraceableMessage<LoggedTransaction> message = new TraceableMessage<>();
+			readEnvelope(reader, message);
+			message.setPayload(readLoggedTransaction(reader));
+			return message;
+		}
+	};
+
+	private BinaryCodecs() {
+	}
+
+	private static void writeEnvelope(Writer writer, TraceableMessage<?> message) {
+		writer.writeString(message.getProducerAit());
+		writer.writeString(message.getBusinessTaxonomyId());
+		writer.writeString(message.getCorrelationId());
+		writer.writeTime(message.getMessageCreationTime());
+	}
+
+	private static void readEnvelope(Reader reader, TraceableMessage<?> message) {
+		message.setProducerAit(reader.readString());
+		message.setBusinessTaxonomyId(reader.readString());
+		message.setCorrelationId(reader.readString());
+		message.setMessageCreationTime(reader.readTime());
+	}
+
+	private static void writePostingRequest(Writer writer, PostingRequest request) {
+		if (request.hasReservationRequest()) {
+			ReservationRequest reservation = request.getReservationRequest();
+			writer.writeByte(RESERVATION);
+			writer.writeUuid(reservation.getRequestUuid());
+			writer.writeString(reservation.getAccountNumber());
+			writer.writeString(reservation.getDebitCardNumber());
+			writer.writeLong(reservation.getTransactionAmount());
+			writer.writeString(reservation.getJsonMetaData());
+		} else if (request.hasTransactionRequest()) {
+			TransactionRequest transaction = request.getTransactionRequest();
+			writer.writeByte(TRANSACTION);
+			writer.writeUuid(transaction.getRequestUuid());
+			writer.writeString(transaction.getAccountNumber());
+			writer.writeString(transaction.getDebitCardNumber());
+			writer.writeLong(transaction.getTransactionAmount());
+			writer.writeString(transaction.getJsonMetaData());
+			writer.writeByte((byte) ((transaction.isAuthorizeAgainstBalance() ? 1 : 0) | (transaction.isProtectAgainstOverdraft() ? 2 : 0)));
+		} else if (request.hasCommitReservationRequest()) {
+			CommitReservationRequest commit = request.getCommitReservationRequest();
+			writer.writeByte(COMMIT);
+			writer.writeUuid(commit.getRequestUuid());
+			writer.writeString(commit.getAccountNumber());
+			writer.writeUuid(commit.getReservationUuid());
+			writer.writeLong(commit.getTransactionAmount());
+			writer.writeString(commit.getJsonMetaData());
+		} else if (request.hasCancelReservationRequest()) {
+			CancelReservationRequest cancel = request.getCancelReservationRequest();
+			writer.writeByte(CANCEL);
+			writer.writeUuid(cancel.getRequestUuid());
+			writer.writeString(cancel.getAccountNumber());
+			writer.writeUuid(cancel.getReservationUuid());
+			writer.writeString(cancel.getJsonMetaData());
+		} else {
+			throw new SerializationException("Binary codec does not carry this posting request type");
+		}
+	}
+
+	private static PostingRequest readPostingRequest(Reader reader) {
+		byte type = reader.readByte();
+		switch (type) {
+		case RESERVATION:
+			ReservationRequest reservation = new ReservationRequest();
+			reservation.setRequestUuid(reader.readUuid());
+			reservation.setAccountNumber(reader.readString());
+			reservation.setDebitCardNumber(reader.readString());
+			reservation.setTransactionAmount(reader.readLong());
+			reservation.setJsonMetaData(reader.readString());
+			return new PostingRequest(reservation);
+		case TRANSACTION:
+			TransactionRequest transaction = new TransactionRequest();
+			transaction.setRequestUuid(reader.readUuid());
+			transaction.setAccountNumber(reader.readString());
+			transaction.setDebitCardNumber(reader.readString());
+			transaction.setTransactionAmount(reader.readLong());
+			transaction.setJsonMetaData(reader.readString());
+			byte flags = reader.readByte();
+			transaction.setAuthorizeAgainstBalance((flags & 1) != 0);
+			transaction.setProtectAgainstOverdraft((flags & 2) != 0);
+			return new PostingRequest(transaction);
+		case COMMIT:
+			CommitReservationRequest commit = new CommitReservationRequest();
+			commit.setRequestUuid(reader.readUuid());
+			commit.setAccountNumber(reader.readString());
+			commit.setReservationUuid(reader.readUuid());
+			commit.setTransactionAmount(reader.readLong());
+			commit.setJsonMetaData(reader.readString());
+			return new PostingRequest(commit);
+		case CANCEL:
+			CancelReservationRequest cancel = new CancelReservationRequest();
+			cancel.setRequestUuid(reader.readUuid());
+			cancel.setAccountNumber(reader.readString());
+			cancel.setReservationUuid(reader.readUuid());
+			cancel.setJsonMetaData(reader.readString());
+			return new PostingRequest(cancel);
+		default:
+			throw new SerializationException("Unknown posting request type " + type);
+		}
+	}
+
+	private static void writeLoggedTransaction(Writer writer, LoggedTransaction transaction) {
+		writer.writeUuid(transaction.getTransactionUuid());
+		writer.writeUuid(transaction.getRequestUuid());
+		writer.writeUuid(transaction.getReservationUuid());
+		writer.writeString(transaction.getAccountNumber());
+		writer.writeString(transaction.getDebitCardNumber());
+		writer.writeString(transaction.getTransactionTypeCode());
+		writer.writeLong(transaction.getTransactionAmount());
+		writer.writeLong(transaction.getRunningBalanceAmount());
+		writer.writeString(transaction.getTransactionMetaDataJson());
+		writer.writeTime(transaction.getTransactionTime());
+	}
+
+	private static LoggedTransaction readLoggedTransaction(Reader reader) {
+		LoggedTransaction transaction = new LoggedTransaction();
+		transaction.setTransactionUuid(reader.readUuid());
+		transaction.setRequestUuid(reader.readUuid());
+		transaction.setReservationUuid(reader.readUuid());
+		transaction.setAccountNumber(reader.readString());
+		transaction.setDebitCardNumber(reader.readString());
+		transaction.setTransactionTypeCode(reader.readString());
+		transaction.setTransactionAmount(reader.readLong());
+		transaction.setRunningBalanceAmount(reader.readLong());
+		transaction.setTransactionMetaDataJson(reader.readString());
+		transaction.setTransactionTime(reader.readTime());
+		return transaction;
+	}
+
+	static long toEpochMicros(LocalDateTime time) {
+		return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000L;
+	}
+
+	static LocalDateTime fromEpochMicros(long micros) {
+		return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+	}
+
+	static final class Writer {
+		private byte[] buffer;
+		private int position = 0;
+
+		Writer(int initialSize) {
+			buffer = new byte[initialSize];
+		}
+
+		void writeByte(byte value) {
+			ensure(1);
+			buffer[position++] = value;
+		}
+
+		void writeLong(long value) {
+			writeVarLong((value << 1) ^ (value >> 63));
+		}
+
+		void writeString(String value) {
+			if (value == null) {
+				writeVarLong(0L);
+				return;
+			}
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeVarLong(bytes.length + 1L);
+			ensure(bytes.length);
+			System.arraycopy(bytes, 0, buffer, position, bytes.length);
+			position += bytes.length;
+		}
+
+		void writeUuid(UUID value) {
+			if (value == null) {
+				writeByte((byte) 0);
+				return;
+			}
+			writeByte((byte) 1);
+			writeFixedLong(value.getMostSignificantBits());
+			writeFixedLong(value.getLeastSignificantBits());
+		}
+
+		void writeTime(LocalDateTime value) {
+			if (value == null) {
+				writeByte((byte) 0);
+				return;
+			}
+			writeByte((byte) 1);
+			writeLong(toEpochMicros(value));
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(buffer, position);
+		}
+
+		private void writeVarLong(long value) {
+			ensure(10);
+			while ((value & ~0x7FL) != 0L) {
+				buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			buffer[position++] = (byte) value;
+		}
+
+		private void writeFixedLong(long value) {
+			ensure(8);
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				buffer[position++] = (byte) (value >>> shift);
+			}
+		}
+
+		private void ensure(int bytes) {
+			if (position + bytes > buffer.length)
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+		}
+	}
+
+	static final class Reader {
+		private final byte[] buffer;
+		private int position = 0;
+
+		Reader(byte[] buffer) {
+			this.buffer = buffer;
+		}
+
+		void readVersion() {
+			byte version = readByte();
+			if (version != VERSION)
+				throw new SerializationException("Unknown binary codec version " + version);
+		}
+
+		byte readByte() {
+			return buffer[position++];
+		}
+
+		long readLong() {
+			long raw = readVarLong();
+			return (raw >>> 1) ^ -(raw & 1L);
+		}
+
+		String readString() {
+			long length = readVarLong();
+			if (length == 0L)
+				return null;
+			String value = new String(buffer, position, (int) length - 1, StandardCharsets.UTF_8);
+			position += (int) length - 1;
+			return value;
+		}
+
+		UUID readUuid() {
+			if (readByte() == 0)
+				return null;
+			return new UUID(readFixedLong(), readFixedLong());
+		}
+
+		LocalDateTime readTime() {
+			if (readByte() == 0)
+				return null;
+			return fromEpochMicros(readLong());
+		}
+
+		private long readVarLong() {
+			long value = 0L;
+			int shift = 0;
+			byte current;
+			do {
+				current = buffer[position++];
+				value |= (long) (current & 0x7F) << shift;
+				shift += 7;
+			} while ((current & 0x80) != 0);
+			return value;
+		}
+
+		private long readFixedLong() {
+			long value = 0L;
+			for (int i = 0; i < 8; i++) {
+				value = (value << 8) | (buffer[position++] & 0xFFL);
+			}
+			return value;
+		}
+	}
+}
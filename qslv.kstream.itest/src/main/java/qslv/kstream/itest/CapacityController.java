@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /capacity/start   body CapacitySettings, runs in the background
+ * GET  /capacity/report  steps so far, and the capacity once complete
+ */
+@RestController
+@RequestMapping("/capacity")
+public class CapacityController extends BackgroundRunController<CapacitySettings, CapacityReport> {
+}
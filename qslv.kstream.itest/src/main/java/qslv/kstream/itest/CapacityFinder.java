@@ -0,0 +1,150 @@
+package qslv.kstream.itest;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Finds the highest request rate a kstream build sustains within a p99 SLO: raises the offered rate step by
+ * step until a step fails, then bisects between the last pass and the first failure. Capture and kstream
+ * lag are sampled every second of each measured window, so a rate the kstream only keeps up with by
+ * falling behind does not pass.
+ */
+@Component
+public class CapacityFinder extends BackgroundRun<CapacitySettings, CapacityReport> {
+	private static final Logger log = LoggerFactory.getLogger(CapacityFinder.class);
+
+	@Autowired
+	WorkloadRunner workloadRunner;
+	@Autowired
+	KafkaLagProbe lagProbe;
+	@Autowired
+	LoadRunner loadRunner;
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	ObjectMapper objectMapper;
+
+	public CapacityFinder() {
+		super("Capacity");
+	}
+
+	@Override
+	protected CapacityReport newReport(CapacitySettings settings) {
+		if (settings.getStartTps() <= 0.0 || settings.getGrowthFactor() <= 1.0)
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startTps must be positive and growthFactor above 1");
+		return new CapacityReport(settings);
+	}
+
+	@Override
+	protected void execute(CapacityReport report, HarnessLock.Lease lease) throws Exception {
+		CapacitySettings settings = report.getSettings();
+		double passed = 0.0;
+		double failed = 0.0;
+		for (double tps = settings.getStartTps(); tps <= settings.getMaxTps(); tps = grow(settings, tps)) {
+			if (step(report, tps, lease).isPassed()) {
+				passed = tps;
+			} else {
+				failed = tps;
+				break;
+			}
+		}
+		for (int i = 0; i < settings.getRefineSteps() && failed > 0.0 && passed > 0.0; i++) {
+			double tps = (passed + failed) / 2.0;
+			if (step(report, tps, lease).isPassed())
+				passed = tps;
+			else
+				failed = tps;
+		}
+		report.setState(CapacityReport.COMPLETE);
+		CapacityReport.Step knee = report.getKnee();
+		log.info("Capacity {} tps at p99 {}ms against an SLO of {}ms", report.getCapacityTps(),
+				knee == null ? null : knee.getResult().getP99Millis(), settings.getSloP99Millis());
+	}
+
+	/**
+	 * The step after tps, cut back to maxTps so the search tries maxTps itself; none once maxTps has been run.
+	 */
+	private static double grow(CapacitySettings settings, double tps) {
+		if (tps >= settings.getMaxTps())
+			return Double.POSITIVE_INFINITY;
+		return Math.min(tps * settings.getGrowthFactor(), settings.getMaxTps());
+	}
+
+	/**
+	 * Runs a copy of the scenario, so the settings in the report stay as they were posted.
+	 */
+	private CapacityReport.Step step(CapacityReport report, double tps, HarnessLock.Lease lease) throws Exception {
+		CapacitySettings settings = report.getSettings();
+		LoadScenario scenario = objectMapper.convertValue(settings.getScenario(), LoadScenario.class);
+		scenario.setTargetTps(tps);
+		AtomicLong captureLagMax = new AtomicLong();
+		AtomicLong kstreamLagMax = new AtomicLong();
+		ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "qslv-capacity-lag");
+			thread.setDaemon(true);
+			return thread;
+		});
+		sampler.scheduleAtFixedRate(() -> sampleLag(captureLagMax, kstreamLagMax), settings.getWarmupSeconds(), 1L, TimeUnit.SECONDS);
+		WorkloadResult result;
+		try {
+			result = workloadRunner.measure(scenario, settings.getWarmupSeconds(), settings.getMeasureSeconds(), lease);
+		} finally {
+			sampler.shutdownNow();
+		}
+
+		CapacityReport.Step step = report.add(result, captureLagMax.get(), kstreamLagMax.get(),
+				reason(settings, result, captureLagMax.get(), kstreamLagMax.get()));
+		log.info("Capacity step {}: {}", CapacityReport.CSV_HEADER, step.toCsv());
+		settle(settings);
+		return step;
+	}
+
+	private void sampleLag(AtomicLong captureLagMax, AtomicLong kstreamLagMax) {
+		try {
+			captureLagMax.accumulateAndGet(lagProbe.lag(config.captureGroupId(), config.outputTopics()), Math::max);
+			kstreamLagMax.accumulateAndGet(lagProbe.lag(config.getKstreamApplicationId(), Arrays.asList(config.getRequestTopic())), Math::max);
+		} catch (Exception ex) {
+			log.debug("Lag sample failed. {}", ex.toString());
+		}
+	}
+
+	private static String reason(CapacitySettings settings, WorkloadResult result, long captureLagMax, long kstreamLagMax) {
+		if (result.getCompleted() == 0L)
+			return "nothing completed";
+		if (result.getP99Millis() > settings.getSloP99Millis())
+			return String.format("p99 %.1fms over the SLO", result.getP99Millis());
+		if (result.getAchievedTps() < result.getTargetTps() * settings.getMinAchievedRatio())
+			return String.format("completed %.1f/s of %.1f/s", result.getAchievedTps(), result.getTargetTps());
+		if (result.getFailed() > 0L)
+			return result.getFailed() + " sends failed";
+		if (captureLagMax > settings.getMaxCaptureLag())
+			return "capture lag " + captureLagMax;
+		if (kstreamLagMax > settings.getMaxKstreamLag())
+			return "kstream lag " + kstreamLagMax;
+		return null;
+	}
+
+	/**
+	 * Lets the last step's stragglers come in so they are not counted against the next one. Those still
+	 * missing at the deadline are forgotten; only the load run's own requests are waited on.
+	 */
+	private void settle(CapacitySettings settings) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(settings.getSettleSeconds());
+		while (loadRunner.unanswered() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(500L);
+		}
+		loadRunner.forgetUnanswered();
+	}
+}
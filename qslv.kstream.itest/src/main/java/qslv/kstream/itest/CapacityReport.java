@@ -0,0 +1,80 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a capacity search, every step in the order run. capacityTps is the highest offered rate
+ * that passed, the single capacity number for the kstream build; 0 when even startTps failed.
+ */
+public class CapacityReport extends RunReport<CapacitySettings> {
+
+	public static final String CSV_HEADER = "targetTps,achievedTps,p50,p99,p999,failed,captureLagMax,kstreamLagMax,passed,reason";
+
+	public static class Step {
+		private final WorkloadResult result;
+		private final long captureLagMax;
+		private final long kstreamLagMax;
+		private final String reason;
+
+		Step(WorkloadResult result, long captureLagMax, long kstreamLagMax, String reason) {
+			this.result = result;
+			this.captureLagMax = captureLagMax;
+			this.kstreamLagMax = kstreamLagMax;
+			this.reason = reason;
+		}
+
+		public String toCsv() {
+			return String.format("%.1f,%.1f,%.2f,%.2f,%.2f,%d,%d,%d,%s,%s", result.getTargetTps(), result.getAchievedTps(),
+					result.getP50Millis(), result.getP99Millis(), result.getP999Millis(), result.getFailed(), captureLagMax,
+					kstreamLagMax, isPassed(), reason == null ? "" : reason);
+		}
+
+		public WorkloadResult getResult() {
+			return result;
+		}
+		public long getCaptureLagMax() {
+			return captureLagMax;
+		}
+		public long getKstreamLagMax() {
+			return kstreamLagMax;
+		}
+		public boolean isPassed() {
+			return reason == null;
+		}
+		/**
+		 * Why the step failed, null when it passed.
+		 */
+		public String getReason() {
+			return reason;
+		}
+	}
+
+	private final List<Step> steps = new ArrayList<>();
+	private Step knee;
+
+	public CapacityReport(CapacitySettings settings) {
+		super(settings, RUNNING);
+	}
+
+	synchronized Step add(WorkloadResult result, long captureLagMax, long kstreamLagMax, String reason) {
+		Step step = new Step(result, captureLagMax, kstreamLagMax, reason);
+		steps.add(step);
+		if (step.isPassed() && (knee == null || result.getTargetTps() > knee.result.getTargetTps()))
+			knee = step;
+		return step;
+	}
+
+	public synchronized List<Step> getSteps() {
+		return new ArrayList<>(steps);
+	}
+	/**
+	 * The passing step at the highest rate, null when none passed.
+	 */
+	public synchronized Step getKnee() {
+		return knee;
+	}
+	public synchronized double getCapacityTps() {
+		return knee == null ? 0.0 : knee.result.getTargetTps();
+	}
+}
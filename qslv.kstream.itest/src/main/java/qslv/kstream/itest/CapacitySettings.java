@@ -0,0 +1,98 @@
+package qslv.kstream.itest;
+
+/**
+ * A capacity search: the scenario is run at startTps, then at each rate growthFactor times the last, for
+ * warmupSeconds plus measureSeconds, until a step fails or maxTps is passed; refineSteps more steps then
+ * bisect between the last passing and the first failing rate. A step passes when its p99 is at most
+ * sloP99Millis, it completed at least minAchievedRatio of the offered rate, nothing failed to send, and
+ * neither the capture consumer nor the kstream fell more than maxCaptureLag or maxKstreamLag records behind.
+ * The last growth step is cut back to maxTps. Between steps the harness waits up to settleSeconds for
+ * outstanding responses.
+ */
+public class CapacitySettings {
+	private LoadScenario scenario = new LoadScenario();
+	private double startTps = 50.0;
+	private double growthFactor = 1.5;
+	private double maxTps = 50_000.0;
+	private int refineSteps = 3;
+	private double sloP99Millis = 250.0;
+	private double minAchievedRatio = 0.95;
+	private long maxCaptureLag = 10_000L;
+	private long maxKstreamLag = 10_000L;
+	private long warmupSeconds = 15L;
+	private long measureSeconds = 45L;
+	private long settleSeconds = 60L;
+
+	public LoadScenario getScenario() {
+		return scenario;
+	}
+	public void setScenario(LoadScenario scenario) {
+		this.scenario = scenario;
+	}
+	public double getStartTps() {
+		return startTps;
+	}
+	public void setStartTps(double startTps) {
+		this.startTps = startTps;
+	}
+	public double getGrowthFactor() {
+		return growthFactor;
+	}
+	public void setGrowthFactor(double growthFactor) {
+		this.growthFactor = growthFactor;
+	}
+	public double getMaxTps() {
+		return maxTps;
+	}
+	public void setMaxTps(double maxTps) {
+		this.maxTps = maxTps;
+	}
+	public int getRefineSteps() {
+		return refineSteps;
+	}
+	public void setRefineSteps(int refineSteps) {
+		this.refineSteps = refineSteps;
+	}
+	public double getSloP99Millis() {
+		return sloP99Millis;
+	}
+	public void setSloP99Millis(double sloP99Millis) {
+		this.sloP99Millis = sloP99Millis;
+	}
+	public double getMinAchievedRatio() {
+		return minAchievedRatio;
+	}
+	public void setMinAchievedRatio(double minAchievedRatio) {
+		this.minAchievedRatio = minAchievedRatio;
+	}
+	public long getMaxCaptureLag() {
+		return maxCaptureLag;
+	}
+	public void setMaxCaptureLag(long maxCaptureLag) {
+		this.maxCaptureLag = maxCaptureLag;
+	}
+	public long getMaxKstreamLag() {
+		return maxKstreamLag;
+	}
+	public void setMaxKstreamLag(long maxKstreamLag) {
+		this.maxKstreamLag = maxKstreamLag;
+	}
+	public long getWarmupSeconds() {
+		return warmupSeconds;
+	}
+	public void setWarmupSeconds(long warmupSeconds) {
+		this.warmupSeconds = warmupSeconds;
+	}
+	public long getMeasureSeconds() {
+		return measureSeconds;
+	}
+	public void setMeasureSeconds(long measureSeconds) {
+		this.measureSeconds = measureSeconds;
+	}
+	public long getSettleSeconds() {
+		return settleSeconds;
+	}
+	public void setSettleSeconds(long settleSeconds) {
+		this.settleSeconds = settleSeconds;
+	}
+}
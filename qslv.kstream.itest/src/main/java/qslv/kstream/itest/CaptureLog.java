@@ -0,0 +1,444 @@
+package qslv.kstream.itest;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Every record the capture listeners receive, appended as JSON to a segmented, memory-mapped log per
+ * output topic, so a long run keeps all of its output for analysis afterwards without holding it on the
+ * heap. Off unless qslv.capture-log-dir is set; each run writes a directory of its own under it.
+ *
+ * A topic's records are numbered from 0 in the order captured. Each segment is a pair of files named by
+ * the number of its first record: NNN.log holds frames of payload length, partition, offset, capture time
+ * and the JSON payload; NNN.index holds the position of every frame in the log, so any record is two
+ * reads away. Records are found by that number only; there is no index by partition and offset, so
+ * finding a given Kafka record takes a scan.
+ *
+ * Segments are preallocated at qslv.capture-log-segment-mb and cut to size when sealed, on rolling over and
+ * on shutdown; the sealed index ends with a marker and the frame count. scan() reads a run directory from
+ * another process. A segment without the marker, left by a run that never shut down, is read up to its
+ * last complete frame: a frame's length is written after the rest of it, and the unwritten part of the
+ * log is zeros.
+ */
+@Component
+public class CaptureLog {
+	private static final Logger log = LoggerFactory.getLogger(CaptureLog.class);
+
+	static final int HEADER_BYTES = 24; // int length, int partition, long offset, long capture millis
+	static final int INDEX_BYTES = 4;
+	static final int SEAL_BYTES = 8; // int SEAL_MARKER, int frame count
+	static final int SEAL_MARKER = 0x51534C47;
+
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	ObjectMapper objectMapper;
+
+	private final Map<String, TopicLog> topics = new ConcurrentHashMap<>();
+	private final AtomicLong errors = new AtomicLong();
+	private volatile Path runDirectory = null;
+
+	public static class Record {
+		private final long sequence;
+		private final int partition;
+		private final long offset;
+		private final long captureMillis;
+		private final byte[] payload;
+
+		Record(long sequence, int partition, long offset, long captureMillis, byte[] payload) {
+			this.sequence = sequence;
+			this.partition = partition;
+			this.offset = offset;
+			this.captureMillis = captureMillis;
+			this.payload = payload;
+		}
+
+		public long getSequence() {
+			return sequence;
+		}
+		public int getPartition() {
+			return partition;
+		}
+		public long getOffset() {
+			return offset;
+		}
+		public long getCaptureMillis() {
+			return captureMillis;
+		}
+		/**
+		 * The message as JSON.
+		 */
+		public byte[] getPayload() {
+			return payload;
+		}
+	}
+
+	public static class Summary {
+		private final long records;
+		private final long bytes;
+		private final int segments;
+
+		Summary(long records, long bytes, int segments) {
+			this.records = records;
+			this.bytes = bytes;
+			this.segments = segments;
+		}
+
+		public long getRecords() {
+			return records;
+		}
+		public long getBytes() {
+			return bytes;
+		}
+		public int getSegments() {
+			return segments;
+		}
+	}
+
+	@PostConstruct
+	void open() throws IOException {
+		if (config.getCaptureLogDir() == null || config.getCaptureLogDir().isEmpty())
+			return;
+		String run = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + "-" + config.getNodeId();
+		runDirectory = Files.createDirectories(Paths.get(config.getCaptureLogDir(), run));
+		log.info("Capture log writing to {}", runDirectory);
+	}
+
+	@PreDestroy
+	void close() {
+		for (Map.Entry<String, TopicLog> topic : topics.entrySet()) {
+			try {
+				topic.getValue().close();
+			} catch (IOException ex) {
+				log.warn("Sealing the capture log of {} failed. {}", topic.getKey(), ex.toString());
+			}
+		}
+	}
+
+	public boolean isEnabled() {
+		return runDirectory != null;
+	}
+
+	public Path getRunDirectory() {
+		return runDirectory;
+	}
+
+	/**
+	 * Never throws; a record that cannot be written is counted in getErrors() and logged, and capture goes on.
+	 */
+	public void append(String topic, int partition, long offset, Object message) {
+		Path directory = runDirectory;
+		if (directory == null)
+			return;
+		try {
+			byte[] payload = objectMapper.writeValueAsBytes(message);
+			topicLog(directory, topic).append(partition, offset, System.currentTimeMillis(), payload);
+		} catch (Exception ex) {
+			if (errors.getAndIncrement() == 0L)
+				log.warn("Capture log append to {} failed; further failures are only counted. {}", topic, ex.toString());
+		}
+	}
+
+	public long count(String topic) {
+		TopicLog topicLog = topics.get(topic);
+		return topicLog == null ? 0L : topicLog.count();
+	}
+
+	public Record read(String topic, long sequence) throws IOException {
+		TopicLog topicLog = topics.get(topic);
+		if (topicLog == null)
+			throw new IndexOutOfBoundsException("Nothing captured from " + topic);
+		return topicLog.read(sequence);
+	}
+
+	public <T> T read(String topic, long sequence, TypeReference<T> type) throws IOException {
+		return objectMapper.readValue(read(topic, sequence).getPayload(), type);
+	}
+
+	/**
+	 * Records from sequence on, up to the last one appended when the scan started.
+	 */
+	public void scan(String topic, long from, Consumer<Record> consumer) throws IOException {
+		long to = count(topic);
+		for (long sequence = Math.max(0L, from); sequence < to; sequence++) {
+			consumer.accept(read(topic, sequence));
+		}
+	}
+
+	public Map<String, Summary> summary() {
+		Map<String, Summary> summary = new TreeMap<>();
+		topics.forEach((topic, topicLog) -> summary.put(topic, topicLog.summary()));
+		return summary;
+	}
+
+	public long getErrors() {
+		return errors.get();
+	}
+
+	/**
+	 * Reads every record of one topic directory of a finished run, in capture order. A segment the run
+	 * never sealed is read up to its last complete frame.
+	 */
+	public static void scan(Path topicDirectory, Consumer<Record> consumer) throws IOException {
+		for (long base : segmentBases(topicDirectory)) {
+			Segment segment = Segment.open(topicDirectory, base);
+			for (int i = 0; i < segment.count; i++) {
+				consumer.accept(segment.read(i));
+			}
+		}
+	}
+
+	private TopicLog topicLog(Path directory, String topic) {
+		return topics.computeIfAbsent(topic, name -> new TopicLog(directory.resolve(name), segmentBytes()));
+	}
+
+	private int segmentBytes() {
+		long bytes = config.getCaptureLogSegmentMb() * 1024L * 1024L;
+		return (int) Math.max(1024L * 1024L, Math.min(Integer.MAX_VALUE, bytes));
+	}
+
+	private static List<Long> segmentBases(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(".log"))
+					.map(name -> Long.parseLong(name.substring(0, name.length() - 4))).sorted().collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * The segments of one topic. Only the active segment is mapped for writing; sealed ones are mapped
+	 * read-only when read, one at a time.
+	 */
+	static class TopicLog {
+		private final Path directory;
+		private final int segmentBytes;
+		private final List<Long> sealed = new ArrayList<>();
+		private Segment active;
+		private Segment reading;
+		private long count;
+		private long bytes;
+
+		TopicLog(Path directory, int segmentBytes) {
+			this.directory = directory;
+			this.segmentBytes = segmentBytes;
+		}
+
+		synchronized void append(int partition, long offset, long captureMillis, byte[] payload) throws IOException {
+			if (HEADER_BYTES + payload.length > segmentBytes)
+				throw new IOException(payload.length + " byte record does not fit a segment");
+			if (active != null && !active.fits(payload.length)) {
+				active.seal();
+				sealed.add(active.base);
+				active = null;
+			}
+			if (active == null) {
+				Files.createDirectories(directory);
+				active = Segment.create(directory, count, segmentBytes);
+			}
+			active.append(partition, offset, captureMillis, payload);
+			count++;
+			bytes += HEADER_BYTES + payload.length;
+		}
+
+		synchronized long count() {
+			return count;
+		}
+
+		synchronized Record read(long sequence) throws IOException {
+			if (sequence < 0L || sequence >= count)
+				throw new IndexOutOfBoundsException("Record " + sequence + " of " + count);
+			if (active != null && sequence >= active.base)
+				return active.read((int) (sequence - active.base));
+			int found = Collections.binarySearch(sealed, sequence);
+			long base = sealed.get(found >= 0 ? found : -found - 2);
+			if (reading == null || reading.base != base)
+				reading = Segment.openSealed(directory, base);
+			return reading.read((int) (sequence - base));
+		}
+
+		synchronized Summary summary() {
+			return new Summary(count, bytes, sealed.size() + (active == null ? 0 : 1));
+		}
+
+		synchronized void close() throws IOException {
+			if (active == null)
+				return;
+			active.seal();
+			sealed.add(active.base);
+			active = null;
+		}
+	}
+
+	static class Segment {
+		final long base;
+		private final Path logPath;
+		private final Path indexPath;
+		private MappedByteBuffer frames;
+		private ByteBuffer index;
+		private int position;
+		private int count;
+
+		private Segment(Path directory, long base) {
+			this.base = base;
+			this.logPath = directory.resolve(String.format("%020d.log", base));
+			this.indexPath = directory.resolve(String.format("%020d.index", base));
+		}
+
+		/**
+		 * Every frame is at least HEADER_BYTES, so an index sized for that many frames never fills first.
+		 */
+		static Segment create(Path directory, long base, int segmentBytes) throws IOException {
+			Segment segment = new Segment(directory, base);
+			segment.frames = map(segment.logPath, FileChannel.MapMode.READ_WRITE, segmentBytes);
+			segment.index = map(segment.indexPath, FileChannel.MapMode.READ_WRITE, (long) (segmentBytes / HEADER_BYTES) * INDEX_BYTES);
+			return segment;
+		}
+
+		/**
+		 * @throws IOException when the segment was not sealed.
+		 */
+		static Segment openSealed(Path directory, long base) throws IOException {
+			Segment segment = new Segment(directory, base);
+			segment.frames = map(segment.logPath, FileChannel.MapMode.READ_ONLY, Files.size(segment.logPath));
+			segment.index = map(segment.indexPath, FileChannel.MapMode.READ_ONLY, Files.size(segment.indexPath));
+			segment.count = sealedCount(segment.index);
+			if (segment.count < 0)
+				throw new IOException(segment.logPath + " was not sealed");
+			segment.position = segment.frames.capacity();
+			return segment;
+		}
+
+		/**
+		 * A sealed segment through its index; any other by walking its frames up to the last complete one.
+		 */
+		static Segment open(Path directory, long base) throws IOException {
+			Segment segment = new Segment(directory, base);
+			segment.frames = map(segment.logPath, FileChannel.MapMode.READ_ONLY, Files.size(segment.logPath));
+			MappedByteBuffer index = map(segment.indexPath, FileChannel.MapMode.READ_ONLY, Files.size(segment.indexPath));
+			int sealed = sealedCount(index);
+			if (sealed >= 0) {
+				segment.index = index;
+				segment.count = sealed;
+				segment.position = segment.frames.capacity();
+				return segment;
+			}
+			List<Integer> positions = new ArrayList<>();
+			int at = 0;
+			while (at + HEADER_BYTES <= segment.frames.capacity()) {
+				int length = segment.frames.getInt(at);
+				if (length <= 0 || (long) at + HEADER_BYTES + length > segment.frames.capacity())
+					break;
+				positions.add(at);
+				at += HEADER_BYTES + length;
+			}
+			segment.index = ByteBuffer.allocate(positions.size() * INDEX_BYTES);
+			positions.forEach(segment.index::putInt);
+			segment.count = positions.size();
+			segment.position = at;
+			log.warn("{} was not sealed; read {} frames up to byte {}", segment.logPath, segment.count, at);
+			return segment;
+		}
+
+		/**
+		 * @return the frame count behind the seal marker, or -1 when the index has none.
+		 */
+		private static int sealedCount(ByteBuffer index) {
+			int size = index.capacity();
+			if (size < SEAL_BYTES || (size - SEAL_BYTES) % INDEX_BYTES != 0 || index.getInt(size - SEAL_BYTES) != SEAL_MARKER)
+				return -1;
+			int count = index.getInt(size - INDEX_BYTES);
+			return count == (size - SEAL_BYTES) / INDEX_BYTES ? count : -1;
+		}
+
+		private static MappedByteBuffer map(Path path, FileChannel.MapMode mode, long size) throws IOException {
+			try (RandomAccessFile file = new RandomAccessFile(path.toFile(), mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw")) {
+				return file.getChannel().map(mode, 0L, size);
+			}
+		}
+
+		boolean fits(int payloadBytes) {
+			return (long) position + HEADER_BYTES + payloadBytes <= frames.capacity();
+		}
+
+		/**
+		 * The length goes in last, so a frame with a length is complete.
+		 */
+		void append(int partition, long offset, long captureMillis, byte[] payload) {
+			frames.putInt(position + 4, partition);
+			frames.putLong(position + 8, offset);
+			frames.putLong(position + 16, captureMillis);
+			ByteBuffer body = frames.duplicate();
+			body.position(position + HEADER_BYTES);
+			body.put(payload);
+			frames.putInt(position, payload.length);
+			index.putInt(count * INDEX_BYTES, position);
+			position += HEADER_BYTES + payload.length;
+			count++;
+		}
+
+		Record read(int i) {
+			int at = index.getInt(i * INDEX_BYTES);
+			byte[] payload = new byte[frames.getInt(at)];
+			ByteBuffer body = frames.duplicate();
+			body.position(at + HEADER_BYTES);
+			body.get(payload);
+			return new Record(base + i, frames.getInt(at + 4), frames.getLong(at + 8), frames.getLong(at + 16), payload);
+		}
+
+		/**
+		 * Flushes the mappings and cuts both files to what was written. The buffers are dropped rather than
+		 * used past the new end of file. The seal marker goes on the index last, once the log is final.
+		 */
+		void seal() throws IOException {
+			frames.force();
+			((MappedByteBuffer) index).force();
+			frames = null;
+			index = null;
+			truncate(logPath, position);
+			truncate(indexPath, (long) count * INDEX_BYTES);
+			ByteBuffer seal = ByteBuffer.allocate(SEAL_BYTES);
+			seal.putInt(SEAL_MARKER).putInt(count).flip();
+			try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.WRITE)) {
+				while (seal.hasRemaining()) {
+					channel.write(seal, (long) count * INDEX_BYTES + seal.position());
+				}
+				channel.force(true);
+			}
+		}
+
+		private static void truncate(Path path, long size) throws IOException {
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+				channel.truncate(size);
+			}
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package qslv.kstream.itest;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * GET /capture-log  records, bytes and segments captured per topic in this run
+ */
+@RestController
+@RequestMapping("/capture-log")
+public class CaptureLogController {
+
+	@Autowired
+	CaptureLog captureLog;
+
+	@GetMapping
+	public Map<String, CaptureLog.Summary> summary() {
+		if (!captureLog.isEnabled())
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Capture log is off; set qslv.capture-log-dir");
+		return captureLog.summary();
+	}
+}
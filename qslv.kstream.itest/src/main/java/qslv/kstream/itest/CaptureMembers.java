@@ -0,0 +1,79 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.ContainerProperties.AckMode;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+
+/**
+ * Extra members of the capture consumer group on the response topic, added and removed to force the
+ * group to rebalance. They hand what they consume to KafkaStreamsOutputListener, so responses keep
+ * being matched whichever member owns the partition.
+ */
+@Component
+public class CaptureMembers {
+	private static final Logger log = LoggerFactory.getLogger(CaptureMembers.class);
+
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	ConsumerFactory<String, TraceableMessage<ResponseMessage<PostingRequest,PostingResponse>>> responseConsumerFactory;
+	@Autowired
+	KafkaStreamsOutputListener outputListener;
+	@Autowired
+	CaptureRebalanceListener captureRebalanceListener;
+
+	private final Deque<KafkaMessageListenerContainer<?, ?>> members = new ArrayDeque<>();
+
+	public synchronized void resize(int count) {
+		while (members.size() < count) {
+			add();
+		}
+		while (members.size() > count) {
+			members.pop().stop();
+			log.info("Removed capture member, {} extra left", members.size());
+		}
+	}
+
+	public synchronized int size() {
+		return members.size();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void add() {
+		ContainerProperties properties = new ContainerProperties(config.getResponseTopic());
+		properties.setGroupId(config.captureGroupId());
+		properties.setAckMode(AckMode.MANUAL_IMMEDIATE);
+		properties.setConsumerRebalanceListener(captureRebalanceListener);
+		properties.setMessageListener((AcknowledgingMessageListener<String, Object>) (record, acknowledgment) ->
+			outputListener.responseListen((ResponseMessage<PostingRequest,PostingResponse>) record.value(), acknowledgment,
+					record.partition(), record.offset()));
+
+		KafkaMessageListenerContainer<String, TraceableMessage<ResponseMessage<PostingRequest,PostingResponse>>> container
+				= new KafkaMessageListenerContainer<>(responseConsumerFactory, properties);
+		container.setBeanName("captureMember-" + members.size());
+		container.start();
+		members.push(container);
+		log.info("Added capture member, {} extra", members.size());
+	}
+
+	@PreDestroy
+	void shutdown() {
+		resize(0);
+	}
+}
@@ -0,0 +1,72 @@
+package qslv.kstream.itest;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Logs and counts partition moves of the harness's own capture consumers, so a rebalance of the capture
+ * group shows up next to the measurements it may have disturbed.
+ *
+ * qslv.capture.rebalances     - Counter, assignments and revocations seen by capture consumers
+ */
+@Component
+public class CaptureRebalanceListener implements ConsumerAwareRebalanceListener {
+	private static final Logger log = LoggerFactory.getLogger(CaptureRebalanceListener.class);
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	private final AtomicLong rebalances = new AtomicLong();
+	private volatile long lastRebalanceMillis = 0L;
+	private Counter counter;
+
+	@Override
+	public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+		if (!partitions.isEmpty())
+			moved("revoked", partitions);
+	}
+
+	@Override
+	public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+		if (!partitions.isEmpty())
+			moved("assigned", partitions);
+	}
+
+	@Override
+	public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+		if (!partitions.isEmpty())
+			moved("lost", partitions);
+	}
+
+	private void moved(String how, Collection<TopicPartition> partitions) {
+		rebalances.incrementAndGet();
+		lastRebalanceMillis = System.currentTimeMillis();
+		counter().increment();
+		log.info("Capture partitions {} {}", how, partitions);
+	}
+
+	private Counter counter() {
+		if (counter == null)
+			counter = Counter.builder("qslv.capture.rebalances").register(meterRegistry);
+		return counter;
+	}
+
+	public long getRebalances() {
+		return rebalances.get();
+	}
+
+	public long getLastRebalanceMillis() {
+		return lastRebalanceMillis;
+	}
+}
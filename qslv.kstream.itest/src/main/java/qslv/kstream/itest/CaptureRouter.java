@@ -0,0 +1,57 @@
+package qslv.kstream.itest;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out CaptureViews and finds the view a captured message belongs to, by correlation id or
+ * account number. Lets Itest_ classes run concurrently against the one set of capture listeners.
+ */
+@Component
+public class CaptureRouter {
+
+	private final AtomicInteger nextId = new AtomicInteger();
+	private final Map<String, CaptureView> byAccount = new ConcurrentHashMap<>();
+	private final Map<String, CaptureView> byCorrelation = new ConcurrentHashMap<>();
+
+	public CaptureView open() {
+		return new CaptureView(this, nextId.incrementAndGet());
+	}
+
+	public CaptureView byAccount(String accountNumber) {
+		return accountNumber == null ? null : byAccount.get(accountNumber);
+	}
+
+	public CaptureView byCorrelation(String correlationId) {
+		return correlationId == null ? null : byCorrelation.get(correlationId);
+	}
+
+	/**
+	 * Returns false when there is no view, and the message should go to the shared queue.
+	 */
+	public <T> boolean deliver(CaptureView view, Function<CaptureView, BlockingQueue<T>> queue, T message) {
+		if (view == null)
+			return false;
+		queue.apply(view).add(message);
+		return true;
+	}
+
+	void registerAccount(String accountNumber, CaptureView view) {
+		byAccount.put(accountNumber, view);
+	}
+
+	void registerCorrelation(String correlationId, CaptureView view) {
+		byCorrelation.put(correlationId, view);
+	}
+
+	void release(CaptureView view, Collection<String> accounts, Collection<String> correlationIds) {
+		accounts.forEach(account -> byAccount.remove(account, view));
+		correlationIds.forEach(correlationId -> byCorrelation.remove(correlationId, view));
+	}
+}
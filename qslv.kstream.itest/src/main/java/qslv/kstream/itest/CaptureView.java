@@ -0,0 +1,90 @@
+package qslv.kstream.itest;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.data.BalanceLog;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+import qslv.kstream.workflow.WorkflowMessage;
+import qslv.util.Random;
+
+/**
+ * One test's private slice of the output topics. Messages carrying a correlation id it handed out, or
+ * about an account number it handed out, land in its queues instead of the shared exchange queues.
+ * Account numbers come from a range of their own, prefixed with the view id.
+ */
+public class CaptureView implements AutoCloseable {
+
+	/**
+	 * Leading digit of every view account, 700_000_000_000 up to 800_000_000_000. Random AccountPool numbers
+	 * stay below it, restore runs start at 800_000_000_000 and distributed nodes at 900_000_000_000.
+	 */
+	static final int VIEW_RANGE_DIGIT = 7;
+
+	private final CaptureRouter router;
+	private final int id;
+	private final String accountPrefix;
+	private final Set<String> accounts = ConcurrentHashMap.newKeySet();
+	private final Set<String> correlationIds = ConcurrentHashMap.newKeySet();
+
+	private final BlockingQueue<ResponseMessage<PostingRequest,PostingResponse>> responseQueue = new LinkedBlockingQueue<>();
+	private final BlockingQueue<TraceableMessage<WorkflowMessage>> reservationMatchQueue = new LinkedBlockingQueue<>();
+	private final BlockingQueue<TraceableMessage<WorkflowMessage>> transactionProcessorQueue = new LinkedBlockingQueue<>();
+	private final BlockingQueue<LoggedTransaction> reservationByUuidQueue = new LinkedBlockingQueue<>();
+	private final BlockingQueue<TraceableMessage<LoggedTransaction>> loggedTransactionQueue = new LinkedBlockingQueue<>();
+	private final BlockingQueue<BalanceLog> balanceLogQueue = new LinkedBlockingQueue<>();
+
+	CaptureView(CaptureRouter router, int id) {
+		this.router = router;
+		this.id = id;
+		this.accountPrefix = String.format("%d%03d", VIEW_RANGE_DIGIT, id % 1000);
+	}
+
+	public String newAccountNumber() {
+		String accountNumber = accountPrefix + Random.randomDigits(8);
+		accounts.add(accountNumber);
+		router.registerAccount(accountNumber, this);
+		return accountNumber;
+	}
+
+	public String newCorrelationId() {
+		String correlationId = "view-" + id + "-" + UUID.randomUUID();
+		correlationIds.add(correlationId);
+		router.registerCorrelation(correlationId, this);
+		return correlationId;
+	}
+
+	@Override
+	public void close() {
+		router.release(this, accounts, correlationIds);
+	}
+
+	public int getId() {
+		return id;
+	}
+	public BlockingQueue<ResponseMessage<PostingRequest,PostingResponse>> getResponseQueue() {
+		return responseQueue;
+	}
+	public BlockingQueue<TraceableMessage<WorkflowMessage>> getReservationMatchQueue() {
+		return reservationMatchQueue;
+	}
+	public BlockingQueue<TraceableMessage<WorkflowMessage>> getTransactionProcessorQueue() {
+		return transactionProcessorQueue;
+	}
+	public BlockingQueue<LoggedTransaction> getReservationByUuidQueue() {
+		return reservationByUuidQueue;
+	}
+	public BlockingQueue<TraceableMessage<LoggedTransaction>> getLoggedTransactionQueue() {
+		return loggedTransactionQueue;
+	}
+	public BlockingQueue<BalanceLog> getBalanceLogQueue() {
+		return balanceLogQueue;
+	}
+}
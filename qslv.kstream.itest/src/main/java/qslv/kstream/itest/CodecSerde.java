@@ -0,0 +1,53 @@
+package qslv.kstream.itest;
+
+import java.util.Map;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka Serializer and Deserializer over a MessageCodec. Nulls pass through as tombstones.
+ */
+public class CodecSerde<T> implements Serializer<T>, Deserializer<T> {
+
+	private final MessageCodec<T> codec;
+
+	public CodecSerde(MessageCodec<T> codec) {
+		this.codec = codec;
+	}
+
+	@Override
+	public void configure(Map<String, ?> configs, boolean isKey) {
+	}
+
+	@Override
+	public byte[] serialize(String topic, T data) {
+		if (data == null)
+			return null;
+		try {
+			return codec.encode(data);
+		} catch (SerializationException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new SerializationException("Error serializing to " + topic, ex);
+		}
+	}
+
+	@Override
+	public T deserialize(String topic, byte[] data) {
+		if (data == null)
+			return null;
+		try {
+			return codec.decode(data);
+		} catch (SerializationException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new SerializationException("Error deserializing from " + topic, ex);
+		}
+	}
+
+	@Override
+	public void close() {
+	}
+}
@@ -1,5 +1,12 @@
 package qslv.kstream.itest;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,9 +24,32 @@ public class ConfigProperties {
 	private String loggedTransactionTopic;
 	private String reservationByUuidTopic;
 	private String balanceLogStateStoreTopic;
+	private String controlTopic;
+	private String kstreamApplicationId;
+	private String kstreamStopCommand; // shell commands run by KStreamControl; when unset it waits for an operator
+	private String kstreamStartCommand; // partition sweeps replace {partitions}
+	private String kstreamScaleCommand; // {instances} is replaced by the wanted instance count
 	
 	private String kafkaConsumerPropertiesPath;
 	private String kafkaProducerPropertiesPath;
+	private String kafkaBootstrapServers; // overrides bootstrap.servers in both properties files when set
+	private String schemaRegistryUrl; // overrides schema.registry.url in both properties files when set
+	private boolean mockSchemaRegistry = false; // in-process registry, overrides schema.registry.url
+	private int mockSchemaRegistryPort = 0; // 0 picks a free port; fix it when a kstream has to share the registry
+	private boolean warmSchemas = true;
+	private String captureLogDir; // every captured record is appended to a memory-mapped log under here when set
+	private int captureLogSegmentMb = 256;
+	private boolean faultInjection = false; // producer and consumer interceptors for PRODUCER_DELAY and CONSUMER_DELAY
+	private String reportDir = "target"; // files runs write, such as the soak CSV, relative paths resolve against it
+
+	private int embeddedKafkaBrokers = 3; // embedded profile only
+	private int embeddedKafkaPartitions = 4;
+	private List<Integer> embeddedKafkaPorts = new ArrayList<>(); // one per broker, empty for random ports
+	private Map<String, Integer> topicPartitions = new HashMap<>(); // qslv.topic-partitions[qks.posting.request]=8
+
+	private String nodeId = "node-" + UUID.randomUUID().toString().substring(0, 8);
+	private boolean distributedWorker = false; // joins coordinated runs on the control topic when set
+	private KafkaSerdeFactory.Mode serdeMode = KafkaSerdeFactory.Mode.JACKSON_AVRO; // request and transaction payloads only
 	
 	public String getAitid() {
 		return aitid;
@@ -93,5 +123,161 @@ public class ConfigProperties {
 	public void setKafkaProducerPropertiesPath(String kafkaProducerPropertiesPath) {
 		this.kafkaProducerPropertiesPath = kafkaProducerPropertiesPath;
 	}
+	public String getControlTopic() {
+		return controlTopic;
+	}
+	public void setControlTopic(String controlTopic) {
+		this.controlTopic = controlTopic;
+	}
+	public String getKafkaBootstrapServers() {
+		return kafkaBootstrapServers;
+	}
+	public void setKafkaBootstrapServers(String kafkaBootstrapServers) {
+		this.kafkaBootstrapServers = kafkaBootstrapServers;
+	}
+	public String getNodeId() {
+		return nodeId;
+	}
+	public void setNodeId(String nodeId) {
+		this.nodeId = nodeId;
+	}
+	public boolean isDistributedWorker() {
+		return distributedWorker;
+	}
+	public void setDistributedWorker(boolean distributedWorker) {
+		this.distributedWorker = distributedWorker;
+	}
+	public String getKstreamApplicationId() {
+		return kstreamApplicationId;
+	}
+	public void setKstreamApplicationId(String kstreamApplicationId) {
+		this.kstreamApplicationId = kstreamApplicationId;
+	}
+
+	public String getKstreamStopCommand() {
+		return kstreamStopCommand;
+	}
+	public void setKstreamStopCommand(String kstreamStopCommand) {
+		this.kstreamStopCommand = kstreamStopCommand;
+	}
+	public String getKstreamStartCommand() {
+		return kstreamStartCommand;
+	}
+	public void setKstreamStartCommand(String kstreamStartCommand) {
+		this.kstreamStartCommand = kstreamStartCommand;
+	}
+
+	public String getKstreamScaleCommand() {
+		return kstreamScaleCommand;
+	}
+	public void setKstreamScaleCommand(String kstreamScaleCommand) {
+		this.kstreamScaleCommand = kstreamScaleCommand;
+	}
+
+	public KafkaSerdeFactory.Mode getSerdeMode() {
+		return serdeMode;
+	}
+	public void setSerdeMode(KafkaSerdeFactory.Mode serdeMode) {
+		this.serdeMode = serdeMode;
+	}
+
+	public String getSchemaRegistryUrl() {
+		return schemaRegistryUrl;
+	}
+	public void setSchemaRegistryUrl(String schemaRegistryUrl) {
+		this.schemaRegistryUrl = schemaRegistryUrl;
+	}
+	public boolean isMockSchemaRegistry() {
+		return mockSchemaRegistry;
+	}
+	public void setMockSchemaRegistry(boolean mockSchemaRegistry) {
+		this.mockSchemaRegistry = mockSchemaRegistry;
+	}
+	public int getMockSchemaRegistryPort() {
+		return mockSchemaRegistryPort;
+	}
+	public void setMockSchemaRegistryPort(int mockSchemaRegistryPort) {
+		this.mockSchemaRegistryPort = mockSchemaRegistryPort;
+	}
+	public boolean isWarmSchemas() {
+		return warmSchemas;
+	}
+	public void setWarmSchemas(boolean warmSchemas) {
+		this.warmSchemas = warmSchemas;
+	}
+
+	public String getCaptureLogDir() {
+		return captureLogDir;
+	}
+	public void setCaptureLogDir(String captureLogDir) {
+		this.captureLogDir = captureLogDir;
+	}
+	public int getCaptureLogSegmentMb() {
+		return captureLogSegmentMb;
+	}
+	public void setCaptureLogSegmentMb(int captureLogSegmentMb) {
+		this.captureLogSegmentMb = captureLogSegmentMb;
+	}
+	public boolean isFaultInjection() {
+		return faultInjection;
+	}
+	public void setFaultInjection(boolean faultInjection) {
+		this.faultInjection = faultInjection;
+	}
+	public String getReportDir() {
+		return reportDir;
+	}
+	public void setReportDir(String reportDir) {
+		this.reportDir = reportDir;
+	}
+
+	/**
+	 * Consumer group of this node's capture listeners. Each node has its own, so every node sees the
+	 * responses to its own requests whichever partition they land on.
+	 */
+	public String captureGroupId() {
+		return "kstream.itest." + nodeId;
+	}
+
+	/**
+	 * Every topic the harness and the kstream under test read or write.
+	 */
+	public List<String> allTopics() {
+		return Arrays.asList(requestTopic, responseTopic, enhancedRequestTopic, matchReservationTopic, accountTopic,
+				overdraftTopic, loggedTransactionTopic, reservationByUuidTopic, balanceLogStateStoreTopic, controlTopic);
+	}
+
+	/**
+	 * The topics the capture listeners consume, the kstream's output.
+	 */
+	public List<String> outputTopics() {
+		return Arrays.asList(responseTopic, enhancedRequestTopic, matchReservationTopic, reservationByUuidTopic,
+				loggedTransactionTopic, balanceLogStateStoreTopic);
+	}
+
+	public int getEmbeddedKafkaBrokers() {
+		return embeddedKafkaBrokers;
+	}
+	public void setEmbeddedKafkaBrokers(int embeddedKafkaBrokers) {
+		this.embeddedKafkaBrokers = embeddedKafkaBrokers;
+	}
+	public int getEmbeddedKafkaPartitions() {
+		return embeddedKafkaPartitions;
+	}
+	public void setEmbeddedKafkaPartitions(int embeddedKafkaPartitions) {
+		this.embeddedKafkaPartitions = embeddedKafkaPartitions;
+	}
+	public List<Integer> getEmbeddedKafkaPorts() {
+		return embeddedKafkaPorts;
+	}
+	public void setEmbeddedKafkaPorts(List<Integer> embeddedKafkaPorts) {
+		this.embeddedKafkaPorts = embeddedKafkaPorts;
+	}
+	public Map<String, Integer> getTopicPartitions() {
+		return topicPartitions;
+	}
+	public void setTopicPartitions(Map<String, Integer> topicPartitions) {
+		this.topicPartitions = topicPartitions;
+	}
 
 }
@@ -0,0 +1,290 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.data.Account;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+
+/**
+ * Floods one account, or a few, with reservations and transactions at rising rates. Every request for an
+ * account carries the same key, so the kstream takes them one at a time; the steps show where that
+ * serial path tops out and how queueing latency builds past it. Each account is opened and closed with a
+ * synchronous credit of 1, whose running balances anchor the exactness checks in ContentionReport.
+ */
+@Component
+public class ContentionBenchmark extends BackgroundRun<ContentionSettings, ContentionReport> {
+	private static final Logger log = LoggerFactory.getLogger(ContentionBenchmark.class);
+	private static final long PROBE_TIMEOUT_SECONDS = 120L;
+	private static final int OPENING_ATTEMPTS = 5;
+
+	@Autowired
+	KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	PostingRequestFactory requestFactory;
+	@Autowired
+	RequestCorrelationTracker correlationTracker;
+
+	private final Map<String, CompletableFuture<ResponseMessage<PostingRequest,PostingResponse>>> probes = new ConcurrentHashMap<>();
+	private final Map<String, List<ResponseMessage<PostingRequest,PostingResponse>>> responses = new ConcurrentHashMap<>();
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong answered = new AtomicLong();
+	private final RequestCorrelationTracker.PostingResponseObserver observer = this::responseReceived;
+	private volatile LoadStatistics stepStatistics = new LoadStatistics();
+
+	public ContentionBenchmark() {
+		super("Contention");
+	}
+
+	@Override
+	protected ContentionReport newReport(ContentionSettings settings) {
+		return new ContentionReport(settings);
+	}
+
+	@Override
+	protected void execute(ContentionReport report, HarnessLock.Lease lease) throws Exception {
+		ContentionSettings settings = report.getSettings();
+		probes.clear();
+		responses.clear();
+		sent.set(0L);
+		answered.set(0L);
+		correlationTracker.addObserver(observer);
+		try {
+			AccountPool pool = new AccountPool(kafkaProducerDao, settings.getStartingBalance());
+			pool.resize(settings.getHotAccounts());
+			List<Account> accounts = pool.active();
+			Map<String, Long> opening = new HashMap<>();
+			for (Account account : accounts) {
+				responses.put(account.getAccountNumber(), new ArrayList<>());
+				opening.put(account.getAccountNumber(), openingProbe(account.getAccountNumber()));
+			}
+
+			for (double rate : settings.getRates()) {
+				WorkloadResult step = step(settings, accounts, rate);
+				report.add(step, sent.get() - answered.get());
+				log.info("Contention step {} tps over {} accounts: completed {}/s p99={}ms backlog={}", rate, accounts.size(),
+						step.getAchievedTps(), step.getP99Millis(), sent.get() - answered.get());
+				if (step.getP99Millis() > settings.getStopAtP99Millis())
+					break;
+			}
+
+			report.setState(ContentionReport.DRAINING);
+			long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(settings.getDrainTimeoutSeconds());
+			while (answered.get() < sent.get() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(250L);
+			}
+			report.setUnanswered(sent.get() - answered.get());
+
+			for (Account account : accounts) {
+				long closing = probe(account.getAccountNumber());
+				verify(report, account.getAccountNumber(), opening.get(account.getAccountNumber()), closing);
+			}
+			report.setResponses(answered.get());
+			report.setState(ContentionReport.COMPLETE);
+			log.info("Contention run finished. ceiling={}/s per key, responses={} approved={} rejected={} exact={}",
+					report.getPerKeyCeilingTps(), report.getResponses(), report.getApproved(), report.getRejected(), report.isExact());
+		} finally {
+			correlationTracker.removeObserver(observer);
+		}
+	}
+
+	/**
+	 * Latency and completions are of the responses that arrived during the step, whenever their request was sent.
+	 */
+	private WorkloadResult step(ContentionSettings settings, List<Account> accounts, double rate) throws InterruptedException {
+		LoadStatistics statistics = new LoadStatistics();
+		stepStatistics = statistics;
+		long start = System.currentTimeMillis();
+		long end = start + TimeUnit.SECONDS.toMillis(settings.getStepSeconds());
+		int senders = Math.max(1, settings.getSenders());
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < senders; i++) {
+			Thread thread = new Thread(() -> send(settings, accounts, rate / senders, end, statistics), "qslv-contention-sender-" + i);
+			thread.setDaemon(true);
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		LoadStatistics.Snapshot snapshot = statistics.tick("STEP", rate);
+		return WorkloadResult.of(rate, System.currentTimeMillis() - start, snapshot.getSent(), snapshot.getFailed(),
+				statistics.cumulativeHistogram());
+	}
+
+	private void send(ContentionSettings settings, List<Account> accounts, double tps, long endMillis, LoadStatistics statistics) {
+		long interval = (long) (1_000_000_000.0 / Math.max(0.001, tps));
+		long next = System.nanoTime();
+		while (System.currentTimeMillis() < endMillis) {
+			long now = System.nanoTime();
+			if (next > now) {
+				LockSupport.parkNanos(next - now);
+				continue;
+			}
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			String accountNumber = accounts.get(random.nextInt(accounts.size())).getAccountNumber();
+			long amount = 1L + random.nextLong(Math.max(1L, settings.getMaxTransactionAmount()));
+			TraceableMessage<PostingRequest> request;
+			if (random.nextInt(100) < settings.getReservationPercent())
+				request = requestFactory.reservation(accountNumber, -amount);
+			else
+				request = requestFactory.transaction(accountNumber, random.nextInt(100) < settings.getCreditPercent() ? amount : -amount);
+
+			statistics.sent();
+			sent.incrementAndGet();
+			try {
+				kafkaProducerDao.produceRequestMessageAsync(request).addCallback(result -> { }, ex -> {
+					statistics.failed();
+					sent.decrementAndGet();
+				});
+			} catch (ResponseStatusException ex) {
+				statistics.failed();
+				sent.decrementAndGet();
+			}
+			next += interval;
+		}
+	}
+
+	/**
+	 * A new account may not have reached the kstream's account and balance tables by the first request.
+	 */
+	private long openingProbe(String accountNumber) throws Exception {
+		for (int attempt = 1;; attempt++) {
+			try {
+				return probe(accountNumber);
+			} catch (ResponseStatusException ex) {
+				if (attempt >= OPENING_ATTEMPTS)
+					throw ex;
+				log.debug("Opening probe on {} failed, retrying. {}", accountNumber, ex.getReason());
+				Thread.sleep(1000L);
+			}
+		}
+	}
+
+	/**
+	 * Credit 1 and wait for the answer.
+	 *
+	 * @return the running balance after the credit.
+	 */
+	private long probe(String accountNumber) throws Exception {
+		TraceableMessage<PostingRequest> request = requestFactory.transaction(accountNumber, 1L);
+		CompletableFuture<ResponseMessage<PostingRequest,PostingResponse>> answer = new CompletableFuture<>();
+		probes.put(request.getCorrelationId(), answer);
+		kafkaProducerDao.produceRequestMessage(request);
+		ResponseMessage<PostingRequest,PostingResponse> response = answer.get(PROBE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		LoggedTransaction transaction = transaction(response);
+		if (!Objects.equals(ResponseMessage.SUCCESS, response.getStatus()) || transaction == null)
+			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+					String.format("Balance probe on %s answered %s %s", accountNumber, response.getStatus(), response.getErrorMessage()));
+		return transaction.getRunningBalanceAmount();
+	}
+
+	private void responseReceived(ResponseMessage<PostingRequest,PostingResponse> response, long latencyNanos) {
+		CompletableFuture<ResponseMessage<PostingRequest,PostingResponse>> probe = probes.remove(response.getCorrelationId());
+		if (probe != null) {
+			probe.complete(response);
+			return;
+		}
+		String accountNumber = accountNumber(response.getRequest());
+		List<ResponseMessage<PostingRequest,PostingResponse>> account = accountNumber == null ? null : responses.get(accountNumber);
+		if (account == null)
+			return;
+		synchronized (account) {
+			account.add(response);
+		}
+		stepStatistics.completed(latencyNanos);
+		answered.incrementAndGet();
+	}
+
+	private void verify(ContentionReport report, String accountNumber, long opening, long closing) {
+		List<ResponseMessage<PostingRequest,PostingResponse>> received = responses.get(accountNumber);
+		long balance = opening;
+		long approvedTotal = 0L;
+		synchronized (received) {
+			for (ResponseMessage<PostingRequest,PostingResponse> response : received) {
+				long amount = amount(response.getRequest());
+				LoggedTransaction transaction = transaction(response);
+				boolean fits = amount >= 0L || balance + amount >= 0L;
+				boolean boundary = amount < 0L && balance + amount == 0L; // whether zero is allowed is the kstream's call
+				if (Objects.equals(ResponseMessage.SUCCESS, response.getStatus())) {
+					report.setApproved(report.getApproved() + 1L);
+					approvedTotal += amount;
+					if (!fits && !boundary)
+						error(report, true, accountNumber, "approved %d against %d", amount, balance);
+					long expected = balance + amount;
+					if (transaction == null || !Objects.equals(transaction.getRunningBalanceAmount(), expected))
+						error(report, false, accountNumber, "approved %d against %d left %s", amount, balance, running(transaction));
+					balance = transaction == null ? expected : transaction.getRunningBalanceAmount();
+				} else if (Objects.equals(ResponseMessage.INSUFFICIENT_FUNDS, response.getStatus())) {
+					report.setRejected(report.getRejected() + 1L);
+					if (fits && !boundary)
+						error(report, true, accountNumber, "rejected %d against %d", amount, balance);
+					if (transaction == null || !Objects.equals(transaction.getRunningBalanceAmount(), balance))
+						error(report, false, accountNumber, "rejected %d against %d left %s", amount, balance, running(transaction));
+				} else {
+					error(report, true, accountNumber, "%d against %d answered %s %s", amount, balance, response.getStatus(), response.getErrorMessage());
+				}
+			}
+		}
+		if (closing - 1L != opening + approvedTotal) {
+			report.setConservationErrors(report.getConservationErrors() + 1L);
+			report.addErrorSample(String.format("%s: opened at %d, approved %d in total, closed at %d", accountNumber, opening,
+					approvedTotal, closing - 1L));
+		}
+	}
+
+	private void error(ContentionReport report, boolean decision, String accountNumber, String format, Object... args) {
+		if (decision)
+			report.setDecisionErrors(report.getDecisionErrors() + 1L);
+		else
+			report.setBalanceErrors(report.getBalanceErrors() + 1L);
+		report.addErrorSample(accountNumber + ": " + String.format(format, args));
+	}
+
+	private static String running(LoggedTransaction transaction) {
+		return transaction == null ? "no transaction" : String.valueOf(transaction.getRunningBalanceAmount());
+	}
+
+	private static LoggedTransaction transaction(ResponseMessage<PostingRequest,PostingResponse> response) {
+		if (response.getResponse() == null || response.getResponse().getTransactions() == null
+				|| response.getResponse().getTransactions().isEmpty())
+			return null;
+		return response.getResponse().getTransactions().get(0);
+	}
+
+	private static String accountNumber(PostingRequest request) {
+		if (request == null)
+			return null;
+		if (request.hasReservationRequest())
+			return request.getReservationRequest().getAccountNumber();
+		if (request.hasTransactionRequest())
+			return request.getTransactionRequest().getAccountNumber();
+		return null;
+	}
+
+	private static long amount(PostingRequest request) {
+		if (request.hasReservationRequest())
+			return request.getReservationRequest().getTransactionAmount();
+		return request.getTransactionRequest().getTransactionAmount();
+	}
+}
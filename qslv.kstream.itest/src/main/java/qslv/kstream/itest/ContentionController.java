@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /contention/start   body ContentionSettings, runs in the background
+ * GET  /contention/report  steps so far, exactness checks once drained
+ */
+@RestController
+@RequestMapping("/contention")
+public class ContentionController extends BackgroundRunController<ContentionSettings, ContentionReport> {
+}
@@ -0,0 +1,119 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a contention run. Each step holds the responses to requests sent during it; backlog is what
+ * was still unanswered when the step ended, and grows step over step once the offered rate is past what
+ * one key can take. perKeyCeilingTps is the best completed rate per hot account over the steps.
+ *
+ * Exactness is checked per account in the order responses arrived, which is the order the kstream
+ * processed them: a debit must be rejected exactly when it would take the balance below zero, and every
+ * running balance must follow from the one before. conservationErrors counts accounts whose closing
+ * balance is not the opening balance plus every approved amount.
+ */
+public class ContentionReport extends RunReport<ContentionSettings> {
+
+	public static final String DRAINING = "DRAINING";
+
+	public static class Step {
+		private WorkloadResult result;
+		private double perAccountTps;
+		private long backlog;
+
+		public WorkloadResult getResult() {
+			return result;
+		}
+		public double getPerAccountTps() {
+			return perAccountTps;
+		}
+		public long getBacklog() {
+			return backlog;
+		}
+	}
+
+	private final List<Step> steps = new ArrayList<>();
+	private long responses;
+	private long approved;
+	private long rejected;
+	private long unanswered;
+	private long decisionErrors;
+	private long balanceErrors;
+	private long conservationErrors;
+	private final List<String> errorSamples = new ArrayList<>();
+
+	public ContentionReport(ContentionSettings settings) {
+		super(settings, RUNNING);
+	}
+
+	synchronized void add(WorkloadResult result, long backlog) {
+		Step step = new Step();
+		step.result = result;
+		step.perAccountTps = result.getAchievedTps() / Math.max(1, getSettings().getHotAccounts());
+		step.backlog = backlog;
+		steps.add(step);
+	}
+
+	public synchronized List<Step> getSteps() {
+		return new ArrayList<>(steps);
+	}
+	public synchronized double getPerKeyCeilingTps() {
+		return steps.stream().mapToDouble(Step::getPerAccountTps).max().orElse(0.0);
+	}
+	public boolean isExact() {
+		return unanswered == 0L && decisionErrors == 0L && balanceErrors == 0L && conservationErrors == 0L;
+	}
+	public long getResponses() {
+		return responses;
+	}
+	void setResponses(long responses) {
+		this.responses = responses;
+	}
+	public long getApproved() {
+		return approved;
+	}
+	void setApproved(long approved) {
+		this.approved = approved;
+	}
+	public long getRejected() {
+		return rejected;
+	}
+	void setRejected(long rejected) {
+		this.rejected = rejected;
+	}
+	public long getUnanswered() {
+		return unanswered;
+	}
+	void setUnanswered(long unanswered) {
+		this.unanswered = unanswered;
+	}
+	public long getDecisionErrors() {
+		return decisionErrors;
+	}
+	void setDecisionErrors(long decisionErrors) {
+		this.decisionErrors = decisionErrors;
+	}
+	public long getBalanceErrors() {
+		return balanceErrors;
+	}
+	void setBalanceErrors(long balanceErrors) {
+		this.balanceErrors = balanceErrors;
+	}
+	public long getConservationErrors() {
+		return conservationErrors;
+	}
+	void setConservationErrors(long conservationErrors) {
+		this.conservationErrors = conservationErrors;
+	}
+	/**
+	 * The first few errors, for a look at the responses involved.
+	 */
+	public synchronized List<String> getErrorSamples() {
+		return new ArrayList<>(errorSamples);
+	}
+	synchronized void addErrorSample(String sample) {
+		if (errorSamples.size() < 20)
+			errorSamples.add(sample);
+	}
+}
@@ -0,0 +1,86 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A contention run: hotAccounts accounts take every request, offered at each rate in turn for stepSeconds,
+ * from senders threads. Debits are random up to maxTransactionAmount; creditPercent of the transactions are
+ * credits instead, so the balance moves both ways across the NSF line. Stepping stops early once a step's
+ * p99 passes stopAtP99Millis.
+ */
+public class ContentionSettings {
+	private int hotAccounts = 1;
+	private List<Double> rates = new ArrayList<>(Arrays.asList(50.0, 100.0, 200.0, 400.0, 800.0, 1600.0));
+	private long stepSeconds = 30L;
+	private int senders = 4;
+	private long startingBalance = 2_000_000L;
+	private long maxTransactionAmount = 10_000L;
+	private int reservationPercent = 50;
+	private int creditPercent = 20;
+	private double stopAtP99Millis = 10_000.0;
+	private long drainTimeoutSeconds = 300L;
+
+	public int getHotAccounts() {
+		return hotAccounts;
+	}
+	public void setHotAccounts(int hotAccounts) {
+		this.hotAccounts = hotAccounts;
+	}
+	public List<Double> getRates() {
+		return rates;
+	}
+	public void setRates(List<Double> rates) {
+		this.rates = rates;
+	}
+	public long getStepSeconds() {
+		return stepSeconds;
+	}
+	public void setStepSeconds(long stepSeconds) {
+		this.stepSeconds = stepSeconds;
+	}
+	public int getSenders() {
+		return senders;
+	}
+	public void setSenders(int senders) {
+		this.senders = senders;
+	}
+	public long getStartingBalance() {
+		return startingBalance;
+	}
+	public void setStartingBalance(long startingBalance) {
+		this.startingBalance = startingBalance;
+	}
+	public long getMaxTransactionAmount() {
+		return maxTransactionAmount;
+	}
+	public void setMaxTransactionAmount(long maxTransactionAmount) {
+		this.maxTransactionAmount = maxTransactionAmount;
+	}
+	public int getReservationPercent() {
+		return reservationPercent;
+	}
+	public void setReservationPercent(int reservationPercent) {
+		this.reservationPercent = reservationPercent;
+	}
+	public int getCreditPercent() {
+		return creditPercent;
+	}
+	public void setCreditPercent(int creditPercent) {
+		this.creditPercent = creditPercent;
+	}
+	public double getStopAtP99Millis() {
+		return stopAtP99Millis;
+	}
+	public void setStopAtP99Millis(double stopAtP99Millis) {
+		this.stopAtP99Millis = stopAtP99Millis;
+	}
+	public long getDrainTimeoutSeconds() {
+		return drainTimeoutSeconds;
+	}
+	public void setDrainTimeoutSeconds(long drainTimeoutSeconds) {
+		this.drainTimeoutSeconds = drainTimeoutSeconds;
+	}
+
+}
@@ -0,0 +1,102 @@
+package qslv.kstream.itest;
+
+/**
+ * JSON message exchanged on the control topic by DistributedLoadCoordinator and DistributedLoadWorker.
+ *
+ * coordinator ANNOUNCE -> worker JOIN -> coordinator ASSIGN -> worker READY -> coordinator START
+ * worker SNAPSHOT every second while running, coordinator STOP -> worker DONE with the last snapshot.
+ */
+public class DistributedControlMessage {
+
+	public enum Type { ANNOUNCE, JOIN, ASSIGN, READY, START, SNAPSHOT, STOP, DONE }
+
+	private Type type;
+	private String runId;
+	private String nodeId;
+	private String targetNodeId;
+	private LoadScenario scenario;
+	private long startAtMillis;
+
+	private long sent;
+	private long completed;
+	private long failed;
+	private double intervalTps;
+	private String intervalHistogram; // base64 compressed HdrHistogram, microseconds
+
+	public DistributedControlMessage() {
+	}
+
+	public DistributedControlMessage(Type type, String runId, String nodeId) {
+		this.type = type;
+		this.runId = runId;
+		this.nodeId = nodeId;
+	}
+
+	public Type getType() {
+		return type;
+	}
+	public void setType(Type type) {
+		this.type = type;
+	}
+	public String getRunId() {
+		return runId;
+	}
+	public void setRunId(String runId) {
+		this.runId = runId;
+	}
+	public String getNodeId() {
+		return nodeId;
+	}
+	public void setNodeId(String nodeId) {
+		this.nodeId = nodeId;
+	}
+	public String getTargetNodeId() {
+		return targetNodeId;
+	}
+	public void setTargetNodeId(String targetNodeId) {
+		this.targetNodeId = targetNodeId;
+	}
+	public LoadScenario getScenario() {
+		return scenario;
+	}
+	public void setScenario(LoadScenario scenario) {
+		this.scenario = scenario;
+	}
+	public long getStartAtMillis() {
+		return startAtMillis;
+	}
+	public void setStartAtMillis(long startAtMillis) {
+		this.startAtMillis = startAtMillis;
+	}
+	public long getSent() {
+		return sent;
+	}
+	public void setSent(long sent) {
+		this.sent = sent;
+	}
+	public long getCompleted() {
+		return completed;
+	}
+	public void setCompleted(long completed) {
+		this.completed = completed;
+	}
+	public long getFailed() {
+		return failed;
+	}
+	public void setFailed(long failed) {
+		this.failed = failed;
+	}
+	public double getIntervalTps() {
+		return intervalTps;
+	}
+	public void setIntervalTps(double intervalTps) {
+		this.intervalTps = intervalTps;
+	}
+	public String getIntervalHistogram() {
+		return intervalHistogram;
+	}
+	public void setIntervalHistogram(String intervalHistogram) {
+		this.intervalHistogram = intervalHistogram;
+	}
+
+}
@@ -0,0 +1,46 @@
+package qslv.kstream.itest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * POST /distributed/start?nodes=&joinSeconds=   body LoadScenario, rate and account pool are totals across nodes
+ * POST /distributed/stop
+ * GET  /distributed/report
+ */
+@RestController
+@RequestMapping("/distributed")
+public class DistributedLoadController {
+
+	@Autowired
+	DistributedLoadCoordinator coordinator;
+
+	@PostMapping("/start")
+	public DistributedReport start(@RequestBody LoadScenario scenario, @RequestParam int nodes,
+			@RequestParam(defaultValue = "30") long joinSeconds) {
+		return coordinator.start(scenario, nodes, joinSeconds);
+	}
+
+	@PostMapping("/stop")
+	public DistributedReport stop() {
+		return report(coordinator.stop());
+	}
+
+	@GetMapping("/report")
+	public DistributedReport report() {
+		return report(coordinator.report());
+	}
+
+	private DistributedReport report(DistributedReport report) {
+		if (report == null)
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No distributed run");
+		return report;
+	}
+}
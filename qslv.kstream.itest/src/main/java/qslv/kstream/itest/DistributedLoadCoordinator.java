@@ -0,0 +1,171 @@
+package qslv.kstream.itest;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Drives a load run across every harness instance listening on the control topic. Each joined node gets
+ * a disjoint account range and an equal share of the target rate, all nodes start at the same wall clock
+ * time, and their interval histograms are merged into one DistributedReport.
+ */
+@Component
+public class DistributedLoadCoordinator {
+	private static final Logger log = LoggerFactory.getLogger(DistributedLoadCoordinator.class);
+
+	private static final long ACCOUNT_RANGE_BASE = 900_000_000_000L;
+	private static final long START_LEAD_MILLIS = 2_000L;
+	private static final long MIN_READY_TIMEOUT_MILLIS = 60_000L;
+
+	@Autowired
+	KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	ObjectMapper objectMapper;
+	@Autowired
+	ConfigProperties config;
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "qslv-distributed-coordinator");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private volatile DistributedReport report = null;
+
+	public synchronized DistributedReport start(LoadScenario scenario, int expectedNodes, long joinSeconds) {
+		if (report != null && report.isActive())
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Distributed run already active");
+		DistributedReport current = new DistributedReport(UUID.randomUUID().toString(), expectedNodes);
+		report = current;
+		executor.submit(() -> coordinate(current, scenario, joinSeconds));
+		return current;
+	}
+
+	public DistributedReport stop() {
+		DistributedReport current = report;
+		if (current == null || !current.isActive())
+			return current;
+		current.setState(DistributedReport.STOPPING);
+		kafkaProducerDao.produceControlMessage(new DistributedControlMessage(DistributedControlMessage.Type.STOP,
+				current.getRunId(), config.getNodeId()));
+		return current;
+	}
+
+	public DistributedReport report() {
+		return report;
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private void coordinate(DistributedReport current, LoadScenario scenario, long joinSeconds) {
+		try {
+			long joinDeadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(joinSeconds);
+			while (current.nodeIds().size() < current.getExpectedNodes() && System.currentTimeMillis() < joinDeadline) {
+				// workers only see messages produced after they subscribe, so keep announcing until they have all joined
+				kafkaProducerDao.produceControlMessage(new DistributedControlMessage(DistributedControlMessage.Type.ANNOUNCE,
+						current.getRunId(), config.getNodeId()));
+				Thread.sleep(1_000L);
+			}
+			current.setState(DistributedReport.PREPARING);
+			List<String> nodes = current.nodeIds();
+			if (nodes.isEmpty()) {
+				log.error("No harness instance joined run {}", current.getRunId());
+				current.setState(DistributedReport.FAILED);
+				return;
+			}
+			log.info("Run {} joined by {}", current.getRunId(), nodes);
+
+			int accountsPerNode = (int) Math.ceil(scenario.getAccountPoolSize() / (double) nodes.size());
+			for (int i = 0; i < nodes.size(); i++) {
+				LoadScenario assigned = objectMapper.convertValue(scenario, LoadScenario.class);
+				assigned.setAccountPoolSize(accountsPerNode);
+				assigned.setAccountRangeStart(ACCOUNT_RANGE_BASE + (long) i * accountsPerNode);
+				assigned.setTargetTps(scenario.getTargetTps() / nodes.size());
+				assigned.setDurationSeconds(0L); // the coordinator decides when the run stops
+				current.assigned(nodes.get(i), assigned.getAccountRangeStart(), accountsPerNode);
+
+				DistributedControlMessage assign = new DistributedControlMessage(DistributedControlMessage.Type.ASSIGN,
+						current.getRunId(), config.getNodeId());
+				assign.setTargetNodeId(nodes.get(i));
+				assign.setScenario(assigned);
+				kafkaProducerDao.produceControlMessage(assign);
+			}
+
+			long readyDeadline = System.currentTimeMillis() + Math.max(MIN_READY_TIMEOUT_MILLIS, accountsPerNode * 20L);
+			while (!current.allReady()) {
+				if (System.currentTimeMillis() > readyDeadline) {
+					log.error("Run {} timed out waiting for nodes to create their accounts", current.getRunId());
+					current.setState(DistributedReport.FAILED);
+					return;
+				}
+				Thread.sleep(100L);
+			}
+
+			long startAt = System.currentTimeMillis() + START_LEAD_MILLIS;
+			DistributedControlMessage start = new DistributedControlMessage(DistributedControlMessage.Type.START,
+					current.getRunId(), config.getNodeId());
+			start.setStartAtMillis(startAt);
+			kafkaProducerDao.produceControlMessage(start);
+			current.setStartAtMillis(startAt);
+			current.setState(DistributedReport.RUNNING);
+
+			if (scenario.getDurationSeconds() > 0) {
+				Thread.sleep(Math.max(0L, startAt + TimeUnit.SECONDS.toMillis(scenario.getDurationSeconds()) - System.currentTimeMillis()));
+				stop();
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (Exception ex) {
+			log.error("Run {} failed. {}", current.getRunId(), ex.toString());
+			current.setState(DistributedReport.FAILED);
+		}
+	}
+
+	@KafkaListener(containerFactory = "controlListenerContainerFactory",
+			topics = { "#{ @configProperties.controlTopic }" }, groupId="#{ 'kstream.itest.coordinator.' + @configProperties.nodeId }")
+	public void controlListen(@Payload String payload, Acknowledgment acknowledgment) {
+		log.debug("controlListen ENTRY");
+		try {
+			DistributedControlMessage message = objectMapper.readValue(payload, DistributedControlMessage.class);
+			DistributedReport current = report;
+			if (current != null && current.getRunId().equals(message.getRunId())) {
+				switch (message.getType()) {
+				case JOIN:
+					current.joined(message.getNodeId());
+					break;
+				case READY:
+					current.ready(message.getNodeId());
+					break;
+				case SNAPSHOT:
+				case DONE:
+					current.merge(message);
+					break;
+				default:
+					break;
+				}
+			}
+		} catch (Exception ex) {
+			log.warn("Unusable control message. {}", ex.toString());
+		}
+		acknowledgment.acknowledge();
+		log.debug("controlListen EXIT");
+	}
+}
@@ -0,0 +1,144 @@
+package qslv.kstream.itest;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Harness side of a distributed load run. Joins announced runs, builds its assigned account range,
+ * starts at the coordinated time and publishes a snapshot with its interval histogram every second.
+ * Enabled with qslv.distributed-worker=true.
+ */
+@Component
+public class DistributedLoadWorker {
+	private static final Logger log = LoggerFactory.getLogger(DistributedLoadWorker.class);
+
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	LoadRunner loadRunner;
+	@Autowired
+	KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	ObjectMapper objectMapper;
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "qslv-distributed-worker");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final Consumer<LoadStatistics.Snapshot> snapshotPublisher = this::publishSnapshot;
+	private volatile String runId = null;
+	private volatile double assignedTps = 0.0;
+
+	@PostConstruct
+	void registerSnapshots() {
+		loadRunner.addStatsListener(snapshotPublisher);
+	}
+
+	@PreDestroy
+	void shutdown() {
+		loadRunner.removeStatsListener(snapshotPublisher);
+		executor.shutdownNow();
+	}
+
+	@KafkaListener(containerFactory = "controlListenerContainerFactory",
+			topics = { "#{ @configProperties.controlTopic }" }, groupId="#{ 'kstream.itest.worker.' + @configProperties.nodeId }",
+			autoStartup = "#{ @configProperties.distributedWorker }")
+	public void controlListen(@Payload String payload, Acknowledgment acknowledgment) {
+		log.debug("controlListen ENTRY");
+		try {
+			DistributedControlMessage message = objectMapper.readValue(payload, DistributedControlMessage.class);
+			switch (message.getType()) {
+			case ANNOUNCE:
+				if (runId == null && loadRunner.getState() == LoadRunner.State.IDLE)
+					executor.submit(() -> reply(DistributedControlMessage.Type.JOIN, message.getRunId()));
+				break;
+			case ASSIGN:
+				if (config.getNodeId().equals(message.getTargetNodeId()))
+					executor.submit(() -> prepare(message));
+				break;
+			case START:
+				if (message.getRunId().equals(runId))
+					executor.submit(() -> begin(message));
+				break;
+			case STOP:
+				if (message.getRunId().equals(runId))
+					executor.submit(this::finish);
+				break;
+			default:
+				break;
+			}
+		} catch (Exception ex) {
+			log.warn("Unusable control message. {}", ex.toString());
+		}
+		acknowledgment.acknowledge();
+		log.debug("controlListen EXIT");
+	}
+
+	private void prepare(DistributedControlMessage assign) {
+		try {
+			LoadScenario scenario = assign.getScenario();
+			assignedTps = scenario.getTargetTps();
+			scenario.setTargetTps(0.0); // create the accounts now, hold the rate at zero until START
+			loadRunner.start(scenario);
+			runId = assign.getRunId();
+			reply(DistributedControlMessage.Type.READY, runId);
+			log.info("Node {} ready for run {} with accounts from {}", config.getNodeId(), runId, scenario.getAccountRangeStart());
+		} catch (Exception ex) {
+			log.error("Node {} could not prepare run {}. {}", config.getNodeId(), assign.getRunId(), ex.toString());
+		}
+	}
+
+	private void begin(DistributedControlMessage start) {
+		try {
+			long wait = start.getStartAtMillis() - System.currentTimeMillis();
+			if (wait > 0L)
+				Thread.sleep(wait);
+			loadRunner.rate(assignedTps);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void finish() {
+		String finishing = runId;
+		LoadStatistics.Snapshot last = loadRunner.stop(); // publishes the final interval through publishSnapshot
+		runId = null;
+		DistributedControlMessage done = new DistributedControlMessage(DistributedControlMessage.Type.DONE, finishing, config.getNodeId());
+		done.setSent(last.getSent());
+		done.setCompleted(last.getCompleted());
+		done.setFailed(last.getFailed());
+		kafkaProducerDao.produceControlMessage(done);
+	}
+
+	private void publishSnapshot(LoadStatistics.Snapshot snapshot) {
+		String current = runId;
+		if (current == null)
+			return;
+		DistributedControlMessage message = new DistributedControlMessage(DistributedControlMessage.Type.SNAPSHOT, current, config.getNodeId());
+		message.setSent(snapshot.getSent());
+		message.setCompleted(snapshot.getCompleted());
+		message.setFailed(snapshot.getFailed());
+		message.setIntervalTps(snapshot.getIntervalTps());
+		message.setIntervalHistogram(HistogramCodec.encode(snapshot.getIntervalHistogram()));
+		kafkaProducerDao.produceControlMessage(message);
+	}
+
+	private void reply(DistributedControlMessage.Type type, String replyRunId) {
+		kafkaProducerDao.produceControlMessage(new DistributedControlMessage(type, replyRunId, config.getNodeId()));
+	}
+}
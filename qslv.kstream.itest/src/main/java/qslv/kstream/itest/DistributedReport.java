@@ -0,0 +1,177 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Coordinator view of one distributed load run. Latency percentiles come from the interval histograms
+ * every node publishes, merged into a single histogram.
+ */
+public class DistributedReport {
+
+	public static final String JOINING = "JOINING";
+	public static final String PREPARING = "PREPARING";
+	public static final String RUNNING = "RUNNING";
+	public static final String STOPPING = "STOPPING";
+	public static final String COMPLETE = "COMPLETE";
+	public static final String FAILED = "FAILED";
+
+	private final String runId;
+	private final int expectedNodes;
+	private final Map<String, NodeReport> nodes = new TreeMap<>();
+	private final Histogram merged = new Histogram(3);
+	private volatile String state = JOINING;
+	private volatile long startAtMillis;
+
+	public DistributedReport(String runId, int expectedNodes) {
+		this.runId = runId;
+		this.expectedNodes = expectedNodes;
+	}
+
+	synchronized void joined(String nodeId) {
+		if (JOINING.equals(state) && nodeId != null)
+			nodes.putIfAbsent(nodeId, new NodeReport(nodeId));
+	}
+
+	synchronized List<String> nodeIds() {
+		return new ArrayList<>(nodes.keySet());
+	}
+
+	synchronized void assigned(String nodeId, long accountRangeStart, int accountCount) {
+		NodeReport node = nodes.get(nodeId);
+		node.accountRangeStart = accountRangeStart;
+		node.accountCount = accountCount;
+	}
+
+	synchronized void ready(String nodeId) {
+		NodeReport node = nodes.get(nodeId);
+		if (node != null)
+			node.ready = true;
+	}
+
+	synchronized boolean allReady() {
+		return nodes.values().stream().allMatch(n -> n.ready);
+	}
+
+	synchronized void merge(DistributedControlMessage message) throws DataFormatException {
+		NodeReport node = nodes.get(message.getNodeId());
+		if (node == null)
+			return;
+		node.sent = message.getSent();
+		node.completed = message.getCompleted();
+		node.failed = message.getFailed();
+		node.intervalTps = message.getIntervalTps();
+		if (message.getIntervalHistogram() != null)
+			merged.add(HistogramCodec.decode(message.getIntervalHistogram()));
+		if (message.getType() == DistributedControlMessage.Type.DONE) {
+			node.done = true;
+			node.intervalTps = 0.0;
+			if (nodes.values().stream().allMatch(n -> n.done))
+				state = COMPLETE;
+		}
+	}
+
+	void setState(String state) {
+		this.state = state;
+	}
+
+	void setStartAtMillis(long startAtMillis) {
+		this.startAtMillis = startAtMillis;
+	}
+
+	@JsonIgnore
+	public boolean isActive() {
+		return !COMPLETE.equals(state) && !FAILED.equals(state);
+	}
+
+	public String getRunId() {
+		return runId;
+	}
+	public int getExpectedNodes() {
+		return expectedNodes;
+	}
+	public String getState() {
+		return state;
+	}
+	public long getStartAtMillis() {
+		return startAtMillis;
+	}
+	public synchronized List<NodeReport> getNodes() {
+		return new ArrayList<>(nodes.values());
+	}
+	public synchronized long getSent() {
+		return nodes.values().stream().mapToLong(n -> n.sent).sum();
+	}
+	public synchronized long getCompleted() {
+		return nodes.values().stream().mapToLong(n -> n.completed).sum();
+	}
+	public synchronized long getFailed() {
+		return nodes.values().stream().mapToLong(n -> n.failed).sum();
+	}
+	public synchronized double getThroughputTps() {
+		return nodes.values().stream().mapToDouble(n -> n.intervalTps).sum();
+	}
+	public synchronized double getP50Millis() {
+		return merged.getValueAtPercentile(50.0) / 1000.0;
+	}
+	public synchronized double getP99Millis() {
+		return merged.getValueAtPercentile(99.0) / 1000.0;
+	}
+	public synchronized double getP999Millis() {
+		return merged.getValueAtPercentile(99.9) / 1000.0;
+	}
+	public synchronized double getMaxMillis() {
+		return merged.getMaxValue() / 1000.0;
+	}
+
+	public static class NodeReport {
+		private final String nodeId;
+		private long accountRangeStart;
+		private int accountCount;
+		private boolean ready;
+		private boolean done;
+		private long sent;
+		private long completed;
+		private long failed;
+		private double intervalTps;
+
+		NodeReport(String nodeId) {
+			this.nodeId = nodeId;
+		}
+
+		public String getNodeId() {
+			return nodeId;
+		}
+		public long getAccountRangeStart() {
+			return accountRangeStart;
+		}
+		public int getAccountCount() {
+			return accountCount;
+		}
+		public boolean isReady() {
+			return ready;
+		}
+		public boolean isDone() {
+			return done;
+		}
+		public long getSent() {
+			return sent;
+		}
+		public long getCompleted() {
+			return completed;
+		}
+		public long getFailed() {
+			return failed;
+		}
+		public double getIntervalTps() {
+			return intervalTps;
+		}
+	}
+}
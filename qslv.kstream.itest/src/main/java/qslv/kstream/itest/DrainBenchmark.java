@@ -0,0 +1,173 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.PostingRequest;
+
+/**
+ * Measures recovery after an outage. The kstream under test is stopped, a backlog is produced onto the
+ * request topic, and the kstream is started again while LoadRunner offers a trickle of new requests.
+ * The drain rate is read from the growth of the response topic, the remaining backlog from the kstream
+ * consumer group, and the catch-up latency from the trickle.
+ *
+ * The kstream must have committed a position on the request topic before, or its lag cannot be read.
+ */
+@Component
+public class DrainBenchmark extends BackgroundRun<DrainSettings, DrainReport> {
+	private static final Logger log = LoggerFactory.getLogger(DrainBenchmark.class);
+	private static final int BACKLOG_CHUNK = 10_000;
+
+	@Autowired
+	KStreamControl kstreamControl;
+	@Autowired
+	KafkaLagProbe lagProbe;
+	@Autowired
+	LoadRunner loadRunner;
+	@Autowired
+	KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	PostingRequestFactory requestFactory;
+	@Autowired
+	RequestCorrelationTracker correlationTracker;
+	@Autowired
+	ConfigProperties config;
+
+	private volatile LoadStatistics.Snapshot probe = null;
+	private final Consumer<LoadStatistics.Snapshot> probeRecorder = snapshot -> probe = snapshot;
+
+	public DrainBenchmark() {
+		super("Drain");
+	}
+
+	@Override
+	protected DrainReport newReport(DrainSettings settings) {
+		return new DrainReport(settings);
+	}
+
+	@Override
+	protected void execute(DrainReport report, HarnessLock.Lease lease) throws Exception {
+		DrainSettings settings = report.getSettings();
+		List<String> requestTopic = Collections.singletonList(config.getRequestTopic());
+		List<String> responseTopic = Collections.singletonList(config.getResponseTopic());
+		report.setStopMillis(kstreamControl.stop(settings.getControlTimeoutSeconds()));
+		boolean restarted = false;
+		try {
+			report.setState(DrainReport.BUILDING);
+			long responsesBefore = lagProbe.endOffsetTotal(responseTopic);
+			long buildStart = System.currentTimeMillis();
+			report.setBacklogFailed(produceBacklog(settings));
+			report.setBacklogBuildMillis(System.currentTimeMillis() - buildStart);
+			report.setBacklogLag(lagProbe.lag(config.getKstreamApplicationId(), requestTopic));
+			log.info("Backlog of {} requests built in {}ms, kstream lag {}", settings.getBacklogSize(),
+					report.getBacklogBuildMillis(), report.getBacklogLag());
+
+			report.setState(DrainReport.DRAINING);
+			LoadScenario trickle = new LoadScenario();
+			trickle.setTargetTps(settings.getProbeTps());
+			trickle.setAccountPoolSize(settings.getProbeAccounts());
+			probe = null;
+			loadRunner.addStatsListener(probeRecorder);
+			loadRunner.start(trickle, lease);
+			try {
+				long restartAt = System.currentTimeMillis();
+				restarted = true;
+				report.setRestartMillis(kstreamControl.start(settings.getControlTimeoutSeconds()));
+				sample(report, restartAt, responsesBefore, requestTopic, responseTopic);
+			} finally {
+				report.setProbe(loadRunner.stop(lease));
+			}
+		} finally {
+			loadRunner.removeStatsListener(probeRecorder);
+			if (!restarted) {
+				try {
+					kstreamControl.start(settings.getControlTimeoutSeconds());
+				} catch (Exception startEx) {
+					log.warn("Restarting the kstream after a failed drain run failed. {}", startEx.toString());
+				}
+			}
+		}
+		report.setState(DrainReport.COMPLETE);
+		log.info("Drain finished. restart={}ms drained={}ms zeroLag={}ms peak={}/s probe p99={}ms",
+				report.getRestartMillis(), report.getDrainedMillis(), report.getZeroLagMillis(),
+				report.getPeakRecordsPerSecond(), report.getProbe().getP99Millis());
+	}
+
+	private void sample(DrainReport report, long restartAt, long responsesBefore, List<String> requestTopic,
+			List<String> responseTopic) throws Exception {
+		DrainSettings settings = report.getSettings();
+		long deadline = restartAt + TimeUnit.MINUTES.toMillis(settings.getMaxDrainMinutes());
+		long lastMillis = restartAt;
+		long lastResponses = 0L;
+		while (!report.isCaughtUp() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(settings.getSampleMillis());
+			long now = System.currentTimeMillis();
+			LoadStatistics.Snapshot current = probe;
+
+			DrainReport.Sample sample = new DrainReport.Sample();
+			sample.setElapsedMillis(now - restartAt);
+			long responses = lagProbe.endOffsetTotal(responseTopic) - responsesBefore;
+			sample.setRecordsPerSecond((responses - lastResponses) * 1000.0 / Math.max(1L, now - lastMillis));
+			// trickle responses land on the same topic; leave out what the trickle has had answered
+			sample.setResponses(responses - (current == null ? 0L : current.getCompleted()));
+			sample.setKstreamLag(lagProbe.lag(config.getKstreamApplicationId(), requestTopic));
+			if (current != null) {
+				sample.setProbeP50Millis(current.getIntervalP50Millis());
+				sample.setProbeP99Millis(current.getIntervalP99Millis());
+			}
+			report.add(sample);
+			lastMillis = now;
+			lastResponses = responses;
+		}
+	}
+
+	/**
+	 * Reservations and transactions spread over a fresh account pool, sent without flushing and waited
+	 * on a chunk at a time. The backlog is not tracked for round trips, only the trickle is; its
+	 * correlations are forgotten a chunk at a time, which is safe while the kstream is stopped.
+	 *
+	 * @return sends that failed.
+	 */
+	private long produceBacklog(DrainSettings settings) {
+		AccountPool pool = new AccountPool(kafkaProducerDao, settings.getStartingBalance());
+		pool.resize(settings.getAccountPoolSize());
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		List<ListenableFuture<SendResult<String, TraceableMessage<PostingRequest>>>> chunk = new ArrayList<>(BACKLOG_CHUNK);
+		List<String> correlationIds = new ArrayList<>(BACKLOG_CHUNK);
+		long failed = 0L;
+		for (int i = 0; i < settings.getBacklogSize(); i++) {
+			String accountNumber = pool.random().getAccountNumber();
+			long amount = -(1L + random.nextInt(100));
+			TraceableMessage<PostingRequest> request = random.nextBoolean()
+					? requestFactory.reservation(accountNumber, amount)
+					: requestFactory.transaction(accountNumber, amount);
+			correlationIds.add(request.getCorrelationId());
+			chunk.add(kafkaProducerDao.produceRequestMessageAsync(request));
+			if (chunk.size() == BACKLOG_CHUNK || i == settings.getBacklogSize() - 1) {
+				for (ListenableFuture<SendResult<String, TraceableMessage<PostingRequest>>> future : chunk) {
+					try {
+						future.get();
+					} catch (Exception ex) {
+						failed++;
+					}
+				}
+				chunk.clear();
+				correlationTracker.forget(correlationIds);
+				correlationIds.clear();
+			}
+		}
+		return failed;
+	}
+}
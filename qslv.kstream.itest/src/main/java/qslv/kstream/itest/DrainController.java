@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /drain/start   body DrainSettings, runs in the background
+ * GET  /drain/report  timeline so far
+ */
+@RestController
+@RequestMapping("/drain")
+public class DrainController extends BackgroundRunController<DrainSettings, DrainReport> {
+}
@@ -0,0 +1,152 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a catch-up drain run. Times are milliseconds from the kstream start command unless noted.
+ * drainedMillis is when responses for the whole backlog had been produced; zeroLagMillis is when the
+ * committed position of the kstream reached the end of the request topic, so it is only as fine as the
+ * kstream commit.interval.ms. Either stays -1 when it did not happen within maxDrainMinutes.
+ */
+public class DrainReport extends RunReport<DrainSettings> {
+
+	public static final String STOPPING = "STOPPING";
+	public static final String BUILDING = "BUILDING";
+	public static final String DRAINING = "DRAINING";
+
+	/**
+	 * One sample of the drain timeline.
+	 */
+	public static class Sample {
+		private long elapsedMillis;
+		private double recordsPerSecond;
+		private long responses;
+		private long kstreamLag;
+		private double probeP50Millis;
+		private double probeP99Millis;
+
+		public long getElapsedMillis() {
+			return elapsedMillis;
+		}
+		public void setElapsedMillis(long elapsedMillis) {
+			this.elapsedMillis = elapsedMillis;
+		}
+		public double getRecordsPerSecond() {
+			return recordsPerSecond;
+		}
+		public void setRecordsPerSecond(double recordsPerSecond) {
+			this.recordsPerSecond = recordsPerSecond;
+		}
+		public long getResponses() {
+			return responses;
+		}
+		public void setResponses(long responses) {
+			this.responses = responses;
+		}
+		public long getKstreamLag() {
+			return kstreamLag;
+		}
+		public void setKstreamLag(long kstreamLag) {
+			this.kstreamLag = kstreamLag;
+		}
+		public double getProbeP50Millis() {
+			return probeP50Millis;
+		}
+		public void setProbeP50Millis(double probeP50Millis) {
+			this.probeP50Millis = probeP50Millis;
+		}
+		public double getProbeP99Millis() {
+			return probeP99Millis;
+		}
+		public void setProbeP99Millis(double probeP99Millis) {
+			this.probeP99Millis = probeP99Millis;
+		}
+	}
+
+	private final List<Sample> samples = new ArrayList<>();
+	private long stopMillis;
+	private long backlogBuildMillis;
+	private long backlogFailed;
+	private long backlogLag;
+	private long restartMillis;
+	private long drainedMillis = -1L;
+	private long zeroLagMillis = -1L;
+	private double peakRecordsPerSecond;
+	private LoadStatistics.Snapshot probe;
+
+	public DrainReport(DrainSettings settings) {
+		super(settings, STOPPING);
+	}
+
+	synchronized void add(Sample sample) {
+		samples.add(sample);
+		peakRecordsPerSecond = Math.max(peakRecordsPerSecond, sample.getRecordsPerSecond());
+		if (drainedMillis < 0L && sample.getResponses() >= getSettings().getBacklogSize())
+			drainedMillis = sample.getElapsedMillis();
+		if (zeroLagMillis < 0L && sample.getKstreamLag() == 0L)
+			zeroLagMillis = sample.getElapsedMillis();
+	}
+
+	synchronized boolean isCaughtUp() {
+		return drainedMillis >= 0L && zeroLagMillis >= 0L;
+	}
+
+	public synchronized List<Sample> getSamples() {
+		return new ArrayList<>(samples);
+	}
+	public long getStopMillis() {
+		return stopMillis;
+	}
+	void setStopMillis(long stopMillis) {
+		this.stopMillis = stopMillis;
+	}
+	public long getBacklogBuildMillis() {
+		return backlogBuildMillis;
+	}
+	void setBacklogBuildMillis(long backlogBuildMillis) {
+		this.backlogBuildMillis = backlogBuildMillis;
+	}
+	public long getBacklogFailed() {
+		return backlogFailed;
+	}
+	void setBacklogFailed(long backlogFailed) {
+		this.backlogFailed = backlogFailed;
+	}
+	public long getBacklogLag() {
+		return backlogLag;
+	}
+	void setBacklogLag(long backlogLag) {
+		this.backlogLag = backlogLag;
+	}
+	public long getRestartMillis() {
+		return restartMillis;
+	}
+	void setRestartMillis(long restartMillis) {
+		this.restartMillis = restartMillis;
+	}
+	public synchronized long getDrainedMillis() {
+		return drainedMillis;
+	}
+	public synchronized long getZeroLagMillis() {
+		return zeroLagMillis;
+	}
+	public synchronized double getPeakRecordsPerSecond() {
+		return peakRecordsPerSecond;
+	}
+	/**
+	 * Backlog over the time from the start command until its last response.
+	 */
+	public synchronized double getMeanRecordsPerSecond() {
+		return drainedMillis <= 0L ? 0.0 : getSettings().getBacklogSize() * 1000.0 / drainedMillis;
+	}
+	/**
+	 * Final load statistics of the requests offered during catch-up.
+	 */
+	public LoadStatistics.Snapshot getProbe() {
+		return probe;
+	}
+	void setProbe(LoadStatistics.Snapshot probe) {
+		this.probe = probe;
+	}
+}
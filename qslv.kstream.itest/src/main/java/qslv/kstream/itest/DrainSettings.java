@@ -0,0 +1,66 @@
+package qslv.kstream.itest;
+
+/**
+ * A catch-up drain run: stop the kstream, offer backlogSize requests over accountPoolSize accounts,
+ * restart it and watch the backlog drain while probeTps new requests arrive behind it.
+ */
+public class DrainSettings {
+	private int backlogSize = 1_000_000;
+	private int accountPoolSize = 1_000;
+	private long startingBalance = 1_000_000_000L;
+	private double probeTps = 10.0;
+	private int probeAccounts = 10;
+	private long sampleMillis = 1_000L;
+	private long controlTimeoutSeconds = 300L;
+	private long maxDrainMinutes = 60L;
+
+	public int getBacklogSize() {
+		return backlogSize;
+	}
+	public void setBacklogSize(int backlogSize) {
+		this.backlogSize = backlogSize;
+	}
+	public int getAccountPoolSize() {
+		return accountPoolSize;
+	}
+	public void setAccountPoolSize(int accountPoolSize) {
+		this.accountPoolSize = accountPoolSize;
+	}
+	public long getStartingBalance() {
+		return startingBalance;
+	}
+	public void setStartingBalance(long startingBalance) {
+		this.startingBalance = startingBalance;
+	}
+	public double getProbeTps() {
+		return probeTps;
+	}
+	public void setProbeTps(double probeTps) {
+		this.probeTps = probeTps;
+	}
+	public int getProbeAccounts() {
+		return probeAccounts;
+	}
+	public void setProbeAccounts(int probeAccounts) {
+		this.probeAccounts = probeAccounts;
+	}
+	public long getSampleMillis() {
+		return sampleMillis;
+	}
+	public void setSampleMillis(long sampleMillis) {
+		this.sampleMillis = sampleMillis;
+	}
+	public long getControlTimeoutSeconds() {
+		return controlTimeoutSeconds;
+	}
+	public void setControlTimeoutSeconds(long controlTimeoutSeconds) {
+		this.controlTimeoutSeconds = controlTimeoutSeconds;
+	}
+	public long getMaxDrainMinutes() {
+		return maxDrainMinutes;
+	}
+	public void setMaxDrainMinutes(long maxDrainMinutes) {
+		this.maxDrainMinutes = maxDrainMinutes;
+	}
+
+}
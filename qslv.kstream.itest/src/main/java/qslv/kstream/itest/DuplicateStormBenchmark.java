@@ -0,0 +1,257 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+
+/**
+ * Mixes client retries into a paced request stream: a share of the sends are earlier requests sent again
+ * under a new correlation id, so their responses can be told apart, but with the request uuid and
+ * reservation uuid of the original. Measures the duplicate path against the happy path and audits the
+ * transaction log for postings made twice.
+ */
+@Component
+public class DuplicateStormBenchmark extends BackgroundRun<DuplicateStormSettings, DuplicateStormReport> {
+	private static final Logger log = LoggerFactory.getLogger(DuplicateStormBenchmark.class);
+
+	@Autowired
+	KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	PostingRequestFactory requestFactory;
+	@Autowired
+	RequestCorrelationTracker correlationTracker;
+	@Autowired
+	KafkaLagProbe lagProbe;
+	@Autowired
+	TransactionLogAuditor auditor;
+	@Autowired
+	ConfigProperties config;
+
+	private final Set<String> replayIds = ConcurrentHashMap.newKeySet();
+	private final Map<UUID, Set<UUID>> originalPostings = new ConcurrentHashMap<>();
+	private final Queue<ResponseMessage<PostingRequest,PostingResponse>> replaySuccesses = new ConcurrentLinkedQueue<>();
+	private final Queue<LoggedTransaction> openReservations = new ConcurrentLinkedQueue<>();
+	private final Set<UUID> posted = ConcurrentHashMap.newKeySet();
+	private final Map<String, AtomicLong> originalStatuses = new ConcurrentHashMap<>();
+	private final Map<String, AtomicLong> replayStatuses = new ConcurrentHashMap<>();
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong answered = new AtomicLong();
+	private final RequestCorrelationTracker.PostingResponseObserver observer = this::responseReceived;
+	private volatile LoadStatistics originals = new LoadStatistics();
+	private volatile LoadStatistics replays = new LoadStatistics();
+
+	public DuplicateStormBenchmark() {
+		super("Duplicate storm");
+	}
+
+	@Override
+	protected DuplicateStormReport newReport(DuplicateStormSettings settings) {
+		return new DuplicateStormReport(settings);
+	}
+
+	@Override
+	protected void execute(DuplicateStormReport report, HarnessLock.Lease lease) throws Exception {
+		DuplicateStormSettings settings = report.getSettings();
+		List<String> transactionLog = Collections.singletonList(config.getLoggedTransactionTopic());
+		replayIds.clear();
+		originalPostings.clear();
+		replaySuccesses.clear();
+		openReservations.clear();
+		posted.clear();
+		originalStatuses.clear();
+		replayStatuses.clear();
+		sent.set(0L);
+		answered.set(0L);
+		originals = new LoadStatistics();
+		replays = new LoadStatistics();
+		correlationTracker.addObserver(observer);
+		try {
+			AccountPool pool = new AccountPool(kafkaProducerDao, settings.getStartingBalance());
+			pool.resize(settings.getAccounts());
+			Map<TopicPartition, Long> from = lagProbe.endOffsets(transactionLog);
+
+			long start = System.currentTimeMillis();
+			send(settings, pool);
+			report.setState(DuplicateStormReport.AUDITING);
+			long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(settings.getDrainTimeoutSeconds());
+			while (answered.get() < sent.get() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(250L);
+			}
+			long elapsed = System.currentTimeMillis() - start;
+			Map<TopicPartition, Long> to = lagProbe.endOffsets(transactionLog);
+
+			double replayShare = settings.getDuplicatePercent() / 100.0;
+			LoadStatistics.Snapshot original = originals.tick("ORIGINAL", settings.getTps() * (1.0 - replayShare));
+			LoadStatistics.Snapshot replay = replays.tick("REPLAY", settings.getTps() * replayShare);
+			report.finish(
+					WorkloadResult.of(settings.getTps() * (1.0 - replayShare), elapsed, original.getSent(), original.getFailed(),
+							originals.cumulativeHistogram()),
+					WorkloadResult.of(settings.getTps() * replayShare, elapsed, replay.getSent(), replay.getFailed(),
+							replays.cumulativeHistogram()),
+					counts(originalStatuses), counts(replayStatuses), replayedSuccesses(), sent.get() - answered.get(),
+					auditor.audit(from, to, posted));
+			log.info("Duplicate storm finished. originals p99={}ms {}, replays p99={}ms {}, replayed successes {}, idempotent {}",
+					report.getOriginals().getP99Millis(), report.getOriginalStatuses(), report.getReplays().getP99Millis(),
+					report.getReplayStatuses(), report.getReplayedSuccesses(), report.isIdempotent());
+		} finally {
+			correlationTracker.removeObserver(observer);
+		}
+	}
+
+	private void send(DuplicateStormSettings settings, AccountPool pool) {
+		List<PostingRequest> recent = new ArrayList<>();
+		int recentSize = Math.max(1, settings.getRecentRequests());
+		int recentNext = 0;
+		long interval = (long) (1_000_000_000.0 / Math.max(0.001, settings.getTps()));
+		long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(settings.getDurationSeconds());
+		long next = System.nanoTime();
+		while (System.currentTimeMillis() < end) {
+			long now = System.nanoTime();
+			if (next > now) {
+				LockSupport.parkNanos(next - now);
+				continue;
+			}
+			next += interval;
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			if (!recent.isEmpty() && random.nextInt(100) < settings.getDuplicatePercent()) {
+				TraceableMessage<PostingRequest> replay = requestFactory.traceable(recent.get(random.nextInt(recent.size())));
+				replayIds.add(replay.getCorrelationId());
+				produce(replay, replays);
+				continue;
+			}
+			TraceableMessage<PostingRequest> request = original(settings, pool, random);
+			if (recent.size() < recentSize)
+				recent.add(request.getPayload());
+			else
+				recent.set(recentNext++ % recentSize, request.getPayload());
+			produce(request, originals);
+		}
+	}
+
+	private TraceableMessage<PostingRequest> original(DuplicateStormSettings settings, AccountPool pool, ThreadLocalRandom random) {
+		String accountNumber = pool.random().getAccountNumber();
+		long amount = -(1L + random.nextLong(Math.max(1L, settings.getMaxTransactionAmount())));
+		int total = settings.getReservationWeight() + settings.getTransactionWeight() + settings.getCommitWeight() + settings.getCancelWeight();
+		int pick = random.nextInt(Math.max(1, total));
+		if ((pick -= settings.getReservationWeight()) < 0)
+			return requestFactory.reservation(accountNumber, amount);
+		if ((pick -= settings.getTransactionWeight()) < 0)
+			return requestFactory.transaction(accountNumber, amount);
+
+		LoggedTransaction open = openReservations.poll();
+		if (open == null)
+			return requestFactory.reservation(accountNumber, amount);
+		if ((pick -= settings.getCommitWeight()) < 0)
+			return requestFactory.commit(open.getAccountNumber(), open.getTransactionUuid(), open.getTransactionAmount());
+		return requestFactory.cancel(open.getAccountNumber(), open.getTransactionUuid());
+	}
+
+	private void produce(TraceableMessage<PostingRequest> request, LoadStatistics statistics) {
+		statistics.sent();
+		sent.incrementAndGet();
+		try {
+			kafkaProducerDao.produceRequestMessageAsync(request).addCallback(result -> { }, ex -> {
+				statistics.failed();
+				sent.decrementAndGet();
+			});
+		} catch (ResponseStatusException ex) {
+			statistics.failed();
+			sent.decrementAndGet();
+		}
+	}
+
+	private void responseReceived(ResponseMessage<PostingRequest,PostingResponse> response, long latencyNanos) {
+		boolean replay = replayIds.remove(response.getCorrelationId());
+		(replay ? replays : originals).completed(latencyNanos);
+		(replay ? replayStatuses : originalStatuses).computeIfAbsent(String.valueOf(response.getStatus()), status -> new AtomicLong())
+				.incrementAndGet();
+		answered.incrementAndGet();
+
+		if (response.getResponse() == null || response.getResponse().getTransactions() == null
+				|| !Objects.equals(ResponseMessage.SUCCESS, response.getStatus()))
+			return;
+		Set<UUID> transactions = new HashSet<>();
+		for (LoggedTransaction transaction : response.getResponse().getTransactions()) {
+			transactions.add(transaction.getTransactionUuid());
+			posted.add(transaction.getTransactionUuid());
+		}
+		if (replay) {
+			replaySuccesses.add(response);
+			return;
+		}
+		UUID requestUuid = requestUuid(response.getRequest());
+		if (requestUuid != null)
+			originalPostings.put(requestUuid, transactions);
+		for (LoggedTransaction transaction : response.getResponse().getTransactions()) {
+			if (Objects.equals(LoggedTransaction.RESERVATION, transaction.getTransactionTypeCode()))
+				openReservations.offer(transaction);
+		}
+	}
+
+	/**
+	 * Replays answered SUCCESS with a transaction their original was not given. Checked once everything
+	 * is answered, since a replay can be answered before its original is.
+	 */
+	private long replayedSuccesses() {
+		long count = 0L;
+		for (ResponseMessage<PostingRequest,PostingResponse> response : replaySuccesses) {
+			UUID requestUuid = requestUuid(response.getRequest());
+			Set<UUID> original = requestUuid == null ? null : originalPostings.get(requestUuid);
+			if (original == null)
+				original = Collections.emptySet();
+			for (LoggedTransaction transaction : response.getResponse().getTransactions()) {
+				if (!original.contains(transaction.getTransactionUuid())) {
+					count++;
+					break;
+				}
+			}
+		}
+		return count;
+	}
+
+	private static Map<String, Long> counts(Map<String, AtomicLong> counters) {
+		Map<String, Long> counts = new HashMap<>();
+		counters.forEach((status, count) -> counts.put(status, count.get()));
+		return counts;
+	}
+
+	private static UUID requestUuid(PostingRequest request) {
+		if (request == null)
+			return null;
+		if (request.hasReservationRequest())
+			return request.getReservationRequest().getRequestUuid();
+		if (request.hasTransactionRequest())
+			return request.getTransactionRequest().getRequestUuid();
+		if (request.hasCommitReservationRequest())
+			return request.getCommitReservationRequest().getRequestUuid();
+		if (request.hasCancelReservationRequest())
+			return request.getCancelReservationRequest().getRequestUuid();
+		return null;
+	}
+}
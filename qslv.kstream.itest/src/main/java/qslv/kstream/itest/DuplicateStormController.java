@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /duplicate-storm/start   body DuplicateStormSettings, runs in the background
+ * GET  /duplicate-storm/report  originals against replays and the transaction log audit, once drained
+ */
+@RestController
+@RequestMapping("/duplicate-storm")
+public class DuplicateStormController extends BackgroundRunController<DuplicateStormSettings, DuplicateStormReport> {
+}
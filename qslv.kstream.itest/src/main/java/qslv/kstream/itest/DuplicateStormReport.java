@@ -0,0 +1,68 @@
+package qslv.kstream.itest;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of a duplicate storm. Originals and replays are reported apart: rate and latency of each, and
+ * how many of each were answered with each status. A replayed commit or cancel should come back CONFLICT
+ * "No match"; replayedSuccesses counts replays that were answered SUCCESS with a transaction uuid the
+ * original did not get, which would be a second posting. The audit reads the transaction log written
+ * during the run; a request uuid logged twice with the same transaction type is a double posting.
+ */
+public class DuplicateStormReport extends RunReport<DuplicateStormSettings> {
+
+	public static final String AUDITING = "AUDITING";
+
+	private WorkloadResult originals;
+	private WorkloadResult replays;
+	private Map<String, Long> originalStatuses = new TreeMap<>();
+	private Map<String, Long> replayStatuses = new TreeMap<>();
+	private long replayedSuccesses;
+	private long unanswered;
+	private TransactionLogAuditor.Audit audit;
+
+	public DuplicateStormReport(DuplicateStormSettings settings) {
+		super(settings, RUNNING);
+	}
+
+	synchronized void finish(WorkloadResult originals, WorkloadResult replays, Map<String, Long> originalStatuses,
+			Map<String, Long> replayStatuses, long replayedSuccesses, long unanswered, TransactionLogAuditor.Audit audit) {
+		this.originals = originals;
+		this.replays = replays;
+		this.originalStatuses = new TreeMap<>(originalStatuses);
+		this.replayStatuses = new TreeMap<>(replayStatuses);
+		this.replayedSuccesses = replayedSuccesses;
+		this.unanswered = unanswered;
+		this.audit = audit;
+		setState(COMPLETE);
+	}
+
+	public synchronized WorkloadResult getOriginals() {
+		return originals;
+	}
+	public synchronized WorkloadResult getReplays() {
+		return replays;
+	}
+	public synchronized Map<String, Long> getOriginalStatuses() {
+		return new TreeMap<>(originalStatuses);
+	}
+	public synchronized Map<String, Long> getReplayStatuses() {
+		return new TreeMap<>(replayStatuses);
+	}
+	public synchronized long getReplayedSuccesses() {
+		return replayedSuccesses;
+	}
+	public synchronized long getUnanswered() {
+		return unanswered;
+	}
+	public synchronized TransactionLogAuditor.Audit getAudit() {
+		return audit;
+	}
+	/**
+	 * No double postings, by the responses or on the log.
+	 */
+	public synchronized boolean isIdempotent() {
+		return replayedSuccesses == 0L && audit != null && audit.getDuplicateTransactions() == 0L && audit.getDuplicateRequests() == 0L;
+	}
+}
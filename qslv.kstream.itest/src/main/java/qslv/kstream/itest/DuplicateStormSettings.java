@@ -0,0 +1,95 @@
+package qslv.kstream.itest;
+
+/**
+ * A duplicate storm: requests at tps for durationSeconds over accounts accounts, in the reservation,
+ * transaction, commit and cancel mix of the weights. duplicatePercent of what is sent are not new requests
+ * but replays of one of the last recentRequests originals, request uuid and reservation uuid unchanged,
+ * the way a client resends when it times out waiting for an answer.
+ */
+public class DuplicateStormSettings {
+	private double tps = 100.0;
+	private long durationSeconds = 60L;
+	private int accounts = 50;
+	private long startingBalance = 1_000_000_000L;
+	private long maxTransactionAmount = 10_000L;
+	private int duplicatePercent = 20;
+	private int recentRequests = 1_000;
+	private int reservationWeight = 40;
+	private int transactionWeight = 20;
+	private int commitWeight = 20;
+	private int cancelWeight = 20;
+	private long drainTimeoutSeconds = 120L;
+
+	public double getTps() {
+		return tps;
+	}
+	public void setTps(double tps) {
+		this.tps = tps;
+	}
+	public long getDurationSeconds() {
+		return durationSeconds;
+	}
+	public void setDurationSeconds(long durationSeconds) {
+		this.durationSeconds = durationSeconds;
+	}
+	public int getAccounts() {
+		return accounts;
+	}
+	public void setAccounts(int accounts) {
+		this.accounts = accounts;
+	}
+	public long getStartingBalance() {
+		return startingBalance;
+	}
+	public void setStartingBalance(long startingBalance) {
+		this.startingBalance = startingBalance;
+	}
+	public long getMaxTransactionAmount() {
+		return maxTransactionAmount;
+	}
+	public void setMaxTransactionAmount(long maxTransactionAmount) {
+		this.maxTransactionAmount = maxTransactionAmount;
+	}
+	public int getDuplicatePercent() {
+		return duplicatePercent;
+	}
+	public void setDuplicatePercent(int duplicatePercent) {
+		this.duplicatePercent = duplicatePercent;
+	}
+	public int getRecentRequests() {
+		return recentRequests;
+	}
+	public void setRecentRequests(int recentRequests) {
+		this.recentRequests = recentRequests;
+	}
+	public int getReservationWeight() {
+		return reservationWeight;
+	}
+	public void setReservationWeight(int reservationWeight) {
+		this.reservationWeight = reservationWeight;
+	}
+	public int getTransactionWeight() {
+		return transactionWeight;
+	}
+	public void setTransactionWeight(int transactionWeight) {
+		this.transactionWeight = transactionWeight;
+	}
+	public int getCommitWeight() {
+		return commitWeight;
+	}
+	public void setCommitWeight(int commitWeight) {
+		this.commitWeight = commitWeight;
+	}
+	public int getCancelWeight() {
+		return cancelWeight;
+	}
+	public void setCancelWeight(int cancelWeight) {
+		this.cancelWeight = cancelWeight;
+	}
+	public long getDrainTimeoutSeconds() {
+		return drainTimeoutSeconds;
+	}
+	public void setDrainTimeoutSeconds(long drainTimeoutSeconds) {
+		this.drainTimeoutSeconds = drainTimeoutSeconds;
+	}
+}
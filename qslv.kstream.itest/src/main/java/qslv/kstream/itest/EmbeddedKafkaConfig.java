@@ -0,0 +1,67 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+
+/**
+ * The "embedded" profile: an in-process cluster of qslv.embedded-kafka-brokers brokers with every topic in
+ * ConfigProperties created up front, qslv.embedded-kafka-partitions each unless qslv.topic-partitions says otherwise.
+ * producerConfig() and listenerConfig() point bootstrap.servers at it. Tests that declare @EmbeddedKafka keep their own broker.
+ */
+@Configuration
+@Profile("embedded")
+public class EmbeddedKafkaConfig {
+
+	@Autowired
+	ConfigProperties configProperties;
+
+	@Bean(destroyMethod = "destroy")
+	@ConditionalOnMissingBean(EmbeddedKafkaBroker.class)
+	public EmbeddedKafkaBroker embeddedKafkaBroker() {
+		int brokers = configProperties.getEmbeddedKafkaBrokers();
+		int replication = Math.min(3, brokers);
+		EmbeddedKafkaBroker broker = new EmbeddedKafkaBroker(brokers, false, configProperties.getEmbeddedKafkaPartitions()) {
+			@Override
+			public void afterPropertiesSet() {
+				long start = System.nanoTime();
+				super.afterPropertiesSet();
+				StartupTimer.record("embedded brokers", (System.nanoTime() - start) / 1_000_000L);
+			}
+		};
+		broker.brokerProperty("offsets.topic.replication.factor", String.valueOf(replication))
+				.brokerProperty("offsets.topic.num.partitions", "5")
+				.brokerProperty("transaction.state.log.replication.factor", String.valueOf(replication))
+				.brokerProperty("transaction.state.log.min.isr", "1")
+				.brokerProperty("default.replication.factor", String.valueOf(replication))
+				.brokerProperty("group.initial.rebalance.delay.ms", "0");
+		if (!configProperties.getEmbeddedKafkaPorts().isEmpty())
+			broker.kafkaPorts(configProperties.getEmbeddedKafkaPorts().stream().mapToInt(Integer::intValue).toArray());
+		return broker;
+	}
+
+	@Bean
+	@Lazy(false)
+	public SmartInitializingSingleton embeddedKafkaTopics(EmbeddedKafkaBroker embeddedKafkaBroker) {
+		return () -> {
+			long start = System.nanoTime();
+			int replication = Math.min(3, embeddedKafkaBroker.getKafkaServers().size());
+			List<NewTopic> topics = new ArrayList<>();
+			for (String topic : configProperties.allTopics()) {
+				int partitions = configProperties.getTopicPartitions().getOrDefault(topic, configProperties.getEmbeddedKafkaPartitions());
+				topics.add(new NewTopic(topic, partitions, (short) replication));
+			}
+			embeddedKafkaBroker.addTopics(topics.toArray(new NewTopic[0]));
+			StartupTimer.record("embedded topics", (System.nanoTime() - start) / 1_000_000L);
+		};
+	}
+}
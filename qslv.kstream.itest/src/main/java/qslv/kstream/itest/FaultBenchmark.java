@@ -0,0 +1,185 @@
+package qslv.kstream.itest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import kafka.server.KafkaServer;
+import qslv.common.kafka.ResponseMessage;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+
+/**
+ * Injects one fault into a LoadRunner run, measures how long throughput takes to come back after the
+ * fault is cleared, then audits the transaction log written during the run for lost and duplicated postings.
+ * Broker restarts need the EmbeddedKafkaBroker of a test context; the other faults work against any cluster.
+ */
+@Component
+public class FaultBenchmark extends BackgroundRun<FaultSettings, FaultReport> {
+	private static final Logger log = LoggerFactory.getLogger(FaultBenchmark.class);
+
+	@Autowired
+	LoadRunner loadRunner;
+	@Autowired
+	KStreamControl kstreamControl;
+	@Autowired
+	KafkaLagProbe lagProbe;
+	@Autowired
+	TransactionLogAuditor auditor;
+	@Autowired
+	RequestCorrelationTracker correlationTracker;
+	@Autowired
+	KafkaListenerEndpointRegistry listenerRegistry;
+	@Autowired
+	ObjectProvider<EmbeddedKafkaBroker> embeddedKafka;
+	@Autowired
+	ConfigProperties config;
+
+	public FaultBenchmark() {
+		super("Fault");
+	}
+
+	@Override
+	protected FaultReport newReport(FaultSettings settings) {
+		if (settings.getFault() == FaultSettings.Fault.BROKER_RESTART && embeddedKafka.getIfAvailable() == null)
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Broker restarts need an embedded broker");
+		if ((settings.getFault() == FaultSettings.Fault.PRODUCER_DELAY || settings.getFault() == FaultSettings.Fault.CONSUMER_DELAY)
+				&& !config.isFaultInjection())
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Producer and consumer delays need qslv.fault-injection=true");
+		return new FaultReport(settings);
+	}
+
+	@Override
+	protected void execute(FaultReport report, HarnessLock.Lease lease) throws Exception {
+		FaultSettings settings = report.getSettings();
+		LoadScenario scenario = settings.getScenario();
+		scenario.setDurationSeconds(settings.getFaultAtSeconds() + settings.getFaultSeconds() + settings.getRecoverSeconds());
+		List<String> transactionLog = Collections.singletonList(config.getLoggedTransactionTopic());
+
+		Set<UUID> posted = ConcurrentHashMap.newKeySet();
+		RequestCorrelationTracker.PostingResponseObserver collector = (response, latency) -> posted(response, posted);
+		Consumer<LoadStatistics.Snapshot> recorder = snapshot ->
+			report.second(snapshot.getElapsedMillis() / 1000L, snapshot.getIntervalTps(), snapshot.getIntervalP99Millis());
+		boolean injected = false;
+		try {
+			Map<TopicPartition, Long> from = lagProbe.endOffsets(transactionLog);
+			correlationTracker.addObserver(collector);
+			loadRunner.addStatsListener(recorder);
+			loadRunner.start(scenario, lease);
+
+			Thread.sleep(TimeUnit.SECONDS.toMillis(settings.getFaultAtSeconds()));
+			log.info("Injecting {}", settings.getFault());
+			injected = true;
+			inject(settings);
+			Thread.sleep(TimeUnit.SECONDS.toMillis(settings.getFaultSeconds()));
+			log.info("Clearing {}", settings.getFault());
+			injected = false;
+			clear(settings);
+
+			while (loadRunner.getState() != LoadRunner.State.IDLE) {
+				Thread.sleep(1_000L);
+			}
+			report.setState(FaultReport.AUDITING);
+			long drainUntil = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(settings.getDrainSeconds());
+			while (loadRunner.unanswered() > 0 && System.currentTimeMillis() < drainUntil) {
+				Thread.sleep(1_000L);
+			}
+			Map<TopicPartition, Long> to = lagProbe.endOffsets(transactionLog);
+			report.finish(loadRunner.stats(), loadRunner.unanswered(), auditor.audit(from, to, posted));
+			log.info("{} finished. resumed after {}s, fault p99 {}ms against {}ms, unanswered {}", settings.getFault(),
+					report.getResumeSeconds(), report.getFaultP99Millis(), report.getBaselineP99Millis(), report.getUnanswered());
+		} catch (Exception ex) {
+			loadRunner.stop(lease);
+			if (injected) {
+				try {
+					clear(settings);
+				} catch (Exception clearEx) {
+					log.warn("Clearing {} failed. {}", settings.getFault(), clearEx.toString());
+				}
+			}
+			throw ex;
+		} finally {
+			FaultInjector.clear(); // a delay left set would slow every later run
+			loadRunner.removeStatsListener(recorder);
+			correlationTracker.removeObserver(collector);
+		}
+	}
+
+	private static void posted(ResponseMessage<PostingRequest,PostingResponse> response, Set<UUID> posted) {
+		if (response.getResponse() == null || response.getResponse().getTransactions() == null
+				|| !Objects.equals(ResponseMessage.SUCCESS, response.getStatus()))
+			return;
+		for (LoggedTransaction transaction : response.getResponse().getTransactions()) {
+			posted.add(transaction.getTransactionUuid());
+		}
+	}
+
+	private void inject(FaultSettings settings) throws Exception {
+		switch (settings.getFault()) {
+		case PRODUCER_DELAY:
+			FaultInjector.setProducerDelayMillis(settings.getDelayMillis());
+			break;
+		case CONSUMER_DELAY:
+			FaultInjector.setConsumerDelayMillis(settings.getDelayMillis());
+			break;
+		case CAPTURE_PAUSE:
+			captureContainers(MessageListenerContainer::pause);
+			break;
+		case KSTREAM_OUTAGE:
+			kstreamControl.stop(settings.getFaultSeconds());
+			break;
+		case BROKER_RESTART:
+			for (KafkaServer server : embeddedKafka.getObject().getKafkaServers()) {
+				server.shutdown();
+				server.awaitShutdown();
+			}
+			break;
+		}
+	}
+
+	private void clear(FaultSettings settings) throws Exception {
+		switch (settings.getFault()) {
+		case PRODUCER_DELAY:
+		case CONSUMER_DELAY:
+			FaultInjector.clear();
+			break;
+		case CAPTURE_PAUSE:
+			captureContainers(MessageListenerContainer::resume);
+			break;
+		case KSTREAM_OUTAGE:
+			kstreamControl.start(settings.getRecoverSeconds());
+			break;
+		case BROKER_RESTART:
+			for (KafkaServer server : embeddedKafka.getObject().getKafkaServers()) {
+				server.startup();
+			}
+			break;
+		}
+	}
+
+	private void captureContainers(Consumer<MessageListenerContainer> action) {
+		for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+			if (config.captureGroupId().equals(container.getGroupId()))
+				action.accept(container);
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /fault/start   body FaultSettings, runs in the background
+ * GET  /fault/report  timeline so far, recovery and audit once the run has finished
+ */
+@RestController
+@RequestMapping("/fault")
+public class FaultController extends BackgroundRunController<FaultSettings, FaultReport> {
+}
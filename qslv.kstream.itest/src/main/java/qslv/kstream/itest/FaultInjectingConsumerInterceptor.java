@@ -0,0 +1,33 @@
+package qslv.kstream.itest;
+
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerInterceptor;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Holds every non-empty poll for FaultInjector's consumer delay before the records reach the listener.
+ */
+public class FaultInjectingConsumerInterceptor implements ConsumerInterceptor<Object, Object> {
+
+	@Override
+	public ConsumerRecords<Object, Object> onConsume(ConsumerRecords<Object, Object> records) {
+		if (!records.isEmpty())
+			FaultInjector.consumerDelay();
+		return records;
+	}
+
+	@Override
+	public void onCommit(Map<TopicPartition, OffsetAndMetadata> offsets) {
+	}
+
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public void configure(Map<String, ?> configs) {
+	}
+}
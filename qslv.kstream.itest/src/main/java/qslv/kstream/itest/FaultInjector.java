@@ -0,0 +1,44 @@
+package qslv.kstream.itest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delays switched on and off by fault runs and read by the producer and consumer interceptors, which
+ * are only installed with qslv.fault-injection=true.
+ * Kafka builds the interceptors itself, so the settings are static rather than a bean.
+ */
+public final class FaultInjector {
+
+	private static volatile long producerDelayMillis = 0L;
+	private static volatile long consumerDelayMillis = 0L;
+
+	private FaultInjector() {
+	}
+
+	public static void setProducerDelayMillis(long millis) {
+		producerDelayMillis = millis;
+	}
+
+	public static void setConsumerDelayMillis(long millis) {
+		consumerDelayMillis = millis;
+	}
+
+	public static void clear() {
+		producerDelayMillis = 0L;
+		consumerDelayMillis = 0L;
+	}
+
+	static void producerDelay() {
+		delay(producerDelayMillis);
+	}
+
+	static void consumerDelay() {
+		delay(consumerDelayMillis);
+	}
+
+	private static void delay(long millis) {
+		if (millis > 0L)
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+}
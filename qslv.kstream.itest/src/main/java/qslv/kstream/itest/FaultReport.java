@@ -0,0 +1,119 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per second timeline of a fault run, how long throughput took to come back once the fault was cleared,
+ * and the transaction log audit over the whole run.
+ */
+public class FaultReport extends RunReport<FaultSettings> {
+
+	public static final String AUDITING = "AUDITING";
+
+	public static class Second {
+		private final long elapsedSeconds;
+		private final double tps;
+		private final double p99Millis;
+
+		Second(long elapsedSeconds, double tps, double p99Millis) {
+			this.elapsedSeconds = elapsedSeconds;
+			this.tps = tps;
+			this.p99Millis = p99Millis;
+		}
+
+		public long getElapsedSeconds() {
+			return elapsedSeconds;
+		}
+		public double getTps() {
+			return tps;
+		}
+		public double getP99Millis() {
+			return p99Millis;
+		}
+	}
+
+	private final List<Second> timeline = new ArrayList<>();
+	private double baselineTps;
+	private double baselineP99Millis;
+	private double faultP99Millis;
+	private long resumeSeconds = -1L;
+	private long unanswered;
+	private LoadStatistics.Snapshot load;
+	private TransactionLogAuditor.Audit audit;
+
+	public FaultReport(FaultSettings settings) {
+		super(settings, RUNNING);
+	}
+
+	synchronized void second(long elapsedSeconds, double tps, double p99Millis) {
+		timeline.add(new Second(elapsedSeconds, tps, p99Millis));
+	}
+
+	synchronized void finish(LoadStatistics.Snapshot load, long unanswered, TransactionLogAuditor.Audit audit) {
+		this.load = load;
+		this.unanswered = unanswered;
+		this.audit = audit;
+
+		long faultAt = getSettings().getFaultAtSeconds();
+		long clearedAt = faultAt + getSettings().getFaultSeconds();
+		int baselineCount = 0;
+		int stable = 0;
+		for (Second second : timeline) {
+			if (second.elapsedSeconds < faultAt && second.elapsedSeconds >= faultAt / 2) {
+				baselineTps += second.tps;
+				baselineP99Millis += second.p99Millis;
+				baselineCount++;
+			}
+		}
+		if (baselineCount > 0) {
+			baselineTps /= baselineCount;
+			baselineP99Millis /= baselineCount;
+		}
+		for (Second second : timeline) {
+			if (second.elapsedSeconds >= faultAt)
+				faultP99Millis = Math.max(faultP99Millis, second.p99Millis);
+			if (second.elapsedSeconds < clearedAt)
+				continue;
+			stable = second.tps >= baselineTps * getSettings().getRecoveryFraction() ? stable + 1 : 0;
+			if (resumeSeconds < 0L && stable >= getSettings().getStableSeconds())
+				resumeSeconds = second.elapsedSeconds - getSettings().getStableSeconds() + 1 - clearedAt;
+		}
+		if (!FAILED.equals(getState()))
+			setState(COMPLETE);
+	}
+
+	public synchronized List<Second> getTimeline() {
+		return new ArrayList<>(timeline);
+	}
+	public synchronized double getBaselineTps() {
+		return baselineTps;
+	}
+	public synchronized double getBaselineP99Millis() {
+		return baselineP99Millis;
+	}
+	/**
+	 * Worst one second p99 from the fault until the end of the run.
+	 */
+	public synchronized double getFaultP99Millis() {
+		return faultP99Millis;
+	}
+	/**
+	 * Seconds from clearing the fault until full throughput, -1 when it did not come back.
+	 */
+	public synchronized long getResumeSeconds() {
+		return resumeSeconds;
+	}
+	/**
+	 * Requests still without a response after the drain period.
+	 */
+	public synchronized long getUnanswered() {
+		return unanswered;
+	}
+	public synchronized LoadStatistics.Snapshot getLoad() {
+		return load;
+	}
+	public synchronized TransactionLogAuditor.Audit getAudit() {
+		return audit;
+	}
+}
@@ -0,0 +1,83 @@
+package qslv.kstream.itest;
+
+/**
+ * A fault run: load starts, the fault is injected faultAtSeconds in and cleared faultSeconds later, and
+ * the load carries on for recoverSeconds. Throughput has resumed once it is back to recoveryFraction of the
+ * rate before the fault for stableSeconds in a row.
+ */
+public class FaultSettings {
+
+	public enum Fault {
+		PRODUCER_DELAY,   // harness producer interceptor holds each send for delayMillis
+		CONSUMER_DELAY,   // harness consumer interceptor holds each poll for delayMillis
+		CAPTURE_PAUSE,    // capture listener containers paused
+		KSTREAM_OUTAGE,   // kstream stopped through KStreamControl
+		BROKER_RESTART    // embedded broker shut down, started again when the fault clears
+	}
+
+	private LoadScenario scenario = new LoadScenario();
+	private Fault fault = Fault.BROKER_RESTART;
+	private long faultAtSeconds = 30L;
+	private long faultSeconds = 20L;
+	private long recoverSeconds = 90L;
+	private long delayMillis = 500L;
+	private double recoveryFraction = 0.95;
+	private int stableSeconds = 3;
+	private long drainSeconds = 60L;
+
+	public LoadScenario getScenario() {
+		return scenario;
+	}
+	public void setScenario(LoadScenario scenario) {
+		this.scenario = scenario;
+	}
+	public Fault getFault() {
+		return fault;
+	}
+	public void setFault(Fault fault) {
+		this.fault = fault;
+	}
+	public long getFaultAtSeconds() {
+		return faultAtSeconds;
+	}
+	public void setFaultAtSeconds(long faultAtSeconds) {
+		this.faultAtSeconds = faultAtSeconds;
+	}
+	public long getFaultSeconds() {
+		return faultSeconds;
+	}
+	public void setFaultSeconds(long faultSeconds) {
+		this.faultSeconds = faultSeconds;
+	}
+	public long getRecoverSeconds() {
+		return recoverSeconds;
+	}
+	public void setRecoverSeconds(long recoverSeconds) {
+		this.recoverSeconds = recoverSeconds;
+	}
+	public long getDelayMillis() {
+		return delayMillis;
+	}
+	public void setDelayMillis(long delayMillis) {
+		this.delayMillis = delayMillis;
+	}
+	public double getRecoveryFraction() {
+		return recoveryFraction;
+	}
+	public void setRecoveryFraction(double recoveryFraction) {
+		this.recoveryFraction = recoveryFraction;
+	}
+	public int getStableSeconds() {
+		return stableSeconds;
+	}
+	public void setStableSeconds(int stableSeconds) {
+		this.stableSeconds = stableSeconds;
+	}
+	public long getDrainSeconds() {
+		return drainSeconds;
+	}
+	public void setDrainSeconds(long drainSeconds) {
+		this.drainSeconds = drainSeconds;
+	}
+
+}
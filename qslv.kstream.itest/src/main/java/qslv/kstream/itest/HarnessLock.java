@@ -0,0 +1,71 @@
+package qslv.kstream.itest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * One load run or benchmark owns the harness at a time. They all send to the same kstream, read the same
+ * capture listeners and correlation tracker, and two at once would count each other's responses. Whoever
+ * starts a run takes the lease and closes it when the run ends; LoadRunner started inside a run is
+ * handed the run's lease instead of taking its own.
+ */
+@Component
+public class HarnessLock {
+
+	public final class Lease implements AutoCloseable {
+		private final String name;
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private Lease(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public boolean isHeld() {
+			return holder() == this;
+		}
+
+		/**
+		 * Closing more than once is harmless.
+		 */
+		@Override
+		public void close() {
+			if (closed.compareAndSet(false, true))
+				release(this);
+		}
+	}
+
+	private Lease holder = null;
+
+	/**
+	 * @throws ResponseStatusException CONFLICT while another run holds the lease.
+	 */
+	public synchronized Lease acquire(String name) {
+		if (holder != null)
+			throw new ResponseStatusException(HttpStatus.CONFLICT, holder.name + " run already active");
+		holder = new Lease(name);
+		return holder;
+	}
+
+	/**
+	 * @return the name of the run holding the lease, or null when the harness is free.
+	 */
+	public synchronized String getActive() {
+		return holder == null ? null : holder.name;
+	}
+
+	private synchronized Lease holder() {
+		return holder;
+	}
+
+	private synchronized void release(Lease lease) {
+		if (holder == lease)
+			holder = null;
+	}
+}
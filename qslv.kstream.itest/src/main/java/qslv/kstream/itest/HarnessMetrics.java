@@ -0,0 +1,102 @@
+package qslv.kstream.itest;
+
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.data.BalanceLog;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+import qslv.kstream.workflow.WorkflowMessage;
+
+/**
+ * Micrometer meters for the harness. Published through the actuator prometheus endpoint.
+ *
+ * qslv.producer.send          - Timer, time to get a broker ack per topic
+ * qslv.producer.inflight      - Gauge, sends waiting on an ack
+ * qslv.capture.records        - Counter, records picked up per output topic
+ * qslv.capture.queue.depth    - Gauge, records waiting in each exchange queue
+ * qslv.capture.queue.dropped  - Counter, records left out of a full exchange queue
+ * qslv.correlation.pending    - Gauge, requests produced with no response yet
+ * qslv.posting.roundtrip      - Timer, request produced to response captured
+ */
+@Component
+public class HarnessMetrics {
+
+	@Autowired MeterRegistry meterRegistry;
+	@Autowired RequestCorrelationTracker correlationTracker;
+
+	@Autowired ArrayBlockingQueue<ResponseMessage<PostingRequest,PostingResponse>> responseExchangeQueue;
+	@Autowired ArrayBlockingQueue<TraceableMessage<WorkflowMessage>> reservationMatchExchangeQueue;
+	@Autowired ArrayBlockingQueue<TraceableMessage<WorkflowMessage>> transactionProcessorExchangeQueue;
+	@Autowired ArrayBlockingQueue<LoggedTransaction> reservationByUuidExchangeQueue;
+	@Autowired ArrayBlockingQueue<TraceableMessage<LoggedTransaction>> loggedTransactionExchangeQueue;
+	@Autowired ArrayBlockingQueue<BalanceLog> balanceLogExchangeQueue;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final ConcurrentHashMap<String, Timer> sendTimers = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Counter> captureCounters = new ConcurrentHashMap<>();
+	private Timer roundTripTimer;
+	private Counter droppedCounter;
+
+	@PostConstruct
+	void registerMeters() {
+		Gauge.builder("qslv.producer.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+		Gauge.builder("qslv.correlation.pending", correlationTracker, RequestCorrelationTracker::pendingCount).register(meterRegistry);
+
+		registerQueueDepth("response", responseExchangeQueue);
+		registerQueueDepth("reservation.match", reservationMatchExchangeQueue);
+		registerQueueDepth("transaction.processor", transactionProcessorExchangeQueue);
+		registerQueueDepth("reservation.by.uuid", reservationByUuidExchangeQueue);
+		registerQueueDepth("logged.transaction", loggedTransactionExchangeQueue);
+		registerQueueDepth("balance.log", balanceLogExchangeQueue);
+
+		roundTripTimer = Timer.builder("qslv.posting.roundtrip")
+				.description("Posting request produced to response captured")
+				.register(meterRegistry);
+		droppedCounter = Counter.builder("qslv.capture.queue.dropped").register(meterRegistry);
+	}
+
+	private void registerQueueDepth(String name, Collection<?> queue) {
+		Gauge.builder("qslv.capture.queue.depth", queue, Collection::size).tag("queue", name).register(meterRegistry);
+	}
+
+	public long sendStarted() {
+		inFlight.incrementAndGet();
+		return System.nanoTime();
+	}
+
+	public void sendCompleted(String topic, long startNanos) {
+		inFlight.decrementAndGet();
+		sendTimers.computeIfAbsent(topic, t -> Timer.builder("qslv.producer.send").tag("topic", t).register(meterRegistry))
+			.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+	}
+
+	public void captured(String topic) {
+		captureCounters.computeIfAbsent(topic, t -> Counter.builder("qslv.capture.records").tag("topic", t).register(meterRegistry))
+			.increment();
+	}
+
+	public void captureDropped() {
+		droppedCounter.increment();
+	}
+
+	public void roundTrip(long nanos) {
+		if (nanos >= 0L)
+			roundTripTimer.record(nanos, TimeUnit.NANOSECONDS);
+	}
+}
@@ -0,0 +1,27 @@
+package qslv.kstream.itest;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Moves HdrHistograms through text messages as base64 of the compressed histogram encoding.
+ */
+public final class HistogramCodec {
+
+	private HistogramCodec() {
+	}
+
+	public static String encode(Histogram histogram) {
+		ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+		int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+		return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+	}
+
+	public static Histogram decode(String encoded) throws DataFormatException {
+		return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0L);
+	}
+}
@@ -0,0 +1,37 @@
+package qslv.kstream.itest;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * The one Spring context every Itest_ class shares. Being the same annotation everywhere keeps the
+ * context cache key identical, so the context starts once per JVM. No web server, lazy beans except
+ * the capture side, and no distributed worker. ItestContextExtension holds the first test until the
+ * capture consumers have their partitions and records how long that took from JVM start.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@SpringBootTest(webEnvironment = WebEnvironment.NONE, properties = {
+		"spring.main.lazy-initialization=true" })
+@EnableQuickSilver
+@ExtendWith(ItestContextExtension.class)
+public @interface ItestContext {
+
+	/**
+	 * The kstream under test as a JUnit resource. Itest_ classes share it with READ; a test that measures
+	 * latency takes it READ_WRITE, so nothing else sends to the kstream while it runs.
+	 */
+	String KSTREAM = "qslv.kstream.itest.kstream";
+}
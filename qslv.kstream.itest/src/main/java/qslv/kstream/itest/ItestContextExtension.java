@@ -0,0 +1,69 @@
+package qslv.kstream.itest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Waits, once per context, for every running capture container to be assigned partitions; with
+ * auto.offset.reset=latest anything the kstream writes before that would never reach a test.
+ * Logs JVM start to first test execution, the number to watch for suite startup.
+ */
+public class ItestContextExtension implements BeforeAllCallback, BeforeTestExecutionCallback {
+	private static final Logger log = LoggerFactory.getLogger(ItestContextExtension.class);
+	private static final long ASSIGNMENT_TIMEOUT_SECONDS = 60L;
+
+	private static final AtomicBoolean firstTest = new AtomicBoolean(true);
+	private static volatile ApplicationContext warmed = null;
+
+	@Override
+	public void beforeAll(ExtensionContext context) throws Exception {
+		ApplicationContext applicationContext = SpringExtension.getApplicationContext(context);
+		synchronized (ItestContextExtension.class) {
+			if (warmed == applicationContext)
+				return;
+			long start = System.nanoTime();
+			awaitAssignment(applicationContext.getBean(KafkaListenerEndpointRegistry.class));
+			long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			StartupTimer.record("capture assignment", millis);
+			log.info("Capture containers assigned in {} ms", millis);
+			warmed = applicationContext;
+		}
+	}
+
+	@Override
+	public void beforeTestExecution(ExtensionContext context) {
+		if (firstTest.getAndSet(false)) {
+			long millis = StartupTimer.sinceJvmStartMillis();
+			StartupTimer.record("first test", millis);
+			log.info("First test {} started {} ms after JVM start. Phases: {}",
+					context.getDisplayName(), millis, StartupTimer.getPhases());
+		}
+	}
+
+	private void awaitAssignment(KafkaListenerEndpointRegistry registry) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ASSIGNMENT_TIMEOUT_SECONDS);
+		for (MessageListenerContainer container : registry.getListenerContainers()) {
+			while (container.isRunning() && isUnassigned(container)) {
+				if (System.currentTimeMillis() > deadline) {
+					log.warn("Capture container {} has no partitions after {} seconds", container.getListenerId(), ASSIGNMENT_TIMEOUT_SECONDS);
+					return;
+				}
+				Thread.sleep(50L);
+			}
+		}
+	}
+
+	private boolean isUnassigned(MessageListenerContainer container) {
+		return container.getAssignedPartitions() == null || container.getAssignedPartitions().isEmpty();
+	}
+}
@@ -4,11 +4,16 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 
 import qslv.common.kafka.ResponseMessage;
 import qslv.common.kafka.TraceableMessage;
@@ -20,11 +25,10 @@ import qslv.kstream.PostingResponse;
 import qslv.kstream.PostingRequest;
 import qslv.kstream.ReservationRequest;
 import qslv.kstream.workflow.WorkflowMessage;
-import qslv.util.EnableQuickSilver;
-import qslv.util.Random;
 
-@SpringBootTest
-@EnableQuickSilver
+@ItestContext
+@Execution(ExecutionMode.CONCURRENT)
+@ResourceLock(value = ItestContext.KSTREAM, mode = ResourceAccessMode.READ)
 class Itest_ReservationProcesser {
 
 	@Autowired
@@ -32,19 +36,39 @@ class Itest_ReservationProcesser {
 	@Autowired
 	KafkaProducerDao kafkaProducerDao;
 
-	// Response Queue
-	@Autowired ArrayBlockingQueue<ResponseMessage<PostingRequest,PostingResponse>> responseExchangeQueue;
-	@Autowired ArrayBlockingQueue<TraceableMessage<WorkflowMessage>> reservationMatchExchangeQueue;
-	@Autowired ArrayBlockingQueue<TraceableMessage<WorkflowMessage>> transactionProcessorExchangeQueue;
-	@Autowired ArrayBlockingQueue<LoggedTransaction> reservationByUuidExchangeQueue;
-	@Autowired ArrayBlockingQueue<TraceableMessage<LoggedTransaction>> loggedTransactionExchangeQueue;
-	@Autowired ArrayBlockingQueue<BalanceLog> balanceLogExchangeQueue;
+	@Autowired
+	CaptureRouter captureRouter;
+	CaptureView view;
+
+	// Response Queue, this test's own view of the output topics
+	BlockingQueue<ResponseMessage<PostingRequest,PostingResponse>> responseExchangeQueue;
+	BlockingQueue<TraceableMessage<WorkflowMessage>> reservationMatchExchangeQueue;
+	BlockingQueue<TraceableMessage<WorkflowMessage>> transactionProcessorExchangeQueue;
+	BlockingQueue<LoggedTransaction> reservationByUuidExchangeQueue;
+	BlockingQueue<TraceableMessage<LoggedTransaction>> loggedTransactionExchangeQueue;
+	BlockingQueue<BalanceLog> balanceLogExchangeQueue;
 
 	public static String TEST_TAXONOMY_ID = "9.9.9.9.9";
 	public static String VALID_STATUS = "EF";
 	public static String INVALID_STATUS = "CL";
 	public static String JSON_DATA = "{\"value\": 234934}";
 
+	@BeforeEach
+	void openView() {
+		view = captureRouter.open();
+		responseExchangeQueue = view.getResponseQueue();
+		reservationMatchExchangeQueue = view.getReservationMatchQueue();
+		transactionProcessorExchangeQueue = view.getTransactionProcessorQueue();
+		reservationByUuidExchangeQueue = view.getReservationByUuidQueue();
+		loggedTransactionExchangeQueue = view.getLoggedTransactionQueue();
+		balanceLogExchangeQueue = view.getBalanceLogQueue();
+	}
+
+	@AfterEach
+	void closeView() {
+		view.close();
+	}
+
 	public void drain_queues() {
 		reservationMatchExchangeQueue.clear();
 		transactionProcessorExchangeQueue.clear();
@@ -247,6 +271,33 @@ class Itest_ReservationProcesser {
 		reservationByUuidExchangeQueue.take();
 	}
 	
+	@Test
+	@Execution(ExecutionMode.SAME_THREAD)
+	@ResourceLock(value = ItestContext.KSTREAM, mode = ResourceAccessMode.READ_WRITE) // the budget is for the kstream, not for the suite's contention
+	@LatencyBudget(percentile = 50.0, maxMillis = 50.0)
+	@LatencyBudget(percentile = 99.0, maxMillis = 150.0)
+	void testReservation_roundTripBudget(LatencyRecorder recorder) throws Exception {
+		drain_queues();
+
+		// - setup --------------------
+		Account account = randomAccount(true);
+		kafkaProducerDao.produceAccount(account);
+		resetBalance(account.getAccountNumber(), 1_000_000L);
+
+		// - execute and verify --------
+		recorder.repeat(() -> {
+			TraceableMessage<PostingRequest> traceable = setupTraceable(new PostingRequest(setupRequest(account, -1L)));
+			kafkaProducerDao.produceRequestMessage(traceable);
+			ResponseMessage<PostingRequest, PostingResponse> response = responseExchangeQueue.take();
+			assertEquals(traceable.getCorrelationId(), response.getCorrelationId());
+			assertEquals(ResponseMessage.SUCCESS, response.getStatus());
+
+			loggedTransactionExchangeQueue.take();
+			transactionProcessorExchangeQueue.take();
+			reservationByUuidExchangeQueue.take();
+		});
+	}
+
 	private void resetBalance(String accountNumber, long balance) {
 		BalanceLog log = new BalanceLog();
 		log.setAccountNumber(accountNumber);
@@ -258,7 +309,7 @@ class Itest_ReservationProcesser {
 	Account randomAccount(boolean valid) {
 		Account account = new Account();
 		account.setAccountLifeCycleStatus(valid ? "EF" : "CL");
-		account.setAccountNumber(Random.randomDigits(12));
+		account.setAccountNumber(view.newAccountNumber());
 		return account;
 	}
 
@@ -286,7 +337,7 @@ class Itest_ReservationProcesser {
 		TraceableMessage<T> traceable = new TraceableMessage<>();
 		traceable.setProducerAit(config.getAitid());
 		traceable.setBusinessTaxonomyId(TEST_TAXONOMY_ID);
-		traceable.setCorrelationId("sdfsdfsdf");
+		traceable.setCorrelationId(view.newCorrelationId());
 		traceable.setPayload(payload);
 		traceable.setMessageCreationTime(LocalDateTime.now());
 		return traceable;
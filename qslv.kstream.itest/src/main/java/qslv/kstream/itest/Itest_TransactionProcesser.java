@@ -4,11 +4,16 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 
 import qslv.common.kafka.ResponseMessage;
 import qslv.common.kafka.TraceableMessage;
@@ -20,11 +25,10 @@ import qslv.kstream.PostingResponse;
 import qslv.kstream.PostingRequest;
 import qslv.kstream.TransactionRequest;
 import qslv.kstream.workflow.WorkflowMessage;
-import qslv.util.EnableQuickSilver;
-import qslv.util.Random;
 
-@SpringBootTest
-@EnableQuickSilver
+@ItestContext
+@Execution(ExecutionMode.CONCURRENT)
+@ResourceLock(value = ItestContext.KSTREAM, mode = ResourceAccessMode.READ)
 class Itest_TransactionProcesser {
 
 	@Autowired
@@ -32,13 +36,17 @@ class Itest_TransactionProcesser {
 	@Autowired
 	KafkaProducerDao kafkaProducerDao;
 
-	// Response Queue
-	@Autowired ArrayBlockingQueue<ResponseMessage<PostingRequest,PostingResponse>> responseExchangeQueue;
-	@Autowired ArrayBlockingQueue<TraceableMessage<WorkflowMessage>> reservationMatchExchangeQueue;
-	@Autowired ArrayBlockingQueue<TraceableMessage<WorkflowMessage>> transactionProcessorExchangeQueue;
-	@Autowired ArrayBlockingQueue<LoggedTransaction> reservationByUuidExchangeQueue;
-	@Autowired ArrayBlockingQueue<TraceableMessage<LoggedTransaction>> loggedTransactionExchangeQueue;
-	@Autowired ArrayBlockingQueue<BalanceLog> balanceLogExchangeQueue;
+	@Autowired
+	CaptureRouter captureRouter;
+	CaptureView view;
+
+	// Response Queue, this test's own view of the output topics
+	BlockingQueue<ResponseMessage<PostingRequest,PostingResponse>> responseExchangeQueue;
+	BlockingQueue<TraceableMessage<WorkflowMessage>> reservationMatchExchangeQueue;
+	BlockingQueue<TraceableMessage<WorkflowMessage>> transactionProcessorExchangeQueue;
+	BlockingQueue<LoggedTransaction> reservationByUuidExchangeQueue;
+	BlockingQueue<TraceableMessage<LoggedTransaction>> loggedTransactionExchangeQueue;
+	BlockingQueue<BalanceLog> balanceLogExchangeQueue;
 
 
 	public static String TEST_TAXONOMY_ID = "9.9.9.9.9";
@@ -46,6 +54,22 @@ class Itest_TransactionProcesser {
 	public static String INVALID_STATUS = "CL";
 	public static String JSON_DATA = "{\"value\": 234934}";
 
+	@BeforeEach
+	void openView() {
+		view = captureRouter.open();
+		responseExchangeQueue = view.getResponseQueue();
+		reservationMatchExchangeQueue = view.getReservationMatchQueue();
+		transactionProcessorExchangeQueue = view.getTransactionProcessorQueue();
+		reservationByUuidExchangeQueue = view.getReservationByUuidQueue();
+		loggedTransactionExchangeQueue = view.getLoggedTransactionQueue();
+		balanceLogExchangeQueue = view.getBalanceLogQueue();
+	}
+
+	@AfterEach
+	void closeView() {
+		view.close();
+	}
+
 	public void drain_queues() {
 		responseExchangeQueue.clear();
 		reservationMatchExchangeQueue.clear();
@@ -302,7 +326,7 @@ class Itest_TransactionProcesser {
 	Account randomAccount(boolean valid) {
 		Account account = new Account();
 		account.setAccountLifeCycleStatus(valid ? "EF" : "CL");
-		account.setAccountNumber(Random.randomDigits(12));
+		account.setAccountNumber(view.newAccountNumber());
 		return account;
 	}
 
@@ -332,7 +356,7 @@ class Itest_TransactionProcesser {
 		TraceableMessage<T> traceable = new TraceableMessage<>();
 		traceable.setProducerAit(config.getAitid());
 		traceable.setBusinessTaxonomyId(TEST_TAXONOMY_ID);
-		traceable.setCorrelationId("sdfsdfsdf");
+		traceable.setCorrelationId(view.newCorrelationId());
 		traceable.setPayload(payload);
 		traceable.setMessageCreationTime(LocalDateTime.now());
 		return traceable;
@@ -0,0 +1,112 @@
+package qslv.kstream.itest;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Stops and starts the kstream under test. With qslv.kstream-stop-command and qslv.kstream-start-command
+ * set, these are run through sh -c (docker stop, kubectl scale, systemctl ...). Without them the operator
+ * is asked in the log to do it by hand. Either way the kstream counts as stopped once its consumer group
+ * has no members and as started once it has at least one. qslv.kstream-scale-command changes the number
+ * of instances.
+ */
+@Component
+public class KStreamControl {
+	private static final Logger log = LoggerFactory.getLogger(KStreamControl.class);
+	private static final long POLL_MILLIS = 250L;
+
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	KafkaLagProbe lagProbe;
+
+	/**
+	 * @return milliseconds until the consumer group was empty.
+	 */
+	public long stop(long timeoutSeconds) throws Exception {
+		long start = System.currentTimeMillis();
+		run("stop", config.getKstreamStopCommand());
+		awaitMembers(false, timeoutSeconds);
+		return System.currentTimeMillis() - start;
+	}
+
+	/**
+	 * @return milliseconds until the consumer group had a member.
+	 */
+	public long start(long timeoutSeconds) throws Exception {
+		long start = System.currentTimeMillis();
+		run("start", config.getKstreamStartCommand());
+		awaitMembers(true, timeoutSeconds);
+		return System.currentTimeMillis() - start;
+	}
+
+	/**
+	 * Start with {partitions} in the start command replaced, e.g. to size num.stream.threads to the topics.
+	 *
+	 * @return milliseconds until the consumer group had a member.
+	 */
+	public long start(long timeoutSeconds, int partitions) throws Exception {
+		long start = System.currentTimeMillis();
+		String command = config.getKstreamStartCommand();
+		run("start", command == null ? null : command.replace("{partitions}", String.valueOf(partitions)));
+		awaitMembers(true, timeoutSeconds);
+		return System.currentTimeMillis() - start;
+	}
+
+	/**
+	 * Run qslv.kstream-scale-command for the given instance count and wait for the consumer group
+	 * membership to change. Each stream thread is a member, so the count itself is not checked.
+	 *
+	 * @return milliseconds until the membership changed, or -1 when it did not within the timeout.
+	 */
+	public long scale(int instances, long timeoutSeconds) throws Exception {
+		long start = System.currentTimeMillis();
+		int before = lagProbe.groupMembers(config.getKstreamApplicationId());
+		String command = config.getKstreamScaleCommand();
+		run("scale to " + instances, command == null ? null : command.replace("{instances}", String.valueOf(instances)));
+		long deadline = start + TimeUnit.SECONDS.toMillis(timeoutSeconds);
+		while (lagProbe.groupMembers(config.getKstreamApplicationId()) == before) {
+			if (System.currentTimeMillis() > deadline)
+				return -1L;
+			Thread.sleep(POLL_MILLIS);
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+	public boolean isRunning() throws Exception {
+		return lagProbe.groupMembers(config.getKstreamApplicationId()) > 0;
+	}
+
+	private void run(String action, String command) throws Exception {
+		if (command == null || command.trim().isEmpty()) {
+			log.warn("No kstream {} command configured. {} {} by hand now.", action, action, config.getKstreamApplicationId());
+			return;
+		}
+		log.info("Running kstream {} command: {}", action, command);
+		Process process = new ProcessBuilder("sh", "-c", command)
+				.redirectErrorStream(true)
+				.redirectOutput(ProcessBuilder.Redirect.appendTo(new File("kstream-control.log")))
+				.start();
+		if (process.waitFor() != 0)
+			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+					String.format("kstream %s command exited with %d", action, process.exitValue()));
+	}
+
+	private void awaitMembers(boolean present, long timeoutSeconds) throws Exception {
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutSeconds);
+		while (isRunning() != present) {
+			if (System.currentTimeMillis() > deadline)
+				throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+						String.format("kstream %s did not %s within %d seconds", config.getKstreamApplicationId(),
+								present ? "start" : "stop", timeoutSeconds));
+			Thread.sleep(POLL_MILLIS);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.requests.DescribeLogDirsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads offsets, consumer group positions and log sizes from the cluster through an AdminClient
+ * built from the consumer properties file.
+ */
+@Component
+public class KafkaLagProbe {
+
+	private static final long TIMEOUT_SECONDS = 30L;
+
+	@Autowired
+	KafkaListenerConfig kafkaListenerConfig;
+	@Autowired
+	ConfigProperties config;
+
+	private AdminClient admin = null;
+
+	public synchronized AdminClient admin() throws Exception {
+		if (admin == null)
+			admin = AdminClient.create(kafkaListenerConfig.listenerConfig());
+		return admin;
+	}
+
+	@PreDestroy
+	synchronized void close() {
+		if (admin != null)
+			admin.close();
+	}
+
+	public Map<TopicPartition, Long> endOffsets(Collection<String> topics) throws Exception {
+		Map<String, TopicDescription> descriptions = admin().describeTopics(topics).all().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		Map<TopicPartition, OffsetSpec> request = new HashMap<>();
+		for (TopicDescription description : descriptions.values()) {
+			for (TopicPartitionInfo partition : description.partitions()) {
+				request.put(new TopicPartition(description.name(), partition.partition()), OffsetSpec.latest());
+			}
+		}
+		Map<TopicPartition, ListOffsetsResultInfo> result = admin().listOffsets(request).all().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		return result.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().offset()));
+	}
+
+	public long endOffsetTotal(Collection<String> topics) throws Exception {
+		return endOffsets(topics).values().stream().mapToLong(Long::longValue).sum();
+	}
+
+	/**
+	 * Records between the group's committed position and the end of each partition of the topics.
+	 * Partitions the group has never committed are not counted.
+	 */
+	public long lag(String groupId, Collection<String> topics) throws Exception {
+		Map<TopicPartition, OffsetAndMetadata> committed = admin().listConsumerGroupOffsets(groupId)
+				.partitionsToOffsetAndMetadata().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		long lag = 0L;
+		for (Map.Entry<TopicPartition, Long> end : endOffsets(topics).entrySet()) {
+			OffsetAndMetadata position = committed.get(end.getKey());
+			if (position != null)
+				lag += Math.max(0L, end.getValue() - position.offset());
+		}
+		return lag;
+	}
+
+	/**
+	 * Bytes on disk across every replica of the topics. For compacted topics this is what a restore has to read.
+	 */
+	public long logSizeBytes(Collection<String> topics) throws Exception {
+		Collection<Integer> brokers = admin().describeCluster().nodes().get(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+				.stream().map(node -> node.id()).collect(Collectors.toList());
+		Map<Integer, Map<String, DescribeLogDirsResponse.LogDirInfo>> logDirs = admin().describeLogDirs(brokers)
+				.all().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		long bytes = 0L;
+		for (Map<String, DescribeLogDirsResponse.LogDirInfo> dirs : logDirs.values()) {
+			for (DescribeLogDirsResponse.LogDirInfo dir : dirs.values()) {
+				for (Map.Entry<TopicPartition, DescribeLogDirsResponse.ReplicaInfo> replica : dir.replicaInfos.entrySet()) {
+					if (topics.contains(replica.getKey().topic()))
+						bytes += replica.getValue().size;
+				}
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Members currently in the consumer group; a Kafka Streams application uses its application id as group id.
+	 */
+	public int groupMembers(String groupId) throws Exception {
+		ConsumerGroupDescription description = admin().describeConsumerGroups(Collections.singleton(groupId))
+				.describedGroups().get(groupId).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		return description.members().size();
+	}
+
+	public Collection<String> topicsMatching(String prefix, String suffix) throws Exception {
+		return admin().listTopics().names().get(TIMEOUT_SECONDS, TimeUnit.SECONDS).stream()
+				.filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * What the kstream restores its state from: its changelog topics plus the state store topics its tables read.
+	 */
+	public List<String> stateTopics() throws Exception {
+		List<String> topics = new ArrayList<>(topicsMatching(config.getKstreamApplicationId(), "-changelog"));
+		Collections.addAll(topics, config.getBalanceLogStateStoreTopic(), config.getReservationByUuidTopic());
+		return topics;
+	}
+}
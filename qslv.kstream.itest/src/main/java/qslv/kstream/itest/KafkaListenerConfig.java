@@ -1,14 +1,14 @@
 package qslv.kstream.itest;
 
-import java.io.FileInputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ArrayBlockingQueue;
 
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
 import org.apache.kafka.common.serialization.StringDeserializer;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,6 +19,7 @@ import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
 import org.springframework.kafka.listener.ContainerProperties.AckMode;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
 
 import qslv.common.kafka.JacksonAvroDeserializer;
 import qslv.common.kafka.ResponseMessage;
@@ -32,27 +33,37 @@ import qslv.kstream.PostingRequest;
 @Configuration
 @EnableKafka
 public class KafkaListenerConfig {
-	private static final Logger log = LoggerFactory.getLogger(KafkaListenerConfig.class);
 
 	@Autowired
 	ConfigProperties configProperties;
+	@Autowired
+	ObjectProvider<MockSchemaRegistry> mockSchemaRegistry;
+	@Autowired
+	ObjectProvider<EmbeddedKafkaBroker> embeddedKafka;
+	@Autowired
+	CaptureRebalanceListener captureRebalanceListener;
 
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	@Bean
 	public Map<String,Object> listenerConfig() throws Exception {
-		Properties kafkaconfig = new Properties();
-		try {
-			kafkaconfig.load(new FileInputStream(configProperties.getKafkaConsumerPropertiesPath()));
-		} catch (Exception fileEx) {
-			try {
-				kafkaconfig.load(Thread.currentThread().getContextClassLoader().getResourceAsStream(configProperties.getKafkaConsumerPropertiesPath()));
-			} catch (Exception resourceEx) {
-				log.error("{} not found.", configProperties.getKafkaConsumerPropertiesPath());
-				log.error("File Exception. {}", fileEx.toString());
-				log.error("Resource Exception. {}", resourceEx.toString());
-				throw resourceEx;
-			}
+		Properties kafkaconfig = KafkaPropertiesFile.load(configProperties.getKafkaConsumerPropertiesPath());
+		EmbeddedKafkaBroker embeddedBroker = embeddedKafka.getIfAvailable();
+		if (embeddedBroker != null)
+			kafkaconfig.setProperty("bootstrap.servers", embeddedBroker.getBrokersAsString());
+		else if (configProperties.getKafkaBootstrapServers() != null)
+			kafkaconfig.setProperty("bootstrap.servers", configProperties.getKafkaBootstrapServers());
+		MockSchemaRegistry mockRegistry = mockSchemaRegistry.getIfAvailable();
+		if (mockRegistry != null)
+			kafkaconfig.setProperty("schema.registry.url", mockRegistry.getUrl());
+		else if (configProperties.getSchemaRegistryUrl() != null)
+			kafkaconfig.setProperty("schema.registry.url", configProperties.getSchemaRegistryUrl());
+		if (configProperties.isFaultInjection()) { // delays for fault runs, kept off every other poll
+			String interceptors = kafkaconfig.getProperty(ConsumerConfig.INTERCEPTOR_CLASSES_CONFIG);
+			kafkaconfig.setProperty(ConsumerConfig.INTERCEPTOR_CLASSES_CONFIG,
+					(interceptors == null ? "" : interceptors + ",") + FaultInjectingConsumerInterceptor.class.getName());
 		}
+		// incremental rebalancing, so capture consumers keep their partitions while group membership changes
+		kafkaconfig.putIfAbsent(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName());
 		return new HashMap(kafkaconfig);
 	}
 	
@@ -113,6 +124,7 @@ public class KafkaListenerConfig {
         	factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(responseConsumerFactory);
         factory.getContainerProperties().setAckMode(AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setConsumerRebalanceListener(captureRebalanceListener);
         return factory;
     }
     
@@ -137,6 +149,7 @@ public class KafkaListenerConfig {
         	factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(workflowConsumerFactory);
         factory.getContainerProperties().setAckMode(AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setConsumerRebalanceListener(captureRebalanceListener);
         return factory;
     }
     
@@ -145,11 +158,10 @@ public class KafkaListenerConfig {
     @Bean
     public ConsumerFactory<String, LoggedTransaction> reservationByUuidConsumerFactory() throws Exception {
     	
-    	JacksonAvroDeserializer<LoggedTransaction> jad = new JacksonAvroDeserializer<>();
-    	jad.configure(listenerConfig());
+    	KafkaSerdeFactory serdes = new KafkaSerdeFactory(configProperties.getSerdeMode());
     	
         return new DefaultKafkaConsumerFactory<String, LoggedTransaction>
-        	(listenerConfig(), new StringDeserializer(),  jad);
+        	(listenerConfig(), new StringDeserializer(), serdes.transactionDeserializer(listenerConfig()));
     }
     
     @Bean
@@ -161,6 +173,7 @@ public class KafkaListenerConfig {
         	factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(reservationByUuidConsumerFactory);
         factory.getContainerProperties().setAckMode(AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setConsumerRebalanceListener(captureRebalanceListener);
         return factory;
     }
     
@@ -169,11 +182,10 @@ public class KafkaListenerConfig {
     @Bean
     public ConsumerFactory<String, TraceableMessage<LoggedTransaction>> loggedTransactionConsumerFactory() throws Exception {
     	
-    	JacksonAvroDeserializer<TraceableMessage<LoggedTransaction>> jad = new JacksonAvroDeserializer<>();
-    	jad.configure(listenerConfig());
+    	KafkaSerdeFactory serdes = new KafkaSerdeFactory(configProperties.getSerdeMode());
     	
         return new DefaultKafkaConsumerFactory<String, TraceableMessage<LoggedTransaction>>
-        	(listenerConfig(), new StringDeserializer(),  jad);
+        	(listenerConfig(), new StringDeserializer(), serdes.tracedTransactionDeserializer(listenerConfig()));
     }
     
     @Bean
@@ -185,6 +197,7 @@ public class KafkaListenerConfig {
         	factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(loggedTransactionConsumerFactory);
         factory.getContainerProperties().setAckMode(AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setConsumerRebalanceListener(captureRebalanceListener);
         return factory;
     }
  
@@ -209,6 +222,26 @@ public class KafkaListenerConfig {
         	factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(balanceLogConsumerFactory);
         factory.getContainerProperties().setAckMode(AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setConsumerRebalanceListener(captureRebalanceListener);
+        return factory;
+    }
+
+    //----------------------------------------------------
+	//--Distributed Load Control Message Consumer
+    @Bean
+    public ConsumerFactory<String, String> controlConsumerFactory() throws Exception {
+        return new DefaultKafkaConsumerFactory<String, String>
+        	(listenerConfig(), new StringDeserializer(), new StringDeserializer());
+    }
+    
+    @Bean
+    public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, String>> 
+    controlListenerContainerFactory(ConsumerFactory<String, String> controlConsumerFactory) throws Exception {
+    
+        ConcurrentKafkaListenerContainerFactory<String, String> 
+        	factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(controlConsumerFactory);
+        factory.getContainerProperties().setAckMode(AckMode.MANUAL_IMMEDIATE);
         return factory;
     }
 
@@ -1,20 +1,19 @@
 package qslv.kstream.itest;
 
-import java.io.FileInputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import com.fasterxml.jackson.databind.JavaType;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
 
 import qslv.common.kafka.JacksonAvroSerializer;
 import qslv.common.kafka.TraceableMessage;
@@ -26,26 +25,32 @@ import qslv.kstream.PostingRequest;
 
 @Configuration
 public class KafkaProducerConfig {
-	private static final Logger log = LoggerFactory.getLogger(KafkaProducerConfig.class);
 
 	@Autowired
 	ConfigProperties configProperties;
+	@Autowired
+	ObjectProvider<MockSchemaRegistry> mockSchemaRegistry;
+	@Autowired
+	ObjectProvider<EmbeddedKafkaBroker> embeddedKafka;
 
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	@Bean
 	public Map<String,Object> producerConfig() throws Exception {
-		Properties kafkaconfig = new Properties();
-		try {
-			kafkaconfig.load(new FileInputStream(configProperties.getKafkaProducerPropertiesPath()));
-		} catch (Exception fileEx) {
-			try {
-				kafkaconfig.load(Thread.currentThread().getContextClassLoader().getResourceAsStream(configProperties.getKafkaProducerPropertiesPath()));
-			} catch (Exception resourceEx) {
-				log.error("{} not found.", configProperties.getKafkaProducerPropertiesPath());
-				log.error("File Exception. {}", fileEx.toString());
-				log.error("Resource Exception. {}", resourceEx.toString());
-				throw resourceEx;
-			}
+		Properties kafkaconfig = KafkaPropertiesFile.load(configProperties.getKafkaProducerPropertiesPath());
+		EmbeddedKafkaBroker embeddedBroker = embeddedKafka.getIfAvailable();
+		if (embeddedBroker != null)
+			kafkaconfig.setProperty("bootstrap.servers", embeddedBroker.getBrokersAsString());
+		else if (configProperties.getKafkaBootstrapServers() != null)
+			kafkaconfig.setProperty("bootstrap.servers", configProperties.getKafkaBootstrapServers());
+		MockSchemaRegistry mockRegistry = mockSchemaRegistry.getIfAvailable();
+		if (mockRegistry != null)
+			kafkaconfig.setProperty("schema.registry.url", mockRegistry.getUrl());
+		else if (configProperties.getSchemaRegistryUrl() != null)
+			kafkaconfig.setProperty("schema.registry.url", configProperties.getSchemaRegistryUrl());
+		if (configProperties.isFaultInjection()) { // delays for fault runs, kept off every other send
+			String interceptors = kafkaconfig.getProperty(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG);
+			kafkaconfig.setProperty(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG,
+					(interceptors == null ? "" : interceptors + ",") + FaultInjectingProducerInterceptor.class.getName());
 		}
 		return new HashMap(kafkaconfig);
 	}
@@ -53,11 +58,9 @@ public class KafkaProducerConfig {
 	// Request
 	@Bean
 	public ProducerFactory<String, TraceableMessage<PostingRequest>> requestProducerFactory() throws Exception {
-		JacksonAvroSerializer<TraceableMessage<PostingRequest>> jas = new JacksonAvroSerializer<>();
-		JavaType type = jas.getTypeFactory().constructParametricType(TraceableMessage.class, PostingRequest.class);
-		jas.configure(producerConfig(), false, type);
+		KafkaSerdeFactory serdes = new KafkaSerdeFactory(configProperties.getSerdeMode());
 		return new DefaultKafkaProducerFactory<String, TraceableMessage<PostingRequest>>(producerConfig(),
-				new StringSerializer(), jas);
+				new StringSerializer(), serdes.requestSerializer(producerConfig()));
 	}
 
 	@Bean
@@ -65,6 +68,12 @@ public class KafkaProducerConfig {
 			ProducerFactory<String, TraceableMessage<PostingRequest>> requestProducerFactory) throws Exception {
 		return new KafkaTemplate<>(requestProducerFactory, true); // auto-flush true, to force each message to broker.
 	}	
+
+	@Bean
+	public KafkaTemplate<String, TraceableMessage<PostingRequest>> requestLoadKafkaTemplate(
+			ProducerFactory<String, TraceableMessage<PostingRequest>> requestProducerFactory) throws Exception {
+		return new KafkaTemplate<>(requestProducerFactory, false); // no auto-flush, load runs let the producer batch.
+	}	
 	
 	// Account
 	@Bean
@@ -97,16 +106,20 @@ public class KafkaProducerConfig {
 	// LoggedTransaction
 	@Bean
 	public ProducerFactory<String, LoggedTransaction> transactionProducerFactory() throws Exception {
-		JacksonAvroSerializer<LoggedTransaction> jas = new JacksonAvroSerializer<>();
-		jas.configure(producerConfig(), false);
+		KafkaSerdeFactory serdes = new KafkaSerdeFactory(configProperties.getSerdeMode());
 		return new DefaultKafkaProducerFactory<String, LoggedTransaction>(producerConfig(),
-				new StringSerializer(), jas);
+				new StringSerializer(), serdes.transactionSerializer(producerConfig()));
 	}
 
 	@Bean
 	public KafkaTemplate<String, LoggedTransaction> transactionKafkaTemplate(ProducerFactory<String, LoggedTransaction> transactionProducerFactory) throws Exception {
 		return new KafkaTemplate<>(transactionProducerFactory, true); // auto-flush true, to force each message to broker.
 	}	
+
+	@Bean
+	public KafkaTemplate<String, LoggedTransaction> transactionBulkKafkaTemplate(ProducerFactory<String, LoggedTransaction> transactionProducerFactory) throws Exception {
+		return new KafkaTemplate<>(transactionProducerFactory, false); // no auto-flush, bulk loads let the producer batch.
+	}	
 	
 	// Balance Log
 	@Bean
@@ -120,6 +133,23 @@ public class KafkaProducerConfig {
 	@Bean
 	public KafkaTemplate<String, BalanceLog> balanceLogKafkaTemplate(ProducerFactory<String, BalanceLog> balanceLogProducerFactory) throws Exception {
 		return new KafkaTemplate<>(balanceLogProducerFactory, true); // auto-flush true, to force each message to broker.
+	}
+
+	@Bean
+	public KafkaTemplate<String, BalanceLog> balanceLogBulkKafkaTemplate(ProducerFactory<String, BalanceLog> balanceLogProducerFactory) throws Exception {
+		return new KafkaTemplate<>(balanceLogProducerFactory, false); // no auto-flush, bulk loads let the producer batch.
+	}
+
+	// Distributed load control
+	@Bean
+	public ProducerFactory<String, String> controlProducerFactory() throws Exception {
+		return new DefaultKafkaProducerFactory<String, String>(producerConfig(),
+				new StringSerializer(), new StringSerializer());
+	}
+
+	@Bean
+	public KafkaTemplate<String, String> controlKafkaTemplate(ProducerFactory<String, String> controlProducerFactory) throws Exception {
+		return new KafkaTemplate<>(controlProducerFactory, true); // auto-flush true, control messages are rare.
 	}	
 
 }
@@ -1,19 +1,28 @@
 package qslv.kstream.itest;
 
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import qslv.common.kafka.TraceableMessage;
 import qslv.data.Account;
 import qslv.data.BalanceLog;
 import qslv.data.OverdraftInstruction;
+import qslv.kstream.LoggedTransaction;
 import qslv.kstream.PostingRequest;
 
 @Component
@@ -22,17 +31,86 @@ public class KafkaProducerDao {
 
 	@Autowired
 	private ConfigProperties config;
+	@Autowired
+	private HarnessMetrics metrics;
+	@Autowired
+	private RequestCorrelationTracker correlationTracker;
 	
 	@Autowired
+	@Qualifier("requestKafkaTemplate")
 	public KafkaTemplate<String, TraceableMessage<PostingRequest>> requestTemplate;
 	@Autowired
+	@Qualifier("requestLoadKafkaTemplate")
+	public KafkaTemplate<String, TraceableMessage<PostingRequest>> requestLoadTemplate;
+	@Autowired
 	public KafkaTemplate<String, Account> accountTemplate;
 	@Autowired
 	public KafkaTemplate<String, OverdraftInstruction> overdraftTemplate;
 	@Autowired
+	@Qualifier("balanceLogKafkaTemplate")
 	public KafkaTemplate<String, BalanceLog> balanceLogTemplate;
+	@Autowired
+	@Qualifier("balanceLogBulkKafkaTemplate")
+	public KafkaTemplate<String, BalanceLog> balanceLogBulkTemplate;
+	@Autowired
+	@Qualifier("transactionBulkKafkaTemplate")
+	public KafkaTemplate<String, LoggedTransaction> transactionBulkTemplate;
+	@Autowired
+	public KafkaTemplate<String, String> controlTemplate;
+	@Autowired
+	private ObjectMapper objectMapper;
 	
 	public void produceRequestMessage(TraceableMessage<PostingRequest> request) throws ResponseStatusException {
+		String key = requestKey(request);
+
+		correlationTracker.requestSent(request);
+		long start = metrics.sendStarted();
+		try {
+			// retry handled internally by kafka using retries & retry.backoff.ms in properties file
+			ProducerRecord<String ,TraceableMessage<PostingRequest>> record = 
+					requestTemplate.send(config.getRequestTopic(), key, request)
+					.get()
+					.getProducerRecord();
+			log.debug("Kakfa Produce {}", record.value().getPayload());
+		} catch ( Exception ex) {
+			correlationTracker.requestFailed(request);
+			log.debug(ex.getLocalizedMessage());
+			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer failure", ex);
+		} finally {
+			metrics.sendCompleted(config.getRequestTopic(), start);
+		}
+
+	}
+	
+	/**
+	 * Produce without waiting on the broker ack. Used by load runs, where the template does not auto-flush
+	 * and the producer is free to batch.
+	 */
+	public ListenableFuture<SendResult<String, TraceableMessage<PostingRequest>>> produceRequestMessageAsync(
+			TraceableMessage<PostingRequest> request) throws ResponseStatusException {
+		String key = requestKey(request);
+
+		correlationTracker.requestSent(request);
+		long start = metrics.sendStarted();
+		ListenableFuture<SendResult<String, TraceableMessage<PostingRequest>>> future;
+		try {
+			future = requestLoadTemplate.send(config.getRequestTopic(), key, request);
+		} catch ( Exception ex) {
+			correlationTracker.requestFailed(request);
+			metrics.sendCompleted(config.getRequestTopic(), start);
+			log.debug(ex.getLocalizedMessage());
+			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer failure", ex);
+		}
+		future.addCallback(result -> metrics.sendCompleted(config.getRequestTopic(), start),
+			ex -> {
+				correlationTracker.requestFailed(request);
+				metrics.sendCompleted(config.getRequestTopic(), start);
+				log.debug(ex.getLocalizedMessage());
+			});
+		return future;
+	}
+
+	private String requestKey(TraceableMessage<PostingRequest> request) {
 		String key = "null";
 
 		if ( request.getPayload().hasCancelReservationRequest() )
@@ -50,21 +128,11 @@ public class KafkaProducerDao {
 		else if ( request.getPayload().hasTransferRequest() )
 			key = request.getPayload().getTransferRequest().getTransferFromAccountNumber();
 
-		try {
-			// retry handled internally by kafka using retries & retry.backoff.ms in properties file
-			ProducerRecord<String ,TraceableMessage<PostingRequest>> record = 
-					requestTemplate.send(config.getRequestTopic(), key, request)
-					.get()
-					.getProducerRecord();
-			log.debug("Kakfa Produce {}", record.value().getPayload());
-		} catch ( Exception ex) {
-			log.debug(ex.getLocalizedMessage());
-			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer failure", ex);
-		}
-
+		return key;
 	}
 	
 	public void produceAccount(Account account) throws ResponseStatusException {
+		long start = metrics.sendStarted();
 		try {
 			// retry handled internally by kafka using retries & retry.backoff.ms in properties file
 			ProducerRecord<String ,Account> record = 
@@ -74,10 +142,13 @@ public class KafkaProducerDao {
 		} catch ( Exception ex) {
 			log.debug(ex.getLocalizedMessage());
 			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer failure", ex);
+		} finally {
+			metrics.sendCompleted(config.getAccountTopic(), start);
 		}
 	}
 	
 	public void produceOverdraft(OverdraftInstruction overdraft) throws ResponseStatusException {
+		long start = metrics.sendStarted();
 		try {
 			// retry handled internally by kafka using retries & retry.backoff.ms in properties file
 			ProducerRecord<String ,OverdraftInstruction> record = 
@@ -87,11 +158,14 @@ public class KafkaProducerDao {
 		} catch ( Exception ex) {
 			log.debug(ex.getLocalizedMessage());
 			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer failure", ex);
+		} finally {
+			metrics.sendCompleted(config.getOverdraftTopic(), start);
 		}
 	}
 
 
 	public void produceBalanceLog(BalanceLog balanceLog) {
+		long start = metrics.sendStarted();
 		try {
 			// retry handled internally by kafka using retries & retry.backoff.ms in properties file
 			ProducerRecord<String, BalanceLog> record = 
@@ -101,6 +175,65 @@ public class KafkaProducerDao {
 		} catch ( Exception ex) {
 			log.debug(ex.getLocalizedMessage());
 			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer failure", ex);
+		} finally {
+			metrics.sendCompleted(config.getBalanceLogStateStoreTopic(), start);
+		}
+	}
+
+	/**
+	 * Bulk form of produceBalanceLog for preloading the balance log state store topic. Sends are not
+	 * waited on one by one; the producer batches and everything is flushed before returning.
+	 *
+	 * @return sends that failed.
+	 */
+	public long produceBalanceLogs(Iterator<BalanceLog> balanceLogs) {
+		return produceBulk(balanceLogBulkTemplate, config.getBalanceLogStateStoreTopic(), balanceLogs, BalanceLog::getAccountNumber);
+	}
+
+	/**
+	 * Preload reservations onto the reservation by uuid topic, keyed by transaction uuid.
+	 *
+	 * @return sends that failed.
+	 */
+	public long produceReservationsByUuid(Iterator<LoggedTransaction> reservations) {
+		return produceBulk(transactionBulkTemplate, config.getReservationByUuidTopic(), reservations,
+				reservation -> reservation.getTransactionUuid().toString());
+	}
+
+	private <V> long produceBulk(KafkaTemplate<String, V> template, String topic, Iterator<V> values, Function<V, String> key) {
+		AtomicLong failed = new AtomicLong();
+		while (values.hasNext()) {
+			V value = values.next();
+			long start = metrics.sendStarted();
+			try {
+				template.send(topic, key.apply(value), value).addCallback(
+					result -> metrics.sendCompleted(topic, start),
+					ex -> {
+						failed.incrementAndGet();
+						metrics.sendCompleted(topic, start);
+					});
+			} catch ( Exception ex) {
+				failed.incrementAndGet();
+				metrics.sendCompleted(topic, start);
+				log.debug(ex.getLocalizedMessage());
+			}
+		}
+		template.flush();
+		return failed.get();
+	}
+
+	public void produceControlMessage(DistributedControlMessage message) throws ResponseStatusException {
+		long start = metrics.sendStarted();
+		try {
+			ProducerRecord<String, String> record = 
+					controlTemplate.send(config.getControlTopic(), message.getRunId(), objectMapper.writeValueAsString(message))
+				.get().getProducerRecord();
+			log.debug("Kakfa Produce {}", record.value());
+		} catch ( Exception ex) {
+			log.debug(ex.getLocalizedMessage());
+			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer failure", ex);
+		} finally {
+			metrics.sendCompleted(config.getControlTopic(), start);
 		}
 	}
 
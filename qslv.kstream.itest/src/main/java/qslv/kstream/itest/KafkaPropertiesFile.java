@@ -0,0 +1,61 @@
+package qslv.kstream.itest;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads a Kafka client properties file from the file system, falling back to the classpath. Each path is
+ * read once per JVM; callers get a copy they can override.
+ */
+final class KafkaPropertiesFile {
+	private static final Logger log = LoggerFactory.getLogger(KafkaPropertiesFile.class);
+
+	private static final Map<String, Properties> loaded = new ConcurrentHashMap<>();
+
+	private KafkaPropertiesFile() {
+	}
+
+	/**
+	 * @throws UncheckedIOException when the path is neither a readable file nor a classpath resource.
+	 */
+	static Properties load(String path) {
+		Properties cached = loaded.computeIfAbsent(path, file -> {
+			try {
+				return read(file);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		});
+		Properties copy = new Properties();
+		copy.putAll(cached);
+		return copy;
+	}
+
+	private static Properties read(String path) throws IOException {
+		Properties kafkaconfig = new Properties();
+		try (InputStream in = new FileInputStream(path)) {
+			kafkaconfig.load(in);
+		} catch (IOException fileEx) {
+			try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(path)) {
+				if (in == null)
+					throw new FileNotFoundException(path + " is not on the classpath");
+				kafkaconfig.load(in);
+			} catch (IOException resourceEx) {
+				log.error("{} not found.", path);
+				log.error("File Exception. {}", fileEx.toString());
+				log.error("Resource Exception. {}", resourceEx.toString());
+				throw resourceEx;
+			}
+		}
+		return kafkaconfig;
+	}
+}
@@ -0,0 +1,113 @@
+package qslv.kstream.itest;
+
+import java.util.Map;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import qslv.common.kafka.JacksonAvroDeserializer;
+import qslv.common.kafka.JacksonAvroSerializer;
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+
+/**
+ * Builds the serializers and deserializers for the payloads that have alternative codecs.
+ * JACKSON_AVRO is what the kstream speaks; the other modes only work against a kstream built with the same codec.
+ */
+public class KafkaSerdeFactory {
+
+	public enum Mode { JACKSON_AVRO, AVRO_SPECIFIC, BINARY }
+
+	private final Mode mode;
+
+	public KafkaSerdeFactory(Mode mode) {
+		this.mode = mode;
+	}
+
+	public Serializer<TraceableMessage<PostingRequest>> requestSerializer(Map<String, Object> config) {
+		switch (mode) {
+		case AVRO_SPECIFIC:
+			return new CodecSerde<>(AvroSpecificCodecs.TRACEABLE_POSTING_REQUEST);
+		case BINARY:
+			return new CodecSerde<>(BinaryCodecs.TRACEABLE_POSTING_REQUEST);
+		default:
+			JacksonAvroSerializer<TraceableMessage<PostingRequest>> jas = new JacksonAvroSerializer<>();
+			JavaType type = jas.getTypeFactory().constructParametricType(TraceableMessage.class, PostingRequest.class);
+			jas.configure(config, false, type);
+			return jas;
+		}
+	}
+
+	public Deserializer<TraceableMessage<PostingRequest>> requestDeserializer(Map<String, Object> config) {
+		switch (mode) {
+		case AVRO_SPECIFIC:
+			return new CodecSerde<>(AvroSpecificCodecs.TRACEABLE_POSTING_REQUEST);
+		case BINARY:
+			return new CodecSerde<>(BinaryCodecs.TRACEABLE_POSTING_REQUEST);
+		default:
+			JacksonAvroDeserializer<TraceableMessage<PostingRequest>> jad = new JacksonAvroDeserializer<>();
+			jad.configure(config);
+			return jad;
+		}
+	}
+
+	public Serializer<LoggedTransaction> transactionSerializer(Map<String, Object> config) {
+		switch (mode) {
+		case AVRO_SPECIFIC:
+			return new CodecSerde<>(AvroSpecificCodecs.LOGGED_TRANSACTION);
+		case BINARY:
+			return new CodecSerde<>(BinaryCodecs.LOGGED_TRANSACTION);
+		default:
+			JacksonAvroSerializer<LoggedTransaction> jas = new JacksonAvroSerializer<>();
+			jas.configure(config, false);
+			return jas;
+		}
+	}
+
+	public Deserializer<LoggedTransaction> transactionDeserializer(Map<String, Object> config) {
+		switch (mode) {
+		case AVRO_SPECIFIC:
+			return new CodecSerde<>(AvroSpecificCodecs.LOGGED_TRANSACTION);
+		case BINARY:
+			return new CodecSerde<>(BinaryCodecs.LOGGED_TRANSACTION);
+		default:
+			JacksonAvroDeserializer<LoggedTransaction> jad = new JacksonAvroDeserializer<>();
+			jad.configure(config);
+			return jad;
+		}
+	}
+
+	public Serializer<TraceableMessage<LoggedTransaction>> tracedTransactionSerializer(Map<String, Object> config) {
+		switch (mode) {
+		case AVRO_SPECIFIC:
+			return new CodecSerde<>(AvroSpecificCodecs.TRACEABLE_LOGGED_TRANSACTION);
+		case BINARY:
+			return new CodecSerde<>(BinaryCodecs.TRACEABLE_LOGGED_TRANSACTION);
+		default:
+			JacksonAvroSerializer<TraceableMessage<LoggedTransaction>> jas = new JacksonAvroSerializer<>();
+			JavaType type = jas.getTypeFactory().constructParametricType(TraceableMessage.class, LoggedTransaction.class);
+			jas.configure(config, false, type);
+			return jas;
+		}
+	}
+
+	public Deserializer<TraceableMessage<LoggedTransaction>> tracedTransactionDeserializer(Map<String, Object> config) {
+		switch (mode) {
+		case AVRO_SPECIFIC:
+			return new CodecSerde<>(AvroSpecificCodecs.TRACEABLE_LOGGED_TRANSACTION);
+		case BINARY:
+			return new CodecSerde<>(BinaryCodecs.TRACEABLE_LOGGED_TRANSACTION);
+		default:
+			JacksonAvroDeserializer<TraceableMessage<LoggedTransaction>> jad = new JacksonAvroDeserializer<>();
+			jad.configure(config);
+			return jad;
+		}
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+}
@@ -1,11 +1,18 @@
 package qslv.kstream.itest;
 
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
@@ -18,6 +25,7 @@ import qslv.kstream.workflow.WorkflowMessage;
 import qslv.kstream.PostingRequest;
 
 @Component
+@Lazy(false) // the capture listeners have to start even in lazy contexts
 public class KafkaStreamsOutputListener {
 	private static final Logger log = LoggerFactory.getLogger(KafkaStreamsOutputListener.class);
 
@@ -29,6 +37,12 @@ public class KafkaStreamsOutputListener {
 		configProperties.getLoggedTransactionTopic();
 		configProperties.getBalanceLogStateStoreTopic();
 	*/
+	@Autowired ConfigProperties configProperties;
+	@Autowired HarnessMetrics metrics;
+	@Autowired RequestCorrelationTracker correlationTracker;
+	@Autowired CaptureRouter captureRouter;
+	@Autowired CaptureLog captureLog;
+
 	@Autowired ArrayBlockingQueue<ResponseMessage<PostingRequest,PostingResponse>> responseExchangeQueue;
 	@Autowired ArrayBlockingQueue<TraceableMessage<WorkflowMessage>> reservationMatchExchangeQueue;
 	@Autowired ArrayBlockingQueue<TraceableMessage<WorkflowMessage>> transactionProcessorExchangeQueue;
@@ -36,81 +50,133 @@ public class KafkaStreamsOutputListener {
 	@Autowired ArrayBlockingQueue<TraceableMessage<LoggedTransaction>> loggedTransactionExchangeQueue;
 	@Autowired ArrayBlockingQueue<BalanceLog> balanceLogExchangeQueue;
 
+	// load runs have nobody draining the exchange queues, so they suspend queueing while they run.
+	private final AtomicInteger suspensions = new AtomicInteger();
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * A hold on queueing, released by close(). Queueing resumes once every hold has been released, so
+	 * overlapping users do not turn it back on under each other.
+	 */
+	public final class QueueingSuspension implements AutoCloseable {
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private QueueingSuspension() {
+		}
+
+		@Override
+		public void close() {
+			if (closed.compareAndSet(false, true))
+				suspensions.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Take before producing anything the listeners capture, such as the accounts of an AccountPool.
+	 */
+	public QueueingSuspension suspendQueueing() {
+		suspensions.incrementAndGet();
+		return new QueueingSuspension();
+	}
+
+	public boolean isQueueing() {
+		return suspensions.get() == 0;
+	}
+
+	/**
+	 * Messages left out of a full exchange queue. The listener never waits on a queue, or a consumer
+	 * nobody drains for would miss max.poll.interval.ms and be put out of the group.
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	private <T> void enqueue(ArrayBlockingQueue<T> queue, T message) {
+		if (!isQueueing())
+			return;
+		if (!queue.offer(message)) {
+			metrics.captureDropped();
+			if (dropped.getAndIncrement() == 0L)
+				log.warn("Exchange queue full, dropping captured messages; further drops are only counted");
+		}
+	}
+
 	@KafkaListener(containerFactory = "workflowListenerContainerFactory", 
-			topics = { "#{ @configProperties.enhancedRequestTopic }" }, groupId="kstream.itest")
-	public void transactionProcessorListen(@Payload TraceableMessage<WorkflowMessage> message, Acknowledgment acknowledgment) {
+			topics = { "#{ @configProperties.enhancedRequestTopic }" }, groupId="#{ @configProperties.captureGroupId() }")
+	public void transactionProcessorListen(@Payload TraceableMessage<WorkflowMessage> message, Acknowledgment acknowledgment,
+			@Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition, @Header(KafkaHeaders.OFFSET) long offset) {
 		log.debug("transactionProcessorListen ENTRY");
-		try {
-			transactionProcessorExchangeQueue.put(message);
-		} catch (InterruptedException e) {
-			log.debug(e.getLocalizedMessage());
-		}
+		metrics.captured(configProperties.getEnhancedRequestTopic());
+		captureLog.append(configProperties.getEnhancedRequestTopic(), partition, offset, message);
+		if (!captureRouter.deliver(captureRouter.byCorrelation(message.getCorrelationId()), CaptureView::getTransactionProcessorQueue, message))
+			enqueue(transactionProcessorExchangeQueue, message);
 		acknowledgment.acknowledge();
 		log.debug("transactionProcessorListen EXIT");
 	}
 	
 	@KafkaListener(containerFactory = "workflowListenerContainerFactory", 
-			topics = { "#{ @configProperties.matchReservationTopic }" }, groupId="kstream.itest")
-	public void matchReservationListen(@Payload TraceableMessage<WorkflowMessage> message, Acknowledgment acknowledgment) {
+			topics = { "#{ @configProperties.matchReservationTopic }" }, groupId="#{ @configProperties.captureGroupId() }")
+	public void matchReservationListen(@Payload TraceableMessage<WorkflowMessage> message, Acknowledgment acknowledgment,
+			@Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition, @Header(KafkaHeaders.OFFSET) long offset) {
 		log.debug("matchReservationListen ENTRY");
-		try {
-			reservationMatchExchangeQueue.put(message);
-		} catch (InterruptedException e) {
-			log.debug(e.getLocalizedMessage());
-		}
+		metrics.captured(configProperties.getMatchReservationTopic());
+		captureLog.append(configProperties.getMatchReservationTopic(), partition, offset, message);
+		if (!captureRouter.deliver(captureRouter.byCorrelation(message.getCorrelationId()), CaptureView::getReservationMatchQueue, message))
+			enqueue(reservationMatchExchangeQueue, message);
 		acknowledgment.acknowledge();
 
 		log.debug("matchReservationListen EXIT");
 	}
 	
 	@KafkaListener(containerFactory = "responseListenerContainerFactory", 
-			topics = { "#{ @configProperties.responseTopic }" }, groupId="kstream.itest")
-	public void responseListen(@Payload ResponseMessage<PostingRequest,PostingResponse> message, Acknowledgment acknowledgment) {
+			topics = { "#{ @configProperties.responseTopic }" }, groupId="#{ @configProperties.captureGroupId() }")
+	public void responseListen(@Payload ResponseMessage<PostingRequest,PostingResponse> message, Acknowledgment acknowledgment,
+			@Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition, @Header(KafkaHeaders.OFFSET) long offset) {
 		log.debug("responseListen ENTRY");
-		try {
-			responseExchangeQueue.put(message);
-		} catch (InterruptedException e) {
-			log.debug(e.getLocalizedMessage());
-		}
+		metrics.captured(configProperties.getResponseTopic());
+		captureLog.append(configProperties.getResponseTopic(), partition, offset, message);
+		metrics.roundTrip(correlationTracker.responseReceived(message));
+		if (!captureRouter.deliver(captureRouter.byCorrelation(message.getCorrelationId()), CaptureView::getResponseQueue, message))
+			enqueue(responseExchangeQueue, message);
 		acknowledgment.acknowledge();
 		log.debug("responseListen EXIT");
 	}
 
 	@KafkaListener(containerFactory = "reservationByUuidListenerContainerFactory", 
-			topics = { "#{ @configProperties.reservationByUuidTopic }" }, groupId="kstream.itest")
-	public void reservationByUuidListen(@Payload LoggedTransaction message, Acknowledgment acknowledgment) {
+			topics = { "#{ @configProperties.reservationByUuidTopic }" }, groupId="#{ @configProperties.captureGroupId() }")
+	public void reservationByUuidListen(@Payload LoggedTransaction message, Acknowledgment acknowledgment,
+			@Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition, @Header(KafkaHeaders.OFFSET) long offset) {
 		log.debug("reservationByUuidListen ENTRY");
-		try {
-			reservationByUuidExchangeQueue.put(message);
-		} catch (InterruptedException e) {
-			log.debug(e.getLocalizedMessage());
-		}
+		metrics.captured(configProperties.getReservationByUuidTopic());
+		captureLog.append(configProperties.getReservationByUuidTopic(), partition, offset, message);
+		if (!captureRouter.deliver(captureRouter.byAccount(message.getAccountNumber()), CaptureView::getReservationByUuidQueue, message))
+			enqueue(reservationByUuidExchangeQueue, message);
 		acknowledgment.acknowledge();
 		log.debug("reservationByUuidListen EXIT");
 	}
 
 	@KafkaListener(containerFactory = "loggedTransactionListenerContainerFactory", 
-			topics = { "#{ @configProperties.loggedTransactionTopic }" }, groupId="kstream.itest")
-	public void loggedTransactionListen(@Payload TraceableMessage<LoggedTransaction> message, Acknowledgment acknowledgment) {
+			topics = { "#{ @configProperties.loggedTransactionTopic }" }, groupId="#{ @configProperties.captureGroupId() }")
+	public void loggedTransactionListen(@Payload TraceableMessage<LoggedTransaction> message, Acknowledgment acknowledgment,
+			@Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition, @Header(KafkaHeaders.OFFSET) long offset) {
 		log.debug("loggedTransactionListen ENTRY");
-		try {
-			loggedTransactionExchangeQueue.put(message);
-		} catch (InterruptedException e) {
-			log.debug(e.getLocalizedMessage());
-		}
+		metrics.captured(configProperties.getLoggedTransactionTopic());
+		captureLog.append(configProperties.getLoggedTransactionTopic(), partition, offset, message);
+		if (!captureRouter.deliver(captureRouter.byCorrelation(message.getCorrelationId()), CaptureView::getLoggedTransactionQueue, message))
+			enqueue(loggedTransactionExchangeQueue, message);
 		acknowledgment.acknowledge();
 		log.debug("loggedTransactionListen EXIT");
 	}
 	
 	@KafkaListener(containerFactory = "balanceLogListenerContainerFactory", 
-			topics = { "#{ @configProperties.balanceLogStateStoreTopic }" }, groupId="kstream.itest")
-	public void balanceLogListen(@Payload BalanceLog message, Acknowledgment acknowledgment) {
+			topics = { "#{ @configProperties.balanceLogStateStoreTopic }" }, groupId="#{ @configProperties.captureGroupId() }")
+	public void balanceLogListen(@Payload BalanceLog message, Acknowledgment acknowledgment,
+			@Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition, @Header(KafkaHeaders.OFFSET) long offset) {
 		log.debug("balanceLogListen ENTRY");
-		try {
-			balanceLogExchangeQueue.put(message);
-		} catch (InterruptedException e) {
-			log.debug(e.getLocalizedMessage());
-		}
+		metrics.captured(configProperties.getBalanceLogStateStoreTopic());
+		captureLog.append(configProperties.getBalanceLogStateStoreTopic(), partition, offset, message);
+		if (!captureRouter.deliver(captureRouter.byAccount(message.getAccountNumber()), CaptureView::getBalanceLogQueue, message))
+			enqueue(balanceLogExchangeQueue, message);
 		acknowledgment.acknowledge();
 		log.debug("balanceLogListen EXIT");
 	}
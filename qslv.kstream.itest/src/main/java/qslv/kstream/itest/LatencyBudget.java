@@ -0,0 +1,29 @@
+package qslv.kstream.itest;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * A latency budget for a test method: the given percentile of the latencies the test records through its
+ * LatencyRecorder parameter must be at most maxMillis, over at least iterations samples after warmup
+ * unrecorded ones. Repeat the annotation for several percentiles; the recorder runs the largest
+ * iterations and warmup among them. -Dqslv.latency-budget.scale=2 loosens every budget on a slow machine.
+ * In an Itest_ class, hold ItestContext.KSTREAM READ_WRITE so the parallel suite is not measured as well.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Repeatable(LatencyBudgets.class)
+@ExtendWith(LatencyBudgetExtension.class)
+public @interface LatencyBudget {
+	double percentile() default 99.0;
+	double maxMillis();
+	int iterations() default 100;
+	int warmup() default 10;
+}
@@ -0,0 +1,72 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands a LatencyRecorder to test methods with a LatencyBudget and fails the test after it ran when a
+ * recorded percentile is over its budget, or fewer samples were recorded than the budget asks for.
+ * Percentiles are logged either way, so the margin can be watched before it runs out.
+ */
+public class LatencyBudgetExtension implements ParameterResolver, AfterTestExecutionCallback {
+	private static final Logger log = LoggerFactory.getLogger(LatencyBudgetExtension.class);
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(LatencyBudgetExtension.class);
+	private static final String SCALE_PROPERTY = "qslv.latency-budget.scale";
+
+	@Override
+	public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+		return parameterContext.getParameter().getType() == LatencyRecorder.class && !budgets(extensionContext).isEmpty();
+	}
+
+	@Override
+	public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) throws ParameterResolutionException {
+		return recorder(extensionContext);
+	}
+
+	@Override
+	public void afterTestExecution(ExtensionContext context) {
+		List<LatencyBudget> budgets = budgets(context);
+		if (budgets.isEmpty() || context.getExecutionException().isPresent())
+			return;
+		LatencyRecorder recorder = recorder(context);
+		double scale = Double.parseDouble(System.getProperty(SCALE_PROPERTY, "1"));
+		List<String> over = new ArrayList<>();
+		StringBuilder measured = new StringBuilder();
+		for (LatencyBudget budget : budgets) {
+			double millis = recorder.percentileMillis(budget.percentile());
+			double allowed = budget.maxMillis() * scale;
+			measured.append(String.format(" p%s=%.2fms/%.2fms", budget.percentile(), millis, allowed));
+			if (recorder.getCount() < budget.iterations())
+				over.add(String.format("%d samples recorded, p%s needs %d", recorder.getCount(), budget.percentile(), budget.iterations()));
+			else if (millis > allowed)
+				over.add(String.format("p%s %.2fms over its %.2fms budget", budget.percentile(), millis, allowed));
+		}
+		log.info("Latency budget {} over {} samples:{}", context.getDisplayName(), recorder.getCount(), measured);
+		if (!over.isEmpty())
+			throw new AssertionFailedError("Latency budget exceeded: " + String.join("; ", over));
+	}
+
+	private LatencyRecorder recorder(ExtensionContext context) {
+		List<LatencyBudget> budgets = budgets(context);
+		int iterations = budgets.stream().mapToInt(LatencyBudget::iterations).max().orElse(0);
+		int warmup = budgets.stream().mapToInt(LatencyBudget::warmup).max().orElse(0);
+		return context.getStore(NAMESPACE).getOrComputeIfAbsent(LatencyRecorder.class,
+				key -> new LatencyRecorder(iterations, warmup), LatencyRecorder.class);
+	}
+
+	private static List<LatencyBudget> budgets(ExtensionContext context) {
+		if (!context.getTestMethod().isPresent())
+			return new ArrayList<>();
+		return AnnotationSupport.findRepeatableAnnotations(context.getTestMethod().get(), LatencyBudget.class);
+	}
+}
@@ -0,0 +1,20 @@
+package qslv.kstream.itest;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Holds repeated LatencyBudget annotations.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ExtendWith(LatencyBudgetExtension.class)
+public @interface LatencyBudgets {
+	LatencyBudget[] value();
+}
@@ -0,0 +1,56 @@
+package qslv.kstream.itest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies of one test method with a LatencyBudget, in microseconds like LoadStatistics. Either time a
+ * body with repeat(), which runs it warmup plus iterations times, or record() measurements the test took itself.
+ */
+public class LatencyRecorder {
+
+	public interface Body {
+		void run() throws Exception;
+	}
+
+	private final Histogram histogram = new Histogram(3);
+	private final int iterations;
+	private final int warmup;
+
+	LatencyRecorder(int iterations, int warmup) {
+		this.iterations = iterations;
+		this.warmup = warmup;
+	}
+
+	/**
+	 * Runs the body warmup times untimed, then iterations times timed.
+	 */
+	public void repeat(Body body) throws Exception {
+		for (int i = 0; i < warmup; i++) {
+			body.run();
+		}
+		for (int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			body.run();
+			record(System.nanoTime() - start);
+		}
+	}
+
+	public synchronized void record(long latencyNanos) {
+		histogram.recordValue(Math.max(1L, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+	}
+
+	public int getIterations() {
+		return iterations;
+	}
+	public int getWarmup() {
+		return warmup;
+	}
+	public synchronized long getCount() {
+		return histogram.getTotalCount();
+	}
+	public synchronized double percentileMillis(double percentile) {
+		return histogram.getValueAtPercentile(percentile) / 1000.0;
+	}
+}
@@ -0,0 +1,92 @@
+package qslv.kstream.itest;
+
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Control plane for load runs.
+ *
+ * POST /load/start          body LoadScenario
+ * POST /load/stop          409 while a benchmark drives the run under its own lease
+ * POST /load/pause, /load/resume
+ * PUT  /load/rate?tps=      change the offered rate
+ * PUT  /load/scenario       body LoadScenario, change rate, mix and account pool size
+ * GET  /load/stats          latest one second snapshot
+ * GET  /load/stats/stream   server sent events, one snapshot a second while a run is active
+ */
+@RestController
+@RequestMapping("/load")
+public class LoadController {
+	private static final Logger log = LoggerFactory.getLogger(LoadController.class);
+
+	@Autowired
+	LoadRunner loadRunner;
+
+	@PostMapping("/start")
+	public LoadStatistics.Snapshot start(@RequestBody LoadScenario scenario) {
+		return loadRunner.start(scenario);
+	}
+
+	@PostMapping("/stop")
+	public LoadStatistics.Snapshot stop() {
+		return loadRunner.stop();
+	}
+
+	@PostMapping("/pause")
+	public LoadStatistics.Snapshot pause() {
+		return loadRunner.pause();
+	}
+
+	@PostMapping("/resume")
+	public LoadStatistics.Snapshot resume() {
+		return loadRunner.resume();
+	}
+
+	@PutMapping("/rate")
+	public LoadStatistics.Snapshot rate(@RequestParam double tps) {
+		return loadRunner.rate(tps);
+	}
+
+	@PutMapping("/scenario")
+	public LoadStatistics.Snapshot scenario(@RequestBody LoadScenario scenario) {
+		return loadRunner.update(scenario);
+	}
+
+	@GetMapping("/stats")
+	public LoadStatistics.Snapshot stats() {
+		return loadRunner.stats();
+	}
+
+	@GetMapping(path = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamStats() {
+		SseEmitter emitter = new SseEmitter(0L);
+		Consumer<LoadStatistics.Snapshot> listener = new Consumer<LoadStatistics.Snapshot>() {
+			@Override
+			public void accept(LoadStatistics.Snapshot snapshot) {
+				try {
+					emitter.send(snapshot, MediaType.APPLICATION_JSON);
+				} catch (Exception ex) {
+					log.debug("Stats stream closed. {}", ex.toString());
+					loadRunner.removeStatsListener(this);
+					emitter.completeWithError(ex);
+				}
+			}
+		};
+		loadRunner.addStatsListener(listener);
+		emitter.onCompletion(() -> loadRunner.removeStatsListener(listener));
+		emitter.onTimeout(() -> loadRunner.removeStatsListener(listener));
+		return emitter;
+	}
+}
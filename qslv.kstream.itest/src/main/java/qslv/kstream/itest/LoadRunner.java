@@ -0,0 +1,404 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.data.Account;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+
+/**
+ * Offers a paced mix of posting requests to the kstream under test until stopped.
+ * One run at a time; the rate, mix and account pool can be changed while it runs.
+ * A run started on its own holds the HarnessLock; benchmarks that drive it pass their lease in,
+ * and only the same lease can stop it.
+ */
+@Component
+public class LoadRunner {
+	private static final Logger log = LoggerFactory.getLogger(LoadRunner.class);
+
+	public enum State { IDLE, RUNNING, PAUSED }
+
+	private static final int MAX_OPEN_RESERVATIONS = 100_000;
+	private static final long MAX_SCHEDULE_LAG_NANOS = TimeUnit.SECONDS.toNanos(1);
+	private static final int METADATA_POOL_SIZE = 32;
+
+	@Autowired KafkaProducerDao kafkaProducerDao;
+	@Autowired PostingRequestFactory requestFactory;
+	@Autowired RequestCorrelationTracker correlationTracker;
+	@Autowired KafkaStreamsOutputListener outputListener;
+	@Autowired HarnessLock harnessLock;
+
+	private final Object lock = new Object();
+	private final List<Consumer<LoadStatistics.Snapshot>> statsListeners = new CopyOnWriteArrayList<>();
+	private final ArrayBlockingQueue<OpenReservation> openReservations = new ArrayBlockingQueue<>(MAX_OPEN_RESERVATIONS);
+	private final Set<String> unanswered = ConcurrentHashMap.newKeySet();
+	private final RequestCorrelationTracker.PostingResponseObserver observer = this::responseReceived;
+
+	private volatile State state = State.IDLE;
+	private volatile LoadScenario scenario = new LoadScenario();
+	private volatile double targetTps = 0.0;
+	private volatile LoadStatistics statistics = new LoadStatistics();
+	private volatile List<String> metadata = Collections.singletonList(PostingRequestFactory.JSON_DATA);
+	private volatile String failure = null;
+	private AccountPool accountPool;
+	private Thread senderThread;
+	private ScheduledExecutorService ticker;
+	private HarnessLock.Lease ownLease;
+	private HarnessLock.Lease runLease;
+	private KafkaStreamsOutputListener.QueueingSuspension queueing;
+
+	@PostConstruct
+	void observe() {
+		correlationTracker.addObserver(observer);
+	}
+
+	public LoadStatistics.Snapshot start(LoadScenario newScenario) {
+		return start(newScenario, null);
+	}
+
+	/**
+	 * @param within lease of the run driving this one, or null to take the HarnessLock for this run alone.
+	 */
+	public LoadStatistics.Snapshot start(LoadScenario newScenario, HarnessLock.Lease within) {
+		validate(newScenario);
+		synchronized (lock) {
+			if (state != State.IDLE)
+				throw new ResponseStatusException(HttpStatus.CONFLICT, "Load run already active");
+			if (within != null && !within.isHeld())
+				throw new ResponseStatusException(HttpStatus.CONFLICT, within.getName() + " run no longer holds the harness");
+			ownLease = within == null ? harnessLock.acquire("Load") : null;
+			runLease = within == null ? ownLease : within;
+			queueing = outputListener.suspendQueueing(); // before the account pool produces its balance logs
+			log.info("Starting load run at {} tps over {} accounts", newScenario.getTargetTps(), newScenario.getAccountPoolSize());
+
+			try {
+				accountPool = new AccountPool(kafkaProducerDao, newScenario.getStartingBalance(), newScenario.getAccountRangeStart());
+				accountPool.resize(newScenario.getAccountPoolSize());
+				metadata = metadataPool(newScenario);
+			} catch (RuntimeException ex) {
+				release();
+				throw ex;
+			}
+			openReservations.clear();
+			forgetUnanswered();
+			failure = null;
+			scenario = newScenario;
+			targetTps = newScenario.getTargetTps();
+			statistics = new LoadStatistics();
+			state = State.RUNNING;
+
+			senderThread = new Thread(this::sendLoop, "qslv-load-sender");
+			senderThread.setDaemon(true);
+			senderThread.start();
+			ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "qslv-load-stats");
+				thread.setDaemon(true);
+				return thread;
+			});
+			ticker.scheduleAtFixedRate(this::tick, 1, 1, TimeUnit.SECONDS);
+			return stats();
+		}
+	}
+
+	@PreDestroy
+	void shutdown() {
+		halt();
+	}
+
+	/**
+	 * Stop a run started without a lease, as the load controller does.
+	 * @throws ResponseStatusException CONFLICT while the run belongs to a benchmark's lease.
+	 */
+	public LoadStatistics.Snapshot stop() {
+		return stop(null);
+	}
+
+	/**
+	 * @param within the lease the run was started with, or null for a run that took its own.
+	 * @throws ResponseStatusException CONFLICT when the active run was started under another lease.
+	 */
+	public LoadStatistics.Snapshot stop(HarnessLock.Lease within) {
+		synchronized (lock) {
+			if (state != State.IDLE && (within == null ? ownLease == null : within != runLease))
+				throw new ResponseStatusException(HttpStatus.CONFLICT, runLease.getName() + " run owns the load run");
+			return halt();
+		}
+	}
+
+	private LoadStatistics.Snapshot halt() {
+		synchronized (lock) {
+			if (state == State.IDLE)
+				return stats();
+			state = State.IDLE;
+			ticker.shutdown();
+			if (senderThread != Thread.currentThread()) {
+				try {
+					senderThread.join(TimeUnit.SECONDS.toMillis(5));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			release();
+
+			LoadStatistics.Snapshot last = statistics.tick(failure == null ? state.name() : "FAILED", targetTps);
+			publish(last);
+			log.info("Stopped load run. sent={} completed={} failed={} p99={}ms", last.getSent(), last.getCompleted(),
+					last.getFailed(), last.getP99Millis());
+			return last;
+		}
+	}
+
+	public LoadStatistics.Snapshot pause() {
+		synchronized (lock) {
+			if (state != State.RUNNING)
+				throw new ResponseStatusException(HttpStatus.CONFLICT, "Load run is not running");
+			state = State.PAUSED;
+			return stats();
+		}
+	}
+
+	public LoadStatistics.Snapshot resume() {
+		synchronized (lock) {
+			if (state != State.PAUSED)
+				throw new ResponseStatusException(HttpStatus.CONFLICT, "Load run is not paused");
+			state = State.RUNNING;
+			return stats();
+		}
+	}
+
+	public LoadStatistics.Snapshot rate(double tps) {
+		if (tps < 0.0)
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Rate must not be negative");
+		targetTps = tps;
+		scenario.setTargetTps(tps);
+		return stats();
+	}
+
+	/**
+	 * Apply the rate, mix and account pool size of the given scenario to the active run.
+	 * Duration and starting balance stay as the run was started.
+	 */
+	public LoadStatistics.Snapshot update(LoadScenario changes) {
+		validate(changes);
+		synchronized (lock) {
+			if (state == State.IDLE)
+				throw new ResponseStatusException(HttpStatus.CONFLICT, "No active load run");
+			changes.setDurationSeconds(scenario.getDurationSeconds());
+			changes.setStartingBalance(scenario.getStartingBalance());
+			accountPool.resize(changes.getAccountPoolSize());
+			if (changes.getMetadataBytes() != scenario.getMetadataBytes() || changes.getMetadataShape() != scenario.getMetadataShape())
+				metadata = metadataPool(changes);
+			scenario = changes;
+			return rate(changes.getTargetTps());
+		}
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * Why the current or last run stopped on its own, or null when it did not fail.
+	 */
+	public String getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Requests of the current or last run still waiting on a response. Late responses keep counting
+	 * down after the run has stopped, until the next run starts.
+	 */
+	public int unanswered() {
+		return unanswered.size();
+	}
+
+	/**
+	 * Stop waiting on the requests this runner sent that have not been answered, and only those.
+	 */
+	public void forgetUnanswered() {
+		List<String> leftover = new ArrayList<>(unanswered);
+		unanswered.removeAll(leftover);
+		correlationTracker.forget(leftover);
+	}
+
+	private void release() {
+		queueing.close();
+		if (ownLease != null)
+			ownLease.close();
+		ownLease = null;
+		runLease = null;
+	}
+
+	/**
+	 * @throws ResponseStatusException BAD_REQUEST for a scenario no run can send.
+	 */
+	static void validate(LoadScenario scenario) {
+		if (scenario.getAccountPoolSize() < 1)
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Account pool size must be at least 1");
+		if (scenario.getTargetTps() < 0.0)
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Rate must not be negative");
+	}
+
+	public LoadStatistics.Snapshot stats() {
+		return statistics.latest(state.name(), targetTps);
+	}
+
+	public void addStatsListener(Consumer<LoadStatistics.Snapshot> listener) {
+		statsListeners.add(listener);
+	}
+
+	public void removeStatsListener(Consumer<LoadStatistics.Snapshot> listener) {
+		statsListeners.remove(listener);
+	}
+
+	private void tick() {
+		try {
+			LoadStatistics.Snapshot snapshot = statistics.tick(state.name(), targetTps);
+			publish(snapshot);
+			long duration = scenario.getDurationSeconds();
+			if (duration > 0 && snapshot.getElapsedMillis() >= TimeUnit.SECONDS.toMillis(duration))
+				halt();
+		} catch (Exception ex) {
+			log.warn("Load statistics tick failed. {}", ex.toString());
+		}
+	}
+
+	private void publish(LoadStatistics.Snapshot snapshot) {
+		for (Consumer<LoadStatistics.Snapshot> listener : statsListeners) {
+			try {
+				listener.accept(snapshot);
+			} catch (Exception ex) {
+				log.debug("Stats listener failed. {}", ex.toString());
+			}
+		}
+	}
+
+	private void sendLoop() {
+		try {
+			pace();
+		} catch (RuntimeException ex) {
+			log.error("Load sender failed, stopping the run. {}", ex.toString(), ex);
+			failure = ex.toString();
+			halt();
+		}
+	}
+
+	private void pace() {
+		long next = System.nanoTime();
+		while (state != State.IDLE) {
+			double tps = targetTps;
+			if (state == State.PAUSED || tps <= 0.0) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+				next = System.nanoTime();
+				continue;
+			}
+			long now = System.nanoTime();
+			if (next > now) {
+				LockSupport.parkNanos(next - now);
+				continue;
+			}
+			if (now - next > MAX_SCHEDULE_LAG_NANOS)
+				next = now; // don't burst to catch up after a stall
+			send(nextRequest());
+			next += (long) (1_000_000_000.0 / tps);
+		}
+	}
+
+	private void send(TraceableMessage<PostingRequest> request) {
+		LoadStatistics current = statistics;
+		String correlationId = request.getCorrelationId();
+		current.sent();
+		unanswered.add(correlationId);
+		try {
+			kafkaProducerDao.produceRequestMessageAsync(request).addCallback(result -> { }, ex -> {
+				unanswered.remove(correlationId);
+				current.failed();
+			});
+		} catch (ResponseStatusException ex) {
+			unanswered.remove(correlationId);
+			current.failed();
+		}
+	}
+
+	TraceableMessage<PostingRequest> nextRequest() {
+		LoadScenario current = scenario;
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Account account = accountPool.random();
+		long amount = -(1L + random.nextLong(Math.max(1L, current.getMaxTransactionAmount())));
+		List<String> documents = metadata;
+		String json = documents.get(random.nextInt(documents.size()));
+
+		int total = current.getReservationWeight() + current.getTransactionWeight() + current.getCommitWeight() + current.getCancelWeight();
+		int pick = random.nextInt(Math.max(1, total));
+		if ((pick -= current.getReservationWeight()) < 0)
+			return requestFactory.reservation(account.getAccountNumber(), amount, json);
+		if ((pick -= current.getTransactionWeight()) < 0)
+			return requestFactory.transaction(account.getAccountNumber(), amount, json);
+
+		OpenReservation open = openReservations.poll();
+		if (open == null)
+			return requestFactory.reservation(account.getAccountNumber(), amount, json);
+		if ((pick -= current.getCommitWeight()) < 0)
+			return requestFactory.commit(open.accountNumber, open.reservationUuid, open.amount, json);
+		return requestFactory.cancel(open.accountNumber, open.reservationUuid, json);
+	}
+
+	private static List<String> metadataPool(LoadScenario scenario) {
+		if (scenario.getMetadataBytes() <= 0)
+			return Collections.singletonList(PostingRequestFactory.JSON_DATA);
+		return MetadataGenerator.pool(scenario.getMetadataBytes(), scenario.getMetadataShape(), METADATA_POOL_SIZE, System.nanoTime());
+	}
+
+	private void responseReceived(ResponseMessage<PostingRequest,PostingResponse> response, long latencyNanos) {
+		if (!unanswered.remove(response.getCorrelationId()))
+			return;
+		statistics.completed(latencyNanos);
+		if (response.getResponse() == null || response.getResponse().getTransactions() == null
+				|| !Objects.equals(ResponseMessage.SUCCESS, response.getStatus()))
+			return;
+		for (LoggedTransaction transaction : response.getResponse().getTransactions()) {
+			if (Objects.equals(LoggedTransaction.RESERVATION, transaction.getTransactionTypeCode()))
+				openReservations.offer(new OpenReservation(transaction.getAccountNumber(),
+						transaction.getTransactionUuid(), transaction.getTransactionAmount()));
+		}
+	}
+
+	private static class OpenReservation {
+		final String accountNumber;
+		final UUID reservationUuid;
+		final long amount;
+
+		OpenReservation(String accountNumber, UUID reservationUuid, long amount) {
+			this.accountNumber = accountNumber;
+			this.reservationUuid = reservationUuid;
+			this.amount = amount;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package qslv.kstream.itest;
+
+/**
+ * What a load run offers the posting kstream. Mix weights are relative to each other;
+ * commits and cancels fall back to reservations until an open reservation is available.
+ */
+public class LoadScenario {
+	private double targetTps = 100.0;
+	private long durationSeconds = 0L; // 0 runs until stopped
+	private int accountPoolSize = 100;
+	private long startingBalance = 1_000_000_000L;
+	private long maxTransactionAmount = 10_000L;
+	private long accountRangeStart = -1L; // -1 uses random account numbers, otherwise numbers are allocated from here up
+	private int metadataBytes = 0; // 0 sends the small PostingRequestFactory.JSON_DATA
+	private MetadataGenerator.Shape metadataShape = MetadataGenerator.Shape.NESTED;
+
+	private int reservationWeight = 40;
+	private int transactionWeight = 40;
+	private int commitWeight = 10;
+	private int cancelWeight = 10;
+
+	public double getTargetTps() {
+		return targetTps;
+	}
+	public void setTargetTps(double targetTps) {
+		this.targetTps = targetTps;
+	}
+	public long getDurationSeconds() {
+		return durationSeconds;
+	}
+	public void setDurationSeconds(long durationSeconds) {
+		this.durationSeconds = durationSeconds;
+	}
+	public int getAccountPoolSize() {
+		return accountPoolSize;
+	}
+	public void setAccountPoolSize(int accountPoolSize) {
+		this.accountPoolSize = accountPoolSize;
+	}
+	public long getStartingBalance() {
+		return startingBalance;
+	}
+	public void setStartingBalance(long startingBalance) {
+		this.startingBalance = startingBalance;
+	}
+	public long getMaxTransactionAmount() {
+		return maxTransactionAmount;
+	}
+	public void setMaxTransactionAmount(long maxTransactionAmount) {
+		this.maxTransactionAmount = maxTransactionAmount;
+	}
+	public int getReservationWeight() {
+		return reservationWeight;
+	}
+	public void setReservationWeight(int reservationWeight) {
+		this.reservationWeight = reservationWeight;
+	}
+	public int getTransactionWeight() {
+		return transactionWeight;
+	}
+	public void setTransactionWeight(int transactionWeight) {
+		this.transactionWeight = transactionWeight;
+	}
+	public int getCommitWeight() {
+		return commitWeight;
+	}
+	public void setCommitWeight(int commitWeight) {
+		this.commitWeight = commitWeight;
+	}
+	public int getCancelWeight() {
+		return cancelWeight;
+	}
+	public void setCancelWeight(int cancelWeight) {
+		this.cancelWeight = cancelWeight;
+	}
+	public long getAccountRangeStart() {
+		return accountRangeStart;
+	}
+	public void setAccountRangeStart(long accountRangeStart) {
+		this.accountRangeStart = accountRangeStart;
+	}
+	public int getMetadataBytes() {
+		return metadataBytes;
+	}
+	public void setMetadataBytes(int metadataBytes) {
+		this.metadataBytes = metadataBytes;
+	}
+	public MetadataGenerator.Shape getMetadataShape() {
+		return metadataShape;
+	}
+	public void setMetadataShape(MetadataGenerator.Shape metadataShape) {
+		this.metadataShape = metadataShape;
+	}
+
+}
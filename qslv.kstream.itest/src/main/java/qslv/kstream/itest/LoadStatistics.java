@@ -0,0 +1,141 @@
+package qslv.kstream.itest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Counters and latency histograms for one load run. Latencies are recorded in microseconds.
+ * tick() closes the current interval; it is driven once a second by LoadRunner.
+ */
+public class LoadStatistics {
+
+	private final Recorder recorder = new Recorder(3);
+	private final Histogram cumulative = new Histogram(3);
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final long startNanos = System.nanoTime();
+	private long lastTickNanos = startNanos;
+	private Histogram intervalHistogram = null;
+	private volatile Snapshot latest = null;
+
+	public void sent() {
+		sent.incrementAndGet();
+	}
+
+	public void failed() {
+		failed.incrementAndGet();
+	}
+
+	public void completed(long latencyNanos) {
+		completed.incrementAndGet();
+		recorder.recordValue(Math.max(1L, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+	}
+
+	public synchronized Snapshot tick(String state, double targetTps) {
+		long now = System.nanoTime();
+		intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+		cumulative.add(intervalHistogram);
+		latest = new Snapshot(state, targetTps, now - startNanos, now - lastTickNanos,
+				sent.get(), completed.get(), failed.get(), intervalHistogram.copy(), cumulative.copy());
+		lastTickNanos = now;
+		return latest;
+	}
+
+	public Snapshot latest(String state, double targetTps) {
+		Snapshot snapshot = latest;
+		return snapshot == null ? tick(state, targetTps) : snapshot;
+	}
+
+	public synchronized Histogram cumulativeHistogram() {
+		return cumulative.copy();
+	}
+
+	public static class Snapshot {
+		private final String state;
+		private final double targetTps;
+		private final long elapsedMillis;
+		private final long sent;
+		private final long completed;
+		private final long failed;
+		private final double intervalTps;
+		private final Histogram interval;
+		private final Histogram cumulative;
+
+		Snapshot(String state, double targetTps, long elapsedNanos, long intervalNanos,
+				long sent, long completed, long failed, Histogram interval, Histogram cumulative) {
+			this.state = state;
+			this.targetTps = targetTps;
+			this.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+			this.sent = sent;
+			this.completed = completed;
+			this.failed = failed;
+			this.intervalTps = intervalNanos <= 0 ? 0.0 : interval.getTotalCount() * 1_000_000_000.0 / intervalNanos;
+			this.interval = interval;
+			this.cumulative = cumulative;
+		}
+
+		public String getState() {
+			return state;
+		}
+		public double getTargetTps() {
+			return targetTps;
+		}
+		public long getElapsedMillis() {
+			return elapsedMillis;
+		}
+		public long getSent() {
+			return sent;
+		}
+		public long getCompleted() {
+			return completed;
+		}
+		public long getFailed() {
+			return failed;
+		}
+		public long getPending() {
+			return sent - completed - failed;
+		}
+		public double getIntervalTps() {
+			return intervalTps;
+		}
+		public double getIntervalP50Millis() {
+			return millis(interval, 50.0);
+		}
+		public double getIntervalP99Millis() {
+			return millis(interval, 99.0);
+		}
+		public double getIntervalMaxMillis() {
+			return interval.getMaxValue() / 1000.0;
+		}
+		public double getP50Millis() {
+			return millis(cumulative, 50.0);
+		}
+		public double getP99Millis() {
+			return millis(cumulative, 99.0);
+		}
+		public double getP999Millis() {
+			return millis(cumulative, 99.9);
+		}
+		public double getMaxMillis() {
+			return cumulative.getMaxValue() / 1000.0;
+		}
+		@JsonIgnore
+		public Histogram getIntervalHistogram() {
+			return interval;
+		}
+		@JsonIgnore
+		public Histogram getCumulativeHistogram() {
+			return cumulative;
+		}
+
+		private static double millis(Histogram histogram, double percentile) {
+			return histogram.getValueAtPercentile(percentile) / 1000.0;
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * The capacity of the kstream build under test, in the log as the last line; run on every release and
+ * compare. Fails when capacity is below qslv.capacity.min-tps.
+ * -Dqslv.capacity.slo-p99-millis=250 -Dqslv.capacity.start-tps=50 -Dqslv.capacity.min-tps=0
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_capacity {
+
+	@Autowired
+	CapacityFinder capacityFinder;
+
+	@Value("${qslv.capacity.slo-p99-millis:250}")
+	double sloP99Millis;
+	@Value("${qslv.capacity.start-tps:50}")
+	double startTps;
+	@Value("${qslv.capacity.measure-seconds:45}")
+	long measureSeconds;
+	@Value("${qslv.capacity.min-tps:0}")
+	double minTps;
+
+	@Test
+	void capacity_within_slo() throws Exception {
+		CapacitySettings settings = new CapacitySettings();
+		settings.setSloP99Millis(sloP99Millis);
+		settings.setStartTps(startTps);
+		settings.setMeasureSeconds(measureSeconds);
+
+		CapacityReport report = capacityFinder.run(settings);
+
+		assertEquals(CapacityReport.COMPLETE, report.getState(), report.getError());
+		assertNotNull(report.getKnee(), "no rate met the SLO, not even " + startTps);
+		assertTrue(report.getCapacityTps() >= minTps, "capacity " + report.getCapacityTps() + " below " + minTps);
+	}
+}
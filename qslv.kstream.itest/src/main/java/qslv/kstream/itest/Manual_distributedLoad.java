@@ -0,0 +1,94 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Runs a distributed load run with this JVM as coordinator and worker processes launched from the
+ * same classpath, all against an embedded broker and this JVM's mock schema registry.
+ * Worker logs go to target/distributed-worker-N.log. The topics have several partitions, so a node
+ * only sees its responses if its capture listeners do not share a group with the other nodes.
+ */
+@SpringBootTest(properties = { "qslv.node-id=coordinator", "qslv.mock-schema-registry=true" })
+@EmbeddedKafka(partitions = 4, bootstrapServersProperty = "qslv.kafka-bootstrap-servers",
+	topics = { "qks.itest.control", "qks.posting.request", "qks.posting.response", "qks.enhanced.request",
+			"qks.match.reservation", "qks.transaction.log", "qks.reservation.by.uuid", "qks.balance.log.state.store",
+			"qks.account", "qks.overdraft.instructions" })
+@EnableQuickSilver
+class Manual_distributedLoad {
+
+	static final int NODES = 3;
+	static final long RUN_SECONDS = 20L;
+
+	@Autowired
+	EmbeddedKafkaBroker embeddedKafka;
+	@Autowired
+	DistributedLoadCoordinator coordinator;
+	@Autowired
+	MockSchemaRegistry schemaRegistry;
+
+	@Test
+	void three_worker_processes() throws Exception {
+		List<Process> workers = new ArrayList<>();
+		try {
+			for (int i = 0; i < NODES; i++) {
+				workers.add(launchWorker(i));
+			}
+
+			LoadScenario scenario = new LoadScenario();
+			scenario.setTargetTps(300.0);
+			scenario.setAccountPoolSize(30);
+			scenario.setDurationSeconds(RUN_SECONDS);
+			DistributedReport report = coordinator.start(scenario, NODES, 120L);
+
+			long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(240L + RUN_SECONDS);
+			while (report.isActive() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(1_000L);
+			}
+
+			assertEquals(DistributedReport.COMPLETE, report.getState());
+			assertEquals(NODES, report.getNodes().size());
+			List<Long> rangeStarts = new ArrayList<>();
+			for (DistributedReport.NodeReport node : report.getNodes()) {
+				assertEquals(10, node.getAccountCount());
+				assertFalse(rangeStarts.contains(node.getAccountRangeStart()));
+				rangeStarts.add(node.getAccountRangeStart());
+				assertTrue(node.getSent() > 0L);
+				assertTrue(node.getCompleted() >= node.getSent() * 95L / 100L,
+						node.getNodeId() + " completed " + node.getCompleted() + " of " + node.getSent());
+			}
+			assertTrue(report.getCompleted() > 0L);
+			assertTrue(report.getP99Millis() > 0.0);
+		} finally {
+			for (Process worker : workers) {
+				worker.destroy();
+			}
+		}
+	}
+
+	private Process launchWorker(int index) throws Exception {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+				KafkaTestApplication.class.getName(),
+				"--server.port=0",
+				"--qslv.node-id=worker-" + index,
+				"--qslv.distributed-worker=true",
+				"--qslv.kafka-bootstrap-servers=" + embeddedKafka.getBrokersAsString(),
+				"--qslv.schema-registry-url=" + schemaRegistry.getUrl());
+		builder.redirectErrorStream(true);
+		builder.redirectOutput(new File("target", "distributed-worker-" + index + ".log"));
+		return builder.start();
+	}
+}
@@ -0,0 +1,39 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Stops the kstream, builds a backlog on the request topic and times the catch-up after restart.
+ * Set qslv.kstream-stop-command and qslv.kstream-start-command, or stop and start it by hand when the log asks.
+ * -Dqslv.drain.backlog=5000000 sets the backlog size.
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_drainRate {
+
+	@Autowired
+	DrainBenchmark drainBenchmark;
+
+	@Value("${qslv.drain.backlog:1000000}")
+	int backlog;
+
+	@Test
+	void drain_backlog_after_restart() throws Exception {
+		DrainSettings settings = new DrainSettings();
+		settings.setBacklogSize(backlog);
+
+		DrainReport report = drainBenchmark.run(settings);
+
+		assertEquals(DrainReport.COMPLETE, report.getState(), report.getError());
+		assertEquals(0L, report.getBacklogFailed());
+		assertTrue(report.getDrainedMillis() > 0L, "backlog did not drain");
+		assertTrue(report.getZeroLagMillis() >= 0L, "kstream lag did not reach zero");
+	}
+}
@@ -0,0 +1,49 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Client retries mixed into a request stream; the duplicate path's latency against the happy path is in the log.
+ * -Dqslv.duplicates.percent=20 -Dqslv.duplicates.tps=100 -Dqslv.duplicates.seconds=60
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_duplicateStorm {
+
+	@Autowired
+	DuplicateStormBenchmark duplicateStormBenchmark;
+
+	@Value("${qslv.duplicates.percent:20}")
+	int duplicatePercent;
+	@Value("${qslv.duplicates.tps:100}")
+	double tps;
+	@Value("${qslv.duplicates.seconds:60}")
+	long seconds;
+
+	@Test
+	void retries_never_post_twice() throws Exception {
+		DuplicateStormSettings settings = new DuplicateStormSettings();
+		settings.setDuplicatePercent(duplicatePercent);
+		settings.setTps(tps);
+		settings.setDurationSeconds(seconds);
+
+		DuplicateStormReport report = duplicateStormBenchmark.run(settings);
+
+		assertEquals(DuplicateStormReport.COMPLETE, report.getState(), report.getError());
+		assertEquals(0L, report.getUnanswered(), "requests without a response");
+		assertTrue(report.getReplays().getCompleted() > 0L, "no replays answered");
+		assertTrue(report.getReplayStatuses().containsKey(ResponseMessage.CONFLICT), "no replay took the conflict path");
+		assertEquals(0L, report.getReplayedSuccesses(), "replays posted again");
+		assertEquals(0L, report.getAudit().getDuplicateTransactions(), "transaction logged twice");
+		assertEquals(0L, report.getAudit().getDuplicateRequests(), "request posted twice");
+		assertTrue(report.isIdempotent());
+	}
+}
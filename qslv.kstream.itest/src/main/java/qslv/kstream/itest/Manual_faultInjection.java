@@ -0,0 +1,45 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Each fault in turn against an embedded broker on localhost:9092, with the producer and consumer
+ * retry settings from the properties files. Start the kstream under test against localhost:9092 and the
+ * schema registry once the broker is up; KSTREAM_OUTAGE also needs the kstream stop and start commands.
+ */
+@SpringBootTest(properties = "qslv.fault-injection=true")
+@EmbeddedKafka(partitions = 1, ports = 9092,
+	topics = { "qks.itest.control", "qks.posting.request", "qks.posting.response", "qks.enhanced.request",
+			"qks.match.reservation", "qks.transaction.log", "qks.reservation.by.uuid", "qks.balance.log.state.store",
+			"qks.account", "qks.overdraft.instructions" })
+@EnableQuickSilver
+class Manual_faultInjection {
+
+	@Autowired
+	FaultBenchmark faultBenchmark;
+
+	@ParameterizedTest
+	@EnumSource(FaultSettings.Fault.class)
+	void fault_under_load(FaultSettings.Fault fault) throws Exception {
+		FaultSettings settings = new FaultSettings();
+		settings.setFault(fault);
+		settings.getScenario().setTargetTps(100.0);
+
+		FaultReport report = faultBenchmark.run(settings);
+
+		assertEquals(FaultReport.COMPLETE, report.getState(), report.getError());
+		assertTrue(report.getResumeSeconds() >= 0L, "throughput did not resume");
+		assertEquals(0L, report.getUnanswered());
+		assertEquals(0L, report.getAudit().getDuplicateTransactions());
+		assertEquals(0L, report.getAudit().getDuplicateRequests());
+		assertEquals(0L, report.getAudit().getMissing());
+	}
+}
@@ -0,0 +1,55 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Reservations on the roots of overdraft trees of growing depth and fan-out; latency and output records
+ * per request are in the log, one line per shape.
+ * -Dqslv.overdraft.depths=0,1,2,3,4 -Dqslv.overdraft.fan-outs=1,2,3 -Dqslv.overdraft.requests=500
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_overdraftChain {
+
+	@Autowired
+	OverdraftChainBenchmark overdraftChainBenchmark;
+
+	@Value("${qslv.overdraft.depths:0,1,2,3,4}")
+	Integer[] depths;
+	@Value("${qslv.overdraft.fan-outs:1,2,3}")
+	Integer[] fanOuts;
+	@Value("${qslv.overdraft.requests:500}")
+	int requests;
+	@Value("${qslv.overdraft.decoy-percent:30}")
+	int decoyPercent;
+
+	@Test
+	void deeper_chains() throws Exception {
+		OverdraftChainSettings settings = new OverdraftChainSettings();
+		settings.setDepths(new ArrayList<>(Arrays.asList(depths)));
+		settings.setFanOuts(new ArrayList<>(Arrays.asList(fanOuts)));
+		settings.setRequestsPerShape(requests);
+		settings.setDecoyPercent(decoyPercent);
+
+		OverdraftChainReport report = overdraftChainBenchmark.run(settings);
+
+		assertEquals(OverdraftChainReport.COMPLETE, report.getState(), report.getError());
+		assertEquals(depths.length * fanOuts.length, report.getPoints().size());
+		for (OverdraftChainReport.Point point : report.getPoints()) {
+			assertEquals(0L, point.getUnanswered(), "requests without a response at depth " + point.getDepth());
+			assertEquals(0L, point.getDecoysUsed(), "decoy instruction used at depth " + point.getDepth());
+			if (point.getDepth() <= 1)
+				assertTrue(point.getApproved() > 0L, "nothing approved at depth " + point.getDepth());
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Recreates every topic at each partition count and measures the same workload against it. Destroys
+ * the topic contents; point it at a test cluster. The kstream start command should pick up {partitions}.
+ * Each point is logged as a CSV line by PartitionSweep.
+ * -Dqslv.sweep.partitions=1,2,4,8 -Dqslv.sweep.tps=5000 -Dqslv.sweep.measure-seconds=120
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_partitionSweep {
+
+	@Autowired
+	PartitionSweep partitionSweep;
+
+	@Value("${qslv.sweep.partitions:1,2,4,8,16}")
+	Integer[] partitions;
+	@Value("${qslv.sweep.tps:5000}")
+	double tps;
+	@Value("${qslv.sweep.measure-seconds:120}")
+	long measureSeconds;
+
+	@Test
+	void partition_scaling_curve() throws Exception {
+		PartitionSweepSettings settings = new PartitionSweepSettings();
+		settings.setPartitionCounts(new ArrayList<>(Arrays.asList(partitions)));
+		settings.getScenario().setTargetTps(tps);
+		settings.getScenario().setAccountPoolSize(1_000);
+		settings.setMeasureSeconds(measureSeconds);
+
+		PartitionSweepReport report = partitionSweep.run(settings);
+
+		assertEquals(PartitionSweepReport.COMPLETE, report.getState(), report.getError());
+		List<PartitionSweepReport.Point> points = report.getPoints();
+		assertEquals(partitions.length, points.size());
+		points.forEach(point -> assertTrue(point.getResult().getCompleted() > 0L, "no responses at " + point.getPartitions() + " partitions"));
+	}
+}
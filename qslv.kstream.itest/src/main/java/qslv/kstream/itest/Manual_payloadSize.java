@@ -0,0 +1,53 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * The same offered load with transaction metadata from 100 B to 64 KB, flat and nested. Every point is
+ * logged as a CSV line by PayloadSweep.
+ * -Dqslv.payload.tps=1000 -Dqslv.payload.bytes=100,1024,4096,16384,65536 -Dqslv.payload.compression=lz4
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_payloadSize {
+
+	@Autowired
+	PayloadSweep payloadSweep;
+
+	@Value("${qslv.payload.tps:1000}")
+	double tps;
+	@Value("${qslv.payload.bytes:100,1024,4096,16384,65536}")
+	Integer[] bytes;
+	@Value("${qslv.payload.compression:lz4}")
+	String compression;
+
+	@Test
+	void metadata_size_scaling() throws Exception {
+		PayloadSweepSettings settings = new PayloadSweepSettings();
+		settings.setMetadataBytes(new ArrayList<>(Arrays.asList(bytes)));
+		settings.setCompressionType(compression);
+		settings.getScenario().setTargetTps(tps);
+		settings.getScenario().setAccountPoolSize(1_000);
+
+		PayloadSweepReport report = payloadSweep.run(settings);
+
+		assertEquals(PayloadSweepReport.COMPLETE, report.getState(), report.getError());
+		List<PayloadSweepReport.Point> points = report.getPoints();
+		assertEquals(bytes.length * settings.getShapes().size(), points.size());
+		for (PayloadSweepReport.Point point : points) {
+			assertTrue(point.getRequestBytes() >= point.getMetadataBytes(), "metadata missing from the request at " + point.getMetadataBytes());
+			assertTrue(point.getResult().getCompleted() > 0L, "no responses at " + point.getMetadataBytes() + " " + point.getShape());
+		}
+	}
+}
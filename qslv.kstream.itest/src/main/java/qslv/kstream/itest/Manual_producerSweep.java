@@ -0,0 +1,65 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Ranks request producer settings by throughput and p99 under the same offered load. The default grid
+ * is 36 points of 80 seconds each. Every point is logged as a CSV line, the ranking at the end.
+ * -Dqslv.producer-sweep.tps=5000 -Dqslv.producer-sweep.batch-sizes=16384,65536 -Dqslv.producer-sweep.linger-ms=0,5,20
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_producerSweep {
+	private static final Logger log = LoggerFactory.getLogger(Manual_producerSweep.class);
+
+	@Autowired
+	ProducerSweep producerSweep;
+
+	@Value("${qslv.producer-sweep.tps:5000}")
+	double tps;
+	@Value("${qslv.producer-sweep.batch-sizes:16384,65536,262144}")
+	Integer[] batchSizes;
+	@Value("${qslv.producer-sweep.linger-ms:0,5,20}")
+	Integer[] lingerMs;
+	@Value("${qslv.producer-sweep.compression-types:none,lz4}")
+	String[] compressionTypes;
+	@Value("${qslv.producer-sweep.acks:1,all}")
+	String[] acks;
+	@Value("${qslv.producer-sweep.max-in-flight:1}")
+	Integer[] maxInFlight;
+
+	@Test
+	void rank_producer_settings() throws Exception {
+		ProducerSweepSettings settings = new ProducerSweepSettings();
+		settings.setBatchSizes(new ArrayList<>(Arrays.asList(batchSizes)));
+		settings.setLingerMs(new ArrayList<>(Arrays.asList(lingerMs)));
+		settings.setCompressionTypes(new ArrayList<>(Arrays.asList(compressionTypes)));
+		settings.setAcks(new ArrayList<>(Arrays.asList(acks)));
+		settings.setMaxInFlight(new ArrayList<>(Arrays.asList(maxInFlight)));
+		settings.getScenario().setTargetTps(tps);
+		settings.getScenario().setAccountPoolSize(1_000);
+
+		ProducerSweepReport report = producerSweep.run(settings);
+
+		assertEquals(ProducerSweepReport.COMPLETE, report.getState(), report.getError());
+		List<ProducerSweepReport.Point> ranking = report.getRanking();
+		assertEquals(settings.gridSize(), ranking.size());
+		for (int i = 0; i < ranking.size(); i++) {
+			log.info("Rank {}: {}", i + 1, ranking.get(i).toCsv());
+		}
+		assertTrue(ranking.get(0).getResult().getCompleted() > 0L, "best setting got no responses");
+	}
+}
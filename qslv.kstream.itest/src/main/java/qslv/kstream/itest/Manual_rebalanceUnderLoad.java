@@ -0,0 +1,49 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Constant load while the kstream scales 1 -> 2 -> 1 instances and the capture group gains and loses two
+ * members. Needs qslv.kstream-scale-command, or an operator following the log.
+ * The capture events double as a check that the harness's own rebalances do not lose responses.
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_rebalanceUnderLoad {
+
+	@Autowired
+	RebalanceBenchmark rebalanceBenchmark;
+	@Autowired
+	RequestCorrelationTracker correlationTracker;
+
+	@Value("${qslv.rebalance.tps:200}")
+	double tps;
+
+	@Test
+	void scale_kstream_and_capture_group() throws Exception {
+		RebalanceSettings settings = new RebalanceSettings();
+		settings.getScenario().setTargetTps(tps);
+		settings.getEvents().add(new RebalanceSettings.Event(60L, RebalanceSettings.Target.KSTREAM, 2));
+		settings.getEvents().add(new RebalanceSettings.Event(180L, RebalanceSettings.Target.KSTREAM, 1));
+		settings.getEvents().add(new RebalanceSettings.Event(300L, RebalanceSettings.Target.CAPTURE, 2));
+		settings.getEvents().add(new RebalanceSettings.Event(360L, RebalanceSettings.Target.CAPTURE, 0));
+
+		RebalanceReport report = rebalanceBenchmark.run(settings);
+
+		assertEquals(RebalanceReport.COMPLETE, report.getState(), report.getError());
+		assertEquals(4, report.getImpacts().size());
+		for (RebalanceReport.Impact impact : report.getImpacts()) {
+			assertTrue(impact.getRecoverySeconds() >= 0L,
+					() -> impact.getEvent().getTarget() + " to " + impact.getEvent().getInstances() + " did not recover");
+		}
+		Thread.sleep(10_000L);
+		assertEquals(0, correlationTracker.pendingCount(), "responses were lost across rebalances");
+	}
+}
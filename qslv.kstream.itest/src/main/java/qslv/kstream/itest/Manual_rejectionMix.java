@@ -0,0 +1,58 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Sustained load with NSF, closed-account and unknown-account requests mixed in; one log line per path.
+ * -Dqslv.rejections.nsf-percent=20 -Dqslv.rejections.closed-percent=10 -Dqslv.rejections.unknown-percent=10
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_rejectionMix {
+
+	@Autowired
+	RejectionMixBenchmark rejectionMixBenchmark;
+
+	@Value("${qslv.rejections.nsf-percent:20}")
+	int nsfPercent;
+	@Value("${qslv.rejections.closed-percent:10}")
+	int closedPercent;
+	@Value("${qslv.rejections.unknown-percent:10}")
+	int unknownPercent;
+	@Value("${qslv.rejections.tps:200}")
+	double tps;
+	@Value("${qslv.rejections.seconds:60}")
+	long seconds;
+
+	@Test
+	void rejection_paths_under_load() throws Exception {
+		RejectionMixSettings settings = new RejectionMixSettings();
+		settings.setNsfPercent(nsfPercent);
+		settings.setClosedPercent(closedPercent);
+		settings.setUnknownPercent(unknownPercent);
+		settings.setTps(tps);
+		settings.setDurationSeconds(seconds);
+
+		RejectionMixReport report = rejectionMixBenchmark.run(settings);
+
+		assertEquals(RejectionMixReport.COMPLETE, report.getState(), report.getError());
+		assertEquals(0L, report.getUnanswered(), "requests without a response");
+		RejectionMixReport.PathResult nsf = report.getPath(RejectionMixReport.Path.NSF);
+		if (nsfPercent > 0)
+			assertEquals(nsf.getResult().getCompleted(), nsf.getStatuses().getOrDefault(ResponseMessage.INSUFFICIENT_FUNDS, 0L).longValue());
+		RejectionMixReport.PathResult approved = report.getPath(RejectionMixReport.Path.APPROVED);
+		assertEquals(approved.getResult().getCompleted(), approved.getStatuses().getOrDefault(ResponseMessage.SUCCESS, 0L).longValue());
+		for (RejectionMixReport.Path path : new RejectionMixReport.Path[] { RejectionMixReport.Path.CLOSED_ACCOUNT,
+				RejectionMixReport.Path.UNKNOWN_ACCOUNT }) {
+			assertFalse(report.getPath(path).getStatuses().containsKey(ResponseMessage.SUCCESS), path + " approved");
+		}
+	}
+}
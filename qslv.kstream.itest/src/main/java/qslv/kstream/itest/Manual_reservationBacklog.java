@@ -0,0 +1,51 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Commit and cancel latency over a growing number of open reservations per account; one log line per backlog.
+ * Seeding 100k reservations takes a while at the default seed rate.
+ * -Dqslv.backlog.sizes=10,1000,100000 -Dqslv.backlog.accounts=1 -Dqslv.backlog.operations=200
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_reservationBacklog {
+
+	@Autowired
+	ReservationBacklogBenchmark reservationBacklogBenchmark;
+
+	@Value("${qslv.backlog.sizes:10,1000,100000}")
+	Integer[] backlogs;
+	@Value("${qslv.backlog.accounts:1}")
+	int accounts;
+	@Value("${qslv.backlog.operations:200}")
+	int operations;
+
+	@Test
+	void commit_and_cancel_over_backlog() throws Exception {
+		ReservationBacklogSettings settings = new ReservationBacklogSettings();
+		settings.setBacklogs(new ArrayList<>(Arrays.asList(backlogs)));
+		settings.setAccounts(accounts);
+		settings.setOperations(operations);
+
+		ReservationBacklogReport report = reservationBacklogBenchmark.run(settings);
+
+		assertEquals(ReservationBacklogReport.COMPLETE, report.getState(), report.getError());
+		assertEquals(backlogs.length, report.getPoints().size());
+		for (ReservationBacklogReport.Point point : report.getPoints()) {
+			assertEquals(0L, point.getSeedRejected(), "reservations rejected seeding " + point.getBacklog());
+			assertEquals(0L, point.getConflicts(), "commit or cancel unmatched at backlog " + point.getBacklog());
+			assertEquals(0L, point.getUnanswered(), "operations without a response at backlog " + point.getBacklog());
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Preloads the state store topics and times a cold start of the kstream. The start command, or the
+ * operator, has to remove the kstream state directory so the stores restore from the topics.
+ * -Dqslv.restore.records=50000000 sets the number of balance logs and of reservations;
+ * -Dqslv.restore.preload=false times another restart over what is already loaded.
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_restoreTime {
+
+	@Autowired
+	RestoreBenchmark restoreBenchmark;
+
+	@Value("${qslv.restore.records:10000000}")
+	long records;
+	@Value("${qslv.restore.preload:true}")
+	boolean preload;
+
+	@Test
+	void cold_start_restore() throws Exception {
+		RestoreSettings settings = new RestoreSettings();
+		settings.setPreload(preload);
+		settings.setBalanceLogs(records);
+		settings.setReservations(records);
+
+		RestoreReport report = restoreBenchmark.run(settings);
+
+		assertEquals(RestoreReport.COMPLETE, report.getState(), report.getError());
+		assertEquals(0L, report.getPreloadFailed());
+		assertTrue(report.getFirstResponseMillis() > 0L, "kstream did not answer after restart");
+	}
+}
@@ -0,0 +1,50 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Rising rates against one hot account; the per-key ceiling is in the log. The starting balance is low
+ * enough that debits are rejected for part of the run, so the NSF decisions get checked both ways.
+ * -Dqslv.contention.accounts=1 -Dqslv.contention.rates=50,100,200,400,800 -Dqslv.contention.step-seconds=30
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_singleAccountContention {
+
+	@Autowired
+	ContentionBenchmark contentionBenchmark;
+
+	@Value("${qslv.contention.accounts:1}")
+	int accounts;
+	@Value("${qslv.contention.rates:50,100,200,400,800,1600}")
+	Double[] rates;
+	@Value("${qslv.contention.step-seconds:30}")
+	long stepSeconds;
+
+	@Test
+	void hot_account_stays_exact() throws Exception {
+		ContentionSettings settings = new ContentionSettings();
+		settings.setHotAccounts(accounts);
+		settings.setRates(new ArrayList<>(Arrays.asList(rates)));
+		settings.setStepSeconds(stepSeconds);
+
+		ContentionReport report = contentionBenchmark.run(settings);
+
+		assertEquals(ContentionReport.COMPLETE, report.getState(), report.getError());
+		assertFalse(report.getSteps().isEmpty());
+		assertTrue(report.getApproved() > 0L, "nothing approved");
+		assertTrue(report.getRejected() > 0L, "nothing rejected; lower the starting balance to cross the NSF line");
+		assertEquals(0L, report.getUnanswered(), "requests without a response");
+		assertTrue(report.isExact(), String.valueOf(report.getErrorSamples()));
+	}
+}
@@ -0,0 +1,46 @@
+package qslv.kstream.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/**
+ * Holds a steady mixed workload against the running kstream for hours and fails when any watched
+ * metric trends upward. Length and rate come from qslv.soak.* properties, e.g.
+ * -Dqslv.soak.duration-minutes=480 -Dqslv.soak.tps=500. The samples are written to soak.csv under qslv.report-dir.
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Manual_soak {
+
+	@Autowired
+	SoakMonitor soakMonitor;
+
+	@Value("${qslv.soak.duration-minutes:240}")
+	long durationMinutes;
+	@Value("${qslv.soak.tps:200}")
+	double tps;
+	@Value("${qslv.soak.accounts:1000}")
+	int accounts;
+
+	@Test
+	void steady_mixed_workload() throws Exception {
+		SoakSettings settings = new SoakSettings();
+		settings.setDurationMinutes(durationMinutes);
+		settings.getScenario().setTargetTps(tps);
+		settings.getScenario().setAccountPoolSize(accounts);
+
+		SoakReport report = soakMonitor.start(settings);
+		while (report.isActive()) {
+			Thread.sleep(10_000L);
+		}
+
+		assertFalse(report.getSamples().isEmpty());
+		assertFalse(report.isDegraded(), () -> String.join("\n", report.getFindings()));
+	}
+}
@@ -0,0 +1,10 @@
+package qslv.kstream.itest;
+
+/**
+ * Turns one message type into bytes and back, without the Kafka serde lifecycle around it.
+ * KafkaSerdeFactory wraps codecs in CodecSerde for the producer and consumer factories.
+ */
+public interface MessageCodec<T> {
+	byte[] encode(T message);
+	T decode(byte[] data);
+}
@@ -0,0 +1,142 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Transaction metadata JSON of a given size for jsonMetaData, which the kstream copies into every
+ * LoggedTransaction. FLAT is one level of short string fields. NESTED looks like card-present merchant
+ * metadata: merchant and address, card, terminal, risk rules and line items, the line items repeated until
+ * the size is reached; below about 450 bytes it is just the skeleton. Values come from small word lists,
+ * so the text compresses about as well as the real thing rather than like random bytes. Sizes are UTF-8
+ * bytes and approximate, never more than one field or line item over.
+ */
+public final class MetadataGenerator {
+
+	public enum Shape { FLAT, NESTED }
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private static final String[] MERCHANTS = { "CORNER GROCERY", "CITY FUEL", "HARBOR COFFEE", "MAIN ST PHARMACY",
+			"NORTHSIDE HARDWARE", "EXPRESS PARKING", "GREEN MARKET", "SUNSET DINER" };
+	private static final String[] CITIES = { "CHARLOTTE", "DENVER", "PORTLAND", "AUSTIN", "COLUMBUS", "RALEIGH" };
+	private static final String[] WORDS = { "organic", "large", "pack", "fresh", "bottle", "regular", "premium",
+			"whole", "sliced", "family", "size", "unsalted", "roasted", "blend", "count", "value" };
+	private static final String[] NETWORKS = { "VISA", "MASTERCARD", "DISCOVER", "AMEX" };
+	private static final String[] ENTRY_MODES = { "CHIP", "CONTACTLESS", "SWIPE", "KEYED", "ECOMMERCE" };
+	private static final String[] RULES = { "VELOCITY_OK", "GEO_MATCH", "DEVICE_KNOWN", "AMOUNT_TYPICAL", "MCC_TYPICAL" };
+
+	private MetadataGenerator() {
+	}
+
+	/**
+	 * Distinct documents of one size and shape, so a load run does not send the same bytes every time.
+	 */
+	public static List<String> pool(int bytes, Shape shape, int count, long seed) {
+		List<String> pool = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			pool.add(generate(bytes, shape, seed + i));
+		}
+		return pool;
+	}
+
+	public static String generate(int bytes, Shape shape, long seed) {
+		Random random = new Random(seed);
+		ObjectNode root = mapper.createObjectNode();
+		if (shape == Shape.FLAT) {
+			root.put("value", random.nextInt(1_000_000));
+			for (int field = 0, size = size(root); size < bytes; field++) {
+				String name = String.format("attr%04d", field);
+				String value = words(random, 3);
+				root.put(name, value);
+				size += name.length() + value.length() + 6; // quotes, colon and comma
+			}
+			return write(root);
+		}
+
+		ObjectNode merchant = root.putObject("merchant");
+		merchant.put("id", digits(random, 15));
+		merchant.put("name", pick(random, MERCHANTS));
+		merchant.put("mcc", String.valueOf(5000 + random.nextInt(1000)));
+		ObjectNode address = merchant.putObject("address");
+		address.put("line1", (100 + random.nextInt(9900)) + " " + pick(random, WORDS).toUpperCase() + " ST");
+		address.put("city", pick(random, CITIES));
+		address.put("postalCode", digits(random, 5));
+		address.put("country", "US");
+
+		ObjectNode card = root.putObject("card");
+		card.put("bin", digits(random, 6));
+		card.put("last4", digits(random, 4));
+		card.put("network", pick(random, NETWORKS));
+		card.put("entryMode", pick(random, ENTRY_MODES));
+		card.put("cardholderPresent", random.nextBoolean());
+
+		ObjectNode terminal = root.putObject("terminal");
+		terminal.put("id", "T" + digits(random, 7));
+		terminal.put("capability", "EMV_CONTACTLESS");
+		terminal.put("localTime", String.format("%02d:%02d:%02d", random.nextInt(24), random.nextInt(60), random.nextInt(60)));
+
+		ObjectNode risk = root.putObject("risk");
+		risk.put("score", random.nextInt(1000));
+		ArrayNode rules = risk.putArray("rules");
+		for (int i = 0; i < 3; i++) {
+			rules.add(pick(random, RULES));
+		}
+
+		ArrayNode lineItems = root.putArray("lineItems");
+		for (int size = size(root); size < bytes;) {
+			ObjectNode item = lineItems.addObject();
+			item.put("sku", digits(random, 12));
+			item.put("description", words(random, 4));
+			item.put("quantity", 1 + random.nextInt(6));
+			item.put("unitAmount", 99 + random.nextInt(9900));
+			item.put("taxable", random.nextBoolean());
+			size += size(item) + 1;
+		}
+		return write(root);
+	}
+
+	private static int size(ObjectNode node) {
+		try {
+			return mapper.writeValueAsBytes(node).length;
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String write(ObjectNode root) {
+		try {
+			return mapper.writeValueAsString(root);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String pick(Random random, String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	private static String words(Random random, int count) {
+		StringBuilder words = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0)
+				words.append(' ');
+			words.append(pick(random, WORDS));
+		}
+		return words.toString();
+	}
+
+	private static String digits(Random random, int count) {
+		StringBuilder digits = new StringBuilder(count);
+		for (int i = 0; i < count; i++) {
+			digits.append((char) ('0' + random.nextInt(10)));
+		}
+		return digits.toString();
+	}
+}
@@ -0,0 +1,273 @@
+package qslv.kstream.itest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-memory stand-in for the Confluent schema registry, enough of its REST API for the serdes:
+ * register, lookup, fetch by id, list subjects and versions, compatibility checks and config.
+ * Identical schemas share an id across subjects, as in the real registry. Compatibility is checked
+ * against the latest version only, BACKWARD by default like the real registry, so a schema the subject
+ * cannot evolve to is refused with 409 here as it would be in production. Nothing is persisted, so a
+ * kstream sharing the topics has to point at the same instance to resolve the ids written here.
+ */
+public class MockSchemaRegistry {
+	private static final Logger log = LoggerFactory.getLogger(MockSchemaRegistry.class);
+	private static final String CONTENT_TYPE = "application/vnd.schemaregistry.v1+json";
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final Map<String, Integer> idsBySchema = new HashMap<>();
+	private final List<String> schemasById = new ArrayList<>();
+	private final Map<String, List<Integer>> versionsBySubject = new LinkedHashMap<>();
+	private final Map<String, String> levelsBySubject = new HashMap<>();
+	private String level = "BACKWARD";
+	private final int requestedPort;
+	private HttpServer server;
+
+	public MockSchemaRegistry(int port) {
+		this.requestedPort = port;
+	}
+
+	public synchronized MockSchemaRegistry start() throws IOException {
+		if (server != null)
+			return this;
+		server = HttpServer.create(new InetSocketAddress("localhost", requestedPort), 0);
+		server.createContext("/", this::handle);
+		server.setExecutor(Executors.newCachedThreadPool(r -> {
+			Thread thread = new Thread(r, "qslv-mock-schema-registry");
+			thread.setDaemon(true);
+			return thread;
+		}));
+		server.start();
+		log.info("Mock schema registry listening on {}", getUrl());
+		return this;
+	}
+
+	public synchronized void stop() {
+		if (server == null)
+			return;
+		server.stop(0);
+		server = null;
+	}
+
+	public synchronized String getUrl() {
+		if (server == null)
+			throw new IllegalStateException("Mock schema registry not started");
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * Registers without a round trip. Returns the id, the existing one if the schema is already known.
+	 *
+	 * Registration is refused, with the 409 the REST API answers, when the schema is not compatible with the subject's latest version.
+	 */
+	public synchronized int register(String subject, String schema) {
+		String canonical = new Schema.Parser().parse(schema).toString();
+		Integer id = idsBySchema.get(canonical);
+		List<Integer> versions = versionsBySubject.get(subject);
+		if (versions != null && id != null && versions.contains(id))
+			return id;
+		if (versions != null && !compatible(subject, canonical, versions.get(versions.size() - 1)))
+			throw new RegistryException(409, 409, "Schema being registered is incompatible with an earlier schema for subject " + subject);
+		if (id == null) {
+			schemasById.add(canonical);
+			id = schemasById.size();
+			idsBySchema.put(canonical, id);
+		}
+		versionsBySubject.computeIfAbsent(subject, s -> new ArrayList<>()).add(id);
+		return id;
+	}
+
+	/**
+	 * BACKWARD, FORWARD, FULL or NONE, for every subject without a level of its own.
+	 */
+	public synchronized void setCompatibility(String level) {
+		this.level = level(level);
+	}
+
+	public synchronized int getSchemaCount() {
+		return schemasById.size();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			Object body = route(exchange.getRequestMethod(), exchange.getRequestURI(), exchange.getRequestBody());
+			respond(exchange, 200, body);
+		} catch (RegistryException ex) {
+			respond(exchange, ex.status, error(ex.code, ex.getMessage()));
+		} catch (Exception ex) {
+			log.warn("Mock schema registry failed {} {}. {}", exchange.getRequestMethod(), exchange.getRequestURI(), ex.toString());
+			respond(exchange, 422, error(42201, ex.toString()));
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private synchronized Object route(String method, URI uri, InputStream requestBody) throws IOException {
+		String[] path = uri.getPath().replaceAll("^/+|/+$", "").split("/");
+		for (int i = 0; i < path.length; i++) {
+			path[i] = URLDecoder.decode(path[i], StandardCharsets.UTF_8.name());
+		}
+
+		if (path[0].equals("schemas") && path.length == 3 && path[1].equals("ids")) {
+			return Collections.singletonMap("schema", schema(Integer.parseInt(path[2])));
+		}
+		if (path[0].equals("subjects") && path.length == 1) {
+			return new ArrayList<>(versionsBySubject.keySet());
+		}
+		if (path[0].equals("subjects") && path.length == 2 && method.equals("POST")) {
+			String subject = path[1];
+			String canonical = new Schema.Parser().parse(readSchema(requestBody)).toString();
+			Integer id = idsBySchema.get(canonical);
+			List<Integer> versions = versions(subject);
+			if (id == null || !versions.contains(id))
+				throw new RegistryException(404, 40403, "Schema not found");
+			return version(subject, versions.indexOf(id) + 1);
+		}
+		if (path[0].equals("subjects") && path.length == 3 && path[2].equals("versions")) {
+			if (method.equals("POST"))
+				return Collections.singletonMap("id", register(path[1], readSchema(requestBody)));
+			List<Integer> numbers = new ArrayList<>();
+			for (int v = 1; v <= versions(path[1]).size(); v++) {
+				numbers.add(v);
+			}
+			return numbers;
+		}
+		if (path[0].equals("subjects") && path.length == 4 && path[2].equals("versions")) {
+			List<Integer> versions = versions(path[1]);
+			int version = path[3].equals("latest") ? versions.size() : Integer.parseInt(path[3]);
+			if (version < 1 || version > versions.size())
+				throw new RegistryException(404, 40402, "Version not found");
+			return version(path[1], version);
+		}
+		if (path[0].equals("compatibility") && path.length == 5 && path[1].equals("subjects") && path[3].equals("versions")) {
+			List<Integer> versions = versions(path[2]);
+			int version = path[4].equals("latest") ? versions.size() : Integer.parseInt(path[4]);
+			if (version < 1 || version > versions.size())
+				throw new RegistryException(404, 40402, "Version not found");
+			String canonical = new Schema.Parser().parse(readSchema(requestBody)).toString();
+			return Collections.singletonMap("is_compatible", compatible(path[2], canonical, versions.get(version - 1)));
+		}
+		if (path[0].equals("config") && path.length <= 2) {
+			if (method.equals("PUT")) {
+				String requested = level(mapper.readTree(requestBody).get("compatibility").asText());
+				if (path.length == 1)
+					level = requested;
+				else
+					levelsBySubject.put(path[1], requested);
+				return Collections.singletonMap("compatibility", requested);
+			}
+			if (path.length == 2 && !levelsBySubject.containsKey(path[1]))
+				throw new RegistryException(404, 40401, "Subject not found");
+			return Collections.singletonMap("compatibilityLevel", path.length == 1 ? level : levelsBySubject.get(path[1]));
+		}
+		throw new RegistryException(404, 404, "No such resource " + uri.getPath());
+	}
+
+	/**
+	 * Non-transitive: only the version given is checked, as the registry does for BACKWARD, FORWARD and FULL.
+	 */
+	private boolean compatible(String subject, String canonical, int id) {
+		String subjectLevel = levelsBySubject.getOrDefault(subject, level);
+		Schema candidate = new Schema.Parser().parse(canonical);
+		Schema existing = new Schema.Parser().parse(schema(id));
+		boolean backward = subjectLevel.equals("NONE") || subjectLevel.equals("FORWARD") || reads(candidate, existing);
+		boolean forward = subjectLevel.equals("NONE") || subjectLevel.equals("BACKWARD") || reads(existing, candidate);
+		return backward && forward;
+	}
+
+	private static boolean reads(Schema reader, Schema writer) {
+		return SchemaCompatibility.checkReaderWriterCompatibility(reader, writer).getType()
+				== SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE;
+	}
+
+	private static String level(String level) {
+		switch (level) {
+		case "NONE":
+		case "BACKWARD":
+		case "FORWARD":
+		case "FULL":
+			return level;
+		default:
+			throw new RegistryException(422, 42203, "Unsupported compatibility level " + level);
+		}
+	}
+
+	private Map<String, Object> version(String subject, int version) {
+		int id = versions(subject).get(version - 1);
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("subject", subject);
+		body.put("version", version);
+		body.put("id", id);
+		body.put("schema", schema(id));
+		return body;
+	}
+
+	private List<Integer> versions(String subject) {
+		List<Integer> versions = versionsBySubject.get(subject);
+		if (versions == null)
+			throw new RegistryException(404, 40401, "Subject not found");
+		return versions;
+	}
+
+	private String schema(int id) {
+		if (id < 1 || id > schemasById.size())
+			throw new RegistryException(404, 40403, "Schema not found");
+		return schemasById.get(id - 1);
+	}
+
+	private String readSchema(InputStream requestBody) throws IOException {
+		JsonNode body = mapper.readTree(requestBody);
+		return body.get("schema").asText();
+	}
+
+	private Map<String, Object> error(int code, String message) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("error_code", code);
+		body.put("message", message);
+		return body;
+	}
+
+	private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+		byte[] bytes = mapper.writeValueAsBytes(body);
+		exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static class RegistryException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+		final int status;
+		final int code;
+
+		RegistryException(int status, int code, String message) {
+			super(message);
+			this.status = status;
+			this.code = code;
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+
+/**
+ * Reservations against the roots of generated overdraft trees, one tree shape at a time, to show how
+ * latency and output records grow as the kstream walks deeper and wider overdraft chains, and whether
+ * it reaches the funded account at all. See OverdraftGraph for the trees.
+ */
+@Component
+public class OverdraftChainBenchmark extends BackgroundRun<OverdraftChainSettings, OverdraftChainReport> {
+	private static final Logger log = LoggerFactory.getLogger(OverdraftChainBenchmark.class);
+
+	@Autowired
+	KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	PostingRequestFactory requestFactory;
+	@Autowired
+	RequestCorrelationTracker correlationTracker;
+	@Autowired
+	KafkaLagProbe lagProbe;
+	@Autowired
+	ConfigProperties config;
+
+	private final Queue<ResponseMessage<PostingRequest,PostingResponse>> responses = new ConcurrentLinkedQueue<>();
+	private final AtomicLong answered = new AtomicLong();
+	private final RequestCorrelationTracker.PostingResponseObserver observer = this::responseReceived;
+	private volatile LoadStatistics statistics = new LoadStatistics();
+
+	public OverdraftChainBenchmark() {
+		super("Overdraft chain");
+	}
+
+	@Override
+	protected OverdraftChainReport newReport(OverdraftChainSettings settings) {
+		return new OverdraftChainReport(settings);
+	}
+
+	@Override
+	protected void execute(OverdraftChainReport report, HarnessLock.Lease lease) throws Exception {
+		OverdraftChainSettings settings = report.getSettings();
+		correlationTracker.addObserver(observer);
+		try {
+			for (int depth : settings.getDepths()) {
+				for (int fanOut : settings.getFanOuts()) {
+					OverdraftChainReport.Point point = shape(settings, depth, fanOut);
+					report.add(point);
+					log.info("Overdraft chain {}: {}", OverdraftChainReport.CSV_HEADER, point.toCsv());
+				}
+			}
+			report.setState(OverdraftChainReport.COMPLETE);
+		} finally {
+			correlationTracker.removeObserver(observer);
+		}
+	}
+
+	private OverdraftChainReport.Point shape(OverdraftChainSettings settings, int depth, int fanOut) throws Exception {
+		Map<String, OverdraftGraph> graphs = new HashMap<>();
+		for (int i = 0; i < Math.max(1, settings.getGraphsPerShape()); i++) {
+			OverdraftGraph graph = OverdraftGraph.build(depth, fanOut, settings.getDecoyPercent());
+			graph.produce(kafkaProducerDao);
+			graphs.put(graph.getRoot().getAccountNumber(), graph);
+		}
+		List<String> roots = new ArrayList<>(graphs.keySet());
+		Thread.sleep(TimeUnit.SECONDS.toMillis(settings.getSettleSeconds()));
+
+		List<String> outputTopics = config.outputTopics();
+		long outputBefore = lagProbe.endOffsetTotal(outputTopics);
+		responses.clear();
+		answered.set(0L);
+		LoadStatistics shapeStatistics = new LoadStatistics();
+		statistics = shapeStatistics;
+
+		long start = System.currentTimeMillis();
+		long sent = send(settings, roots, shapeStatistics);
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(settings.getDrainTimeoutSeconds());
+		while (answered.get() < sent && System.currentTimeMillis() < deadline) {
+			Thread.sleep(250L);
+		}
+		LoadStatistics.Snapshot snapshot = shapeStatistics.tick("SHAPE", settings.getTps());
+
+		OverdraftChainReport.Point point = new OverdraftChainReport.Point();
+		point.setDepth(depth);
+		point.setFanOut(fanOut);
+		point.setAccountsPerGraph(graphs.values().iterator().next().getAccounts().size());
+		point.setRequests(sent);
+		point.setUnanswered(sent - answered.get());
+		point.setOutputRecordsPerRequest((lagProbe.endOffsetTotal(outputTopics) - outputBefore) / (double) Math.max(1L, sent));
+		point.setResult(WorkloadResult.of(settings.getTps(), System.currentTimeMillis() - start, snapshot.getSent(),
+				snapshot.getFailed(), shapeStatistics.cumulativeHistogram()));
+		analyze(point, graphs);
+		return point;
+	}
+
+	private long send(OverdraftChainSettings settings, List<String> roots, LoadStatistics statistics) {
+		long interval = (long) (1_000_000_000.0 / Math.max(0.001, settings.getTps()));
+		long next = System.nanoTime();
+		long sent = 0L;
+		while (sent < settings.getRequestsPerShape()) {
+			long now = System.nanoTime();
+			if (next > now) {
+				LockSupport.parkNanos(next - now);
+				continue;
+			}
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			long amount = -(1L + random.nextLong(Math.max(1L, settings.getMaxTransactionAmount())));
+			TraceableMessage<PostingRequest> request = requestFactory.reservation(roots.get(random.nextInt(roots.size())), amount);
+			statistics.sent();
+			try {
+				kafkaProducerDao.produceRequestMessageAsync(request).addCallback(result -> { }, ex -> statistics.failed());
+				sent++;
+			} catch (ResponseStatusException ex) {
+				statistics.failed();
+			}
+			next += interval;
+		}
+		return sent;
+	}
+
+	private void responseReceived(ResponseMessage<PostingRequest,PostingResponse> response, long latencyNanos) {
+		statistics.completed(latencyNanos);
+		responses.add(response);
+		answered.incrementAndGet();
+	}
+
+	private void analyze(OverdraftChainReport.Point point, Map<String, OverdraftGraph> graphs) {
+		long transactions = 0L;
+		long counted = 0L;
+		for (ResponseMessage<PostingRequest,PostingResponse> response : responses) {
+			if (response.getRequest() == null || !response.getRequest().hasReservationRequest())
+				continue;
+			OverdraftGraph graph = graphs.get(response.getRequest().getReservationRequest().getAccountNumber());
+			if (graph == null)
+				continue;
+			counted++;
+			if (Objects.equals(ResponseMessage.SUCCESS, response.getStatus()))
+				point.setApproved(point.getApproved() + 1L);
+			else if (Objects.equals(ResponseMessage.INSUFFICIENT_FUNDS, response.getStatus()))
+				point.setRejected(point.getRejected() + 1L);
+			else
+				point.setOther(point.getOther() + 1L);
+
+			List<LoggedTransaction> logged = response.getResponse() == null || response.getResponse().getTransactions() == null
+					? new ArrayList<>() : response.getResponse().getTransactions();
+			transactions += logged.size();
+			point.setTransactionsPerResponseMax(Math.max(point.getTransactionsPerResponseMax(), logged.size()));
+			for (LoggedTransaction transaction : logged) {
+				point.setDeepestLevel(Math.max(point.getDeepestLevel(), graph.levelOf(transaction.getAccountNumber())));
+				if (graph.isDecoy(transaction.getAccountNumber()))
+					point.setDecoysUsed(point.getDecoysUsed() + 1L);
+				if (Objects.equals(LoggedTransaction.RESERVATION, transaction.getTransactionTypeCode())
+						&& Objects.equals(graph.getFundedAccount(), transaction.getAccountNumber()))
+					point.setCoveredAtFunded(point.getCoveredAtFunded() + 1L);
+			}
+		}
+		point.setTransactionsPerResponseAvg(transactions / (double) Math.max(1L, counted));
+	}
+}
@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /overdraft-chain/start   body OverdraftChainSettings, runs in the background
+ * GET  /overdraft-chain/report  one point per depth and fan-out so far
+ */
+@RestController
+@RequestMapping("/overdraft-chain")
+public class OverdraftChainController extends BackgroundRunController<OverdraftChainSettings, OverdraftChainReport> {
+}
@@ -0,0 +1,148 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One point per tree shape. transactionsPerResponse counts the LoggedTransactions in each response (the
+ * rejections on the way down plus the reservation that covered it); outputRecordsPerRequest is the growth
+ * of every kstream output topic per request sent. deepestLevel is the deepest tree level any response
+ * touched, coveredAtFunded the responses whose reservation landed on the funded account, decoysUsed the
+ * transactions on accounts only reachable through an expired or closed instruction, or closed themselves.
+ */
+public class OverdraftChainReport extends RunReport<OverdraftChainSettings> {
+
+	public static final String CSV_HEADER = "depth,fanOut,accounts,requests,approved,rejected,other,unanswered,coveredAtFunded,decoysUsed,"
+			+ "transactionsPerResponseAvg,transactionsPerResponseMax,outputRecordsPerRequest,deepestLevel,p50Millis,p99Millis,maxMillis";
+
+	public static class Point {
+		private int depth;
+		private int fanOut;
+		private int accountsPerGraph;
+		private long requests;
+		private long approved;
+		private long rejected;
+		private long other;
+		private long unanswered;
+		private long coveredAtFunded;
+		private long decoysUsed;
+		private double transactionsPerResponseAvg;
+		private int transactionsPerResponseMax;
+		private double outputRecordsPerRequest;
+		private int deepestLevel = -1;
+		private WorkloadResult result;
+
+		public String toCsv() {
+			return String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%.2f,%d,%.2f,%d,%.3f,%.3f,%.3f", depth, fanOut, accountsPerGraph,
+					requests, approved, rejected, other, unanswered, coveredAtFunded, decoysUsed, transactionsPerResponseAvg,
+					transactionsPerResponseMax, outputRecordsPerRequest, deepestLevel, result.getP50Millis(), result.getP99Millis(),
+					result.getMaxMillis());
+		}
+
+		public int getDepth() {
+			return depth;
+		}
+		void setDepth(int depth) {
+			this.depth = depth;
+		}
+		public int getFanOut() {
+			return fanOut;
+		}
+		void setFanOut(int fanOut) {
+			this.fanOut = fanOut;
+		}
+		public int getAccountsPerGraph() {
+			return accountsPerGraph;
+		}
+		void setAccountsPerGraph(int accountsPerGraph) {
+			this.accountsPerGraph = accountsPerGraph;
+		}
+		public long getRequests() {
+			return requests;
+		}
+		void setRequests(long requests) {
+			this.requests = requests;
+		}
+		public long getApproved() {
+			return approved;
+		}
+		void setApproved(long approved) {
+			this.approved = approved;
+		}
+		public long getRejected() {
+			return rejected;
+		}
+		void setRejected(long rejected) {
+			this.rejected = rejected;
+		}
+		public long getOther() {
+			return other;
+		}
+		void setOther(long other) {
+			this.other = other;
+		}
+		public long getUnanswered() {
+			return unanswered;
+		}
+		void setUnanswered(long unanswered) {
+			this.unanswered = unanswered;
+		}
+		public long getCoveredAtFunded() {
+			return coveredAtFunded;
+		}
+		void setCoveredAtFunded(long coveredAtFunded) {
+			this.coveredAtFunded = coveredAtFunded;
+		}
+		public long getDecoysUsed() {
+			return decoysUsed;
+		}
+		void setDecoysUsed(long decoysUsed) {
+			this.decoysUsed = decoysUsed;
+		}
+		public double getTransactionsPerResponseAvg() {
+			return transactionsPerResponseAvg;
+		}
+		void setTransactionsPerResponseAvg(double transactionsPerResponseAvg) {
+			this.transactionsPerResponseAvg = transactionsPerResponseAvg;
+		}
+		public int getTransactionsPerResponseMax() {
+			return transactionsPerResponseMax;
+		}
+		void setTransactionsPerResponseMax(int transactionsPerResponseMax) {
+			this.transactionsPerResponseMax = transactionsPerResponseMax;
+		}
+		public double getOutputRecordsPerRequest() {
+			return outputRecordsPerRequest;
+		}
+		void setOutputRecordsPerRequest(double outputRecordsPerRequest) {
+			this.outputRecordsPerRequest = outputRecordsPerRequest;
+		}
+		public int getDeepestLevel() {
+			return deepestLevel;
+		}
+		void setDeepestLevel(int deepestLevel) {
+			this.deepestLevel = deepestLevel;
+		}
+		public WorkloadResult getResult() {
+			return result;
+		}
+		void setResult(WorkloadResult result) {
+			this.result = result;
+		}
+	}
+
+	private final List<Point> points = new ArrayList<>();
+
+	public OverdraftChainReport(OverdraftChainSettings settings) {
+		super(settings, RUNNING);
+	}
+
+	synchronized void add(Point point) {
+		points.add(point);
+	}
+
+	public synchronized List<Point> getPoints() {
+		return new ArrayList<>(points);
+	}
+}
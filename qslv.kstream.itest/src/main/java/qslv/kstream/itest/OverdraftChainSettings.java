@@ -0,0 +1,78 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Overdraft tree shapes to run: every depth with every fan-out. Each shape gets graphsPerShape fresh trees
+ * and requestsPerShape reservations spread over their roots at tps. A tree has fanOut to the power of
+ * depth leaves, so keep the big corners of the grid small.
+ */
+public class OverdraftChainSettings {
+	private List<Integer> depths = new ArrayList<>(Arrays.asList(0, 1, 2, 3, 4));
+	private List<Integer> fanOuts = new ArrayList<>(Arrays.asList(1, 2, 3));
+	private int decoyPercent = 30;
+	private int graphsPerShape = 10;
+	private int requestsPerShape = 500;
+	private double tps = 20.0;
+	private long maxTransactionAmount = 10_000L;
+	private long settleSeconds = 5L; // after producing the trees, for the kstream to load them
+	private long drainTimeoutSeconds = 120L;
+
+	public List<Integer> getDepths() {
+		return depths;
+	}
+	public void setDepths(List<Integer> depths) {
+		this.depths = depths;
+	}
+	public List<Integer> getFanOuts() {
+		return fanOuts;
+	}
+	public void setFanOuts(List<Integer> fanOuts) {
+		this.fanOuts = fanOuts;
+	}
+	public int getDecoyPercent() {
+		return decoyPercent;
+	}
+	public void setDecoyPercent(int decoyPercent) {
+		this.decoyPercent = decoyPercent;
+	}
+	public int getGraphsPerShape() {
+		return graphsPerShape;
+	}
+	public void setGraphsPerShape(int graphsPerShape) {
+		this.graphsPerShape = graphsPerShape;
+	}
+	public int getRequestsPerShape() {
+		return requestsPerShape;
+	}
+	public void setRequestsPerShape(int requestsPerShape) {
+		this.requestsPerShape = requestsPerShape;
+	}
+	public double getTps() {
+		return tps;
+	}
+	public void setTps(double tps) {
+		this.tps = tps;
+	}
+	public long getMaxTransactionAmount() {
+		return maxTransactionAmount;
+	}
+	public void setMaxTransactionAmount(long maxTransactionAmount) {
+		this.maxTransactionAmount = maxTransactionAmount;
+	}
+	public long getSettleSeconds() {
+		return settleSeconds;
+	}
+	public void setSettleSeconds(long settleSeconds) {
+		this.settleSeconds = settleSeconds;
+	}
+	public long getDrainTimeoutSeconds() {
+		return drainTimeoutSeconds;
+	}
+	public void setDrainTimeoutSeconds(long drainTimeoutSeconds) {
+		this.drainTimeoutSeconds = drainTimeoutSeconds;
+	}
+
+}
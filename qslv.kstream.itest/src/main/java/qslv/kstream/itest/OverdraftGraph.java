@@ -0,0 +1,140 @@
+package qslv.kstream.itest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import qslv.data.Account;
+import qslv.data.BalanceLog;
+import qslv.data.OverdraftInstruction;
+import qslv.util.Random;
+
+/**
+ * A tree of overdraft instructions under one root account: every account above the given depth has fanOut
+ * effective instructions to new accounts. Only one account holds funds, the last child of the last child
+ * down at the deepest level, so a debit on the root is only covered by walking the whole chain to it;
+ * every other account in the tree is empty. With depth 0 the root itself is funded.
+ *
+ * A decoyPercent share of the accounts also get a decoy instruction listed ahead of the real ones, pointing
+ * at a funded account, that must not be used: expired, closed, or to a closed account, in turn.
+ */
+public class OverdraftGraph {
+
+	public static final long FUNDED_BALANCE = 1_000_000_000_000L;
+
+	private final Account root;
+	private final List<Account> accounts = new ArrayList<>();
+	private final List<OverdraftInstruction> instructions = new ArrayList<>();
+	private final Map<String, Long> balances = new HashMap<>();
+	private final Map<String, Integer> levels = new HashMap<>();
+	private final Set<String> decoyAccounts = new HashSet<>();
+	private String fundedAccount;
+
+	public static OverdraftGraph build(int depth, int fanOut, int decoyPercent) {
+		return new OverdraftGraph(depth, Math.max(1, fanOut), decoyPercent);
+	}
+
+	private OverdraftGraph(int depth, int fanOut, int decoyPercent) {
+		root = account(true);
+		add(root, 0, 0L);
+		List<Account> level = new ArrayList<>();
+		level.add(root);
+		int decoys = 0;
+		for (int d = 1; d <= depth; d++) {
+			List<Account> next = new ArrayList<>();
+			for (Account parent : level) {
+				if (ThreadLocalRandom.current().nextInt(100) < decoyPercent)
+					decoy(parent, d, decoys++ % 3);
+				for (int f = 0; f < fanOut; f++) {
+					Account child = account(true);
+					add(child, d, 0L);
+					instructions.add(instruction(parent.getAccountNumber(), child, true, false));
+					next.add(child);
+				}
+			}
+			level = next;
+		}
+		fundedAccount = level.get(level.size() - 1).getAccountNumber();
+		balances.put(fundedAccount, FUNDED_BALANCE);
+	}
+
+	/**
+	 * Accounts, then overdraft instructions in the order the kstream should consider them, then balances.
+	 */
+	public void produce(KafkaProducerDao kafkaProducerDao) {
+		for (Account account : accounts) {
+			kafkaProducerDao.produceAccount(account);
+		}
+		for (OverdraftInstruction instruction : instructions) {
+			kafkaProducerDao.produceOverdraft(instruction);
+		}
+		for (Account account : accounts) {
+			BalanceLog log = new BalanceLog();
+			log.setAccountNumber(account.getAccountNumber());
+			log.setLastTransaction(UUID.randomUUID());
+			log.setBalance(balances.get(account.getAccountNumber()));
+			kafkaProducerDao.produceBalanceLog(log);
+		}
+	}
+
+	public Account getRoot() {
+		return root;
+	}
+	public List<Account> getAccounts() {
+		return accounts;
+	}
+	public List<OverdraftInstruction> getInstructions() {
+		return instructions;
+	}
+	public String getFundedAccount() {
+		return fundedAccount;
+	}
+	/**
+	 * Depth of an account in the tree, -1 when it is not part of it.
+	 */
+	public int levelOf(String accountNumber) {
+		return levels.getOrDefault(accountNumber, -1);
+	}
+	/**
+	 * Reached only through an expired or closed instruction, or closed itself.
+	 */
+	public boolean isDecoy(String accountNumber) {
+		return decoyAccounts.contains(accountNumber);
+	}
+
+	private void decoy(Account parent, int level, int kind) {
+		Account target = account(kind != 2);
+		add(target, level, FUNDED_BALANCE);
+		decoyAccounts.add(target.getAccountNumber());
+		instructions.add(instruction(parent.getAccountNumber(), target, kind != 1, kind == 0));
+	}
+
+	private void add(Account account, int level, long balance) {
+		accounts.add(account);
+		levels.put(account.getAccountNumber(), level);
+		balances.put(account.getAccountNumber(), balance);
+	}
+
+	private static Account account(boolean open) {
+		Account account = new Account();
+		account.setAccountLifeCycleStatus(open ? "EF" : "CL");
+		account.setAccountNumber(Random.randomDigits(12));
+		return account;
+	}
+
+	private static OverdraftInstruction instruction(String accountNumber, Account overdraftAccount, boolean effective, boolean expired) {
+		OverdraftInstruction od = new OverdraftInstruction();
+		od.setAccountNumber(accountNumber);
+		od.setEffectiveStart(LocalDateTime.now().minusMonths(expired ? 24 : 12));
+		od.setEffectiveEnd(expired ? LocalDateTime.now().minusMonths(12) : LocalDateTime.now().plusMonths(12));
+		od.setInstructionLifecycleStatus(effective ? "EF" : "CL");
+		od.setOverdraftAccount(overdraftAccount);
+		return od;
+	}
+}
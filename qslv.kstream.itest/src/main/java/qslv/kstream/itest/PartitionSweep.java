@@ -0,0 +1,55 @@
+package qslv.kstream.itest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the same workload over a range of partition counts to get a throughput and latency scaling curve.
+ * Recreating the topics wipes them, so this is for dedicated test clusters only.
+ */
+@Component
+public class PartitionSweep extends BackgroundRun<PartitionSweepSettings, PartitionSweepReport> {
+	private static final Logger log = LoggerFactory.getLogger(PartitionSweep.class);
+
+	@Autowired
+	TopicProvisioner topicProvisioner;
+	@Autowired
+	KStreamControl kstreamControl;
+	@Autowired
+	KafkaLagProbe lagProbe;
+	@Autowired
+	WorkloadRunner workloadRunner;
+	@Autowired
+	ConfigProperties config;
+
+	public PartitionSweep() {
+		super("Partition sweep");
+	}
+
+	@Override
+	protected PartitionSweepReport newReport(PartitionSweepSettings settings) {
+		return new PartitionSweepReport(settings);
+	}
+
+	@Override
+	protected void execute(PartitionSweepReport report, HarnessLock.Lease lease) throws Exception {
+		PartitionSweepSettings settings = report.getSettings();
+		for (int partitions : settings.getPartitionCounts()) {
+			kstreamControl.stop(settings.getControlTimeoutSeconds());
+			TopicSettings topics = settings.getTopics();
+			topics.setDefaultPartitions(partitions);
+			topics.getPartitions().clear();
+			topics.setRecreate(true);
+			topicProvisioner.provision(topics);
+			long restartMillis = kstreamControl.start(settings.getControlTimeoutSeconds(), partitions);
+
+			WorkloadResult result = workloadRunner.measure(settings.getScenario(), settings.getWarmupSeconds(), settings.getMeasureSeconds(), lease);
+			report.add(partitions, lagProbe.groupMembers(config.getKstreamApplicationId()), restartMillis, result);
+			log.info("Partition sweep {}: {}", PartitionSweepReport.CSV_HEADER,
+					report.getPoints().get(report.getPoints().size() - 1).toCsv());
+		}
+		report.setState(PartitionSweepReport.COMPLETE);
+	}
+}
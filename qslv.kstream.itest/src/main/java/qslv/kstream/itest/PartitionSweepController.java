@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /topics/sweep/start   body PartitionSweepSettings, runs in the background
+ * GET  /topics/sweep/report
+ */
+@RestController
+@RequestMapping("/topics/sweep")
+public class PartitionSweepController extends BackgroundRunController<PartitionSweepSettings, PartitionSweepReport> {
+}
@@ -0,0 +1,71 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One point per partition count. speedup is achieved throughput relative to the first point,
+ * efficiency that speedup per unit of added partitions; where efficiency falls off, more partitions
+ * (and stream threads) stop paying for themselves.
+ */
+public class PartitionSweepReport extends RunReport<PartitionSweepSettings> {
+
+	public static class Point {
+		private int partitions;
+		private int kstreamMembers;
+		private long restartMillis;
+		private WorkloadResult result;
+		private double speedup;
+		private double efficiency;
+
+		public String toCsv() {
+			return String.format(Locale.ROOT, "%d,%d,%d,%.1f,%.1f,%.3f,%.3f,%.3f,%d,%.2f,%.2f", partitions, kstreamMembers,
+					restartMillis, result.getTargetTps(), result.getAchievedTps(), result.getP50Millis(), result.getP99Millis(),
+					result.getP999Millis(), result.getFailed(), speedup, efficiency);
+		}
+
+		public int getPartitions() {
+			return partitions;
+		}
+		public int getKstreamMembers() {
+			return kstreamMembers;
+		}
+		public long getRestartMillis() {
+			return restartMillis;
+		}
+		public WorkloadResult getResult() {
+			return result;
+		}
+		public double getSpeedup() {
+			return speedup;
+		}
+		public double getEfficiency() {
+			return efficiency;
+		}
+	}
+
+	public static final String CSV_HEADER = "partitions,kstreamMembers,restartMillis,targetTps,achievedTps,p50Millis,p99Millis,p999Millis,failed,speedup,efficiency";
+
+	private final List<Point> points = new ArrayList<>();
+
+	public PartitionSweepReport(PartitionSweepSettings settings) {
+		super(settings, RUNNING);
+	}
+
+	synchronized void add(int partitions, int kstreamMembers, long restartMillis, WorkloadResult result) {
+		Point point = new Point();
+		point.partitions = partitions;
+		point.kstreamMembers = kstreamMembers;
+		point.restartMillis = restartMillis;
+		point.result = result;
+		Point base = points.isEmpty() ? point : points.get(0);
+		point.speedup = base.result.getAchievedTps() <= 0.0 ? 0.0 : result.getAchievedTps() / base.result.getAchievedTps();
+		point.efficiency = point.speedup * base.partitions / partitions;
+		points.add(point);
+	}
+
+	public synchronized List<Point> getPoints() {
+		return new ArrayList<>(points);
+	}
+}
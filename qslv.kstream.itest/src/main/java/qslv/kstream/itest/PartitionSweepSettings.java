@@ -0,0 +1,58 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A partition count sweep: for each count the topics are recreated with that many partitions (every
+ * topic, overriding topics.partitions), the kstream is restarted and the scenario is run for
+ * warmupSeconds plus measureSeconds. The kstream start command can pick up {partitions} to size its
+ * stream threads. Set scenario.targetTps above what the cluster can take to measure saturation throughput.
+ */
+public class PartitionSweepSettings {
+	private List<Integer> partitionCounts = new ArrayList<>(Arrays.asList(1, 2, 4, 8, 16));
+	private TopicSettings topics = new TopicSettings();
+	private LoadScenario scenario = new LoadScenario();
+	private long warmupSeconds = 30L;
+	private long measureSeconds = 120L;
+	private long controlTimeoutSeconds = 300L;
+
+	public List<Integer> getPartitionCounts() {
+		return partitionCounts;
+	}
+	public void setPartitionCounts(List<Integer> partitionCounts) {
+		this.partitionCounts = partitionCounts;
+	}
+	public TopicSettings getTopics() {
+		return topics;
+	}
+	public void setTopics(TopicSettings topics) {
+		this.topics = topics;
+	}
+	public LoadScenario getScenario() {
+		return scenario;
+	}
+	public void setScenario(LoadScenario scenario) {
+		this.scenario = scenario;
+	}
+	public long getWarmupSeconds() {
+		return warmupSeconds;
+	}
+	public void setWarmupSeconds(long warmupSeconds) {
+		this.warmupSeconds = warmupSeconds;
+	}
+	public long getMeasureSeconds() {
+		return measureSeconds;
+	}
+	public void setMeasureSeconds(long measureSeconds) {
+		this.measureSeconds = measureSeconds;
+	}
+	public long getControlTimeoutSeconds() {
+		return controlTimeoutSeconds;
+	}
+	public void setControlTimeoutSeconds(long controlTimeoutSeconds) {
+		this.controlTimeoutSeconds = controlTimeoutSeconds;
+	}
+
+}
@@ -0,0 +1,133 @@
+package qslv.kstream.itest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+
+/**
+ * Runs one scenario over a range of jsonMetaData sizes and shapes. Per point it times serializing
+ * requests and the LoggedTransactions the kstream will copy the metadata into, then measures the load run:
+ * end-to-end latency, throughput, producer record size and compression, and broker log growth.
+ */
+@Component
+public class PayloadSweep extends BackgroundRun<PayloadSweepSettings, PayloadSweepReport> {
+	private static final Logger log = LoggerFactory.getLogger(PayloadSweep.class);
+	private static final int SAMPLE_POOL_SIZE = 32;
+
+	@Autowired
+	WorkloadRunner workloadRunner;
+	@Autowired
+	RequestProducerTuner producerTuner;
+	@Autowired
+	KafkaLagProbe lagProbe;
+	@Autowired
+	PostingRequestFactory requestFactory;
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	ProducerFactory<String, TraceableMessage<PostingRequest>> requestProducerFactory;
+	@Autowired
+	ProducerFactory<String, LoggedTransaction> transactionProducerFactory;
+
+	public PayloadSweep() {
+		super("Payload sweep");
+	}
+
+	@Override
+	protected PayloadSweepReport newReport(PayloadSweepSettings settings) {
+		return new PayloadSweepReport(settings);
+	}
+
+	@Override
+	protected void execute(PayloadSweepReport report, HarnessLock.Lease lease) throws Exception {
+		PayloadSweepSettings settings = report.getSettings();
+		try {
+			for (MetadataGenerator.Shape shape : settings.getShapes()) {
+				for (int bytes : settings.getMetadataBytes()) {
+					// a fresh producer per point, so its averages cover this point only
+					producerTuner.apply(settings.getCompressionType() == null ? Collections.emptyMap()
+							: Collections.singletonMap(ProducerConfig.COMPRESSION_TYPE_CONFIG, settings.getCompressionType()));
+
+					PayloadSweepReport.Point point = new PayloadSweepReport.Point();
+					point.setMetadataBytes(bytes);
+					point.setShape(shape);
+					serialization(point, MetadataGenerator.pool(bytes, shape, SAMPLE_POOL_SIZE, bytes), settings.getSerializationSamples());
+
+					LoadScenario scenario = settings.getScenario();
+					scenario.setMetadataBytes(bytes);
+					scenario.setMetadataShape(shape);
+					long logBytes = lagProbe.logSizeBytes(config.allTopics());
+					long start = System.currentTimeMillis();
+					point.setResult(workloadRunner.measure(scenario, settings.getWarmupSeconds(), settings.getMeasureSeconds(), lease));
+					long elapsed = Math.max(1L, System.currentTimeMillis() - start);
+					point.setBrokerBytesPerSecond((lagProbe.logSizeBytes(config.allTopics()) - logBytes) * 1000.0 / elapsed);
+					point.setRecordSizeAvg(producerTuner.metrics().getOrDefault("record-size-avg", 0.0));
+					point.setCompressionRate(producerTuner.metrics().getOrDefault("compression-rate-avg", 1.0));
+
+					report.add(point);
+					log.info("Payload sweep {}: {}", PayloadSweepReport.CSV_HEADER, point.toCsv());
+				}
+			}
+			report.setState(PayloadSweepReport.COMPLETE);
+		} finally {
+			producerTuner.restore();
+		}
+	}
+
+	/**
+	 * Messages are built up front so only serialization is timed. The first pass over the pool is untimed
+	 * to take schema registration out of the figure.
+	 */
+	private void serialization(PayloadSweepReport.Point point, List<String> metadata, int samples) {
+		List<TraceableMessage<PostingRequest>> requests = new ArrayList<>(metadata.size());
+		List<LoggedTransaction> transactions = new ArrayList<>(metadata.size());
+		for (String json : metadata) {
+			requests.add(requestFactory.reservation("000000000000", -1L, json));
+			transactions.add(loggedTransaction(json));
+		}
+		Serializer<TraceableMessage<PostingRequest>> requestSerializer = requestProducerFactory.getValueSerializer();
+		Serializer<LoggedTransaction> transactionSerializer = transactionProducerFactory.getValueSerializer();
+		point.setRequestBytes(requestSerializer.serialize(config.getRequestTopic(), requests.get(0)).length);
+		point.setTransactionBytes(transactionSerializer.serialize(config.getReservationByUuidTopic(), transactions.get(0)).length);
+		point.setRequestSerializeMicros(time(requestSerializer, config.getRequestTopic(), requests, samples));
+		point.setTransactionSerializeMicros(time(transactionSerializer, config.getReservationByUuidTopic(), transactions, samples));
+	}
+
+	private <T> double time(Serializer<T> serializer, String topic, List<T> messages, int samples) {
+		for (T message : messages) {
+			serializer.serialize(topic, message);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < samples; i++) {
+			serializer.serialize(topic, messages.get(i % messages.size()));
+		}
+		return (System.nanoTime() - start) / 1000.0 / Math.max(1, samples);
+	}
+
+	private LoggedTransaction loggedTransaction(String json) {
+		LoggedTransaction transaction = new LoggedTransaction();
+		transaction.setTransactionUuid(UUID.randomUUID());
+		transaction.setRequestUuid(UUID.randomUUID());
+		transaction.setAccountNumber("000000000000");
+		transaction.setTransactionTypeCode(LoggedTransaction.RESERVATION);
+		transaction.setTransactionAmount(-1L);
+		transaction.setRunningBalanceAmount(0L);
+		transaction.setTransactionMetaDataJson(json);
+		transaction.setTransactionTime(LocalDateTime.now());
+		return transaction;
+	}
+}
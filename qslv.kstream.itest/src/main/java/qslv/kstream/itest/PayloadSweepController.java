@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /payload-sweep/start   body PayloadSweepSettings, runs in the background
+ * GET  /payload-sweep/report
+ */
+@RestController
+@RequestMapping("/payload-sweep")
+public class PayloadSweepController extends BackgroundRunController<PayloadSweepSettings, PayloadSweepReport> {
+}
@@ -0,0 +1,112 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One point per metadata size and shape. Serialization figures are in-process averages over the
+ * configured samples with the serde mode in use; compressionRate is the request producer's compressed
+ * over uncompressed batch size; brokerBytesPerSecond is growth of every harness topic's log, replicas
+ * included, over the whole load run.
+ */
+public class PayloadSweepReport extends RunReport<PayloadSweepSettings> {
+
+	public static final String CSV_HEADER = "metadataBytes,shape,requestBytes,requestSerializeMicros,transactionBytes,transactionSerializeMicros,"
+			+ "recordSizeAvg,compressionRate,brokerBytesPerSecond,achievedTps,p50Millis,p99Millis,p999Millis,failed";
+
+	public static class Point {
+		private int metadataBytes;
+		private MetadataGenerator.Shape shape;
+		private int requestBytes;
+		private double requestSerializeMicros;
+		private int transactionBytes;
+		private double transactionSerializeMicros;
+		private double recordSizeAvg;
+		private double compressionRate;
+		private double brokerBytesPerSecond;
+		private WorkloadResult result;
+
+		public String toCsv() {
+			return String.format(Locale.ROOT, "%d,%s,%d,%.2f,%d,%.2f,%.0f,%.3f,%.0f,%.1f,%.3f,%.3f,%.3f,%d", metadataBytes, shape,
+					requestBytes, requestSerializeMicros, transactionBytes, transactionSerializeMicros, recordSizeAvg, compressionRate,
+					brokerBytesPerSecond, result.getAchievedTps(), result.getP50Millis(), result.getP99Millis(), result.getP999Millis(),
+					result.getFailed());
+		}
+
+		public int getMetadataBytes() {
+			return metadataBytes;
+		}
+		void setMetadataBytes(int metadataBytes) {
+			this.metadataBytes = metadataBytes;
+		}
+		public MetadataGenerator.Shape getShape() {
+			return shape;
+		}
+		void setShape(MetadataGenerator.Shape shape) {
+			this.shape = shape;
+		}
+		public int getRequestBytes() {
+			return requestBytes;
+		}
+		void setRequestBytes(int requestBytes) {
+			this.requestBytes = requestBytes;
+		}
+		public double getRequestSerializeMicros() {
+			return requestSerializeMicros;
+		}
+		void setRequestSerializeMicros(double requestSerializeMicros) {
+			this.requestSerializeMicros = requestSerializeMicros;
+		}
+		public int getTransactionBytes() {
+			return transactionBytes;
+		}
+		void setTransactionBytes(int transactionBytes) {
+			this.transactionBytes = transactionBytes;
+		}
+		public double getTransactionSerializeMicros() {
+			return transactionSerializeMicros;
+		}
+		void setTransactionSerializeMicros(double transactionSerializeMicros) {
+			this.transactionSerializeMicros = transactionSerializeMicros;
+		}
+		public double getRecordSizeAvg() {
+			return recordSizeAvg;
+		}
+		void setRecordSizeAvg(double recordSizeAvg) {
+			this.recordSizeAvg = recordSizeAvg;
+		}
+		public double getCompressionRate() {
+			return compressionRate;
+		}
+		void setCompressionRate(double compressionRate) {
+			this.compressionRate = compressionRate;
+		}
+		public double getBrokerBytesPerSecond() {
+			return brokerBytesPerSecond;
+		}
+		void setBrokerBytesPerSecond(double brokerBytesPerSecond) {
+			this.brokerBytesPerSecond = brokerBytesPerSecond;
+		}
+		public WorkloadResult getResult() {
+			return result;
+		}
+		void setResult(WorkloadResult result) {
+			this.result = result;
+		}
+	}
+
+	private final List<Point> points = new ArrayList<>();
+
+	public PayloadSweepReport(PayloadSweepSettings settings) {
+		super(settings, RUNNING);
+	}
+
+	synchronized void add(Point point) {
+		points.add(point);
+	}
+
+	public synchronized List<Point> getPoints() {
+		return new ArrayList<>(points);
+	}
+}
@@ -0,0 +1,64 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Metadata sizes and shapes to run the scenario with. compressionType is applied to the request producer
+ * for the whole sweep, null leaves the properties file setting. serializationSamples requests and logged
+ * transactions are serialized in-process per point before the load run.
+ */
+public class PayloadSweepSettings {
+	private List<Integer> metadataBytes = new ArrayList<>(Arrays.asList(100, 1_024, 4_096, 16_384, 65_536));
+	private List<MetadataGenerator.Shape> shapes = new ArrayList<>(Arrays.asList(MetadataGenerator.Shape.FLAT, MetadataGenerator.Shape.NESTED));
+	private String compressionType = "lz4";
+	private int serializationSamples = 2_000;
+	private LoadScenario scenario = new LoadScenario();
+	private long warmupSeconds = 20L;
+	private long measureSeconds = 60L;
+
+	public List<Integer> getMetadataBytes() {
+		return metadataBytes;
+	}
+	public void setMetadataBytes(List<Integer> metadataBytes) {
+		this.metadataBytes = metadataBytes;
+	}
+	public List<MetadataGenerator.Shape> getShapes() {
+		return shapes;
+	}
+	public void setShapes(List<MetadataGenerator.Shape> shapes) {
+		this.shapes = shapes;
+	}
+	public String getCompressionType() {
+		return compressionType;
+	}
+	public void setCompressionType(String compressionType) {
+		this.compressionType = compressionType;
+	}
+	public int getSerializationSamples() {
+		return serializationSamples;
+	}
+	public void setSerializationSamples(int serializationSamples) {
+		this.serializationSamples = serializationSamples;
+	}
+	public LoadScenario getScenario() {
+		return scenario;
+	}
+	public void setScenario(LoadScenario scenario) {
+		this.scenario = scenario;
+	}
+	public long getWarmupSeconds() {
+		return warmupSeconds;
+	}
+	public void setWarmupSeconds(long warmupSeconds) {
+		this.warmupSeconds = warmupSeconds;
+	}
+	public long getMeasureSeconds() {
+		return measureSeconds;
+	}
+	public void setMeasureSeconds(long measureSeconds) {
+		this.measureSeconds = measureSeconds;
+	}
+
+}
@@ -0,0 +1,95 @@
+package qslv.kstream.itest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.CancelReservationRequest;
+import qslv.kstream.CommitReservationRequest;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.ReservationRequest;
+import qslv.kstream.TransactionRequest;
+
+/**
+ * Builds posting requests for load runs the same way the Itest_ classes do, except that every
+ * message gets its own correlation id so responses can be matched back to the request.
+ */
+@Component
+public class PostingRequestFactory {
+
+	public static String TEST_TAXONOMY_ID = "9.9.9.9.9";
+	public static String JSON_DATA = "{\"value\": 234934}";
+
+	@Autowired
+	ConfigProperties config;
+
+	public TraceableMessage<PostingRequest> reservation(String accountNumber, long amount) {
+		return reservation(accountNumber, amount, JSON_DATA);
+	}
+
+	public TraceableMessage<PostingRequest> reservation(String accountNumber, long amount, String jsonMetaData) {
+		ReservationRequest request = new ReservationRequest();
+		request.setRequestUuid(UUID.randomUUID());
+		request.setAccountNumber(accountNumber);
+		request.setDebitCardNumber(null);
+		request.setTransactionAmount(amount);
+		request.setJsonMetaData(jsonMetaData);
+		return traceable(new PostingRequest(request));
+	}
+
+	public TraceableMessage<PostingRequest> transaction(String accountNumber, long amount) {
+		return transaction(accountNumber, amount, JSON_DATA);
+	}
+
+	public TraceableMessage<PostingRequest> transaction(String accountNumber, long amount, String jsonMetaData) {
+		TransactionRequest request = new TransactionRequest();
+		request.setRequestUuid(UUID.randomUUID());
+		request.setAccountNumber(accountNumber);
+		request.setDebitCardNumber(null);
+		request.setTransactionAmount(amount);
+		request.setJsonMetaData(jsonMetaData);
+		request.setAuthorizeAgainstBalance(true);
+		request.setProtectAgainstOverdraft(false);
+		return traceable(new PostingRequest(request));
+	}
+
+	public TraceableMessage<PostingRequest> commit(String accountNumber, UUID reservationUuid, long amount) {
+		return commit(accountNumber, reservationUuid, amount, JSON_DATA);
+	}
+
+	public TraceableMessage<PostingRequest> commit(String accountNumber, UUID reservationUuid, long amount, String jsonMetaData) {
+		CommitReservationRequest request = new CommitReservationRequest();
+		request.setRequestUuid(UUID.randomUUID());
+		request.setAccountNumber(accountNumber);
+		request.setJsonMetaData(jsonMetaData);
+		request.setReservationUuid(reservationUuid);
+		request.setTransactionAmount(amount);
+		return traceable(new PostingRequest(request));
+	}
+
+	public TraceableMessage<PostingRequest> cancel(String accountNumber, UUID reservationUuid) {
+		return cancel(accountNumber, reservationUuid, JSON_DATA);
+	}
+
+	public TraceableMessage<PostingRequest> cancel(String accountNumber, UUID reservationUuid, String jsonMetaData) {
+		CancelReservationRequest request = new CancelReservationRequest();
+		request.setRequestUuid(UUID.randomUUID());
+		request.setAccountNumber(accountNumber);
+		request.setJsonMetaData(jsonMetaData);
+		request.setReservationUuid(reservationUuid);
+		return traceable(new PostingRequest(request));
+	}
+
+	public <T> TraceableMessage<T> traceable(T payload) {
+		TraceableMessage<T> traceable = new TraceableMessage<>();
+		traceable.setProducerAit(config.getAitid());
+		traceable.setBusinessTaxonomyId(TEST_TAXONOMY_ID);
+		traceable.setCorrelationId(UUID.randomUUID().toString());
+		traceable.setPayload(payload);
+		traceable.setMessageCreationTime(LocalDateTime.now());
+		return traceable;
+	}
+}
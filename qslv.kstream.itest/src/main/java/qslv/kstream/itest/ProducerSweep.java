@@ -0,0 +1,63 @@
+package qslv.kstream.itest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs one workload over a grid of request producer settings, applied through RequestProducerTuner and
+ * put back at the end. Load runs send through the non auto-flushing template, so batch.size and linger.ms
+ * take effect.
+ */
+@Component
+public class ProducerSweep extends BackgroundRun<ProducerSweepSettings, ProducerSweepReport> {
+	private static final Logger log = LoggerFactory.getLogger(ProducerSweep.class);
+
+	@Autowired
+	WorkloadRunner workloadRunner;
+	@Autowired
+	RequestProducerTuner producerTuner;
+
+	public ProducerSweep() {
+		super("Producer sweep");
+	}
+
+	@Override
+	protected ProducerSweepReport newReport(ProducerSweepSettings settings) {
+		return new ProducerSweepReport(settings);
+	}
+
+	@Override
+	protected void execute(ProducerSweepReport report, HarnessLock.Lease lease) throws Exception {
+		ProducerSweepSettings settings = report.getSettings();
+		log.info("Producer sweep over {} combinations", settings.gridSize());
+		try {
+			for (Integer batchSize : settings.getBatchSizes())
+				for (Integer lingerMs : settings.getLingerMs())
+					for (String compressionType : settings.getCompressionTypes())
+						for (String acks : settings.getAcks())
+							for (Integer maxInFlight : settings.getMaxInFlight()) {
+								Map<String, Object> point = new LinkedHashMap<>();
+								point.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+								point.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+								point.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+								point.put(ProducerConfig.ACKS_CONFIG, acks);
+								point.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION_CONFIG, maxInFlight);
+								producerTuner.apply(point);
+
+								WorkloadResult result = workloadRunner.measure(settings.getScenario(), settings.getWarmupSeconds(), settings.getMeasureSeconds(), lease);
+								report.add(point, result, producerTuner.metrics());
+								log.info("Producer sweep {}: {}", ProducerSweepReport.CSV_HEADER,
+										report.getPoints().get(report.getPoints().size() - 1).toCsv());
+							}
+			report.setState(ProducerSweepReport.COMPLETE);
+		} finally {
+			producerTuner.restore();
+		}
+	}
+}
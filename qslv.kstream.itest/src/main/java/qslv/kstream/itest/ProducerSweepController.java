@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /producer-sweep/start   body ProducerSweepSettings, runs in the background
+ * GET  /producer-sweep/report  points so far and their ranking
+ */
+@RestController
+@RequestMapping("/producer-sweep")
+public class ProducerSweepController extends BackgroundRunController<ProducerSweepSettings, ProducerSweepReport> {
+}
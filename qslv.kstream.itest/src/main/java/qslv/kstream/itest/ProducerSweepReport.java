@@ -0,0 +1,91 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One point per producer setting combination, in run order. The ranking orders them by achieved
+ * throughput in 2% steps, the lower p99 winning within a step. The producer averages are the producer's
+ * own metrics for the instance that ran the point, warm-up included.
+ */
+public class ProducerSweepReport extends RunReport<ProducerSweepSettings> {
+
+	public static final String CSV_HEADER = "batchSize,lingerMs,compression,acks,maxInFlight,achievedTps,p50Millis,p99Millis,p999Millis,failed,"
+			+ "batchSizeAvg,recordsPerRequestAvg,compressionRateAvg,requestLatencyAvgMillis";
+
+	private static final double TPS_TIE = 0.02;
+
+	public static class Point {
+		private Map<String, Object> producerConfig;
+		private WorkloadResult result;
+		private double batchSizeAvg;
+		private double recordsPerRequestAvg;
+		private double compressionRateAvg;
+		private double requestLatencyAvgMillis;
+
+		public String toCsv() {
+			return String.format(Locale.ROOT, "%s,%s,%s,%s,%s,%.1f,%.3f,%.3f,%.3f,%d,%.0f,%.2f,%.3f,%.3f",
+					producerConfig.get("batch.size"), producerConfig.get("linger.ms"), producerConfig.get("compression.type"),
+					producerConfig.get("acks"), producerConfig.get("max.in.flight.requests.per.connection"),
+					result.getAchievedTps(), result.getP50Millis(), result.getP99Millis(), result.getP999Millis(), result.getFailed(),
+					batchSizeAvg, recordsPerRequestAvg, compressionRateAvg, requestLatencyAvgMillis);
+		}
+
+		public Map<String, Object> getProducerConfig() {
+			return producerConfig;
+		}
+		public WorkloadResult getResult() {
+			return result;
+		}
+		public double getBatchSizeAvg() {
+			return batchSizeAvg;
+		}
+		public double getRecordsPerRequestAvg() {
+			return recordsPerRequestAvg;
+		}
+		public double getCompressionRateAvg() {
+			return compressionRateAvg;
+		}
+		public double getRequestLatencyAvgMillis() {
+			return requestLatencyAvgMillis;
+		}
+	}
+
+	private final List<Point> points = new ArrayList<>();
+
+	public ProducerSweepReport(ProducerSweepSettings settings) {
+		super(settings, RUNNING);
+	}
+
+	synchronized void add(Map<String, Object> producerConfig, WorkloadResult result, Map<String, Double> producerMetrics) {
+		Point point = new Point();
+		point.producerConfig = producerConfig;
+		point.result = result;
+		point.batchSizeAvg = producerMetrics.getOrDefault("batch-size-avg", 0.0);
+		point.recordsPerRequestAvg = producerMetrics.getOrDefault("records-per-request-avg", 0.0);
+		point.compressionRateAvg = producerMetrics.getOrDefault("compression-rate-avg", 0.0);
+		point.requestLatencyAvgMillis = producerMetrics.getOrDefault("request-latency-avg", 0.0);
+		points.add(point);
+	}
+
+	public synchronized List<Point> getPoints() {
+		return new ArrayList<>(points);
+	}
+
+	/**
+	 * Best first.
+	 */
+	public synchronized List<Point> getRanking() {
+		List<Point> ranking = new ArrayList<>(points);
+		ranking.sort(Comparator.comparingLong((Point point) -> -tpsBucket(point)).thenComparingDouble(point -> point.result.getP99Millis()));
+		return ranking;
+	}
+
+	private long tpsBucket(Point point) {
+		double tps = point.result.getAchievedTps();
+		return tps <= 1.0 ? 0L : (long) Math.floor(Math.log(tps) / Math.log1p(TPS_TIE));
+	}
+}
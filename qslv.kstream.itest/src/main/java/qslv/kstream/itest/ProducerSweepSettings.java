@@ -0,0 +1,74 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A grid of request producer settings. Every combination is run against the same scenario for
+ * warmupSeconds plus measureSeconds, so the grid size multiplies the run time; trim the lists.
+ * max.in.flight above 1 without enable.idempotence can reorder requests for an account on retry.
+ */
+public class ProducerSweepSettings {
+	private List<Integer> batchSizes = new ArrayList<>(Arrays.asList(16_384, 65_536, 262_144));
+	private List<Integer> lingerMs = new ArrayList<>(Arrays.asList(0, 5, 20));
+	private List<String> compressionTypes = new ArrayList<>(Arrays.asList("none", "lz4", "zstd"));
+	private List<String> acks = new ArrayList<>(Arrays.asList("1", "all"));
+	private List<Integer> maxInFlight = new ArrayList<>(Arrays.asList(1, 5));
+	private LoadScenario scenario = new LoadScenario();
+	private long warmupSeconds = 20L;
+	private long measureSeconds = 60L;
+
+	public List<Integer> getBatchSizes() {
+		return batchSizes;
+	}
+	public void setBatchSizes(List<Integer> batchSizes) {
+		this.batchSizes = batchSizes;
+	}
+	public List<Integer> getLingerMs() {
+		return lingerMs;
+	}
+	public void setLingerMs(List<Integer> lingerMs) {
+		this.lingerMs = lingerMs;
+	}
+	public List<String> getCompressionTypes() {
+		return compressionTypes;
+	}
+	public void setCompressionTypes(List<String> compressionTypes) {
+		this.compressionTypes = compressionTypes;
+	}
+	public List<String> getAcks() {
+		return acks;
+	}
+	public void setAcks(List<String> acks) {
+		this.acks = acks;
+	}
+	public List<Integer> getMaxInFlight() {
+		return maxInFlight;
+	}
+	public void setMaxInFlight(List<Integer> maxInFlight) {
+		this.maxInFlight = maxInFlight;
+	}
+	public LoadScenario getScenario() {
+		return scenario;
+	}
+	public void setScenario(LoadScenario scenario) {
+		this.scenario = scenario;
+	}
+	public long getWarmupSeconds() {
+		return warmupSeconds;
+	}
+	public void setWarmupSeconds(long warmupSeconds) {
+		this.warmupSeconds = warmupSeconds;
+	}
+	public long getMeasureSeconds() {
+		return measureSeconds;
+	}
+	public void setMeasureSeconds(long measureSeconds) {
+		this.measureSeconds = measureSeconds;
+	}
+
+	public int gridSize() {
+		return batchSizes.size() * lingerMs.size() * compressionTypes.size() * acks.size() * maxInFlight.size();
+	}
+}
@@ -0,0 +1,103 @@
+package qslv.kstream.itest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds a constant rate through LoadRunner and changes consumer group membership on a schedule: kstream
+ * instances through KStreamControl, or extra members of the harness's own capture group through
+ * CaptureMembers. Events run one after the other on the benchmark thread, so an event waiting on a slow
+ * scale delays the ones after it.
+ */
+@Component
+public class RebalanceBenchmark extends BackgroundRun<RebalanceSettings, RebalanceReport> {
+	private static final Logger log = LoggerFactory.getLogger(RebalanceBenchmark.class);
+	private static final long TAIL_SECONDS = 60L;
+
+	@Autowired
+	LoadRunner loadRunner;
+	@Autowired
+	KStreamControl kstreamControl;
+	@Autowired
+	CaptureMembers captureMembers;
+	@Autowired
+	CaptureRebalanceListener captureRebalanceListener;
+
+	public RebalanceBenchmark() {
+		super("Rebalance");
+	}
+
+	@Override
+	protected RebalanceReport newReport(RebalanceSettings settings) {
+		settings.getEvents().sort((a, b) -> Long.compare(a.getAtSeconds(), b.getAtSeconds()));
+		return new RebalanceReport(settings);
+	}
+
+	@Override
+	protected void execute(RebalanceReport report, HarnessLock.Lease lease) throws Exception {
+		RebalanceSettings settings = report.getSettings();
+		List<RebalanceSettings.Event> events = settings.getEvents();
+		LoadScenario scenario = settings.getScenario();
+		if (scenario.getDurationSeconds() <= 0L)
+			scenario.setDurationSeconds((events.isEmpty() ? 0L : events.get(events.size() - 1).getAtSeconds()) + TAIL_SECONDS);
+
+		AtomicLong lastRebalances = new AtomicLong(captureRebalanceListener.getRebalances());
+		Consumer<LoadStatistics.Snapshot> recorder = snapshot -> {
+			long rebalances = captureRebalanceListener.getRebalances();
+			report.second(snapshot.getElapsedMillis() / 1000L, snapshot.getIntervalTps(), snapshot.getIntervalP99Millis(),
+					rebalances - lastRebalances.getAndSet(rebalances));
+		};
+		loadRunner.addStatsListener(recorder);
+		try {
+			loadRunner.start(scenario, lease);
+			long startMillis = System.currentTimeMillis();
+			for (int i = 0; i < events.size(); i++) {
+				RebalanceSettings.Event event = events.get(i);
+				long wait = startMillis + TimeUnit.SECONDS.toMillis(event.getAtSeconds()) - System.currentTimeMillis();
+				Thread.sleep(Math.max(0L, wait));
+				if (loadRunner.getState() == LoadRunner.State.IDLE)
+					break;
+				log.info("Rebalance event {}: {} to {}", i, event.getTarget(), event.getInstances());
+				report.membershipChanged(i, apply(event, settings.getScaleTimeoutSeconds()));
+			}
+			while (loadRunner.getState() != LoadRunner.State.IDLE) {
+				Thread.sleep(1_000L);
+			}
+		} catch (Exception ex) {
+			loadRunner.stop(lease);
+			throw ex;
+		} finally {
+			loadRunner.removeStatsListener(recorder);
+			captureMembers.resize(0);
+			report.finish();
+		}
+		for (RebalanceReport.Impact impact : report.getImpacts()) {
+			log.info("{} to {}: dip {}%, p99 {}ms against {}ms, recovered after {}s", impact.getEvent().getTarget(),
+					impact.getEvent().getInstances(), Math.round(impact.getDipFraction() * 100.0), impact.getMaxP99Millis(),
+					impact.getBaselineP99Millis(), impact.getRecoverySeconds());
+		}
+	}
+
+	private long apply(RebalanceSettings.Event event, long timeoutSeconds) throws Exception {
+		if (event.getTarget() == RebalanceSettings.Target.KSTREAM)
+			return kstreamControl.scale(event.getInstances(), timeoutSeconds);
+
+		long start = System.currentTimeMillis();
+		long rebalances = captureRebalanceListener.getRebalances();
+		captureMembers.resize(event.getInstances());
+		long deadline = start + TimeUnit.SECONDS.toMillis(timeoutSeconds);
+		while (captureRebalanceListener.getRebalances() == rebalances) {
+			if (System.currentTimeMillis() > deadline)
+				return -1L;
+			Thread.sleep(100L);
+		}
+		return System.currentTimeMillis() - start;
+	}
+}
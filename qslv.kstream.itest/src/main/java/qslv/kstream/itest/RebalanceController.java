@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /rebalance/start   body RebalanceSettings, runs in the background
+ * GET  /rebalance/report  timeline so far, impacts once the run has finished
+ */
+@RestController
+@RequestMapping("/rebalance")
+public class RebalanceController extends BackgroundRunController<RebalanceSettings, RebalanceReport> {
+}
@@ -0,0 +1,147 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per second timeline of a rebalance run and the impact found around each membership change.
+ */
+public class RebalanceReport extends RunReport<RebalanceSettings> {
+
+	public static class Second {
+		private long elapsedSeconds;
+		private double tps;
+		private double p99Millis;
+		private long captureRebalances;
+
+		public long getElapsedSeconds() {
+			return elapsedSeconds;
+		}
+		public double getTps() {
+			return tps;
+		}
+		public double getP99Millis() {
+			return p99Millis;
+		}
+		/**
+		 * Capture partition moves seen during this second.
+		 */
+		public long getCaptureRebalances() {
+			return captureRebalances;
+		}
+	}
+
+	public static class Impact {
+		private RebalanceSettings.Event event;
+		private long membershipChangeMillis = -1L;
+		private double baselineTps;
+		private double baselineP99Millis;
+		private double minTps;
+		private double maxP99Millis;
+		private long recoverySeconds = -1L;
+
+		public RebalanceSettings.Event getEvent() {
+			return event;
+		}
+		/**
+		 * Time from the scale command until the group membership changed, -1 when it was not seen.
+		 */
+		public long getMembershipChangeMillis() {
+			return membershipChangeMillis;
+		}
+		public double getBaselineTps() {
+			return baselineTps;
+		}
+		public double getBaselineP99Millis() {
+			return baselineP99Millis;
+		}
+		public double getMinTps() {
+			return minTps;
+		}
+		public double getDipFraction() {
+			return baselineTps <= 0.0 ? 0.0 : 1.0 - minTps / baselineTps;
+		}
+		public double getMaxP99Millis() {
+			return maxP99Millis;
+		}
+		/**
+		 * Seconds from the event until the run was back to baseline, -1 when it did not get there before the next event.
+		 */
+		public long getRecoverySeconds() {
+			return recoverySeconds;
+		}
+	}
+
+	private final List<Second> timeline = new ArrayList<>();
+	private final List<Impact> impacts = new ArrayList<>();
+	private final long[] membershipChangeMillis;
+
+	public RebalanceReport(RebalanceSettings settings) {
+		super(settings, RUNNING);
+		this.membershipChangeMillis = new long[settings.getEvents().size()];
+	}
+
+	synchronized void second(long elapsedSeconds, double tps, double p99Millis, long captureRebalances) {
+		Second second = new Second();
+		second.elapsedSeconds = elapsedSeconds;
+		second.tps = tps;
+		second.p99Millis = p99Millis;
+		second.captureRebalances = captureRebalances;
+		timeline.add(second);
+	}
+
+	synchronized void membershipChanged(int event, long millis) {
+		membershipChangeMillis[event] = millis;
+	}
+
+	synchronized void finish() {
+		List<RebalanceSettings.Event> events = getSettings().getEvents();
+		for (int i = 0; i < events.size(); i++) {
+			RebalanceSettings.Event event = events.get(i);
+			long at = event.getAtSeconds();
+			long until = i + 1 < events.size() ? events.get(i + 1).getAtSeconds() : Long.MAX_VALUE;
+
+			Impact impact = new Impact();
+			impact.event = event;
+			impact.membershipChangeMillis = membershipChangeMillis[i];
+			int baselineCount = 0;
+			for (Second second : timeline) {
+				if (second.elapsedSeconds >= at - getSettings().getBaselineSeconds() && second.elapsedSeconds < at) {
+					impact.baselineTps += second.tps;
+					impact.baselineP99Millis += second.p99Millis;
+					baselineCount++;
+				}
+			}
+			if (baselineCount > 0) {
+				impact.baselineTps /= baselineCount;
+				impact.baselineP99Millis /= baselineCount;
+			}
+
+			impact.minTps = Double.MAX_VALUE;
+			int stable = 0;
+			for (Second second : timeline) {
+				if (second.elapsedSeconds < at || second.elapsedSeconds >= until)
+					continue;
+				impact.minTps = Math.min(impact.minTps, second.tps);
+				impact.maxP99Millis = Math.max(impact.maxP99Millis, second.p99Millis);
+				boolean recovered = second.tps >= impact.baselineTps * getSettings().getRecoveryFraction()
+						&& second.p99Millis <= impact.baselineP99Millis * getSettings().getRecoveryP99Factor();
+				stable = recovered ? stable + 1 : 0;
+				if (impact.recoverySeconds < 0L && stable >= getSettings().getStableSeconds())
+					impact.recoverySeconds = second.elapsedSeconds - getSettings().getStableSeconds() + 1 - at;
+			}
+			if (impact.minTps == Double.MAX_VALUE)
+				impact.minTps = 0.0;
+			impacts.add(impact);
+		}
+		if (!FAILED.equals(getState()))
+			setState(COMPLETE);
+	}
+
+	public synchronized List<Second> getTimeline() {
+		return new ArrayList<>(timeline);
+	}
+	public synchronized List<Impact> getImpacts() {
+		return new ArrayList<>(impacts);
+	}
+}
@@ -0,0 +1,103 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A constant rate load run with group membership changes at fixed offsets into the run.
+ * Around each event the impact is judged against the baselineSeconds before it; the run has
+ * recovered once throughput is back to recoveryFraction of the baseline and p99 within
+ * recoveryP99Factor of it for stableSeconds in a row.
+ */
+public class RebalanceSettings {
+
+	public enum Target { KSTREAM, CAPTURE }
+
+	/**
+	 * Scale the target to instances, atSeconds into the run. CAPTURE counts extra capture group members.
+	 */
+	public static class Event {
+		private long atSeconds;
+		private Target target = Target.KSTREAM;
+		private int instances;
+
+		public Event() {
+		}
+		public Event(long atSeconds, Target target, int instances) {
+			this.atSeconds = atSeconds;
+			this.target = target;
+			this.instances = instances;
+		}
+
+		public long getAtSeconds() {
+			return atSeconds;
+		}
+		public void setAtSeconds(long atSeconds) {
+			this.atSeconds = atSeconds;
+		}
+		public Target getTarget() {
+			return target;
+		}
+		public void setTarget(Target target) {
+			this.target = target;
+		}
+		public int getInstances() {
+			return instances;
+		}
+		public void setInstances(int instances) {
+			this.instances = instances;
+		}
+	}
+
+	private LoadScenario scenario = new LoadScenario();
+	private List<Event> events = new ArrayList<>();
+	private long baselineSeconds = 10L;
+	private double recoveryFraction = 0.95;
+	private double recoveryP99Factor = 2.0;
+	private int stableSeconds = 3;
+	private long scaleTimeoutSeconds = 120L;
+
+	public LoadScenario getScenario() {
+		return scenario;
+	}
+	public void setScenario(LoadScenario scenario) {
+		this.scenario = scenario;
+	}
+	public List<Event> getEvents() {
+		return events;
+	}
+	public void setEvents(List<Event> events) {
+		this.events = events;
+	}
+	public long getBaselineSeconds() {
+		return baselineSeconds;
+	}
+	public void setBaselineSeconds(long baselineSeconds) {
+		this.baselineSeconds = baselineSeconds;
+	}
+	public double getRecoveryFraction() {
+		return recoveryFraction;
+	}
+	public void setRecoveryFraction(double recoveryFraction) {
+		this.recoveryFraction = recoveryFraction;
+	}
+	public double getRecoveryP99Factor() {
+		return recoveryP99Factor;
+	}
+	public void setRecoveryP99Factor(double recoveryP99Factor) {
+		this.recoveryP99Factor = recoveryP99Factor;
+	}
+	public int getStableSeconds() {
+		return stableSeconds;
+	}
+	public void setStableSeconds(int stableSeconds) {
+		this.stableSeconds = stableSeconds;
+	}
+	public long getScaleTimeoutSeconds() {
+		return scaleTimeoutSeconds;
+	}
+	public void setScaleTimeoutSeconds(long scaleTimeoutSeconds) {
+		this.scaleTimeoutSeconds = scaleTimeoutSeconds;
+	}
+
+}
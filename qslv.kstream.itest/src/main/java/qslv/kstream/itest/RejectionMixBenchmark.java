@@ -0,0 +1,226 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.data.Account;
+import qslv.data.BalanceLog;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+import qslv.util.Random;
+
+/**
+ * Sustained load with a tunable share of requests the kstream has to turn down: debits against empty
+ * accounts, against closed accounts and against accounts it has never seen. Each path keeps its own
+ * statistics, so a burst of rejections, as in a fraud attack, can be sized on its own.
+ */
+@Component
+public class RejectionMixBenchmark extends BackgroundRun<RejectionMixSettings, RejectionMixReport> {
+	private static final Logger log = LoggerFactory.getLogger(RejectionMixBenchmark.class);
+
+	@Autowired
+	KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	PostingRequestFactory requestFactory;
+	@Autowired
+	RequestCorrelationTracker correlationTracker;
+
+	private final Map<String, RejectionMixReport.Path> pending = new ConcurrentHashMap<>();
+	private final Map<RejectionMixReport.Path, LoadStatistics> statistics = new EnumMap<>(RejectionMixReport.Path.class);
+	private final Map<RejectionMixReport.Path, Map<String, AtomicLong>> statuses = new EnumMap<>(RejectionMixReport.Path.class);
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong answered = new AtomicLong();
+	private final RequestCorrelationTracker.PostingResponseObserver observer = this::responseReceived;
+	private volatile LoadStatistics rejections = new LoadStatistics();
+
+	public RejectionMixBenchmark() {
+		super("Rejection mix");
+	}
+
+	@Override
+	protected RejectionMixReport newReport(RejectionMixSettings settings) {
+		if (settings.getNsfPercent() + settings.getClosedPercent() + settings.getUnknownPercent() > 100)
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Rejection shares add up to more than 100 percent");
+		return new RejectionMixReport(settings);
+	}
+
+	@Override
+	protected void execute(RejectionMixReport report, HarnessLock.Lease lease) throws Exception {
+		RejectionMixSettings settings = report.getSettings();
+		pending.clear();
+		for (RejectionMixReport.Path path : RejectionMixReport.Path.values()) {
+			statistics.put(path, new LoadStatistics());
+			statuses.put(path, new ConcurrentHashMap<>());
+		}
+		rejections = new LoadStatistics();
+		sent.set(0L);
+		answered.set(0L);
+		correlationTracker.addObserver(observer);
+		try {
+			AccountPool funded = new AccountPool(kafkaProducerDao, settings.getStartingBalance());
+			funded.resize(Math.max(1, settings.getFundedAccounts()));
+			AccountPool empty = new AccountPool(kafkaProducerDao, 0L);
+			empty.resize(Math.max(1, settings.getEmptyAccounts()));
+			List<String> closed = closedAccounts(settings);
+
+			long start = System.currentTimeMillis();
+			send(settings, funded, empty, closed);
+			report.setState(RejectionMixReport.DRAINING);
+			long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(settings.getDrainTimeoutSeconds());
+			while (answered.get() < sent.get() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(250L);
+			}
+			long elapsed = System.currentTimeMillis() - start;
+
+			for (RejectionMixReport.Path path : RejectionMixReport.Path.values()) {
+				double tps = settings.getTps() * share(settings, path) / 100.0;
+				LoadStatistics pathStatistics = statistics.get(path);
+				LoadStatistics.Snapshot snapshot = pathStatistics.tick(path.name(), tps);
+				Map<String, Long> counts = new HashMap<>();
+				statuses.get(path).forEach((status, count) -> counts.put(status, count.get()));
+				report.add(new RejectionMixReport.PathResult(path, WorkloadResult.of(tps, elapsed, snapshot.getSent(), snapshot.getFailed(),
+						pathStatistics.cumulativeHistogram()), counts));
+			}
+			double rejectionTps = settings.getTps() * (100 - share(settings, RejectionMixReport.Path.APPROVED)) / 100.0;
+			LoadStatistics.Snapshot snapshot = rejections.tick("REJECTIONS", rejectionTps);
+			report.finish(WorkloadResult.of(rejectionTps, elapsed, snapshot.getSent(), snapshot.getFailed(), rejections.cumulativeHistogram()),
+					sent.get() - answered.get());
+			for (RejectionMixReport.PathResult path : report.getPaths()) {
+				log.info("Rejection mix {}: {}/s p50={}ms p99={}ms {}", path.getPath(), path.getResult().getAchievedTps(),
+						path.getResult().getP50Millis(), path.getResult().getP99Millis(), path.getStatuses());
+			}
+		} finally {
+			correlationTracker.removeObserver(observer);
+		}
+	}
+
+	/**
+	 * Closed accounts get a balance, so it is the lifecycle status and not the funds that turns them down.
+	 */
+	private List<String> closedAccounts(RejectionMixSettings settings) {
+		List<String> closed = new ArrayList<>();
+		for (int i = 0; i < Math.max(1, settings.getClosedAccounts()); i++) {
+			Account account = new Account();
+			account.setAccountLifeCycleStatus("CL");
+			account.setAccountNumber(Random.randomDigits(12));
+			kafkaProducerDao.produceAccount(account);
+
+			BalanceLog balance = new BalanceLog();
+			balance.setAccountNumber(account.getAccountNumber());
+			balance.setLastTransaction(UUID.randomUUID());
+			balance.setBalance(settings.getStartingBalance());
+			kafkaProducerDao.produceBalanceLog(balance);
+			closed.add(account.getAccountNumber());
+		}
+		return closed;
+	}
+
+	private void send(RejectionMixSettings settings, AccountPool funded, AccountPool empty, List<String> closed) {
+		long interval = (long) (1_000_000_000.0 / Math.max(0.001, settings.getTps()));
+		long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(settings.getDurationSeconds());
+		long next = System.nanoTime();
+		while (System.currentTimeMillis() < end) {
+			long now = System.nanoTime();
+			if (next > now) {
+				LockSupport.parkNanos(next - now);
+				continue;
+			}
+			next += interval;
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			RejectionMixReport.Path path = pick(settings, random.nextInt(100));
+			String accountNumber;
+			switch (path) {
+			case NSF:
+				accountNumber = empty.random().getAccountNumber();
+				break;
+			case CLOSED_ACCOUNT:
+				accountNumber = closed.get(random.nextInt(closed.size()));
+				break;
+			case UNKNOWN_ACCOUNT:
+				accountNumber = Random.randomDigits(12);
+				break;
+			default:
+				accountNumber = funded.random().getAccountNumber();
+			}
+			long amount = -(1L + random.nextLong(Math.max(1L, settings.getMaxTransactionAmount())));
+			TraceableMessage<PostingRequest> request = random.nextInt(100) < settings.getTransactionPercent()
+					? requestFactory.transaction(accountNumber, amount) : requestFactory.reservation(accountNumber, amount);
+			produce(request, path);
+		}
+	}
+
+	private void produce(TraceableMessage<PostingRequest> request, RejectionMixReport.Path path) {
+		LoadStatistics pathStatistics = statistics.get(path);
+		boolean rejection = path != RejectionMixReport.Path.APPROVED;
+		pathStatistics.sent();
+		if (rejection)
+			rejections.sent();
+		pending.put(request.getCorrelationId(), path);
+		sent.incrementAndGet();
+		try {
+			kafkaProducerDao.produceRequestMessageAsync(request).addCallback(result -> { }, ex -> failed(request, pathStatistics, rejection));
+		} catch (ResponseStatusException ex) {
+			failed(request, pathStatistics, rejection);
+		}
+	}
+
+	private void failed(TraceableMessage<PostingRequest> request, LoadStatistics pathStatistics, boolean rejection) {
+		pending.remove(request.getCorrelationId());
+		pathStatistics.failed();
+		if (rejection)
+			rejections.failed();
+		sent.decrementAndGet();
+	}
+
+	private void responseReceived(ResponseMessage<PostingRequest,PostingResponse> response, long latencyNanos) {
+		RejectionMixReport.Path path = response.getCorrelationId() == null ? null : pending.remove(response.getCorrelationId());
+		if (path == null)
+			return;
+		statistics.get(path).completed(latencyNanos);
+		if (path != RejectionMixReport.Path.APPROVED)
+			rejections.completed(latencyNanos);
+		statuses.get(path).computeIfAbsent(String.valueOf(response.getStatus()), status -> new AtomicLong()).incrementAndGet();
+		answered.incrementAndGet();
+	}
+
+	private static RejectionMixReport.Path pick(RejectionMixSettings settings, int roll) {
+		if ((roll -= settings.getNsfPercent()) < 0)
+			return RejectionMixReport.Path.NSF;
+		if ((roll -= settings.getClosedPercent()) < 0)
+			return RejectionMixReport.Path.CLOSED_ACCOUNT;
+		if ((roll -= settings.getUnknownPercent()) < 0)
+			return RejectionMixReport.Path.UNKNOWN_ACCOUNT;
+		return RejectionMixReport.Path.APPROVED;
+	}
+
+	private static int share(RejectionMixSettings settings, RejectionMixReport.Path path) {
+		switch (path) {
+		case NSF:
+			return settings.getNsfPercent();
+		case CLOSED_ACCOUNT:
+			return settings.getClosedPercent();
+		case UNKNOWN_ACCOUNT:
+			return settings.getUnknownPercent();
+		default:
+			return 100 - settings.getNsfPercent() - settings.getClosedPercent() - settings.getUnknownPercent();
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /rejection-mix/start   body RejectionMixSettings, runs in the background
+ * GET  /rejection-mix/report  per path results, once drained
+ */
+@RestController
+@RequestMapping("/rejection-mix")
+public class RejectionMixController extends BackgroundRunController<RejectionMixSettings, RejectionMixReport> {
+}
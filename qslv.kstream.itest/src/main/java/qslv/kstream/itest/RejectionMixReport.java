@@ -0,0 +1,70 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of a rejection mix, one entry per path: the rate and latency of its requests and how many were
+ * answered with each status. rejections is the NSF, closed and unknown paths taken together.
+ */
+public class RejectionMixReport extends RunReport<RejectionMixSettings> {
+
+	public static final String DRAINING = "DRAINING";
+
+	public enum Path { APPROVED, NSF, CLOSED_ACCOUNT, UNKNOWN_ACCOUNT }
+
+	public static class PathResult {
+		private final Path path;
+		private final WorkloadResult result;
+		private final Map<String, Long> statuses;
+
+		PathResult(Path path, WorkloadResult result, Map<String, Long> statuses) {
+			this.path = path;
+			this.result = result;
+			this.statuses = new TreeMap<>(statuses);
+		}
+
+		public Path getPath() {
+			return path;
+		}
+		public WorkloadResult getResult() {
+			return result;
+		}
+		public Map<String, Long> getStatuses() {
+			return statuses;
+		}
+	}
+
+	private final List<PathResult> paths = new ArrayList<>();
+	private WorkloadResult rejections;
+	private long unanswered;
+
+	public RejectionMixReport(RejectionMixSettings settings) {
+		super(settings, RUNNING);
+	}
+
+	synchronized void add(PathResult path) {
+		paths.add(path);
+	}
+
+	synchronized void finish(WorkloadResult rejections, long unanswered) {
+		this.rejections = rejections;
+		this.unanswered = unanswered;
+		setState(COMPLETE);
+	}
+
+	public synchronized List<PathResult> getPaths() {
+		return new ArrayList<>(paths);
+	}
+	public synchronized PathResult getPath(Path path) {
+		return paths.stream().filter(result -> result.path == path).findFirst().orElse(null);
+	}
+	public synchronized WorkloadResult getRejections() {
+		return rejections;
+	}
+	public synchronized long getUnanswered() {
+		return unanswered;
+	}
+}
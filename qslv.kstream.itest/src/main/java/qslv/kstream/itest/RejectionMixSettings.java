@@ -0,0 +1,95 @@
+package qslv.kstream.itest;
+
+/**
+ * A rejection mix: requests at tps for durationSeconds, transactionPercent of them transactions and the
+ * rest reservations. nsfPercent go to accounts holding nothing, closedPercent to accounts with a closed
+ * lifecycle status and unknownPercent to account numbers that were never produced; the rest go to funded
+ * accounts and should be approved.
+ */
+public class RejectionMixSettings {
+	private double tps = 200.0;
+	private long durationSeconds = 60L;
+	private int nsfPercent = 20;
+	private int closedPercent = 10;
+	private int unknownPercent = 10;
+	private int transactionPercent = 50;
+	private int fundedAccounts = 100;
+	private int emptyAccounts = 20;
+	private int closedAccounts = 20;
+	private long startingBalance = 1_000_000_000L;
+	private long maxTransactionAmount = 10_000L;
+	private long drainTimeoutSeconds = 120L;
+
+	public double getTps() {
+		return tps;
+	}
+	public void setTps(double tps) {
+		this.tps = tps;
+	}
+	public long getDurationSeconds() {
+		return durationSeconds;
+	}
+	public void setDurationSeconds(long durationSeconds) {
+		this.durationSeconds = durationSeconds;
+	}
+	public int getNsfPercent() {
+		return nsfPercent;
+	}
+	public void setNsfPercent(int nsfPercent) {
+		this.nsfPercent = nsfPercent;
+	}
+	public int getClosedPercent() {
+		return closedPercent;
+	}
+	public void setClosedPercent(int closedPercent) {
+		this.closedPercent = closedPercent;
+	}
+	public int getUnknownPercent() {
+		return unknownPercent;
+	}
+	public void setUnknownPercent(int unknownPercent) {
+		this.unknownPercent = unknownPercent;
+	}
+	public int getTransactionPercent() {
+		return transactionPercent;
+	}
+	public void setTransactionPercent(int transactionPercent) {
+		this.transactionPercent = transactionPercent;
+	}
+	public int getFundedAccounts() {
+		return fundedAccounts;
+	}
+	public void setFundedAccounts(int fundedAccounts) {
+		this.fundedAccounts = fundedAccounts;
+	}
+	public int getEmptyAccounts() {
+		return emptyAccounts;
+	}
+	public void setEmptyAccounts(int emptyAccounts) {
+		this.emptyAccounts = emptyAccounts;
+	}
+	public int getClosedAccounts() {
+		return closedAccounts;
+	}
+	public void setClosedAccounts(int closedAccounts) {
+		this.closedAccounts = closedAccounts;
+	}
+	public long getStartingBalance() {
+		return startingBalance;
+	}
+	public void setStartingBalance(long startingBalance) {
+		this.startingBalance = startingBalance;
+	}
+	public long getMaxTransactionAmount() {
+		return maxTransactionAmount;
+	}
+	public void setMaxTransactionAmount(long maxTransactionAmount) {
+		this.maxTransactionAmount = maxTransactionAmount;
+	}
+	public long getDrainTimeoutSeconds() {
+		return drainTimeoutSeconds;
+	}
+	public void setDrainTimeoutSeconds(long drainTimeoutSeconds) {
+		this.drainTimeoutSeconds = drainTimeoutSeconds;
+	}
+}
@@ -0,0 +1,78 @@
+package qslv.kstream.itest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.stereotype.Component;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+
+/**
+ * Remembers when each posting request was produced, keyed by correlation id, so the
+ * matching response picked up by KafkaStreamsOutputListener can be turned into a round trip time.
+ */
+@Component
+public class RequestCorrelationTracker {
+
+	public interface PostingResponseObserver {
+		void responseReceived(ResponseMessage<PostingRequest,PostingResponse> response, long latencyNanos);
+	}
+
+	private final ConcurrentHashMap<String, Long> pending = new ConcurrentHashMap<>();
+	private final List<PostingResponseObserver> observers = new CopyOnWriteArrayList<>();
+
+	public void requestSent(TraceableMessage<?> request) {
+		if (request.getCorrelationId() != null)
+			pending.put(request.getCorrelationId(), System.nanoTime());
+	}
+
+	public void requestFailed(TraceableMessage<?> request) {
+		if (request.getCorrelationId() != null)
+			pending.remove(request.getCorrelationId());
+	}
+
+	/**
+	 * Observers are only told about responses that match a pending request.
+	 *
+	 * @return nanoseconds since the request was produced, or -1 when the response does not match a pending request.
+	 */
+	public long responseReceived(ResponseMessage<PostingRequest,PostingResponse> response) {
+		if (response.getCorrelationId() == null)
+			return -1L;
+		Long sent = pending.remove(response.getCorrelationId());
+		if (sent == null)
+			return -1L;
+		long latency = System.nanoTime() - sent;
+		for (PostingResponseObserver observer : observers) {
+			observer.responseReceived(response, latency);
+		}
+		return latency;
+	}
+
+	public void addObserver(PostingResponseObserver observer) {
+		observers.add(observer);
+	}
+
+	public void removeObserver(PostingResponseObserver observer) {
+		observers.remove(observer);
+	}
+
+	public int pendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * Stop waiting on the given requests; their responses, if they come, are no longer matched.
+	 * Only ever forget what you sent, others may have requests pending.
+	 */
+	public void forget(Collection<String> correlationIds) {
+		for (String correlationId : correlationIds) {
+			pending.remove(correlationId);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package qslv.kstream.itest;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.PostingRequest;
+
+/**
+ * Changes the request producer settings between sweep points. apply() updates the request producer
+ * factory and resets it, so the next send opens a producer with the new settings; restore() puts back
+ * what the properties file had. The auto-flushing template the Itest_ classes use shares the factory.
+ */
+@Component
+public class RequestProducerTuner {
+
+	@Autowired
+	ProducerFactory<String, TraceableMessage<PostingRequest>> requestProducerFactory;
+	@Autowired
+	@Qualifier("requestLoadKafkaTemplate")
+	KafkaTemplate<String, TraceableMessage<PostingRequest>> requestLoadTemplate;
+
+	private final Map<String, Object> original = new HashMap<>();
+
+	public synchronized void apply(Map<String, Object> settings) {
+		DefaultKafkaProducerFactory<String, TraceableMessage<PostingRequest>> factory = factory();
+		Map<String, Object> current = factory.getConfigurationProperties();
+		for (String key : settings.keySet()) {
+			if (!original.containsKey(key))
+				original.put(key, current.get(key)); // null when the properties file leaves it to the default
+		}
+		factory.updateConfigs(settings);
+		factory.reset();
+	}
+
+	public synchronized void restore() {
+		if (original.isEmpty())
+			return;
+		DefaultKafkaProducerFactory<String, TraceableMessage<PostingRequest>> factory = factory();
+		for (Map.Entry<String, Object> setting : original.entrySet()) {
+			if (setting.getValue() == null)
+				factory.removeConfig(setting.getKey());
+			else
+				factory.updateConfigs(Collections.singletonMap(setting.getKey(), setting.getValue()));
+		}
+		original.clear();
+		factory.reset();
+	}
+
+	/**
+	 * The producer-metrics group of the current request producer, by metric name.
+	 */
+	public Map<String, Double> metrics() {
+		Map<String, Double> values = new HashMap<>();
+		for (Map.Entry<MetricName, ? extends Metric> metric : requestLoadTemplate.metrics().entrySet()) {
+			if (!"producer-metrics".equals(metric.getKey().group()))
+				continue;
+			Object value = metric.getValue().metricValue();
+			if (value instanceof Number && Double.isFinite(((Number) value).doubleValue()))
+				values.put(metric.getKey().name(), ((Number) value).doubleValue());
+		}
+		return values;
+	}
+
+	private DefaultKafkaProducerFactory<String, TraceableMessage<PostingRequest>> factory() {
+		if (!(requestProducerFactory instanceof DefaultKafkaProducerFactory))
+			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Request producer factory cannot be reconfigured");
+		return (DefaultKafkaProducerFactory<String, TraceableMessage<PostingRequest>>) requestProducerFactory;
+	}
+}
@@ -0,0 +1,261 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.data.Account;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+
+/**
+ * Builds up open reservations on a few accounts through the ordinary reservation flow, and at each backlog
+ * commits and cancels some of them, to see whether matching a commit or cancel to its reservation slows
+ * down as an account collects open authorizations the way a card account does. Reservation uuids come
+ * from the reservation responses.
+ */
+@Component
+public class ReservationBacklogBenchmark extends BackgroundRun<ReservationBacklogSettings, ReservationBacklogReport> {
+	private static final Logger log = LoggerFactory.getLogger(ReservationBacklogBenchmark.class);
+
+	@Autowired
+	KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	PostingRequestFactory requestFactory;
+	@Autowired
+	RequestCorrelationTracker correlationTracker;
+	@Autowired
+	KafkaLagProbe lagProbe;
+	@Autowired
+	ConfigProperties config;
+
+	private final Map<String, List<UUID>> open = new ConcurrentHashMap<>();
+	private final AtomicLong seedAnswered = new AtomicLong();
+	private final AtomicLong seedRejected = new AtomicLong();
+	private final AtomicLong operationsAnswered = new AtomicLong();
+	private final AtomicLong conflicts = new AtomicLong();
+	private final RequestCorrelationTracker.PostingResponseObserver observer = this::responseReceived;
+	private volatile LoadStatistics commitStatistics = new LoadStatistics();
+	private volatile LoadStatistics cancelStatistics = new LoadStatistics();
+
+	public ReservationBacklogBenchmark() {
+		super("Reservation backlog");
+	}
+
+	@Override
+	protected ReservationBacklogReport newReport(ReservationBacklogSettings settings) {
+		return new ReservationBacklogReport(settings);
+	}
+
+	@Override
+	protected void execute(ReservationBacklogReport report, HarnessLock.Lease lease) throws Exception {
+		ReservationBacklogSettings settings = report.getSettings();
+		open.clear();
+		correlationTracker.addObserver(observer);
+		try {
+			AccountPool pool = new AccountPool(kafkaProducerDao, settings.getStartingBalance());
+			pool.resize(settings.getAccounts());
+			List<Account> accounts = pool.active();
+			for (Account account : accounts) {
+				open.put(account.getAccountNumber(), new ArrayList<>());
+			}
+			List<Integer> backlogs = new ArrayList<>(settings.getBacklogs());
+			Collections.sort(backlogs);
+			for (int backlog : backlogs) {
+				ReservationBacklogReport.Point point = new ReservationBacklogReport.Point();
+				point.setBacklog(backlog);
+				seed(settings, accounts, backlog, point);
+				operate(settings, accounts, point);
+				report.add(point);
+				log.info("Reservation backlog {}: {}", ReservationBacklogReport.CSV_HEADER, point.toCsv());
+			}
+			report.setState(ReservationBacklogReport.COMPLETE);
+		} finally {
+			correlationTracker.removeObserver(observer);
+		}
+	}
+
+	/**
+	 * Tops every account up to the backlog and waits for the reservations to be answered.
+	 */
+	private void seed(ReservationBacklogSettings settings, List<Account> accounts, int backlog, ReservationBacklogReport.Point point)
+			throws InterruptedException {
+		List<String> wanted = new ArrayList<>();
+		for (Account account : accounts) {
+			for (int i = openCount(account.getAccountNumber()); i < backlog; i++) {
+				wanted.add(account.getAccountNumber());
+			}
+		}
+		Collections.shuffle(wanted);
+		seedAnswered.set(0L);
+		seedRejected.set(0L);
+
+		AtomicLong sent = new AtomicLong();
+		long start = System.currentTimeMillis();
+		pace(settings.getSeedTps(), wanted.size(), i -> requestFactory.reservation(wanted.get(i), -1L), sent, request -> { });
+		await(seedAnswered, sent, settings);
+		long elapsed = Math.max(1L, System.currentTimeMillis() - start);
+
+		point.setSeeded(seedAnswered.get());
+		point.setSeedTps(seedAnswered.get() * 1000.0 / elapsed);
+		point.setSeedRejected(seedRejected.get());
+	}
+
+	/**
+	 * Commits and cancels reservations picked at random from the backlog, each of 1 like the reservation.
+	 */
+	private void operate(ReservationBacklogSettings settings, List<Account> accounts, ReservationBacklogReport.Point point) throws Exception {
+		List<String> topics = Arrays.asList(config.getReservationByUuidTopic());
+		long reservationByUuidBefore = lagProbe.endOffsetTotal(topics);
+		long matchReservationBefore = lagProbe.endOffsetTotal(Arrays.asList(config.getMatchReservationTopic()));
+		LoadStatistics commits = new LoadStatistics();
+		LoadStatistics cancels = new LoadStatistics();
+		commitStatistics = commits;
+		cancelStatistics = cancels;
+		operationsAnswered.set(0L);
+		conflicts.set(0L);
+
+		AtomicLong sent = new AtomicLong();
+		long start = System.currentTimeMillis();
+		pace(settings.getOperationTps(), settings.getOperations(), i -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			String accountNumber = accounts.get(random.nextInt(accounts.size())).getAccountNumber();
+			UUID reservationUuid = takeOpen(accountNumber);
+			if (reservationUuid == null)
+				return null;
+			if (random.nextInt(100) < settings.getCommitPercent()) {
+				commits.sent();
+				return requestFactory.commit(accountNumber, reservationUuid, -1L);
+			}
+			cancels.sent();
+			return requestFactory.cancel(accountNumber, reservationUuid);
+		}, sent, request -> (request.getPayload().hasCommitReservationRequest() ? commits : cancels).failed());
+		await(operationsAnswered, sent, settings);
+		long elapsed = System.currentTimeMillis() - start;
+
+		double commitShare = settings.getCommitPercent() / 100.0;
+		LoadStatistics.Snapshot commitSnapshot = commits.tick("COMMIT", settings.getOperationTps() * commitShare);
+		LoadStatistics.Snapshot cancelSnapshot = cancels.tick("CANCEL", settings.getOperationTps() * (1.0 - commitShare));
+		point.setCommits(WorkloadResult.of(settings.getOperationTps() * commitShare, elapsed, commitSnapshot.getSent(),
+				commitSnapshot.getFailed(), commits.cumulativeHistogram()));
+		point.setCancels(WorkloadResult.of(settings.getOperationTps() * (1.0 - commitShare), elapsed, cancelSnapshot.getSent(),
+				cancelSnapshot.getFailed(), cancels.cumulativeHistogram()));
+		point.setConflicts(conflicts.get());
+		point.setUnanswered(sent.get() - operationsAnswered.get());
+		double operations = Math.max(1L, sent.get());
+		point.setReservationByUuidPerOperation((lagProbe.endOffsetTotal(topics) - reservationByUuidBefore) / operations);
+		point.setMatchReservationPerOperation((lagProbe.endOffsetTotal(Arrays.asList(config.getMatchReservationTopic()))
+				- matchReservationBefore) / operations);
+		point.setReservationByUuidBytes(lagProbe.logSizeBytes(topics));
+	}
+
+	/**
+	 * Sends count requests at tps from this thread, counting them in sent until the producer fails one.
+	 * A null request is skipped.
+	 */
+	private void pace(double tps, int count, IntFunction<TraceableMessage<PostingRequest>> supplier, AtomicLong sent,
+			Consumer<TraceableMessage<PostingRequest>> failed) {
+		long interval = (long) (1_000_000_000.0 / Math.max(0.001, tps));
+		long next = System.nanoTime();
+		for (int i = 0; i < count;) {
+			long now = System.nanoTime();
+			if (next > now) {
+				LockSupport.parkNanos(next - now);
+				continue;
+			}
+			TraceableMessage<PostingRequest> request = supplier.apply(i++);
+			next += interval;
+			if (request == null)
+				continue;
+			sent.incrementAndGet();
+			try {
+				kafkaProducerDao.produceRequestMessageAsync(request).addCallback(result -> { }, ex -> {
+					sent.decrementAndGet();
+					failed.accept(request);
+				});
+			} catch (ResponseStatusException ex) {
+				sent.decrementAndGet();
+				failed.accept(request);
+			}
+		}
+	}
+
+	private void await(AtomicLong answered, AtomicLong sent, ReservationBacklogSettings settings) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(settings.getDrainTimeoutSeconds());
+		while (answered.get() < sent.get() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(250L);
+		}
+		if (answered.get() < sent.get())
+			log.warn("{} of {} requests unanswered after {}s", sent.get() - answered.get(), sent.get(), settings.getDrainTimeoutSeconds());
+	}
+
+	private void responseReceived(ResponseMessage<PostingRequest,PostingResponse> response, long latencyNanos) {
+		PostingRequest request = response.getRequest();
+		if (request == null)
+			return;
+		boolean success = Objects.equals(ResponseMessage.SUCCESS, response.getStatus());
+		if (request.hasReservationRequest()) {
+			List<UUID> reservations = open.get(request.getReservationRequest().getAccountNumber());
+			if (reservations == null)
+				return;
+			if (success && response.getResponse() != null && response.getResponse().getTransactions() != null
+					&& !response.getResponse().getTransactions().isEmpty()) {
+				synchronized (reservations) {
+					reservations.add(response.getResponse().getTransactions().get(0).getTransactionUuid());
+				}
+			} else {
+				seedRejected.incrementAndGet();
+			}
+			seedAnswered.incrementAndGet();
+		} else if (request.hasCommitReservationRequest() || request.hasCancelReservationRequest()) {
+			String accountNumber = request.hasCommitReservationRequest() ? request.getCommitReservationRequest().getAccountNumber()
+					: request.getCancelReservationRequest().getAccountNumber();
+			if (!open.containsKey(accountNumber))
+				return;
+			(request.hasCommitReservationRequest() ? commitStatistics : cancelStatistics).completed(latencyNanos);
+			if (!success)
+				conflicts.incrementAndGet();
+			operationsAnswered.incrementAndGet();
+		}
+	}
+
+	private int openCount(String accountNumber) {
+		List<UUID> reservations = open.get(accountNumber);
+		synchronized (reservations) {
+			return reservations.size();
+		}
+	}
+
+	private UUID takeOpen(String accountNumber) {
+		List<UUID> reservations = open.get(accountNumber);
+		synchronized (reservations) {
+			if (reservations.isEmpty())
+				return null;
+			int last = reservations.size() - 1;
+			int pick = ThreadLocalRandom.current().nextInt(reservations.size());
+			UUID taken = reservations.get(pick);
+			reservations.set(pick, reservations.get(last));
+			reservations.remove(last);
+			return taken;
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /reservation-backlog/start   body ReservationBacklogSettings, runs in the background
+ * GET  /reservation-backlog/report  one point per backlog so far
+ */
+@RestController
+@RequestMapping("/reservation-backlog")
+public class ReservationBacklogController extends BackgroundRunController<ReservationBacklogSettings, ReservationBacklogReport> {
+}
@@ -0,0 +1,118 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a reservation backlog run, one point per backlog. Seeding figures are for the reservations
+ * added to reach the backlog; commit and cancel results are for the operations run against it. The
+ * reservation-by-uuid and match-reservation figures are records those topics grew by per operation, and
+ * reservationByUuidBytes is the reservation-by-uuid log size once the operations were answered.
+ */
+public class ReservationBacklogReport extends RunReport<ReservationBacklogSettings> {
+
+	public static final String CSV_HEADER = "backlog,seeded,seedTps,seedRejected,commits,commitP50,commitP99,cancels,cancelP50,cancelP99,"
+			+ "conflicts,unanswered,reservationByUuidPerOperation,matchReservationPerOperation,reservationByUuidBytes";
+
+	public static class Point {
+		private int backlog;
+		private long seeded;
+		private double seedTps;
+		private long seedRejected;
+		private WorkloadResult commits;
+		private WorkloadResult cancels;
+		private long conflicts;
+		private long unanswered;
+		private double reservationByUuidPerOperation;
+		private double matchReservationPerOperation;
+		private long reservationByUuidBytes;
+
+		public String toCsv() {
+			return String.format("%d,%d,%.1f,%d,%d,%.2f,%.2f,%d,%.2f,%.2f,%d,%d,%.2f,%.2f,%d", backlog, seeded, seedTps, seedRejected,
+					commits.getCompleted(), commits.getP50Millis(), commits.getP99Millis(), cancels.getCompleted(), cancels.getP50Millis(),
+					cancels.getP99Millis(), conflicts, unanswered, reservationByUuidPerOperation, matchReservationPerOperation,
+					reservationByUuidBytes);
+		}
+
+		public int getBacklog() {
+			return backlog;
+		}
+		void setBacklog(int backlog) {
+			this.backlog = backlog;
+		}
+		public long getSeeded() {
+			return seeded;
+		}
+		void setSeeded(long seeded) {
+			this.seeded = seeded;
+		}
+		public double getSeedTps() {
+			return seedTps;
+		}
+		void setSeedTps(double seedTps) {
+			this.seedTps = seedTps;
+		}
+		public long getSeedRejected() {
+			return seedRejected;
+		}
+		void setSeedRejected(long seedRejected) {
+			this.seedRejected = seedRejected;
+		}
+		public WorkloadResult getCommits() {
+			return commits;
+		}
+		void setCommits(WorkloadResult commits) {
+			this.commits = commits;
+		}
+		public WorkloadResult getCancels() {
+			return cancels;
+		}
+		void setCancels(WorkloadResult cancels) {
+			this.cancels = cancels;
+		}
+		public long getConflicts() {
+			return conflicts;
+		}
+		void setConflicts(long conflicts) {
+			this.conflicts = conflicts;
+		}
+		public long getUnanswered() {
+			return unanswered;
+		}
+		void setUnanswered(long unanswered) {
+			this.unanswered = unanswered;
+		}
+		public double getReservationByUuidPerOperation() {
+			return reservationByUuidPerOperation;
+		}
+		void setReservationByUuidPerOperation(double reservationByUuidPerOperation) {
+			this.reservationByUuidPerOperation = reservationByUuidPerOperation;
+		}
+		public double getMatchReservationPerOperation() {
+			return matchReservationPerOperation;
+		}
+		void setMatchReservationPerOperation(double matchReservationPerOperation) {
+			this.matchReservationPerOperation = matchReservationPerOperation;
+		}
+		public long getReservationByUuidBytes() {
+			return reservationByUuidBytes;
+		}
+		void setReservationByUuidBytes(long reservationByUuidBytes) {
+			this.reservationByUuidBytes = reservationByUuidBytes;
+		}
+	}
+
+	private final List<Point> points = new ArrayList<>();
+
+	public ReservationBacklogReport(ReservationBacklogSettings settings) {
+		super(settings, RUNNING);
+	}
+
+	synchronized void add(Point point) {
+		points.add(point);
+	}
+
+	public synchronized List<Point> getPoints() {
+		return new ArrayList<>(points);
+	}
+}
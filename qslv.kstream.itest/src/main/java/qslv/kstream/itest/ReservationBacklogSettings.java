@@ -0,0 +1,71 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A reservation backlog run: each account is topped up with reservations of 1 until it holds the next
+ * backlog of open reservations, seeded at seedTps, then takes operations commits and cancels at
+ * operationTps against reservations picked at random from its backlog. commitPercent of the operations
+ * are commits. Backlogs are taken smallest first, each on top of the one before.
+ */
+public class ReservationBacklogSettings {
+	private List<Integer> backlogs = new ArrayList<>(Arrays.asList(10, 1_000, 100_000));
+	private int accounts = 1;
+	private double seedTps = 2_000.0;
+	private int operations = 200;
+	private double operationTps = 20.0;
+	private int commitPercent = 50;
+	private long startingBalance = 1_000_000_000L;
+	private long drainTimeoutSeconds = 600L;
+
+	public List<Integer> getBacklogs() {
+		return backlogs;
+	}
+	public void setBacklogs(List<Integer> backlogs) {
+		this.backlogs = backlogs;
+	}
+	public int getAccounts() {
+		return accounts;
+	}
+	public void setAccounts(int accounts) {
+		this.accounts = accounts;
+	}
+	public double getSeedTps() {
+		return seedTps;
+	}
+	public void setSeedTps(double seedTps) {
+		this.seedTps = seedTps;
+	}
+	public int getOperations() {
+		return operations;
+	}
+	public void setOperations(int operations) {
+		this.operations = operations;
+	}
+	public double getOperationTps() {
+		return operationTps;
+	}
+	public void setOperationTps(double operationTps) {
+		this.operationTps = operationTps;
+	}
+	public int getCommitPercent() {
+		return commitPercent;
+	}
+	public void setCommitPercent(int commitPercent) {
+		this.commitPercent = commitPercent;
+	}
+	public long getStartingBalance() {
+		return startingBalance;
+	}
+	public void setStartingBalance(long startingBalance) {
+		this.startingBalance = startingBalance;
+	}
+	public long getDrainTimeoutSeconds() {
+		return drainTimeoutSeconds;
+	}
+	public void setDrainTimeoutSeconds(long drainTimeoutSeconds) {
+		this.drainTimeoutSeconds = drainTimeoutSeconds;
+	}
+}
@@ -0,0 +1,132 @@
+package qslv.kstream.itest;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.data.Account;
+import qslv.data.BalanceLog;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+
+/**
+ * Times a cold start of the kstream under test against large state stores. The kstream is stopped, the
+ * balance log and reservation by uuid topics are preloaded in bulk, a single request is left waiting on
+ * the request topic, and the kstream is started again. The start command is expected to discard the
+ * local state directory, so the stores are rebuilt from the topics.
+ */
+@Component
+public class RestoreBenchmark extends BackgroundRun<RestoreSettings, RestoreReport> {
+	private static final Logger log = LoggerFactory.getLogger(RestoreBenchmark.class);
+
+	@Autowired
+	KStreamControl kstreamControl;
+	@Autowired
+	KafkaLagProbe lagProbe;
+	@Autowired
+	KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	PostingRequestFactory requestFactory;
+	@Autowired
+	RequestCorrelationTracker correlationTracker;
+
+	public RestoreBenchmark() {
+		super("Restore");
+	}
+
+	@Override
+	protected RestoreReport newReport(RestoreSettings settings) {
+		return new RestoreReport(settings);
+	}
+
+	@Override
+	protected void execute(RestoreReport report, HarnessLock.Lease lease) throws Exception {
+		RestoreSettings settings = report.getSettings();
+		report.setStopMillis(kstreamControl.stop(settings.getControlTimeoutSeconds()));
+
+		if (settings.isPreload()) {
+			report.setState(RestoreReport.PRELOADING);
+			long preloadStart = System.currentTimeMillis();
+			long failed = kafkaProducerDao.produceBalanceLogs(LongStream.range(0L, settings.getBalanceLogs())
+					.mapToObj(i -> balanceLog(accountNumber(settings, i), settings.getStartingBalance())).iterator());
+			failed += kafkaProducerDao.produceReservationsByUuid(LongStream.range(0L, settings.getReservations())
+					.mapToObj(i -> reservation(settings)).iterator());
+			report.setPreloadFailed(failed);
+			report.setPreloadMillis(System.currentTimeMillis() - preloadStart);
+			log.info("Preloaded {} balance logs and {} reservations in {}ms", settings.getBalanceLogs(),
+					settings.getReservations(), report.getPreloadMillis());
+		}
+		List<String> stateTopics = lagProbe.stateTopics();
+		report.setStateRecords(lagProbe.endOffsetTotal(stateTopics));
+		report.setStateBytes(lagProbe.logSizeBytes(stateTopics));
+
+		report.setState(RestoreReport.RESTORING);
+		AccountPool probeAccount = new AccountPool(kafkaProducerDao, settings.getStartingBalance());
+		probeAccount.resize(1);
+		Account account = probeAccount.random();
+		TraceableMessage<PostingRequest> request = requestFactory.transaction(account.getAccountNumber(), -1L);
+
+		CountDownLatch answered = new CountDownLatch(1);
+		AtomicReference<ResponseMessage<PostingRequest,PostingResponse>> firstResponse = new AtomicReference<>();
+		RequestCorrelationTracker.PostingResponseObserver observer = (response, latency) -> {
+			if (Objects.equals(request.getCorrelationId(), response.getCorrelationId())) {
+				firstResponse.set(response);
+				answered.countDown();
+			}
+		};
+		correlationTracker.addObserver(observer);
+		try {
+			kafkaProducerDao.produceRequestMessage(request);
+			long restartAt = System.currentTimeMillis();
+			report.setJoinMillis(kstreamControl.start(settings.getControlTimeoutSeconds()));
+			if (answered.await(settings.getFirstRequestTimeoutMinutes(), TimeUnit.MINUTES)) {
+				report.setFirstResponseMillis(System.currentTimeMillis() - restartAt);
+				report.setFirstResponseStatus(String.valueOf(firstResponse.get().getStatus()));
+			}
+		} finally {
+			correlationTracker.removeObserver(observer);
+		}
+		report.setState(RestoreReport.COMPLETE);
+		log.info("Restore finished. records={} bytes={} join={}ms firstResponse={}ms restore={}ms",
+				report.getStateRecords(), report.getStateBytes(), report.getJoinMillis(),
+				report.getFirstResponseMillis(), report.getRestoreMillis());
+	}
+
+	private static String accountNumber(RestoreSettings settings, long index) {
+		return String.format("%012d", settings.getAccountRangeStart() + index);
+	}
+
+	private static BalanceLog balanceLog(String accountNumber, long balance) {
+		BalanceLog log = new BalanceLog();
+		log.setAccountNumber(accountNumber);
+		log.setLastTransaction(UUID.randomUUID());
+		log.setBalance(balance);
+		return log;
+	}
+
+	private static LoggedTransaction reservation(RestoreSettings settings) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		LoggedTransaction reservation = new LoggedTransaction();
+		reservation.setTransactionUuid(UUID.randomUUID());
+		reservation.setRequestUuid(UUID.randomUUID());
+		reservation.setAccountNumber(accountNumber(settings, random.nextLong(Math.max(1L, settings.getBalanceLogs()))));
+		reservation.setTransactionTypeCode(LoggedTransaction.RESERVATION);
+		reservation.setTransactionAmount(-(1L + random.nextInt(10_000)));
+		reservation.setRunningBalanceAmount(settings.getStartingBalance());
+		reservation.setTransactionMetaDataJson(PostingRequestFactory.JSON_DATA);
+		return reservation;
+	}
+}
@@ -0,0 +1,13 @@
+package qslv.kstream.itest;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /restore/start   body RestoreSettings, runs in the background
+ * GET  /restore/report
+ */
+@RestController
+@RequestMapping("/restore")
+public class RestoreController extends BackgroundRunController<RestoreSettings, RestoreReport> {
+}
@@ -0,0 +1,86 @@
+package qslv.kstream.itest;
+
+/**
+ * Outcome of a state store restore run. Times after the restart are milliseconds from the kstream
+ * start command. The harness cannot see inside the kstream, so restore time is taken as the gap between
+ * joining the consumer group and answering the first request, which was waiting on the request topic
+ * before the start.
+ */
+public class RestoreReport extends RunReport<RestoreSettings> {
+
+	public static final String STOPPING = "STOPPING";
+	public static final String PRELOADING = "PRELOADING";
+	public static final String RESTORING = "RESTORING";
+
+	private long stopMillis;
+	private long preloadMillis;
+	private long preloadFailed;
+	private long stateRecords;
+	private long stateBytes;
+	private long joinMillis;
+	private long firstResponseMillis = -1L;
+	private String firstResponseStatus;
+
+	public RestoreReport(RestoreSettings settings) {
+		super(settings, STOPPING);
+	}
+
+	public long getStopMillis() {
+		return stopMillis;
+	}
+	void setStopMillis(long stopMillis) {
+		this.stopMillis = stopMillis;
+	}
+	public long getPreloadMillis() {
+		return preloadMillis;
+	}
+	void setPreloadMillis(long preloadMillis) {
+		this.preloadMillis = preloadMillis;
+	}
+	public long getPreloadFailed() {
+		return preloadFailed;
+	}
+	void setPreloadFailed(long preloadFailed) {
+		this.preloadFailed = preloadFailed;
+	}
+	/**
+	 * Records on the state store source and changelog topics, compaction not taken into account.
+	 */
+	public long getStateRecords() {
+		return stateRecords;
+	}
+	void setStateRecords(long stateRecords) {
+		this.stateRecords = stateRecords;
+	}
+	public long getStateBytes() {
+		return stateBytes;
+	}
+	void setStateBytes(long stateBytes) {
+		this.stateBytes = stateBytes;
+	}
+	public long getJoinMillis() {
+		return joinMillis;
+	}
+	void setJoinMillis(long joinMillis) {
+		this.joinMillis = joinMillis;
+	}
+	public long getFirstResponseMillis() {
+		return firstResponseMillis;
+	}
+	void setFirstResponseMillis(long firstResponseMillis) {
+		this.firstResponseMillis = firstResponseMillis;
+	}
+	public String getFirstResponseStatus() {
+		return firstResponseStatus;
+	}
+	void setFirstResponseStatus(String firstResponseStatus) {
+		this.firstResponseStatus = firstResponseStatus;
+	}
+	public long getRestoreMillis() {
+		return firstResponseMillis < 0L ? -1L : firstResponseMillis - joinMillis;
+	}
+	public double getRestoreRecordsPerSecond() {
+		long restore = getRestoreMillis();
+		return restore <= 0L ? 0.0 : stateRecords * 1000.0 / restore;
+	}
+}
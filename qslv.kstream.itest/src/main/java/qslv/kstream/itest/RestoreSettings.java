@@ -0,0 +1,60 @@
+package qslv.kstream.itest;
+
+/**
+ * A state store restore run. balanceLogs accounts, numbered from accountRangeStart, get a balance log and
+ * reservations open reservations are spread over them. With preload off the topics are taken as they are,
+ * so one preload can be timed across several restarts.
+ */
+public class RestoreSettings {
+	private boolean preload = true;
+	private long balanceLogs = 10_000_000L;
+	private long reservations = 10_000_000L;
+	private long accountRangeStart = 800_000_000_000L;
+	private long startingBalance = 1_000_000_000L;
+	private long controlTimeoutSeconds = 300L;
+	private long firstRequestTimeoutMinutes = 60L;
+
+	public boolean isPreload() {
+		return preload;
+	}
+	public void setPreload(boolean preload) {
+		this.preload = preload;
+	}
+	public long getBalanceLogs() {
+		return balanceLogs;
+	}
+	public void setBalanceLogs(long balanceLogs) {
+		this.balanceLogs = balanceLogs;
+	}
+	public long getReservations() {
+		return reservations;
+	}
+	public void setReservations(long reservations) {
+		this.reservations = reservations;
+	}
+	public long getAccountRangeStart() {
+		return accountRangeStart;
+	}
+	public void setAccountRangeStart(long accountRangeStart) {
+		this.accountRangeStart = accountRangeStart;
+	}
+	public long getStartingBalance() {
+		return startingBalance;
+	}
+	public void setStartingBalance(long startingBalance) {
+		this.startingBalance = startingBalance;
+	}
+	public long getControlTimeoutSeconds() {
+		return controlTimeoutSeconds;
+	}
+	public void setControlTimeoutSeconds(long controlTimeoutSeconds) {
+		this.controlTimeoutSeconds = controlTimeoutSeconds;
+	}
+	public long getFirstRequestTimeoutMinutes() {
+		return firstRequestTimeoutMinutes;
+	}
+	public void setFirstRequestTimeoutMinutes(long firstRequestTimeoutMinutes) {
+		this.firstRequestTimeoutMinutes = firstRequestTimeoutMinutes;
+	}
+
+}
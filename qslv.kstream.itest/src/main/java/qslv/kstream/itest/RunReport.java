@@ -0,0 +1,42 @@
+package qslv.kstream.itest;
+
+/**
+ * Settings, state and error of a BackgroundRun. Subclasses add what their run measures and any states of
+ * their own between the first one and COMPLETE or FAILED.
+ */
+public abstract class RunReport<S> {
+
+	public static final String RUNNING = "RUNNING";
+	public static final String COMPLETE = "COMPLETE";
+	public static final String FAILED = "FAILED";
+
+	private final S settings;
+	private volatile String state;
+	private volatile String error;
+
+	protected RunReport(S settings, String state) {
+		this.settings = settings;
+		this.state = state;
+	}
+
+	void setState(String state) {
+		this.state = state;
+	}
+	void failed(Exception ex) {
+		this.error = ex.toString();
+		this.state = FAILED;
+	}
+
+	public S getSettings() {
+		return settings;
+	}
+	public String getState() {
+		return state;
+	}
+	public boolean isActive() {
+		return !COMPLETE.equals(state) && !FAILED.equals(state);
+	}
+	public String getError() {
+		return error;
+	}
+}
@@ -0,0 +1,221 @@
+package qslv.kstream.itest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import qslv.common.kafka.JacksonAvroSerializer;
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.data.Account;
+import qslv.data.BalanceLog;
+import qslv.data.OverdraftInstruction;
+import qslv.kstream.LoggedTransaction;
+import qslv.kstream.PostingRequest;
+import qslv.kstream.PostingResponse;
+import qslv.kstream.ReservationRequest;
+import qslv.kstream.workflow.WorkflowMessage;
+
+/**
+ * Runs one sample of every message type through the serializer and deserializer instances the Kafka
+ * factories hand to their clients, before any listener container starts. Schemas get registered and
+ * the serdes' id caches filled here, so the first real message of a type doesn't carry a registry round trip.
+ * The consumer-only types are serialized with a local serializer to get bytes, which registers their
+ * schemas under the same subjects the kstream would use.
+ */
+@Component
+@Lazy(false)
+public class SchemaCacheWarmer implements SmartInitializingSingleton {
+	private static final Logger log = LoggerFactory.getLogger(SchemaCacheWarmer.class);
+
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	@Qualifier("producerConfig")
+	Map<String, Object> producerConfig;
+
+	@Autowired
+	ProducerFactory<String, TraceableMessage<PostingRequest>> requestProducerFactory;
+	@Autowired
+	ProducerFactory<String, Account> accountProducerFactory;
+	@Autowired
+	ProducerFactory<String, OverdraftInstruction> overdraftProducerFactory;
+	@Autowired
+	ProducerFactory<String, LoggedTransaction> transactionProducerFactory;
+	@Autowired
+	ProducerFactory<String, BalanceLog> balanceLogProducerFactory;
+
+	@Autowired
+	ConsumerFactory<String, TraceableMessage<ResponseMessage<PostingRequest,PostingResponse>>> responseConsumerFactory;
+	@Autowired
+	ConsumerFactory<String, TraceableMessage<WorkflowMessage>> workflowConsumerFactory;
+	@Autowired
+	ConsumerFactory<String, LoggedTransaction> reservationByUuidConsumerFactory;
+	@Autowired
+	ConsumerFactory<String, TraceableMessage<LoggedTransaction>> loggedTransactionConsumerFactory;
+	@Autowired
+	ConsumerFactory<String, BalanceLog> balanceLogConsumerFactory;
+
+	private final List<String> warmed = new ArrayList<>();
+	private long warmMillis = -1L;
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (!config.isWarmSchemas())
+			return;
+		long start = System.nanoTime();
+		warmed.clear();
+
+		warm(requestProducerFactory.getValueSerializer(), config.getRequestTopic(), traceable(postingRequest()));
+		warm(accountProducerFactory.getValueSerializer(), config.getAccountTopic(), account());
+		warm(overdraftProducerFactory.getValueSerializer(), config.getOverdraftTopic(), overdraft());
+		byte[] transaction = warm(transactionProducerFactory.getValueSerializer(), config.getReservationByUuidTopic(), loggedTransaction());
+		byte[] balanceLog = warm(balanceLogProducerFactory.getValueSerializer(), config.getBalanceLogStateStoreTopic(), balanceLog());
+
+		warm(reservationByUuidConsumerFactory.getValueDeserializer(), config.getReservationByUuidTopic(), transaction);
+		warm(balanceLogConsumerFactory.getValueDeserializer(), config.getBalanceLogStateStoreTopic(), balanceLog);
+		if (config.getSerdeMode() == KafkaSerdeFactory.Mode.JACKSON_AVRO)
+			warm(loggedTransactionConsumerFactory.getValueDeserializer(), config.getLoggedTransactionTopic(),
+					serialize(config.getLoggedTransactionTopic(), traceable(loggedTransaction()), TraceableMessage.class, LoggedTransaction.class));
+		warm(responseConsumerFactory.getValueDeserializer(), config.getResponseTopic(),
+				serialize(config.getResponseTopic(), responseMessage(), ResponseMessage.class, PostingRequest.class, PostingResponse.class));
+		byte[] workflow = serialize(config.getEnhancedRequestTopic(), traceable(new WorkflowMessage()), TraceableMessage.class, WorkflowMessage.class);
+		warm(workflowConsumerFactory.getValueDeserializer(), config.getEnhancedRequestTopic(), workflow);
+		warm(workflowConsumerFactory.getValueDeserializer(), config.getMatchReservationTopic(),
+				serialize(config.getMatchReservationTopic(), traceable(new WorkflowMessage()), TraceableMessage.class, WorkflowMessage.class));
+
+		warmMillis = (System.nanoTime() - start) / 1_000_000L;
+		StartupTimer.record("schema warm-up", warmMillis);
+		log.info("Schema caches warmed in {} ms: {}", warmMillis, warmed);
+	}
+
+	public long getWarmMillis() {
+		return warmMillis;
+	}
+
+	public List<String> getWarmed() {
+		return new ArrayList<>(warmed);
+	}
+
+	private <T> byte[] warm(Serializer<T> serializer, String topic, T sample) {
+		if (serializer == null)
+			return null;
+		try {
+			byte[] bytes = serializer.serialize(topic, sample);
+			warmed.add(topic + " serializer");
+			return bytes;
+		} catch (Exception ex) {
+			log.warn("Schema warm-up failed serializing to {}. {}", topic, ex.toString());
+			return null;
+		}
+	}
+
+	private void warm(Deserializer<?> deserializer, String topic, byte[] bytes) {
+		if (deserializer == null || bytes == null)
+			return;
+		try {
+			deserializer.deserialize(topic, bytes);
+			warmed.add(topic + " deserializer");
+		} catch (Exception ex) {
+			log.warn("Schema warm-up failed deserializing from {}. {}", topic, ex.toString());
+		}
+	}
+
+	private byte[] serialize(String topic, Object sample, Class<?> type, Class<?>... parameters) {
+		JacksonAvroSerializer<Object> jas = new JacksonAvroSerializer<>();
+		JavaType javaType = jas.getTypeFactory().constructParametricType(type, parameters);
+		jas.configure(producerConfig, false, javaType);
+		return warm(jas, topic, sample);
+	}
+
+	private <T> TraceableMessage<T> traceable(T payload) {
+		TraceableMessage<T> traceable = new TraceableMessage<>();
+		traceable.setProducerAit(config.getAitid());
+		traceable.setBusinessTaxonomyId(PostingRequestFactory.TEST_TAXONOMY_ID);
+		traceable.setCorrelationId(UUID.randomUUID().toString());
+		traceable.setPayload(payload);
+		traceable.setMessageCreationTime(LocalDateTime.now());
+		return traceable;
+	}
+
+	private PostingRequest postingRequest() {
+		ReservationRequest request = new ReservationRequest();
+		request.setRequestUuid(UUID.randomUUID());
+		request.setAccountNumber("000000000000");
+		request.setTransactionAmount(-1L);
+		request.setJsonMetaData(PostingRequestFactory.JSON_DATA);
+		return new PostingRequest(request);
+	}
+
+	private LoggedTransaction loggedTransaction() {
+		LoggedTransaction transaction = new LoggedTransaction();
+		transaction.setTransactionUuid(UUID.randomUUID());
+		transaction.setRequestUuid(UUID.randomUUID());
+		transaction.setAccountNumber("000000000000");
+		transaction.setTransactionTypeCode(LoggedTransaction.RESERVATION);
+		transaction.setTransactionAmount(-1L);
+		transaction.setRunningBalanceAmount(0L);
+		transaction.setTransactionMetaDataJson(PostingRequestFactory.JSON_DATA);
+		transaction.setTransactionTime(LocalDateTime.now());
+		return transaction;
+	}
+
+	private ResponseMessage<PostingRequest,PostingResponse> responseMessage() {
+		List<LoggedTransaction> transactions = new ArrayList<>();
+		transactions.add(loggedTransaction());
+		PostingResponse posting = new PostingResponse();
+		posting.setTransactions(transactions);
+
+		ResponseMessage<PostingRequest,PostingResponse> response = new ResponseMessage<>();
+		response.setProducerAit(config.getAitid());
+		response.setBusinessTaxonomyId(PostingRequestFactory.TEST_TAXONOMY_ID);
+		response.setCorrelationId(UUID.randomUUID().toString());
+		response.setMessageCreationTime(LocalDateTime.now());
+		response.setMessageCompletionTime(LocalDateTime.now());
+		response.setStatus(ResponseMessage.SUCCESS);
+		response.setRequest(postingRequest());
+		response.setResponse(posting);
+		return response;
+	}
+
+	private Account account() {
+		Account account = new Account();
+		account.setAccountLifeCycleStatus("EF");
+		account.setAccountNumber("000000000000");
+		return account;
+	}
+
+	private OverdraftInstruction overdraft() {
+		OverdraftInstruction od = new OverdraftInstruction();
+		od.setAccountNumber("000000000000");
+		od.setEffectiveStart(LocalDateTime.now());
+		od.setEffectiveEnd(LocalDateTime.now());
+		od.setInstructionLifecycleStatus("EF");
+		od.setOverdraftAccount(account());
+		return od;
+	}
+
+	private BalanceLog balanceLog() {
+		BalanceLog log = new BalanceLog();
+		log.setAccountNumber("000000000000");
+		log.setLastTransaction(UUID.randomUUID());
+		log.setBalance(0L);
+		return log;
+	}
+}
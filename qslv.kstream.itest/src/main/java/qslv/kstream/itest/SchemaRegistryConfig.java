@@ -0,0 +1,22 @@
+package qslv.kstream.itest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SchemaRegistryConfig {
+
+	@Autowired
+	ConfigProperties configProperties;
+
+	/**
+	 * Started before the first serde is configured; producerConfig() and listenerConfig() point schema.registry.url at it.
+	 */
+	@Bean(destroyMethod = "stop")
+	@ConditionalOnProperty(prefix = "qslv", name = "mock-schema-registry", havingValue = "true")
+	public MockSchemaRegistry mockSchemaRegistry() throws Exception {
+		return new MockSchemaRegistry(configProperties.getMockSchemaRegistryPort()).start();
+	}
+}
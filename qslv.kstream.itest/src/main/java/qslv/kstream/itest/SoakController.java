@@ -0,0 +1,24 @@
+package qslv.kstream.itest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /soak/start   body SoakSettings, runs in the background
+ * POST /soak/stop    ends the active run after one last sample, 409 when none is active
+ * GET  /soak/report  samples so far, findings once the run has finished
+ */
+@RestController
+@RequestMapping("/soak")
+public class SoakController extends BackgroundRunController<SoakSettings, SoakReport> {
+
+	@Autowired
+	SoakMonitor soakMonitor;
+
+	@PostMapping("/stop")
+	public SoakReport stop() {
+		return soakMonitor.stop();
+	}
+}
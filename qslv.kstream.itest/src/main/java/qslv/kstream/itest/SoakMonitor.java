@@ -0,0 +1,202 @@
+package qslv.kstream.itest;
+
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Runs a steady LoadScenario for hours and samples it: latency percentiles and throughput of the window,
+ * capture and kstream lag, bytes a state store restore would have to read, and heap and GC of this JVM.
+ * Samples are appended to a CSV file under qslv.report-dir as they are taken; degradation is judged
+ * when the run ends.
+ */
+@Component
+public class SoakMonitor extends BackgroundRun<SoakSettings, SoakReport> {
+	private static final Logger log = LoggerFactory.getLogger(SoakMonitor.class);
+	private static final double MB = 1024.0 * 1024.0;
+
+	@Autowired
+	LoadRunner loadRunner;
+	@Autowired
+	KafkaLagProbe lagProbe;
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	RequestCorrelationTracker correlationTracker;
+
+	private final Histogram window = new Histogram(3);
+	private final Consumer<LoadStatistics.Snapshot> windowRecorder = this::record;
+	private volatile CountDownLatch stopSignal = null;
+	private long startNanos;
+	private long lastSampleNanos;
+	private long lastGcCount;
+	private long lastGcMillis;
+
+	public SoakMonitor() {
+		super("Soak");
+	}
+
+	@Override
+	protected SoakReport newReport(SoakSettings settings) {
+		if (settings.getDurationMinutes() < 1L || settings.getSampleSeconds() < 1L)
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "durationMinutes and sampleSeconds must be at least 1");
+		if (settings.getWarmupSamples() < 0 || settings.getOutputPath() == null || settings.getOutputPath().isEmpty())
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "warmupSamples must not be negative and outputPath must be set");
+		LoadRunner.validate(settings.getScenario());
+		return new SoakReport(settings);
+	}
+
+	/**
+	 * Ends the active soak run after one last sample; the report is finished by the run itself.
+	 *
+	 * @throws ResponseStatusException CONFLICT when no soak run is active.
+	 */
+	public SoakReport stop() {
+		SoakReport current = report();
+		CountDownLatch signal = stopSignal;
+		if (current == null || !current.isActive() || signal == null)
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "No active soak run");
+		signal.countDown();
+		return current;
+	}
+
+	@Override
+	protected void execute(SoakReport report, HarnessLock.Lease lease) throws Exception {
+		SoakSettings settings = report.getSettings();
+		LoadScenario scenario = settings.getScenario();
+		scenario.setDurationSeconds(TimeUnit.MINUTES.toSeconds(settings.getDurationMinutes()));
+		Path output = Paths.get(config.getReportDir()).resolve(settings.getOutputPath()).toAbsolutePath();
+		Files.createDirectories(output.getParent());
+		CountDownLatch signal = new CountDownLatch(1);
+		stopSignal = signal;
+
+		try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(output))) {
+			csv.println(SoakSample.CSV_HEADER);
+			synchronized (window) {
+				window.reset();
+			}
+			lastGcCount = gcCount();
+			lastGcMillis = gcMillis();
+			loadRunner.addStatsListener(windowRecorder);
+			try {
+				loadRunner.start(scenario, lease);
+				try {
+					startNanos = lastSampleNanos = System.nanoTime();
+					log.info("Soak run started for {} minutes, sampling every {} seconds into {}",
+							settings.getDurationMinutes(), settings.getSampleSeconds(), output);
+					boolean stopping = false;
+					while (!stopping && loadRunner.getState() != LoadRunner.State.IDLE) {
+						stopping = signal.await(settings.getSampleSeconds(), TimeUnit.SECONDS);
+						sample(report, csv);
+					}
+				} finally {
+					loadRunner.stop(lease);
+				}
+			} finally {
+				loadRunner.removeStatsListener(windowRecorder);
+				stopSignal = null;
+			}
+		}
+		if (loadRunner.getFailure() != null)
+			throw new IllegalStateException("Load run failed. " + loadRunner.getFailure());
+
+		report.finish();
+		if (report.isDegraded())
+			report.getFindings().forEach(finding -> log.warn("Soak degradation: {}", finding));
+		else
+			log.info("Soak run finished with no degradation found");
+	}
+
+	private void record(LoadStatistics.Snapshot snapshot) {
+		synchronized (window) {
+			window.add(snapshot.getIntervalHistogram());
+		}
+	}
+
+	private void sample(SoakReport report, PrintWriter csv) {
+		try {
+			long now = System.nanoTime();
+			SoakSample sample = new SoakSample();
+			sample.setElapsedMinutes((now - startNanos) / 60_000_000_000.0);
+			synchronized (window) {
+				sample.setTps(window.getTotalCount() * 1_000_000_000.0 / Math.max(1L, now - lastSampleNanos));
+				sample.setP50Millis(window.getValueAtPercentile(50.0) / 1000.0);
+				sample.setP99Millis(window.getValueAtPercentile(99.0) / 1000.0);
+				sample.setP999Millis(window.getValueAtPercentile(99.9) / 1000.0);
+				sample.setMaxMillis(window.getMaxValue() / 1000.0);
+				window.reset();
+			}
+			lastSampleNanos = now;
+
+			sample.setCaptureLag(probe(() -> lagProbe.lag(config.captureGroupId(), config.outputTopics())));
+			sample.setKstreamLag(probe(() -> lagProbe.lag(config.getKstreamApplicationId(), Arrays.asList(config.getRequestTopic()))));
+			sample.setStateStoreBytes(probe(() -> lagProbe.logSizeBytes(lagProbe.stateTopics())));
+
+			sample.setHeapUsedMb(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / MB);
+			sample.setHeapAfterGcMb(heapAfterGc() / MB);
+			long gcCount = gcCount();
+			long gcMillis = gcMillis();
+			sample.setGcCount(gcCount - lastGcCount);
+			sample.setGcMillis(gcMillis - lastGcMillis);
+			lastGcCount = gcCount;
+			lastGcMillis = gcMillis;
+			sample.setPendingCorrelations(correlationTracker.pendingCount());
+
+			report.add(sample);
+			csv.println(sample.toCsv());
+			csv.flush();
+			log.info("Soak sample {}", sample.toCsv());
+		} catch (Exception ex) {
+			log.warn("Soak sample failed. {}", ex.toString());
+		}
+	}
+
+	private interface Probe {
+		long read() throws Exception;
+	}
+
+	private long probe(Probe probe) {
+		try {
+			return probe.read();
+		} catch (Exception ex) {
+			log.debug("Soak probe failed. {}", ex.toString());
+			return -1L;
+		}
+	}
+
+	private static long heapAfterGc() {
+		long used = 0L;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			MemoryUsage afterGc = pool.getCollectionUsage();
+			if (pool.getType() == MemoryType.HEAP && afterGc != null)
+				used += afterGc.getUsed();
+		}
+		return used;
+	}
+
+	private static long gcCount() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+	}
+
+	private static long gcMillis() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+	}
+}
@@ -0,0 +1,83 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Samples of a soak run and the slow degradation found in them. Each watched metric gets a least squares
+ * line over elapsed time; growth of that line across the run, relative to where it started, above the
+ * threshold is reported as a finding.
+ */
+public class SoakReport extends RunReport<SoakSettings> {
+
+	private final List<SoakSample> samples = new ArrayList<>();
+	private final List<String> findings = new ArrayList<>();
+
+	public SoakReport(SoakSettings settings) {
+		super(settings, RUNNING);
+	}
+
+	synchronized void add(SoakSample sample) {
+		samples.add(sample);
+	}
+
+	synchronized void finish() {
+		findings.clear();
+		check("p99 latency", SoakSample::getP99Millis);
+		check("p99.9 latency", SoakSample::getP999Millis);
+		check("latency tail ratio p99.9/p50", SoakSample::getTailRatio);
+		check("capture lag", SoakSample::getCaptureLag);
+		check("kstream input lag", SoakSample::getKstreamLag);
+		check("state store bytes to restore", SoakSample::getStateStoreBytes);
+		check("harness heap after GC", SoakSample::getHeapAfterGcMb);
+		check("pending correlations", SoakSample::getPendingCorrelations);
+		check("throughput drop", s -> -s.getTps());
+		setState(COMPLETE);
+	}
+
+	private void check(String name, ToDoubleFunction<SoakSample> metric) {
+		SoakSettings settings = getSettings();
+		int first = Math.min(settings.getWarmupSamples(), Math.max(0, samples.size() - 2));
+		List<SoakSample> fitted = samples.subList(first, samples.size());
+		if (fitted.size() < 2)
+			return;
+
+		double n = fitted.size();
+		double sumX = 0.0, sumY = 0.0, sumXY = 0.0, sumXX = 0.0;
+		for (SoakSample sample : fitted) {
+			double x = sample.getElapsedMinutes();
+			double y = metric.applyAsDouble(sample);
+			sumX += x;
+			sumY += y;
+			sumXY += x * y;
+			sumXX += x * x;
+		}
+		double denominator = n * sumXX - sumX * sumX;
+		if (denominator == 0.0)
+			return;
+		double slope = (n * sumXY - sumX * sumY) / denominator;
+		double intercept = (sumY - slope * sumX) / n;
+
+		double startX = fitted.get(0).getElapsedMinutes();
+		double spanMinutes = fitted.get(fitted.size() - 1).getElapsedMinutes() - startX;
+		// against the larger of start level and mean, so metrics that start at zero, like lag, still get a baseline
+		double startLevel = Math.max(Math.abs(intercept + slope * startX), Math.abs(sumY / n));
+		double growth = slope * spanMinutes;
+		double relative = startLevel == 0.0 ? 0.0 : growth / startLevel;
+		if (relative > settings.getGrowthThreshold())
+			findings.add(String.format(Locale.ROOT, "%s grew %.0f%% over %.0f minutes (%.4g per hour)",
+					name, relative * 100.0, spanMinutes, slope * 60.0));
+	}
+
+	public synchronized List<SoakSample> getSamples() {
+		return new ArrayList<>(samples);
+	}
+	public synchronized List<String> getFindings() {
+		return new ArrayList<>(findings);
+	}
+	public synchronized boolean isDegraded() {
+		return !findings.isEmpty();
+	}
+}
@@ -0,0 +1,122 @@
+package qslv.kstream.itest;
+
+import java.util.Locale;
+
+/**
+ * One soak sample window. Latencies are for requests completed inside the window.
+ */
+public class SoakSample {
+	public static final String CSV_HEADER = "elapsedMinutes,tps,p50Millis,p99Millis,p999Millis,maxMillis,"
+			+ "captureLag,kstreamLag,stateStoreBytes,heapUsedMb,heapAfterGcMb,gcCount,gcMillis,pendingCorrelations";
+
+	private double elapsedMinutes;
+	private double tps;
+	private double p50Millis;
+	private double p99Millis;
+	private double p999Millis;
+	private double maxMillis;
+	private long captureLag;
+	private long kstreamLag;
+	private long stateStoreBytes;
+	private double heapUsedMb;
+	private double heapAfterGcMb;
+	private long gcCount;
+	private long gcMillis;
+	private int pendingCorrelations;
+
+	public String toCsv() {
+		return String.format(Locale.ROOT, "%.2f,%.1f,%.3f,%.3f,%.3f,%.3f,%d,%d,%d,%.1f,%.1f,%d,%d,%d",
+				elapsedMinutes, tps, p50Millis, p99Millis, p999Millis, maxMillis,
+				captureLag, kstreamLag, stateStoreBytes, heapUsedMb, heapAfterGcMb, gcCount, gcMillis, pendingCorrelations);
+	}
+
+	public double getTailRatio() {
+		return p50Millis <= 0.0 ? 0.0 : p999Millis / p50Millis;
+	}
+
+	public double getElapsedMinutes() {
+		return elapsedMinutes;
+	}
+	public void setElapsedMinutes(double elapsedMinutes) {
+		this.elapsedMinutes = elapsedMinutes;
+	}
+	public double getTps() {
+		return tps;
+	}
+	public void setTps(double tps) {
+		this.tps = tps;
+	}
+	public double getP50Millis() {
+		return p50Millis;
+	}
+	public void setP50Millis(double p50Millis) {
+		this.p50Millis = p50Millis;
+	}
+	public double getP99Millis() {
+		return p99Millis;
+	}
+	public void setP99Millis(double p99Millis) {
+		this.p99Millis = p99Millis;
+	}
+	public double getP999Millis() {
+		return p999Millis;
+	}
+	public void setP999Millis(double p999Millis) {
+		this.p999Millis = p999Millis;
+	}
+	public double getMaxMillis() {
+		return maxMillis;
+	}
+	public void setMaxMillis(double maxMillis) {
+		this.maxMillis = maxMillis;
+	}
+	public long getCaptureLag() {
+		return captureLag;
+	}
+	public void setCaptureLag(long captureLag) {
+		this.captureLag = captureLag;
+	}
+	public long getKstreamLag() {
+		return kstreamLag;
+	}
+	public void setKstreamLag(long kstreamLag) {
+		this.kstreamLag = kstreamLag;
+	}
+	public long getStateStoreBytes() {
+		return stateStoreBytes;
+	}
+	public void setStateStoreBytes(long stateStoreBytes) {
+		this.stateStoreBytes = stateStoreBytes;
+	}
+	public double getHeapUsedMb() {
+		return heapUsedMb;
+	}
+	public void setHeapUsedMb(double heapUsedMb) {
+		this.heapUsedMb = heapUsedMb;
+	}
+	public double getHeapAfterGcMb() {
+		return heapAfterGcMb;
+	}
+	public void setHeapAfterGcMb(double heapAfterGcMb) {
+		this.heapAfterGcMb = heapAfterGcMb;
+	}
+	public long getGcCount() {
+		return gcCount;
+	}
+	public void setGcCount(long gcCount) {
+		this.gcCount = gcCount;
+	}
+	public long getGcMillis() {
+		return gcMillis;
+	}
+	public void setGcMillis(long gcMillis) {
+		this.gcMillis = gcMillis;
+	}
+	public int getPendingCorrelations() {
+		return pendingCorrelations;
+	}
+	public void setPendingCorrelations(int pendingCorrelations) {
+		this.pendingCorrelations = pendingCorrelations;
+	}
+
+}
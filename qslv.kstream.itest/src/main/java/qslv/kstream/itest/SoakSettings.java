@@ -0,0 +1,54 @@
+package qslv.kstream.itest;
+
+/**
+ * A soak run: a steady load scenario held for hours, sampled every sampleSeconds.
+ * A metric is reported as degrading when its fitted trend grows by more than growthThreshold
+ * (0.25 = 25%) of its starting level across the run. The first warmupSamples are left out of the fit.
+ * A relative outputPath is resolved against qslv.report-dir.
+ */
+public class SoakSettings {
+	private LoadScenario scenario = new LoadScenario();
+	private long durationMinutes = 240L;
+	private long sampleSeconds = 60L;
+	private int warmupSamples = 5;
+	private double growthThreshold = 0.25;
+	private String outputPath = "soak.csv";
+
+	public LoadScenario getScenario() {
+		return scenario;
+	}
+	public void setScenario(LoadScenario scenario) {
+		this.scenario = scenario;
+	}
+	public long getDurationMinutes() {
+		return durationMinutes;
+	}
+	public void setDurationMinutes(long durationMinutes) {
+		this.durationMinutes = durationMinutes;
+	}
+	public long getSampleSeconds() {
+		return sampleSeconds;
+	}
+	public void setSampleSeconds(long sampleSeconds) {
+		this.sampleSeconds = sampleSeconds;
+	}
+	public int getWarmupSamples() {
+		return warmupSamples;
+	}
+	public void setWarmupSamples(int warmupSamples) {
+		this.warmupSamples = warmupSamples;
+	}
+	public double getGrowthThreshold() {
+		return growthThreshold;
+	}
+	public void setGrowthThreshold(double growthThreshold) {
+		this.growthThreshold = growthThreshold;
+	}
+	public String getOutputPath() {
+		return outputPath;
+	}
+	public void setOutputPath(String outputPath) {
+		this.outputPath = outputPath;
+	}
+
+}
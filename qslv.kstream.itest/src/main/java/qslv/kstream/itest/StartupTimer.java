@@ -0,0 +1,54 @@
+package qslv.kstream.itest;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Collects how long the slow parts of startup took and logs them with the total, JVM start to
+ * application ready, so boot time regressions show up in every run's log.
+ *
+ * qslv.startup.millis - Gauge, per phase, "total" for JVM start to ready
+ */
+@Component
+public class StartupTimer {
+	private static final Logger log = LoggerFactory.getLogger(StartupTimer.class);
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	private static final Map<String, Long> phases = new LinkedHashMap<>();
+
+	/**
+	 * Static so beans created before this one, like the embedded broker, can report.
+	 */
+	public static synchronized void record(String phase, long millis) {
+		phases.put(phase, millis);
+	}
+
+	public static synchronized Map<String, Long> getPhases() {
+		return new LinkedHashMap<>(phases);
+	}
+
+	public static long sinceJvmStartMillis() {
+		return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void ready() {
+		record("total", sinceJvmStartMillis());
+		Map<String, Long> snapshot = getPhases();
+		snapshot.forEach((phase, millis) -> Gauge.builder("qslv.startup.millis", () -> millis).tag("phase", phase).register(meterRegistry));
+		log.info("Startup times in ms: {}", snapshot);
+	}
+}
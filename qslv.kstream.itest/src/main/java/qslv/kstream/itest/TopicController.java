@@ -0,0 +1,34 @@
+package qslv.kstream.itest;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * POST /topics/provision          body TopicSettings, partition count per topic afterwards
+ *
+ * The partition sweep is under /topics/sweep, in PartitionSweepController.
+ */
+@RestController
+@RequestMapping("/topics")
+public class TopicController {
+
+	@Autowired
+	TopicProvisioner topicProvisioner;
+	@Autowired
+	HarnessLock harnessLock;
+
+	/**
+	 * Refused while a run holds the harness, since recreating topics wipes them under it.
+	 */
+	@PostMapping("/provision")
+	public Map<String, Integer> provision(@RequestBody TopicSettings settings) throws Exception {
+		try (HarnessLock.Lease lease = harnessLock.acquire("Provision")) {
+			return topicProvisioner.provision(settings);
+		}
+	}
+}
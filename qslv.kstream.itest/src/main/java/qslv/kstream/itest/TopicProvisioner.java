@@ -0,0 +1,109 @@
+package qslv.kstream.itest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.config.TopicConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Creates, grows or recreates every topic in ConfigProperties. Without recreate, existing topics only
+ * get more partitions when asked for more; Kafka cannot take partitions away.
+ */
+@Component
+public class TopicProvisioner {
+	private static final Logger log = LoggerFactory.getLogger(TopicProvisioner.class);
+	private static final long TIMEOUT_SECONDS = 60L;
+
+	@Autowired
+	KafkaLagProbe lagProbe;
+	@Autowired
+	ConfigProperties config;
+
+	/**
+	 * @return partition count of each topic afterwards.
+	 */
+	public Map<String, Integer> provision(TopicSettings settings) throws Exception {
+		AdminClient admin = lagProbe.admin();
+		List<String> topics = config.allTopics();
+		if (settings.isRecreate())
+			delete(admin, topics);
+
+		Set<String> existing = admin.listTopics().names().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		List<NewTopic> create = new ArrayList<>();
+		Map<String, NewPartitions> grow = new HashMap<>();
+		Map<String, TopicDescription> described = existing.isEmpty() ? new HashMap<>()
+				: admin.describeTopics(intersect(topics, existing)).all().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		for (String topic : topics) {
+			int partitions = settings.partitionsFor(topic);
+			TopicDescription description = described.get(topic);
+			if (description == null) {
+				create.add(new NewTopic(topic, partitions, (short) settings.getReplicationFactor()).configs(topicConfigs(settings, topic)));
+			} else if (description.partitions().size() < partitions) {
+				grow.put(topic, NewPartitions.increaseTo(partitions));
+			} else if (description.partitions().size() > partitions) {
+				log.warn("{} has {} partitions, more than the {} asked for; recreate to shrink it",
+						topic, description.partitions().size(), partitions);
+			}
+		}
+		if (!create.isEmpty())
+			admin.createTopics(create).all().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		if (!grow.isEmpty())
+			admin.createPartitions(grow).all().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+		Map<String, Integer> result = new TreeMap<>();
+		admin.describeTopics(topics).all().get(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+				.forEach((topic, description) -> result.put(topic, description.partitions().size()));
+		log.info("Topics provisioned: {}", result);
+		return result;
+	}
+
+	private void delete(AdminClient admin, List<String> topics) throws Exception {
+		Set<String> existing = admin.listTopics().names().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		List<String> doomed = new ArrayList<>(intersect(topics, existing));
+		doomed.addAll(lagProbe.topicsMatching(config.getKstreamApplicationId() + "-", ""));
+		if (doomed.isEmpty())
+			return;
+		log.info("Deleting topics {}", doomed);
+		admin.deleteTopics(doomed).all().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+		// deletion completes asynchronously on the brokers; creating too early fails with TopicExistsException
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+		while (!intersect(doomed, admin.listTopics().names().get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEmpty()) {
+			if (System.currentTimeMillis() > deadline)
+				throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Topics still present after delete: " + doomed);
+			Thread.sleep(250L);
+		}
+	}
+
+	private Map<String, String> topicConfigs(TopicSettings settings, String topic) {
+		Map<String, String> configs = new HashMap<>(settings.getTopicConfigs());
+		List<String> stateTopics = Arrays.asList(config.getAccountTopic(), config.getOverdraftTopic(),
+				config.getBalanceLogStateStoreTopic(), config.getReservationByUuidTopic());
+		if (settings.isCompactStateTopics() && stateTopics.contains(topic))
+			configs.putIfAbsent(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT);
+		return configs;
+	}
+
+	private static List<String> intersect(Collection<String> topics, Collection<String> existing) {
+		List<String> both = new ArrayList<>(topics);
+		both.retainAll(existing);
+		return both;
+	}
+}
@@ -0,0 +1,62 @@
+package qslv.kstream.itest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * How TopicProvisioner lays out the topics named in ConfigProperties. partitions overrides
+ * defaultPartitions per topic name. With compactStateTopics the account, overdraft, balance log and
+ * reservation by uuid topics, which the kstream reads as tables, get cleanup.policy=compact.
+ * topicConfigs is applied to every topic. recreate deletes the topics first, together with the
+ * kstream's internal topics, whose partition counts have to follow the inputs.
+ */
+public class TopicSettings {
+	private int defaultPartitions = 4;
+	private Map<String, Integer> partitions = new HashMap<>();
+	private int replicationFactor = 1;
+	private boolean compactStateTopics = true;
+	private Map<String, String> topicConfigs = new HashMap<>();
+	private boolean recreate = false;
+
+	public int partitionsFor(String topic) {
+		return partitions.getOrDefault(topic, defaultPartitions);
+	}
+
+	public int getDefaultPartitions() {
+		return defaultPartitions;
+	}
+	public void setDefaultPartitions(int defaultPartitions) {
+		this.defaultPartitions = defaultPartitions;
+	}
+	public Map<String, Integer> getPartitions() {
+		return partitions;
+	}
+	public void setPartitions(Map<String, Integer> partitions) {
+		this.partitions = partitions;
+	}
+	public int getReplicationFactor() {
+		return replicationFactor;
+	}
+	public void setReplicationFactor(int replicationFactor) {
+		this.replicationFactor = replicationFactor;
+	}
+	public boolean isCompactStateTopics() {
+		return compactStateTopics;
+	}
+	public void setCompactStateTopics(boolean compactStateTopics) {
+		this.compactStateTopics = compactStateTopics;
+	}
+	public Map<String, String> getTopicConfigs() {
+		return topicConfigs;
+	}
+	public void setTopicConfigs(Map<String, String> topicConfigs) {
+		this.topicConfigs = topicConfigs;
+	}
+	public boolean isRecreate() {
+		return recreate;
+	}
+	public void setRecreate(boolean recreate) {
+		this.recreate = recreate;
+	}
+
+}
@@ -0,0 +1,110 @@
+package qslv.kstream.itest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import qslv.common.kafka.TraceableMessage;
+import qslv.kstream.LoggedTransaction;
+
+/**
+ * Reads a range of the transaction log and checks it against the postings the harness was told about.
+ * A transaction uuid, or a request uuid with the same transaction type, written more than once is a
+ * duplicate; a transaction in a successful response that never reached the log is missing.
+ */
+@Component
+public class TransactionLogAuditor {
+	private static final Logger log = LoggerFactory.getLogger(TransactionLogAuditor.class);
+	private static final long READ_TIMEOUT_SECONDS = 120L;
+
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	ConsumerFactory<String, TraceableMessage<LoggedTransaction>> loggedTransactionConsumerFactory;
+
+	public static class Audit {
+		private long logged;
+		private long duplicateTransactions;
+		private long duplicateRequests;
+		private long missing;
+
+		public long getLogged() {
+			return logged;
+		}
+		public long getDuplicateTransactions() {
+			return duplicateTransactions;
+		}
+		public long getDuplicateRequests() {
+			return duplicateRequests;
+		}
+		public long getMissing() {
+			return missing;
+		}
+		public boolean isClean() {
+			return duplicateTransactions == 0L && duplicateRequests == 0L && missing == 0L;
+		}
+	}
+
+	/**
+	 * @param from offsets to start at, as read from KafkaLagProbe.endOffsets before the run.
+	 * @param to offsets to stop at, read once the run has drained.
+	 * @param expected transaction uuids from successful responses; they must all be on the log.
+	 */
+	public Audit audit(Map<TopicPartition, Long> from, Map<TopicPartition, Long> to, Set<UUID> expected) {
+		Audit audit = new Audit();
+		Set<UUID> transactions = new HashSet<>();
+		Set<String> requests = new HashSet<>();
+		Set<TopicPartition> remaining = new HashSet<>();
+		for (Map.Entry<TopicPartition, Long> end : to.entrySet()) {
+			if (end.getValue() > from.getOrDefault(end.getKey(), 0L))
+				remaining.add(end.getKey());
+		}
+
+		try (Consumer<String, TraceableMessage<LoggedTransaction>> consumer =
+				loggedTransactionConsumerFactory.createConsumer("kstream.itest.auditor", "auditor", null)) {
+			consumer.assign(new ArrayList<>(remaining));
+			for (TopicPartition partition : remaining) {
+				consumer.seek(partition, from.getOrDefault(partition, 0L));
+			}
+			long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(READ_TIMEOUT_SECONDS);
+			while (!remaining.isEmpty() && System.currentTimeMillis() < deadline) {
+				for (ConsumerRecord<String, TraceableMessage<LoggedTransaction>> record : consumer.poll(Duration.ofMillis(500))) {
+					TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+					if (record.offset() >= to.get(partition))
+						continue;
+					LoggedTransaction transaction = record.value().getPayload();
+					audit.logged++;
+					if (!transactions.add(transaction.getTransactionUuid()))
+						audit.duplicateTransactions++;
+					if (transaction.getRequestUuid() != null
+							&& !requests.add(transaction.getRequestUuid() + "/" + transaction.getTransactionTypeCode()))
+						audit.duplicateRequests++;
+				}
+				// the last offsets may be transaction markers, which poll() never returns; the position still passes them
+				remaining.removeIf(partition -> consumer.position(partition) >= to.get(partition));
+			}
+			if (!remaining.isEmpty())
+				log.warn("Transaction log audit did not reach the end of {}", remaining);
+		}
+		for (UUID uuid : expected) {
+			if (!transactions.contains(uuid))
+				audit.missing++;
+		}
+		log.info("Transaction log audit. logged={} duplicateTransactions={} duplicateRequests={} missing={}",
+				audit.logged, audit.duplicateTransactions, audit.duplicateRequests, audit.missing);
+		return audit;
+	}
+}
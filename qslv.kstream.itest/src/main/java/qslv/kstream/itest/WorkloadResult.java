@@ -0,0 +1,61 @@
+package qslv.kstream.itest;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Throughput and latency of the measured window of a WorkloadRunner run. Latencies in milliseconds.
+ */
+public class WorkloadResult {
+	private double targetTps;
+	private double achievedTps;
+	private long sent;
+	private long completed;
+	private long failed;
+	private double p50Millis;
+	private double p99Millis;
+	private double p999Millis;
+	private double maxMillis;
+
+	static WorkloadResult of(double targetTps, long measureMillis, long sent, long failed, Histogram window) {
+		WorkloadResult result = new WorkloadResult();
+		result.targetTps = targetTps;
+		result.sent = sent;
+		result.failed = failed;
+		result.completed = window.getTotalCount();
+		result.achievedTps = result.completed * 1000.0 / Math.max(1L, measureMillis);
+		result.p50Millis = window.getValueAtPercentile(50.0) / 1000.0;
+		result.p99Millis = window.getValueAtPercentile(99.0) / 1000.0;
+		result.p999Millis = window.getValueAtPercentile(99.9) / 1000.0;
+		result.maxMillis = window.getMaxValue() / 1000.0;
+		return result;
+	}
+
+	public double getTargetTps() {
+		return targetTps;
+	}
+	public double getAchievedTps() {
+		return achievedTps;
+	}
+	public long getSent() {
+		return sent;
+	}
+	public long getCompleted() {
+		return completed;
+	}
+	public long getFailed() {
+		return failed;
+	}
+	public double getP50Millis() {
+		return p50Millis;
+	}
+	public double getP99Millis() {
+		return p99Millis;
+	}
+	public double getP999Millis() {
+		return p999Millis;
+	}
+	public double getMaxMillis() {
+		return maxMillis;
+	}
+
+}
@@ -0,0 +1,68 @@
+package qslv.kstream.itest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs one LoadScenario for warmupSeconds plus measureSeconds and summarizes only the measured part,
+ * so sweeps that change something between runs compare like with like.
+ */
+@Component
+public class WorkloadRunner {
+
+	@Autowired
+	LoadRunner loadRunner;
+
+	/**
+	 * @param within lease of the sweep driving the measurement, or null to take the HarnessLock for it alone.
+	 */
+	public WorkloadResult measure(LoadScenario scenario, long warmupSeconds, long measureSeconds, HarnessLock.Lease within)
+			throws InterruptedException {
+		long warmupMillis = TimeUnit.SECONDS.toMillis(warmupSeconds);
+		Histogram window = new Histogram(3);
+		AtomicReference<LoadStatistics.Snapshot> atWarmup = new AtomicReference<>();
+		AtomicReference<LoadStatistics.Snapshot> last = new AtomicReference<>();
+		Consumer<LoadStatistics.Snapshot> recorder = snapshot -> {
+			if (snapshot.getElapsedMillis() < warmupMillis)
+				return;
+			synchronized (window) {
+				if (atWarmup.get() == null)
+					atWarmup.set(snapshot);
+				else
+					window.add(snapshot.getIntervalHistogram());
+				last.set(snapshot);
+			}
+		};
+
+		scenario.setDurationSeconds(warmupSeconds + measureSeconds);
+		loadRunner.addStatsListener(recorder);
+		try {
+			loadRunner.start(scenario, within);
+			try {
+				while (loadRunner.getState() != LoadRunner.State.IDLE) {
+					Thread.sleep(500L);
+				}
+			} finally {
+				loadRunner.stop(within);
+			}
+		} finally {
+			loadRunner.removeStatsListener(recorder);
+		}
+		if (loadRunner.getFailure() != null)
+			throw new IllegalStateException("Load run failed. " + loadRunner.getFailure());
+
+		synchronized (window) {
+			LoadStatistics.Snapshot first = atWarmup.get();
+			LoadStatistics.Snapshot end = last.get();
+			if (first == null || end == null)
+				return WorkloadResult.of(scenario.getTargetTps(), 0L, 0L, 0L, window);
+			return WorkloadResult.of(scenario.getTargetTps(), end.getElapsedMillis() - first.getElapsedMillis(),
+					end.getSent() - first.getSent(), end.getFailed() - first.getFailed(), window);
+		}
+	}
+}